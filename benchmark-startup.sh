@@ -0,0 +1,66 @@
+#!/bin/bash
+
+# Gym CRM Backend Startup Benchmark
+#
+# Starts the packaged app several times per variant and reports the time until it is
+# started (Flyway, Hibernate validation and the web server included).
+# Build first with: ./mvnw -Pprod package -DskipTests
+# Uses the database from DB_URL / DB_USERNAME / DB_PASSWORD like a normal start.
+#
+# Usage: ./benchmark-startup.sh [runs]
+
+RUNS=${1:-5}
+CDS_DIR=target/cds
+JAR=gym-crm-backend-1.0.0.jar
+
+echo "⏱️  Gym CRM Backend startup benchmark ($RUNS runs per variant)"
+echo "======================================"
+
+if [ ! -f "$CDS_DIR/$JAR" ] || [ ! -f "$CDS_DIR/application.jsa" ]; then
+    echo "❌ $CDS_DIR not found. Run ./mvnw -Pprod package -DskipTests first."
+    exit 1
+fi
+
+# Start the app, wait for "Started GymBackendApplication in 3.21 seconds (process running
+# for 3.67)", stop it again and print the process time (3.67); nothing if it did not start
+startup_seconds() {
+    local log
+    log=$(mktemp)
+    java "$@" -jar "$JAR" --spring.profiles.active=prod --server.port=0 > "$log" 2>&1 &
+    local pid=$!
+    for ((s = 0; s < 1200; s++)); do
+        if grep -q "Started GymBackendApplication" "$log" || ! kill -0 "$pid" 2> /dev/null; then
+            break
+        fi
+        sleep 0.1
+    done
+    kill "$pid" 2> /dev/null
+    wait "$pid" 2> /dev/null
+    sed -n 's/.*Started GymBackendApplication in .* (process running for \([0-9.]*\)).*/\1/p' "$log"
+    rm -f "$log"
+}
+
+benchmark() {
+    local name=$1
+    shift
+    local times=()
+    for ((i = 1; i <= RUNS; i++)); do
+        local t
+        t=$(startup_seconds "$@")
+        if [ -z "$t" ]; then
+            echo "❌ $name: the application did not start (run it without the benchmark to see why)"
+            return
+        fi
+        times+=("$t")
+    done
+    printf '%s\n' "${times[@]}" | sort -n | awk -v name="$name" '
+        { t[NR] = $1; sum += $1 }
+        END { printf "%-22s min %6.2fs   median %6.2fs   mean %6.2fs\n", name, t[1], t[int((NR + 1) / 2)], sum / NR }'
+}
+
+cd "$CDS_DIR" || exit 1
+
+benchmark "JIT"                  -Dspring.main.lazy-initialization=false
+benchmark "JIT + lazy init"
+benchmark "CDS + lazy init"      -XX:SharedArchiveFile=application.jsa
+benchmark "CDS + AOT + lazy init" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true
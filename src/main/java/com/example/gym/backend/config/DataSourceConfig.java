@@ -0,0 +1,72 @@
+package com.example.gym.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * OLTP + reporting connection pools behind a workload routing DataSource.
+ *
+ * The OLTP pool (spring.datasource.hikari) serves check-ins, payments and everything
+ * else; {@link ReportingWorkload} calls get the reporting pool (app.datasource.reporting),
+ * which points at the same database unless DB_REPORTING_URL says otherwise. With
+ * app.datasource.replica.enabled, OLTP work goes through the replica routing first.
+ * Both pools are Hikari beans, so they get the usual hikaricp.* metrics, including
+ * hikaricp.connections.acquire and hikaricp.connections.timeout, tagged pool=oltp /
+ * pool=reporting.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource oltpDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("oltp");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.reporting.hikari")
+    public HikariDataSource reportingDataSource(DataSourceProperties properties,
+                                                @Value("${app.datasource.reporting.url}") String url,
+                                                @Value("${app.datasource.reporting.username:}") String username,
+                                                @Value("${app.datasource.reporting.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("reporting");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("oltpDataSource") HikariDataSource oltpPool,
+                                 @Qualifier("reportingDataSource") DataSource reporting,
+                                 ObjectProvider<ReplicaRoutingDataSource> replicaRouting,
+                                 @Value("${app.datasource.oltp.max-waiting:20}") int maxWaiting,
+                                 MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource replica = replicaRouting.getIfAvailable();
+        DataSource oltp = replica != null ? replica : oltpPool;
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(
+                oltp, oltpPool, reporting, maxWaiting, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.gym.backend.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring Boot registers every Module bean with the application ObjectMapper.
+ * Blackbird replaces reflective getter calls with generated lambdas, which matters
+ * on the large list endpoints (members, memberships, users).
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
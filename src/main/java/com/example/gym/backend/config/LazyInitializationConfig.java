@@ -0,0 +1,50 @@
+package com.example.gym.backend.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Beans that stay eager when spring.main.lazy-initialization=true (prod profile).
+ *
+ * Everything else is created on first use, which takes it off the startup path.
+ * The exceptions: the connection pools, Flyway and the EntityManagerFactory, so
+ * migrations and entity validation still run before the app reports ready, and
+ * every bean with {@code @Scheduled} methods, which are only registered once the
+ * bean exists.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    private static final List<Class<?>> EAGER_TYPES = List.of(
+            DataSource.class,
+            Flyway.class,
+            FlywayMigrationInitializer.class,
+            AbstractEntityManagerFactoryBean.class);
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerInfrastructureAndJobs() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (EAGER_TYPES.stream().anyMatch(type -> type.isAssignableFrom(beanType))
+                || hasScheduledMethods(beanType));
+    }
+
+    static boolean hasScheduledMethods(Class<?> beanType) {
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(ClassUtils.getUserClass(beanType),
+                method -> found.set(true),
+                method -> !found.get() && AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+        return found.get();
+    }
+}
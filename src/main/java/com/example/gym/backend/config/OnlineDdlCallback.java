@@ -0,0 +1,66 @@
+package com.example.gym.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Guards schema migrations against locking large tables on MySQL.
+ *
+ * Index changes in db/migration are written with ALGORITHM=INPLACE, LOCK=NONE, so MySQL
+ * rejects them instead of silently falling back to a table copy. An online ALTER still
+ * needs a short metadata lock; a low lock_wait_timeout makes it fail fast behind a
+ * long-running query rather than queue every request to the table behind it.
+ * Spring Boot registers Callback beans with Flyway automatically.
+ */
+@Component
+@Slf4j
+public class OnlineDdlCallback implements Callback {
+
+    private final int lockWaitTimeoutSeconds;
+
+    public OnlineDdlCallback(@Value("${app.flyway.lock-wait-timeout-seconds:5}") int lockWaitTimeoutSeconds) {
+        this.lockWaitTimeoutSeconds = lockWaitTimeoutSeconds;
+    }
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.BEFORE_EACH_MIGRATE && isMySql(context);
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        try (Statement statement = context.getConnection().createStatement()) {
+            statement.execute("SET SESSION lock_wait_timeout = " + lockWaitTimeoutSeconds);
+        } catch (SQLException e) {
+            throw new FlywayException("Could not set lock_wait_timeout before migration", e);
+        }
+        log.debug("Migrating {} with lock_wait_timeout={}s",
+                context.getMigrationInfo().getVersion(), lockWaitTimeoutSeconds);
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "online-ddl";
+    }
+
+    private boolean isMySql(Context context) {
+        try {
+            return context.getConnection().getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.gym.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Remembers which users committed a write recently, so their reads stay on the
+ * primary until the replica has had time to catch up.
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window, long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    public void markWrite(String username) {
+        recentWriters.put(username, Boolean.TRUE);
+    }
+
+    public boolean recentlyWrote(String username) {
+        return recentWriters.getIfPresent(username) != null;
+    }
+}
@@ -1,30 +1,34 @@
-// package com.example.gym.backend.config;
+package com.example.gym.backend.config;
 
-// import org.springframework.context.annotation.Bean;
-// import org.springframework.context.annotation.Configuration;
-// import org.springframework.data.redis.connection.RedisConnectionFactory;
-// import org.springframework.data.redis.core.RedisTemplate;
-// import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
-// import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 
-// @Configuration
-// public class RedisConfig {
+/**
+ * Only active when Redis is selected as the token store (app.token-store.type=redis).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.token-store.type", havingValue = "redis")
+public class RedisConfig {
 
-//     @Bean
-//     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
-//         RedisTemplate<String, Object> template = new RedisTemplate<>();
-//         template.setConnectionFactory(connectionFactory);
+    @Bean
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
         
-//         // Use String serializer for keys
-//         template.setKeySerializer(new StringRedisSerializer());
-//         template.setHashKeySerializer(new StringRedisSerializer());
+        // Use String serializer for keys
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setHashKeySerializer(new StringRedisSerializer());
         
-//         // Use JSON serializer for values
-//         template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
-//         template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        // Use JSON serializer for values
+        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
         
-//         template.afterPropertiesSet();
-//         return template;
-//     }
-// }
-
+        template.afterPropertiesSet();
+        return template;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.gym.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read replica connection pool and the routing between it and the OLTP pool.
+ *
+ * Only active when app.datasource.replica.enabled=true; DataSourceConfig then sends
+ * OLTP work through the routing instead of straight to the OLTP pool. The replica pool
+ * is a Hikari bean, so it gets the usual hikaricp.* metrics tagged pool=replica.
+ *
+ * Hibernate hands its connection back after every transaction here instead of holding
+ * it for the whole session. With open-in-view the session lives as long as the request,
+ * so a held connection would keep the route of the request's first transaction, and the
+ * write after getCurrentUser()'s read-only lookup would land on the replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:}") String username,
+                                              @Value("${app.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${app.datasource.replica.sticky-window-ms:5000}") long stickyWindowMillis,
+            @Value("${app.datasource.replica.sticky-max-users:100000}") long maxUsers) {
+        return new ReadYourWritesTracker(Duration.ofMillis(stickyWindowMillis), maxUsers);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("oltpDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${app.datasource.replica.max-lag-ms:5000}") long maxLagMillis,
+                                               MeterRegistry meterRegistry) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primary, replica, Duration.ofMillis(maxLagMillis));
+        Gauge.builder("datasource.replica.lag.seconds", monitor, ReplicaLagMonitor::getLagSeconds)
+                .description("Replication lag measured with the heartbeat row (NaN when unknown)")
+                .register(meterRegistry);
+        return monitor;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("oltpDataSource") DataSource primary,
+                                                             @Qualifier("replicaDataSource") DataSource replica,
+                                                             ReadYourWritesTracker writesTracker,
+                                                             ReplicaLagMonitor lagMonitor,
+                                                             MeterRegistry meterRegistry) {
+        return new ReplicaRoutingDataSource(primary, replica, writesTracker, lagMonitor, meterRegistry);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.gym.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Measures replica lag with a heartbeat row: the current time is written to the
+ * primary and read back from the replica. The replica is only used while the
+ * measured lag is within the configured bound; until the first successful check,
+ * or when the replica cannot be reached, reads fall back to the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final int HEARTBEAT_ID = 1;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+
+    private volatile long lagMillis = Long.MAX_VALUE;
+    private volatile boolean replicaReachable = true;
+
+    public ReplicaLagMonitor(DataSource primaryDataSource, DataSource replicaDataSource, Duration maxLag) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.heartbeat-interval-ms:1000}")
+    public void heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            Timestamp beat = Timestamp.valueOf(now);
+            if (primary.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = ?", beat, HEARTBEAT_ID) == 0) {
+                primary.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (?, ?)", HEARTBEAT_ID, beat);
+            }
+        } catch (RuntimeException e) {
+            log.debug("Could not write replica heartbeat: {}", e.getMessage());
+        }
+        measure(now);
+    }
+
+    void measure(LocalDateTime now) {
+        try {
+            List<Timestamp> beats = replica.queryForList(
+                    "SELECT beat_at FROM replica_heartbeat WHERE id = ?", Timestamp.class, HEARTBEAT_ID);
+            lagMillis = beats.isEmpty() || beats.get(0) == null
+                    ? Long.MAX_VALUE
+                    : Math.max(0, Duration.between(beats.get(0).toLocalDateTime(), now).toMillis());
+            if (!replicaReachable) {
+                log.info("Read replica reachable again, lag {} ms", lagMillis);
+            }
+            replicaReachable = true;
+        } catch (RuntimeException e) {
+            if (replicaReachable) {
+                log.warn("Read replica unreachable, routing reads to primary: {}", e.getMessage());
+            }
+            replicaReachable = false;
+            lagMillis = Long.MAX_VALUE;
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaReachable && lagMillis <= maxLagMillis;
+    }
+
+    public double getLagSeconds() {
+        return lagMillis == Long.MAX_VALUE ? Double.NaN : lagMillis / 1000.0;
+    }
+}
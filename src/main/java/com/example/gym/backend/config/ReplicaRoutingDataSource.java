@@ -0,0 +1,101 @@
+package com.example.gym.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Routes read-only transactions to the replica and everything else to the primary.
+ *
+ * Reads stay on the primary for a user who committed a write within the stickiness
+ * window, and for everyone while the replica lags beyond its bound. Must sit behind
+ * a {@code LazyConnectionDataSourceProxy} so the connection is fetched after the
+ * transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReadYourWritesTracker writesTracker;
+    private final ReplicaLagMonitor lagMonitor;
+
+    private final Counter writeRoute;
+    private final Counter stickyRoute;
+    private final Counter lagRoute;
+    private final Counter replicaRoute;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+                                    ReadYourWritesTracker writesTracker,
+                                    ReplicaLagMonitor lagMonitor,
+                                    MeterRegistry meterRegistry) {
+        this.writesTracker = writesTracker;
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+
+        this.writeRoute = routeCounter(meterRegistry, Route.PRIMARY, "write");
+        this.stickyRoute = routeCounter(meterRegistry, Route.PRIMARY, "sticky");
+        this.lagRoute = routeCounter(meterRegistry, Route.PRIMARY, "lag");
+        this.replicaRoute = routeCounter(meterRegistry, Route.REPLICA, "read");
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, Route route, String reason) {
+        return Counter.builder("datasource.route")
+                .tag("route", route.name().toLowerCase())
+                .tag("reason", reason)
+                .description("Connections handed out per routing decision")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = currentUsername();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriteOnCommit(username);
+            writeRoute.increment();
+            return Route.PRIMARY;
+        }
+        if (username != null && writesTracker.recentlyWrote(username)) {
+            stickyRoute.increment();
+            return Route.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            lagRoute.increment();
+            return Route.PRIMARY;
+        }
+        replicaRoute.increment();
+        return Route.REPLICA;
+    }
+
+    private void rememberWriteOnCommit(String username) {
+        if (username == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                writesTracker.markWrite(username);
+            }
+        });
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.gym.backend.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method (or every method of the annotated class) on the reporting
+ * connection pool instead of the OLTP pool, so stats, dashboards and exports cannot
+ * take connections the front desk needs.
+ *
+ * Put it on the outermost call, typically the controller method: a transaction that
+ * already holds an OLTP connection keeps it.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReportingWorkload {
+}
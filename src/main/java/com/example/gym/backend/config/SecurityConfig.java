@@ -1,8 +1,12 @@
 package com.example.gym.backend.config;
 
+import com.example.gym.backend.security.BoundedPasswordEncoder;
 import com.example.gym.backend.security.JwtAuthenticationEntryPoint;
 import com.example.gym.backend.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,8 +17,8 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -35,7 +39,8 @@ public class SecurityConfig {
     private final UserDetailsService userDetailsService;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   AuthenticationProvider authenticationProvider) throws Exception {
 
         http
             .csrf(csrf -> csrf.disable())
@@ -51,20 +56,26 @@ public class SecurityConfig {
                     .requestMatchers("/gym/membership_plans/active").permitAll()
                     .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                     .requestMatchers("/actuator/health").permitAll()
+                    // Completion of an already authorized streaming response (SSE), which carries no token
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                     // All others require JWT authentication
                     .anyRequest().authenticated()
             )
-            .authenticationProvider(authenticationProvider())
+            .authenticationProvider(authenticationProvider)
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Re-hash on successful login when the stored BCrypt cost differs from the configured one
+        if (userDetailsService instanceof UserDetailsPasswordService passwordService) {
+            authProvider.setUserDetailsPasswordService(passwordService);
+        }
         return authProvider;
     }
 
@@ -73,9 +84,18 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * BCrypt runs on a dedicated CPU-sized pool so a login storm cannot monopolize
+     * request threads; saturation is answered with a fast 503.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.password.bcrypt-strength:10}") int strength,
+            @Value("${app.password.hash-pool-size:0}") int poolSize,
+            @Value("${app.password.hash-queue-capacity:64}") int queueCapacity,
+            @Value("${app.password.hash-timeout-ms:5000}") long timeoutMillis,
+            MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(strength, poolSize, queueCapacity, timeoutMillis, meterRegistry);
     }
 
     @Bean
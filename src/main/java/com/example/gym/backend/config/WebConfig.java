@@ -1,13 +1,19 @@
 package com.example.gym.backend.config;
 
+import com.example.gym.backend.security.RateLimitInterceptor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final RateLimitInterceptor rateLimitInterceptor;
+
     @Value("${app.cors.allowed-origins:http://localhost:3000,http://127.0.0.1:3000}")
     private String allowedOrigins;
 
@@ -24,6 +30,12 @@ public class WebConfig implements WebMvcConfigurer {
                 .maxAge(3600);
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Error dispatches of a request were already counted when it was admitted
+        registry.addInterceptor(rateLimitInterceptor).excludePathPatterns("/error");
+    }
+
     /**
      * Convert comma-separated origins to Spring's allowedOriginPatterns format
      * Supports patterns like "http://*.example.com" or exact URLs
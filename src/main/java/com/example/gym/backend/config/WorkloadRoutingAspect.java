@@ -0,0 +1,31 @@
+package com.example.gym.backend.config;
+
+import com.example.gym.backend.config.WorkloadRoutingDataSource.Workload;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks {@link ReportingWorkload} calls for {@link WorkloadRoutingDataSource}.
+ * Ordered first, so the workload is set before a {@code @Transactional} on the same
+ * method opens its transaction.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WorkloadRoutingAspect {
+
+    @Around("@within(com.example.gym.backend.config.ReportingWorkload) "
+            + "|| @annotation(com.example.gym.backend.config.ReportingWorkload)")
+    public Object runAsReporting(ProceedingJoinPoint joinPoint) throws Throwable {
+        Workload previous = WorkloadRoutingDataSource.enter(Workload.REPORTING);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadRoutingDataSource.restore(previous);
+        }
+    }
+}
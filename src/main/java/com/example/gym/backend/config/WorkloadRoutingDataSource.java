@@ -0,0 +1,117 @@
+package com.example.gym.backend.config;
+
+import com.example.gym.backend.exception.ServiceBusyException;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+
+/**
+ * Routes connections to the OLTP or the reporting pool by the workload of the current
+ * thread ({@link ReportingWorkload}); OLTP unless marked otherwise.
+ *
+ * Web requests on the OLTP pool are shed with {@link ServiceBusyException} (HTTP 503)
+ * instead of queueing: up front when every connection is busy and {@code maxWaiting}
+ * requests already wait for one, and when the pool's connection timeout runs out.
+ * Background jobs are never shed. Must sit behind a {@code LazyConnectionDataSourceProxy}
+ * so transactions that never touch the database do not take a connection.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Workload {
+        OLTP, REPORTING
+    }
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private final HikariDataSource oltpPool;
+    private final int maxWaiting;
+
+    private final Counter saturatedShed;
+    private final Counter timeoutShed;
+
+    /**
+     * @param oltp       target for OLTP work (the OLTP pool, or the replica routing on top of it)
+     * @param oltpPool   the OLTP pool, watched for saturation
+     * @param maxWaiting requests allowed to wait for an OLTP connection before new ones are shed
+     */
+    public WorkloadRoutingDataSource(DataSource oltp, HikariDataSource oltpPool, DataSource reporting,
+                                     int maxWaiting, MeterRegistry meterRegistry) {
+        this.oltpPool = oltpPool;
+        this.maxWaiting = maxWaiting;
+        setTargetDataSources(Map.of(Workload.OLTP, oltp, Workload.REPORTING, reporting));
+        setDefaultTargetDataSource(oltp);
+
+        this.saturatedShed = shedCounter(meterRegistry, "saturated");
+        this.timeoutShed = shedCounter(meterRegistry, "timeout");
+    }
+
+    private static Counter shedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("datasource.pool.shed")
+                .tag("pool", "oltp")
+                .tag("reason", reason)
+                .description("Requests rejected with 503 instead of waiting for an OLTP connection")
+                .register(meterRegistry);
+    }
+
+    public static Workload currentWorkload() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : Workload.OLTP;
+    }
+
+    /**
+     * Switch the current thread to {@code workload}.
+     * @return the previous workload, to hand back to {@link #restore}
+     */
+    public static Workload enter(Workload workload) {
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    public static void restore(Workload previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentWorkload();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (currentWorkload() != Workload.OLTP || RequestContextHolder.getRequestAttributes() == null) {
+            return super.getConnection();
+        }
+        if (isOltpPoolSaturated()) {
+            saturatedShed.increment();
+            throw new ServiceBusyException("Too many requests waiting for the database, please retry shortly");
+        }
+        try {
+            return super.getConnection();
+        } catch (SQLTransientConnectionException e) {
+            timeoutShed.increment();
+            throw new ServiceBusyException("Timed out waiting for the database, please retry shortly");
+        }
+    }
+
+    private boolean isOltpPoolSaturated() {
+        HikariPoolMXBean pool = oltpPool.getHikariPoolMXBean();
+        return pool != null
+                && pool.getIdleConnections() == 0
+                && pool.getTotalConnections() >= oltpPool.getMaximumPoolSize()
+                && pool.getThreadsAwaitingConnection() >= maxWaiting;
+    }
+}
@@ -1,9 +1,16 @@
 package com.example.gym.backend.controller;
 
+import com.example.gym.backend.config.ReportingWorkload;
 import com.example.gym.backend.dto.AttendanceDto;
+import com.example.gym.backend.dto.CheckInSyncResult;
+import com.example.gym.backend.dto.QrCheckInDto;
+import com.example.gym.backend.dto.QrCodeDto;
+import com.example.gym.backend.dto.QrKioskKeysDto;
 import com.example.gym.backend.entity.User;
 import com.example.gym.backend.repository.UserRepository;
 import com.example.gym.backend.service.AttendanceService;
+import com.example.gym.backend.service.OccupancyHub;
+import com.example.gym.backend.service.QrCheckInService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -11,11 +18,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -30,6 +39,8 @@ import java.util.Map;
 public class AttendanceController {
 
     private final AttendanceService attendanceService;
+    private final QrCheckInService qrCheckInService;
+    private final OccupancyHub occupancyHub;
     private final UserRepository userRepository;
 
     /**
@@ -56,6 +67,53 @@ public class AttendanceController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Check-in with a scanned member code instead of a user id; 400 if the code is forged, expired or for another gym
+     */
+    @PostMapping("/check-in/qr")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'RECEPTIONIST')")
+    public ResponseEntity<AttendanceDto> checkInWithQr(
+            @PathVariable Long gymId,
+            @RequestBody QrCheckInDto request
+    ) {
+        log.info("QR check-in at gym {}", gymId);
+        return ResponseEntity.ok(qrCheckInService.checkIn(getCurrentUser(), gymId, request));
+    }
+
+    /**
+     * Check-ins a kiosk queued while offline; stores the valid ones and reports the others by index
+     */
+    @PostMapping("/check-in/sync")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'RECEPTIONIST')")
+    public ResponseEntity<CheckInSyncResult> syncOfflineCheckIns(
+            @PathVariable Long gymId,
+            @RequestBody List<QrCheckInDto> checkIns
+    ) {
+        log.info("Syncing {} offline check-ins at gym {}", checkIns.size(), gymId);
+        return ResponseEntity.ok(qrCheckInService.syncOfflineCheckIns(getCurrentUser(), gymId, checkIns));
+    }
+
+    /**
+     * The member's rotating check-in code, shown as a QR code by the member app
+     */
+    @GetMapping("/qr-code/{userId}")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'RECEPTIONIST', 'MEMBER')")
+    public ResponseEntity<QrCodeDto> getQrCode(
+            @PathVariable Long gymId,
+            @PathVariable Long userId
+    ) {
+        return ResponseEntity.ok(qrCheckInService.issueCode(getCurrentUser(), gymId, userId));
+    }
+
+    /**
+     * Keys for a kiosk to verify this gym's codes offline
+     */
+    @GetMapping("/qr-keys")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'RECEPTIONIST')")
+    public ResponseEntity<QrKioskKeysDto> getKioskKeys(@PathVariable Long gymId) {
+        return ResponseEntity.ok(qrCheckInService.getKioskKeys(getCurrentUser(), gymId));
+    }
+
     @PostMapping("/check-out/{userId}")
     // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'RECEPTIONIST')")
     public ResponseEntity<AttendanceDto> checkOut(
@@ -107,7 +165,18 @@ public class AttendanceController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Occupancy pushed as Server-Sent Events ("occupancy" events plus heartbeat comments),
+     * for screens that would otherwise poll /currently-present and /statistics
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'RECEPTIONIST')")
+    public SseEmitter streamOccupancy(@PathVariable Long gymId) {
+        return occupancyHub.subscribe(getCurrentUser(), gymId);
+    }
+
     @GetMapping("/statistics")
+    @ReportingWorkload
     // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'RECEPTIONIST')")
     public ResponseEntity<Map<String, Object>> getStatistics(
             @PathVariable Long gymId,
@@ -121,6 +190,7 @@ public class AttendanceController {
     }
 
     @GetMapping("/weekly")
+    @ReportingWorkload
     // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'RECEPTIONIST')")
     public ResponseEntity<Map<String, Long>> getWeeklyAttendance(
             @PathVariable Long gymId
@@ -130,6 +200,7 @@ public class AttendanceController {
     }
 
     @GetMapping("/date-range")
+    @ReportingWorkload
     // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'RECEPTIONIST', 'TRAINER', 'MEMBER')")
     public ResponseEntity<Page<AttendanceDto>> getAttendanceByDateRange(
             @PathVariable Long gymId,
@@ -161,6 +232,7 @@ public class AttendanceController {
     }
 
     @GetMapping("/summary")
+    @ReportingWorkload
     // @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER', 'RECEPTIONIST')")
     public ResponseEntity<Map<String, Object>> getAttendenceSummary(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
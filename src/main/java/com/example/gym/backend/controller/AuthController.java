@@ -4,13 +4,17 @@ import com.example.gym.backend.dto.AuthRequestDto;
 import com.example.gym.backend.dto.AuthResponseDto;
 import com.example.gym.backend.dto.RegisterUserDto;
 import com.example.gym.backend.entity.User;
+import com.example.gym.backend.security.JwtUtil;
 import com.example.gym.backend.service.AuthService;
-// import com.example.gym.backend.service.RedisTokenService;
+import com.example.gym.backend.service.TokenStore;
 import com.example.gym.backend.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -23,7 +27,8 @@ public class AuthController {
 
     private final AuthService authService;
     private final UserService userService;
-    // private final RedisTokenService redisTokenService;
+    private final TokenStore tokenStore;
+    private final JwtUtil jwtUtil;
 
     @PostMapping("/register")
     public ResponseEntity<User> register(@Valid @RequestBody RegisterUserDto dto) {
@@ -53,57 +58,79 @@ public class AuthController {
         return ResponseEntity.ok().build();
     }
 
-    // Redis Token Management Endpoints for Mobile App
-    // @PostMapping("/store-token")
-    // public ResponseEntity<Map<String, String>> storeToken(
-    //         @RequestParam String username,
-    //         @RequestParam String tokenType,
-    //         @RequestParam String token) {
-    //     log.info("Storing {} token for user: {}", tokenType, username);
+    // Token Management Endpoints for Mobile App
+    // /gym/auth/** is public, so each endpoint checks the bearer belongs to {username}
+    @PostMapping("/store-token")
+    public ResponseEntity<Map<String, String>> storeToken(
+            @RequestParam String username,
+            @RequestParam String tokenType,
+            @RequestParam String token) {
+        log.info("Storing {} token for user: {}", tokenType, username);
+        if (!isCallerOrSuperUser(username)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         
-    //     if ("access".equals(tokenType)) {
-    //         redisTokenService.storeAccessToken(username, token);
-    //     } else if ("refresh".equals(tokenType)) {
-    //         redisTokenService.storeRefreshToken(username, token);
-    //     }
+        if ("access".equals(tokenType)) {
+            tokenStore.storeAccessToken(username, token);
+        } else if ("refresh".equals(tokenType)) {
+            String refreshTokenId = tokenId(token);
+            if (refreshTokenId == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            tokenStore.storeRefreshToken(username, refreshTokenId, token);
+        }
         
-    //     return ResponseEntity.ok(Map.of("status", "stored", "tokenType", tokenType));
-    // }
+        return ResponseEntity.ok(Map.of("status", "stored", "tokenType", tokenType));
+    }
 
-    // @GetMapping("/get-token/{username}/{tokenType}")
-    // public ResponseEntity<Map<String, String>> getToken(
-    //         @PathVariable String username,
-    //         @PathVariable String tokenType) {
-    //     log.info("Getting {} token for user: {}", tokenType, username);
+    @GetMapping("/get-token/{username}/{tokenType}")
+    public ResponseEntity<Map<String, String>> getToken(
+            @PathVariable String username,
+            @PathVariable String tokenType) {
+        log.info("Getting {} token for user: {}", tokenType, username);
+        if (!isCallerOrSuperUser(username)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         
-    //     String token = "access".equals(tokenType) 
-    //         ? redisTokenService.getAccessToken(username)
-    //         : redisTokenService.getRefreshToken(username);
+        String token = "access".equals(tokenType) 
+            ? tokenStore.getAccessToken(username)
+            : tokenStore.getRefreshToken(username);
         
-    //     if (token != null) {
-    //         return ResponseEntity.ok(Map.of("token", token, "tokenType", tokenType));
-    //     }
-    //     return ResponseEntity.notFound().build();
-    // }
+        if (token != null) {
+            return ResponseEntity.ok(Map.of("token", token, "tokenType", tokenType));
+        }
+        return ResponseEntity.notFound().build();
+    }
 
-    // @DeleteMapping("/delete-tokens/{username}")
-    // public ResponseEntity<Map<String, String>> deleteTokens(@PathVariable String username) {
-    //     log.info("Deleting tokens for user: {}", username);
-    //     redisTokenService.deleteTokens(username);
-    //     return ResponseEntity.ok(Map.of("status", "deleted", "username", username));
-    // }
+    @DeleteMapping("/delete-tokens/{username}")
+    public ResponseEntity<Map<String, String>> deleteTokens(@PathVariable String username) {
+        log.info("Deleting tokens for user: {}", username);
+        if (!isCallerOrSuperUser(username)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        tokenStore.deleteTokens(username);
+        return ResponseEntity.ok(Map.of("status", "deleted", "username", username));
+    }
 
-    // @GetMapping("/validate-token/{username}/{tokenType}/{token}")
-    // public ResponseEntity<Map<String, Boolean>> validateToken(
-    //         @PathVariable String username,
-    //         @PathVariable String tokenType,
-    //         @PathVariable String token) {
-    //     log.info("Validating {} token for user: {}", tokenType, username);
-        
-    //     boolean isValid = "access".equals(tokenType)
-    //         ? redisTokenService.validateAccessToken(username, token)
-    //         : redisTokenService.validateRefreshToken(username, token);
-        
-    //     return ResponseEntity.ok(Map.of("valid", isValid));
-    // }
+    /**
+     * jti of a token signed by us, or null for anything else
+     */
+    private String tokenId(String token) {
+        return jwtUtil.validateToken(token) ? jwtUtil.extractTokenId(token) : null;
+    }
+
+    /**
+     * True when the JWT on this request belongs to {@code username} or to a SUPER_USER
+     */
+    private boolean isCallerOrSuperUser(String username) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        if (username.equals(authentication.getName())) {
+            return true;
+        }
+        return authentication.getAuthorities().stream()
+                .anyMatch(a -> User.UserRole.SUPER_USER.name().equals(a.getAuthority()));
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.gym.backend.controller;
 
+import com.example.gym.backend.dto.CursorPage;
 import com.example.gym.backend.dto.GymDto;
 import com.example.gym.backend.service.GymService;
 import jakarta.validation.Valid;
@@ -66,6 +67,18 @@ public class GymController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Keyset-paginated gyms in id order; pass nextCursor back as ?cursor= for the next page
+     */
+    @GetMapping("/scroll")
+//    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST')")
+    public ResponseEntity<CursorPage<GymDto>> scrollGyms(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching gyms after cursor: {}, size={}", cursor, size);
+        return ResponseEntity.ok(gymService.getGymsPage(cursor, size));
+    }
+
     @PutMapping("/{id}")
 //    @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<GymDto> updateGym(
@@ -1,5 +1,7 @@
 package com.example.gym.backend.controller;
 
+import com.example.gym.backend.config.ReportingWorkload;
+import com.example.gym.backend.dto.CursorPage;
 import com.example.gym.backend.dto.MemberDto;
 import com.example.gym.backend.dto.MemberSearchDto;
 import com.example.gym.backend.entity.User;
@@ -7,6 +9,7 @@ import com.example.gym.backend.entity.User.UserRole;
 import com.example.gym.backend.repository.UserRepository;
 import com.example.gym.backend.service.MemberService;
 import com.example.gym.backend.service.PaymentService;
+import com.example.gym.backend.util.SparseFieldset;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -52,6 +55,7 @@ public class MemberController {
      * - ADMIN, MANAGER, RECEPTIONIST: Returns counts filtered by their gym_id
      */
     @GetMapping("/dashboard/summary")
+    @ReportingWorkload
     // @PreAuthorize("hasAnyAuthority('SUPER_USER', 'ADMIN', 'MANAGER', 'RECEPTIONIST')")
     public ResponseEntity<Map<String, Object>> getDashboardSummary() {
         User currentUser = getCurrentUser();
@@ -162,11 +166,27 @@ public class MemberController {
 
     @GetMapping("/all")
     // @PreAuthorize("hasAnyAuthority('SUPER_USER','ADMIN', 'MANAGER', 'RECEPTIONIST')")
-    public ResponseEntity<List<MemberDto>> getAllMembers() {
+    public ResponseEntity<List<?>> getAllMembers(@RequestParam(required = false) String fields) {
+        SparseFieldset fieldset = SparseFieldset.parse(fields, MemberService.MEMBER_FIELDS);
+        if (fieldset != null) {
+            return ResponseEntity.ok(memberService.getAllMembers(fieldset));
+        }
         List<MemberDto> members = memberService.getAllMembers();
         return ResponseEntity.ok(members);
     }
 
+    /**
+     * Keyset-paginated members in id order; pass nextCursor back as ?cursor= for the next page
+     */
+    @GetMapping("/scroll")
+    // @PreAuthorize("hasAnyAuthority('SUPER_USER','ADMIN', 'MANAGER', 'RECEPTIONIST')")
+    public ResponseEntity<CursorPage<MemberDto>> scrollMembers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching members after cursor: {}, size={}", cursor, size);
+        return ResponseEntity.ok(memberService.getMembersPage(cursor, size));
+    }
+
 
     @GetMapping("/{id}")
     // @PreAuthorize("hasAnyAuthority('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST')")
@@ -222,6 +242,7 @@ public class MemberController {
     }
 
     @GetMapping("/count/active")
+    @ReportingWorkload
     // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<Long> getActiveMembersCount() {
         log.info("Fetching active members count");
@@ -1,15 +1,24 @@
 package com.example.gym.backend.controller;
 
+import com.example.gym.backend.dto.CursorPage;
 import com.example.gym.backend.dto.MemberMembershipDto;
+import com.example.gym.backend.entity.MemberMembership;
+import com.example.gym.backend.entity.User;
+import com.example.gym.backend.repository.UserRepository;
 import com.example.gym.backend.service.MemberMembershipService;
+import com.example.gym.backend.util.SparseFieldset;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -19,6 +28,19 @@ import java.util.List;
 public class MemberMembershipController {
 
     private final MemberMembershipService membershipService;
+    private final UserRepository userRepository;
+
+    /**
+     * Get current authenticated user
+     */
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User) {
+            return (User) authentication.getPrincipal();
+        }
+        String username = authentication.getName();
+        return userRepository.findByUsername(username).orElse(null);
+    }
 
     @PostMapping("/assign")
     // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'RECEPTIONIST')")
@@ -30,12 +52,45 @@ public class MemberMembershipController {
 
     @GetMapping
     // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'RECEPTIONIST')")
-    public ResponseEntity<List<MemberMembershipDto>> getAllMemberships() {
+    public ResponseEntity<List<?>> getAllMemberships(@RequestParam(required = false) String fields) {
+        SparseFieldset fieldset = SparseFieldset.parse(fields, MemberMembershipService.MEMBERSHIP_FIELDS);
+        if (fieldset != null) {
+            return ResponseEntity.ok(membershipService.getAllMemberships(fieldset));
+        }
         log.info("Fetching all memberships");
         List<MemberMembershipDto> memberships = membershipService.getAllMemberships();
         return ResponseEntity.ok(memberships);
     }
 
+    /**
+     * Keyset-paginated memberships in id order; pass nextCursor back as ?cursor= for the next page
+     */
+    @GetMapping("/scroll")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'RECEPTIONIST')")
+    public ResponseEntity<CursorPage<MemberMembershipDto>> scrollMemberships(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching memberships after cursor: {}, size={}", cursor, size);
+        return ResponseEntity.ok(membershipService.getMembershipsPage(cursor, size));
+    }
+
+    /**
+     * One gym's memberships, filtered by status and end date (inclusive), keyset-paginated by id
+     */
+    @GetMapping("/gym/{gymId}")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'RECEPTIONIST')")
+    public ResponseEntity<CursorPage<MemberMembershipDto>> getGymMemberships(
+            @PathVariable Long gymId,
+            @RequestParam(required = false) MemberMembership.MembershipStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching memberships of gym {} with status={}, endFrom={}, endTo={}", gymId, status, endFrom, endTo);
+        return ResponseEntity.ok(membershipService.getGymMembershipsPage(
+                getCurrentUser(), gymId, status, endFrom, endTo, cursor, size));
+    }
+
     @GetMapping("/{id}")
     // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'RECEPTIONIST')")
     public ResponseEntity<MemberMembershipDto> getMembershipById(@PathVariable Long id) {
@@ -51,4 +106,12 @@ public class MemberMembershipController {
         List<MemberMembershipDto> memberships = membershipService.getMembershipsByMemberId(memberId);
         return ResponseEntity.ok(memberships);
     }
+
+    @GetMapping("/member/{memberId}/current")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'RECEPTIONIST')")
+    public ResponseEntity<MemberMembershipDto> getCurrentActiveMembership(@PathVariable Long memberId) {
+        return membershipService.getCurrentActiveMembership(getCurrentUser(), memberId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.gym.backend.controller;
 
+import com.example.gym.backend.config.ReportingWorkload;
 import com.example.gym.backend.dto.PaymentDto;
 import com.example.gym.backend.entity.Gym;
 import com.example.gym.backend.entity.User;
@@ -106,6 +107,7 @@ public class PaymentController {
     }
 
     @GetMapping("/summary")
+    @ReportingWorkload
     // @PreAuthorize("hasAnyAuthority('SUPER_USER', 'ADMIN', 'RECEPTIONIST')")
     public ResponseEntity<Map<String, Object>> getPaymentSummary (
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
@@ -146,6 +148,7 @@ public class PaymentController {
     }
 
     @GetMapping("/all_payments")
+    @ReportingWorkload
     // @PreAuthorize("hasAnyAuthority('SUPER_USER', 'ADMIN', 'RECEPTIONIST')")
     public ResponseEntity<Map<String, Object>> findAllPayments(
             @RequestParam(required = false, defaultValue = "RECENT") String filter,
@@ -187,6 +190,7 @@ public class PaymentController {
     }
 
     @GetMapping("/overdue")
+    @ReportingWorkload
     // @PreAuthorize("hasAnyAuthority('SUPER_USER', 'ADMIN', 'RECEPTIONIST')")
     public ResponseEntity<List<PaymentDto>> getOverduePayments() {
         log.info("Fetching overdue payments");
@@ -204,6 +208,7 @@ public class PaymentController {
     }
 
     @GetMapping("/revenue/daily")
+    @ReportingWorkload
     // @PreAuthorize("hasAnyAuthority('SUPER_USER', 'ADMIN', 'RECEPTIONIST')")
     public ResponseEntity<BigDecimal> getDailyRevenue(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
@@ -228,6 +233,7 @@ public class PaymentController {
     }
 
     @GetMapping("/revenue/pending")
+    @ReportingWorkload
     // @PreAuthorize("hasAnyAuthority('SUPER_USER', 'ADMIN', 'RECEPTIONIST')")
     public ResponseEntity<BigDecimal> getTotalPendingAmount() {
         log.info("Fetching total pending amount");
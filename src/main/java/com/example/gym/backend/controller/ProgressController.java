@@ -1,23 +1,92 @@
 package com.example.gym.backend.controller;
 
+import com.example.gym.backend.dto.MetricSeriesDto;
+import com.example.gym.backend.dto.ProgressEntryDto;
+import com.example.gym.backend.entity.ProgressMetric.Bucket;
+import com.example.gym.backend.entity.ProgressMetric.Metric;
+import com.example.gym.backend.entity.User;
+import com.example.gym.backend.repository.UserRepository;
+import com.example.gym.backend.service.ProgressService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @RestController
 @RequestMapping("/progress")
 @RequiredArgsConstructor
 @Slf4j
 public class ProgressController {
 
-    // TODO: Implement progress tracking functionality
-    // This will include workout sessions, measurements, goals tracking
+    private final ProgressService progressService;
+    private final UserRepository userRepository;
+
+    /**
+     * Get current authenticated user
+     */
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User) {
+            return (User) authentication.getPrincipal();
+        }
+        String username = authentication.getName();
+        return userRepository.findByUsername(username).orElse(null);
+    }
 
     @GetMapping("/health")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST')")
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Progress tracking service is running");
     }
-}
\ No newline at end of file
+
+    @PostMapping("/members/{memberId}/entries")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER')")
+    public ResponseEntity<ProgressEntryDto> recordEntry(@PathVariable Long memberId,
+                                                        @RequestBody ProgressEntryDto entry) {
+        log.info("Recording progress of member {}", memberId);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(progressService.record(getCurrentUser(), memberId, entry));
+    }
+
+    /**
+     * Import of earlier check-ins, e.g. from a smart scale; stored only if all are valid
+     */
+    @PostMapping("/members/{memberId}/entries/batch")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER')")
+    public ResponseEntity<List<ProgressEntryDto>> importEntries(@PathVariable Long memberId,
+                                                                @RequestBody List<ProgressEntryDto> entries) {
+        log.info("Importing {} progress entries of member {}", entries.size(), memberId);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(progressService.importEntries(getCurrentUser(), memberId, entries));
+    }
+
+    @GetMapping("/members/{memberId}/metrics")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST')")
+    public ResponseEntity<List<Metric>> getTrackedMetrics(@PathVariable Long memberId) {
+        return ResponseEntity.ok(progressService.getTrackedMetrics(getCurrentUser(), memberId));
+    }
+
+    /**
+     * Chart series of one metric, e.g. ?from=2024-01-01&to=2024-12-31&bucket=WEEK;
+     * defaults to the last year at the finest bucket that fits
+     */
+    @GetMapping("/members/{memberId}/metrics/{metric}")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST')")
+    public ResponseEntity<MetricSeriesDto> getSeries(
+            @PathVariable Long memberId,
+            @PathVariable Metric metric,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Bucket bucket) {
+        log.info("Fetching {} series of member {}", metric, memberId);
+        return ResponseEntity.ok(progressService.getSeries(getCurrentUser(), memberId, metric, from, to, bucket));
+    }
+}
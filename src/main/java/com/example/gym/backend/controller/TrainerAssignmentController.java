@@ -0,0 +1,96 @@
+package com.example.gym.backend.controller;
+
+import com.example.gym.backend.dto.CursorPage;
+import com.example.gym.backend.dto.TrainerAssignmentDto;
+import com.example.gym.backend.dto.TrainerCapacityDto;
+import com.example.gym.backend.entity.TrainerAssignment.AssignmentStatus;
+import com.example.gym.backend.entity.User;
+import com.example.gym.backend.repository.UserRepository;
+import com.example.gym.backend.service.TrainerAssignmentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/gym/trainer-assignments")
+@RequiredArgsConstructor
+@Slf4j
+public class TrainerAssignmentController {
+
+    private final TrainerAssignmentService trainerAssignmentService;
+    private final UserRepository userRepository;
+
+    /**
+     * Get current authenticated user
+     */
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User) {
+            return (User) authentication.getPrincipal();
+        }
+        String username = authentication.getName();
+        return userRepository.findByUsername(username).orElse(null);
+    }
+
+    /**
+     * 409 if the member already has an active trainer or the trainer has no free capacity
+     */
+    @PostMapping
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<TrainerAssignmentDto> assignTrainer(@RequestBody TrainerAssignmentDto request) {
+        log.info("Assigning trainer {} to member {}", request.getTrainerId(), request.getMemberId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(trainerAssignmentService.assign(getCurrentUser(), request));
+    }
+
+    @PostMapping("/{id}/complete")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER')")
+    public ResponseEntity<TrainerAssignmentDto> completeAssignment(@PathVariable Long id) {
+        log.info("Completing trainer assignment {}", id);
+        return ResponseEntity.ok(trainerAssignmentService.complete(getCurrentUser(), id));
+    }
+
+    @PostMapping("/{id}/cancel")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<TrainerAssignmentDto> cancelAssignment(@PathVariable Long id) {
+        log.info("Cancelling trainer assignment {}", id);
+        return ResponseEntity.ok(trainerAssignmentService.cancel(getCurrentUser(), id));
+    }
+
+    @GetMapping("/trainer/{trainerId}")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER')")
+    public ResponseEntity<CursorPage<TrainerAssignmentDto>> getTrainerMembers(
+            @PathVariable Long trainerId,
+            @RequestParam(required = false) AssignmentStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching members of trainer {}", trainerId);
+        return ResponseEntity.ok(trainerAssignmentService.getTrainerAssignments(getCurrentUser(), trainerId,
+                status, cursor, size));
+    }
+
+    @GetMapping("/member/{memberId}/current")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST')")
+    public ResponseEntity<TrainerAssignmentDto> getMemberTrainer(@PathVariable Long memberId) {
+        return trainerAssignmentService.getCurrentAssignment(getCurrentUser(), memberId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Trainer matching: trainers with a free slot, least loaded first; gymId defaults to
+     * the caller's gym
+     */
+    @GetMapping("/available-trainers")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'RECEPTIONIST')")
+    public ResponseEntity<List<TrainerCapacityDto>> getAvailableTrainers(
+            @RequestParam(required = false) Long gymId,
+            @RequestParam(required = false) String specialization) {
+        return ResponseEntity.ok(trainerAssignmentService.getTrainersWithCapacity(getCurrentUser(), gymId, specialization));
+    }
+}
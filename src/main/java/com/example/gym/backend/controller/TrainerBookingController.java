@@ -0,0 +1,103 @@
+package com.example.gym.backend.controller;
+
+import com.example.gym.backend.dto.AvailabilityWindowDto;
+import com.example.gym.backend.dto.FreeSlotDto;
+import com.example.gym.backend.dto.TrainerBookingDto;
+import com.example.gym.backend.entity.User;
+import com.example.gym.backend.repository.UserRepository;
+import com.example.gym.backend.service.TrainerBookingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/gym/trainer-bookings")
+@RequiredArgsConstructor
+@Slf4j
+public class TrainerBookingController {
+
+    private final TrainerBookingService trainerBookingService;
+    private final UserRepository userRepository;
+
+    /**
+     * Get current authenticated user
+     */
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User) {
+            return (User) authentication.getPrincipal();
+        }
+        String username = authentication.getName();
+        return userRepository.findByUsername(username).orElse(null);
+    }
+
+    @GetMapping("/trainer/{trainerId}/availability")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST')")
+    public ResponseEntity<List<AvailabilityWindowDto>> getAvailability(@PathVariable Long trainerId) {
+        return ResponseEntity.ok(trainerBookingService.getAvailability(getCurrentUser(), trainerId));
+    }
+
+    /**
+     * Replaces the trainer's weekly availability, e.g.
+     * [{"dayOfWeek": "MONDAY", "startTime": "06:00", "endTime": "12:00"}]
+     */
+    @PutMapping("/trainer/{trainerId}/availability")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER')")
+    public ResponseEntity<List<AvailabilityWindowDto>> setAvailability(@PathVariable Long trainerId,
+                                                                       @RequestBody List<AvailabilityWindowDto> windows) {
+        log.info("Setting availability of trainer {}", trainerId);
+        return ResponseEntity.ok(trainerBookingService.setAvailability(getCurrentUser(), trainerId, windows));
+    }
+
+    /**
+     * Free intervals per day; defaults to the coming week
+     */
+    @GetMapping("/trainer/{trainerId}/free-slots")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST')")
+    public ResponseEntity<List<FreeSlotDto>> getFreeSlots(
+            @PathVariable Long trainerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(trainerBookingService.getFreeSlots(getCurrentUser(), trainerId, from, to));
+    }
+
+    @GetMapping("/trainer/{trainerId}")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST')")
+    public ResponseEntity<List<TrainerBookingDto>> getTrainerBookings(
+            @PathVariable Long trainerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(trainerBookingService.getTrainerBookings(getCurrentUser(), trainerId, from, to));
+    }
+
+    @GetMapping("/member/{memberId}")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST')")
+    public ResponseEntity<List<TrainerBookingDto>> getMemberBookings(@PathVariable Long memberId) {
+        return ResponseEntity.ok(trainerBookingService.getMemberBookings(getCurrentUser(), memberId));
+    }
+
+    /**
+     * 409 if the trainer or the member is already booked at that time
+     */
+    @PostMapping
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST')")
+    public ResponseEntity<TrainerBookingDto> book(@RequestBody TrainerBookingDto request) {
+        log.info("Booking trainer {} for member {}", request.getTrainerId(), request.getMemberId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(trainerBookingService.book(getCurrentUser(), request));
+    }
+
+    @PostMapping("/{id}/cancel")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST')")
+    public ResponseEntity<TrainerBookingDto> cancel(@PathVariable Long id) {
+        log.info("Cancelling trainer booking {}", id);
+        return ResponseEntity.ok(trainerBookingService.cancel(getCurrentUser(), id));
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.gym.backend.controller;
 
 
+import com.example.gym.backend.dto.CursorPage;
+import com.example.gym.backend.dto.SpecializationTagDto;
 import com.example.gym.backend.dto.TrainerDto;
+import com.example.gym.backend.entity.User;
+import com.example.gym.backend.repository.UserRepository;
 import com.example.gym.backend.service.TrainerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +14,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -24,12 +30,25 @@ import java.util.Map;
 public class TrainerController {
 
     private final TrainerService trainerService;
+    private final UserRepository userRepository;
+
+    /**
+     * Get current authenticated user
+     */
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User) {
+            return (User) authentication.getPrincipal();
+        }
+        String username = authentication.getName();
+        return userRepository.findByUsername(username).orElse(null);
+    }
 
     @PostMapping
     // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<TrainerDto> createTrainer(@Valid @RequestBody TrainerDto trainerDto) {
         log.info("Creating new trainer: {} {}", trainerDto.getFirstName(), trainerDto.getLastName());
-        TrainerDto createdTrainer = trainerService.createTrainer(trainerDto);
+        TrainerDto createdTrainer = trainerService.createTrainer(getCurrentUser(), trainerDto);
         return new ResponseEntity<>(createdTrainer, HttpStatus.CREATED);
     }
 
@@ -60,6 +79,18 @@ public class TrainerController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Keyset-paginated trainers in id order; pass nextCursor back as ?cursor= for the next page
+     */
+    @GetMapping("/scroll")
+//    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST')")
+    public ResponseEntity<CursorPage<TrainerDto>> scrollTrainers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching trainers after cursor: {}, size={}", cursor, size);
+        return ResponseEntity.ok(trainerService.getTrainersPage(cursor, size));
+    }
+
     @GetMapping("/active")
 //    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST')")
     public ResponseEntity<List<TrainerDto>> getAllActiveTrainers() {
@@ -76,6 +107,27 @@ public class TrainerController {
         return ResponseEntity.ok(trainers);
     }
 
+    /**
+     * "Find a trainer": active trainers of a gym (default: the caller's), optionally with a
+     * specialization containing the given term, keyset-paginated in id order
+     */
+    @GetMapping("/discover")
+//    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST', 'MEMBER')")
+    public ResponseEntity<CursorPage<TrainerDto>> discoverTrainers(
+            @RequestParam(required = false) Long gymId,
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Discovering trainers of gym {} by specialization: {}", gymId, specialization);
+        return ResponseEntity.ok(trainerService.discoverTrainers(getCurrentUser(), gymId, specialization, cursor, size));
+    }
+
+    @GetMapping("/specializations")
+//    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST', 'MEMBER')")
+    public ResponseEntity<List<SpecializationTagDto>> getSpecializations(@RequestParam(required = false) Long gymId) {
+        return ResponseEntity.ok(trainerService.getSpecializations(getCurrentUser(), gymId));
+    }
+
     @GetMapping("/top-rated")
 //    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST')")
     public ResponseEntity<List<TrainerDto>> getTopRatedTrainers(@RequestParam(defaultValue = "4.0") Double minRating) {
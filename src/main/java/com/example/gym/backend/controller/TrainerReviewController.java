@@ -0,0 +1,56 @@
+package com.example.gym.backend.controller;
+
+import com.example.gym.backend.dto.TrainerRatingDto;
+import com.example.gym.backend.dto.TrainerReviewDto;
+import com.example.gym.backend.entity.User;
+import com.example.gym.backend.repository.UserRepository;
+import com.example.gym.backend.service.TrainerReviewService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/gym/trainer-reviews")
+@RequiredArgsConstructor
+@Slf4j
+public class TrainerReviewController {
+
+    private final TrainerReviewService trainerReviewService;
+    private final UserRepository userRepository;
+
+    /**
+     * Get current authenticated user
+     */
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User) {
+            return (User) authentication.getPrincipal();
+        }
+        String username = authentication.getName();
+        return userRepository.findByUsername(username).orElse(null);
+    }
+
+    /**
+     * Only the member of the workout session may review it; 409 if it was already reviewed
+     */
+    @PostMapping
+    // @PreAuthorize("hasRole('MEMBER')")
+    public ResponseEntity<TrainerReviewDto> submitReview(@RequestBody TrainerReviewDto request) {
+        log.info("Submitting review for workout session {}", request.getWorkoutSessionId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(trainerReviewService.submitReview(getCurrentUser(), request));
+    }
+
+    @GetMapping("/leaderboard")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST', 'MEMBER')")
+    public ResponseEntity<List<TrainerRatingDto>> getLeaderboard(
+            @RequestParam(required = false) Long gymId,
+            @RequestParam(required = false) String specialization) {
+        return ResponseEntity.ok(trainerReviewService.getLeaderboard(getCurrentUser(), gymId, specialization));
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.gym.backend.controller;
 
+import com.example.gym.backend.dto.CursorPage;
 import com.example.gym.backend.dto.UserSearchDto;
 import com.example.gym.backend.entity.User;
 import com.example.gym.backend.repository.UserRepository;
 import com.example.gym.backend.service.UserService;
+import com.example.gym.backend.util.SparseFieldset;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -47,14 +49,31 @@ public class UserController {
      * Get all users - for admin to select when creating a member
      * ADMIN, MANAGER, RECEPTIONIST can access
      * SUPER_USER can also access
+     * ?fields=id,firstName,lastName returns only those fields
      */
     @GetMapping("/all")
     @PreAuthorize("hasAnyAuthority('SUPER_USER', 'ADMIN', 'MANAGER', 'RECEPTIONIST')")
-    public ResponseEntity<List<UserSearchDto>> getAllUsers() {
+    public ResponseEntity<List<?>> getAllUsers(@RequestParam(required = false) String fields) {
         log.info("Fetching all users");
+        SparseFieldset fieldset = SparseFieldset.parse(fields, UserService.USER_FIELDS);
         User currentUser = getCurrentUser();
+        if (fieldset != null) {
+            return ResponseEntity.ok(userService.getAllUsers(currentUser, fieldset));
+        }
         List<UserSearchDto> users = userService.getAllUsers(currentUser);
         return ResponseEntity.ok(users);
     }
+
+    /**
+     * Keyset-paginated version of /all; pass nextCursor back as ?cursor= for the next page
+     */
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyAuthority('SUPER_USER', 'ADMIN', 'MANAGER', 'RECEPTIONIST')")
+    public ResponseEntity<CursorPage<UserSearchDto>> scrollUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching users after cursor: {}, size={}", cursor, size);
+        return ResponseEntity.ok(userService.getUsersPage(getCurrentUser(), cursor, size));
+    }
 }
 
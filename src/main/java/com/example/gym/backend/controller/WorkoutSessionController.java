@@ -0,0 +1,69 @@
+package com.example.gym.backend.controller;
+
+import com.example.gym.backend.dto.CursorPage;
+import com.example.gym.backend.dto.WorkoutBatchResult;
+import com.example.gym.backend.dto.WorkoutSessionDto;
+import com.example.gym.backend.entity.User;
+import com.example.gym.backend.repository.UserRepository;
+import com.example.gym.backend.service.WorkoutSessionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/gym/workouts")
+@RequiredArgsConstructor
+@Slf4j
+public class WorkoutSessionController {
+
+    private final WorkoutSessionService workoutSessionService;
+    private final UserRepository userRepository;
+
+    /**
+     * Get current authenticated user
+     */
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User) {
+            return (User) authentication.getPrincipal();
+        }
+        String username = authentication.getName();
+        return userRepository.findByUsername(username).orElse(null);
+    }
+
+    /**
+     * Upload of sessions logged on a tablet, possibly while offline; the response
+     * lists the sessions that were not stored, by index
+     */
+    @PostMapping("/batch")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER')")
+    public ResponseEntity<WorkoutBatchResult> logSessions(@RequestBody List<WorkoutSessionDto> sessions) {
+        log.info("Logging {} workout sessions", sessions.size());
+        return ResponseEntity.ok(workoutSessionService.ingest(getCurrentUser(), sessions));
+    }
+
+    @GetMapping("/member/{memberId}")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER', 'RECEPTIONIST')")
+    public ResponseEntity<CursorPage<WorkoutSessionDto>> getMemberHistory(
+            @PathVariable Long memberId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching workout history of member {}", memberId);
+        return ResponseEntity.ok(workoutSessionService.getMemberHistory(getCurrentUser(), memberId, cursor, size));
+    }
+
+    @GetMapping("/trainer/{trainerId}")
+    // @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'TRAINER')")
+    public ResponseEntity<CursorPage<WorkoutSessionDto>> getTrainerHistory(
+            @PathVariable Long trainerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("Fetching workout history of trainer {}", trainerId);
+        return ResponseEntity.ok(workoutSessionService.getTrainerHistory(getCurrentUser(), trainerId, cursor, size));
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.gym.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of syncing a kiosk's offline check-ins: how many were stored, and why the
+ * others were not. Rejected check-ins are final (forged, expired, second of the day);
+ * the kiosk drops its whole queue once the sync succeeds.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInSyncResult {
+
+    private int accepted;
+    private List<Rejected> rejected;
+
+    /**
+     * @param index position of the check-in in the uploaded array
+     */
+    public record Rejected(int index, String reason) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.gym.backend.dto;
+
+import com.example.gym.backend.util.Cursor;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list, ordered by id (or by date, then id). Pass nextCursor back as
+ * ?cursor= for the following page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+    private String nextCursor;
+
+    /**
+     * @param rows rows after the cursor in id order, fetched with one more than size
+     *             so the last page is known without a count query
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, Long> id, Function<E, T> mapper) {
+        boolean more = rows.size() > size;
+        List<E> page = more ? rows.subList(0, size) : rows;
+        String next = more ? Cursor.encode(id.apply(page.get(page.size() - 1))) : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), next);
+    }
+
+    /**
+     * Same for rows ordered by (date, id), e.g. newest first
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, LocalDate> date,
+                                          Function<E, Long> id, Function<E, T> mapper) {
+        boolean more = rows.size() > size;
+        List<E> page = more ? rows.subList(0, size) : rows;
+        E last = more ? page.get(page.size() - 1) : null;
+        String next = more ? Cursor.encode(date.apply(last), id.apply(last)) : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), next);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.gym.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain event as delivered by the outbox relay to {@code @EventListener} methods.
+ *
+ * Delivery is at-least-once and in order per aggregate, so listeners should be
+ * idempotent on {@link #eventId}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DomainEvent {
+
+    // Aggregate types
+    public static final String USER = "User";
+    public static final String MEMBER = "Member";
+
+    // Event types
+    public static final String CHECKED_IN = "CheckedIn";
+    public static final String CHECKED_OUT = "CheckedOut";
+    public static final String PAYMENT_RECORDED = "PaymentRecorded";
+    public static final String MEMBER_CREATED = "MemberCreated";
+    public static final String MEMBERSHIP_CREATED = "MembershipCreated";
+    public static final String MEMBERSHIP_RENEWED = "MembershipRenewed";
+    public static final String MEMBERSHIP_EXPIRED = "MembershipExpired";
+
+    private Long eventId;
+    private String aggregateType;
+    private String aggregateId;
+    private String eventType;
+
+    /**
+     * Event body as JSON
+     */
+    private String payload;
+
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,25 @@
+package com.example.gym.backend.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of an expiring membership with just what a reminder needs
+ */
+public interface ExpiringMembershipView {
+
+    Long getMembershipId();
+
+    Long getMemberId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getEmail();
+
+    Long getPlanId();
+
+    String getPlanName();
+
+    LocalDate getEndDate();
+}
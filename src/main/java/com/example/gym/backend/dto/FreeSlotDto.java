@@ -0,0 +1,21 @@
+package com.example.gym.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A free interval of a trainer on one day; any grid-aligned booking inside it fits
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeSlotDto {
+
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+}
@@ -0,0 +1,34 @@
+package com.example.gym.backend.dto;
+
+import com.example.gym.backend.entity.MemberMembership.MembershipStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a membership row; member, plan and gym are the foreign
+ * key columns, so reading them never loads the associated entities
+ */
+public interface MembershipView {
+
+    Long getId();
+
+    Long getMemberId();
+
+    Long getPlanId();
+
+    Long getGymId();
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+
+    BigDecimal getAmountPaid();
+
+    MembershipStatus getStatus();
+
+    boolean isAutoRenewal();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,23 @@
+package com.example.gym.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One bucket of a chart series, aggregated by the database
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricPoint {
+
+    // First day of the bucket: the day itself, the Monday of the week or the 1st of the month
+    private LocalDate bucketStart;
+    private Double min;
+    private Double avg;
+    private Double max;
+    private Long samples;
+}
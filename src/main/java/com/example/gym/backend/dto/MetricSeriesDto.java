@@ -0,0 +1,27 @@
+package com.example.gym.backend.dto;
+
+import com.example.gym.backend.entity.ProgressMetric.Bucket;
+import com.example.gym.backend.entity.ProgressMetric.Metric;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A member's metric over [from, to], downsampled to one point per bucket
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricSeriesDto {
+
+    private Long memberId;
+    private Metric metric;
+    private String unit;
+    private Bucket bucket;
+    private LocalDate from;
+    private LocalDate to;
+    private List<MetricPoint> points;
+}
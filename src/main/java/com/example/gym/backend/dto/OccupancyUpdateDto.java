@@ -0,0 +1,38 @@
+package com.example.gym.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One push on a gym's occupancy stream: the current counts, how far the present count
+ * moved since the previous push, and the check-ins/outs that moved it. Several
+ * check-ins within one flush interval arrive together in a single update.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyUpdateDto {
+
+    public enum ActivityType {
+        CHECK_IN, CHECK_OUT
+    }
+
+    /**
+     * @param offline true for check-ins uploaded by a kiosk sync, whose {@code at} is the scan time
+     */
+    public record Activity(ActivityType type, Long userId, String userName, LocalDateTime at, boolean offline) {
+    }
+
+    private Long gymId;
+    private long currentlyPresent;
+    private long presentChange;
+    private long todayCheckIns;
+    private List<Activity> activity;
+    // Activity beyond the per-update limit, counted but not listed
+    private int activityDropped;
+    private LocalDateTime at;
+}
@@ -0,0 +1,23 @@
+package com.example.gym.backend.dto;
+
+import com.example.gym.backend.entity.ProgressMetric.Metric;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * A progress check-in: the values measured at one point in time, e.g.
+ * {"WEIGHT_KG": 82.4, "BODY_FAT_PERCENT": 18.5}. Each value is stored as its own
+ * typed row (ProgressMetric) so it can be charted.
+ */
+@Data
+public class ProgressEntryDto {
+
+    private Long id;
+    private Long memberId;
+    private LocalDateTime measuredAt;
+    private Map<Metric, Double> measurements;
+    private String notes;
+    private LocalDateTime createdAt;
+}
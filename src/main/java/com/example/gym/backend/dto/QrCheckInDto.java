@@ -0,0 +1,20 @@
+package com.example.gym.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A QR code scanned at a kiosk. scannedAt is the kiosk's time of the scan; it is only
+ * read for check-ins synced after the kiosk was offline.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QrCheckInDto {
+
+    private String code;
+    private LocalDateTime scannedAt;
+}
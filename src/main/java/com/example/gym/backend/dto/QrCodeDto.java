@@ -0,0 +1,21 @@
+package com.example.gym.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A member's current check-in code; the app shows it as a QR code and fetches the next
+ * one at refreshAt, shortly before validUntil
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QrCodeDto {
+
+    private String code;
+    private LocalDateTime refreshAt;
+    private LocalDateTime validUntil;
+}
@@ -0,0 +1,22 @@
+package com.example.gym.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * What a kiosk needs to verify its gym's check-in codes offline (see QrCheckInSigner):
+ * key id -> base64 HMAC-SHA256 key, the signing key first, and the window rules
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QrKioskKeysDto {
+
+    private Long gymId;
+    private long windowSeconds;
+    private int allowedSkewWindows;
+    private Map<String, String> keys;
+}
@@ -0,0 +1,17 @@
+package com.example.gym.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A specialization offered at a gym and how many active trainers have it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpecializationTagDto {
+
+    private String name;
+    private int trainers;
+}
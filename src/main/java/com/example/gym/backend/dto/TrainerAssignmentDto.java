@@ -0,0 +1,22 @@
+package com.example.gym.backend.dto;
+
+import com.example.gym.backend.entity.TrainerAssignment.AssignmentStatus;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class TrainerAssignmentDto {
+
+    private Long id;
+    private Long trainerId;
+    private String trainerName;
+    private Long memberId;
+    private String memberName;
+    private LocalDate assignedDate;
+    private LocalDate endDate;
+    private AssignmentStatus status;
+    private String notes;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,36 @@
+package com.example.gym.backend.dto;
+
+import com.example.gym.backend.entity.TrainerAssignment.AssignmentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of an assignment with the names of its trainer and member
+ */
+public interface TrainerAssignmentView {
+
+    Long getId();
+
+    Long getTrainerId();
+
+    String getTrainerFirstName();
+
+    String getTrainerLastName();
+
+    Long getMemberId();
+
+    String getMemberFirstName();
+
+    String getMemberLastName();
+
+    LocalDate getAssignedDate();
+
+    LocalDate getEndDate();
+
+    AssignmentStatus getStatus();
+
+    String getNotes();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,24 @@
+package com.example.gym.backend.dto;
+
+import com.example.gym.backend.entity.TrainerBooking.BookingStatus;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Data
+public class TrainerBookingDto {
+
+    private Long id;
+    private Long trainerId;
+    private String trainerName;
+    private Long memberId;
+    private String memberName;
+    private LocalDate bookingDate;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private BookingStatus status;
+    private String notes;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,39 @@
+package com.example.gym.backend.dto;
+
+import com.example.gym.backend.entity.TrainerBooking.BookingStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Read-only projection of a booking with the names of its trainer and member
+ */
+public interface TrainerBookingView {
+
+    Long getId();
+
+    Long getTrainerId();
+
+    String getTrainerFirstName();
+
+    String getTrainerLastName();
+
+    Long getMemberId();
+
+    String getMemberFirstName();
+
+    String getMemberLastName();
+
+    LocalDate getBookingDate();
+
+    LocalTime getStartTime();
+
+    LocalTime getEndTime();
+
+    BookingStatus getStatus();
+
+    String getNotes();
+
+    LocalDateTime getCreatedAt();
+}
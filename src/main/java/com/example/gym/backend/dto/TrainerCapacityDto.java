@@ -0,0 +1,28 @@
+package com.example.gym.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * A trainer on the matching screen, with their current load
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainerCapacityDto {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String specialization;
+    private BigDecimal rating;
+    private Integer activeAssignments;
+    private Integer maxClients;
+
+    public int getFreeSlots() {
+        return Math.max(0, maxClients - activeAssignments);
+    }
+}
@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
 public class TrainerDto {
 
     private Long id;
+    private Long gymId;
     private String firstName;
     private String lastName;
     private String email;
@@ -23,6 +24,8 @@ public class TrainerDto {
     private BigDecimal rating;
     private Integer totalRatings;
     private boolean isActive;
+    private Integer maxClients;
+    private Integer activeAssignments;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.gym.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * A leaderboard entry
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainerRatingDto {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String specialization;
+    private BigDecimal rating;
+    private Integer totalRatings;
+}
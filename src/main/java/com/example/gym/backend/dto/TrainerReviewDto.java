@@ -0,0 +1,18 @@
+package com.example.gym.backend.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class TrainerReviewDto {
+
+    private Long id;
+    private Long workoutSessionId;
+    private Long trainerId;
+    private Long memberId;
+    // 1 to 5
+    private Integer rating;
+    private String comment;
+    private LocalDateTime createdAt;
+}
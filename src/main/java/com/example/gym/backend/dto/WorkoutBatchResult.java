@@ -0,0 +1,26 @@
+package com.example.gym.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch upload: how many sessions were stored, and why the others were not.
+ * A client resends only the rejected ones after fixing them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkoutBatchResult {
+
+    private int accepted;
+    private List<Rejected> rejected;
+
+    /**
+     * @param index position of the session in the uploaded array
+     */
+    public record Rejected(int index, String reason) {
+    }
+}
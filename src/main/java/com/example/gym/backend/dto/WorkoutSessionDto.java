@@ -0,0 +1,29 @@
+package com.example.gym.backend.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A logged workout. Sessions are validated one by one when a batch is ingested
+ * (WorkoutSessionService), so a bad session is reported without failing the others.
+ */
+@Data
+public class WorkoutSessionDto {
+
+    private Long id;
+    private Long memberId;
+    private Long trainerId;
+    private LocalDate sessionDate;
+    private String startTime;
+    private String endTime;
+    private Integer durationMinutes;
+    private String workoutType;
+    // [{"name": "Squat", "sets": 3, "reps": 10, "weightKg": 60}, ...], see ExerciseLogSchema
+    private JsonNode exercises;
+    private Integer caloriesBurned;
+    private String notes;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,34 @@
+package com.example.gym.backend.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a workout session row; member and trainer are the foreign key columns
+ */
+public interface WorkoutSessionView {
+
+    Long getId();
+
+    Long getMemberId();
+
+    Long getTrainerId();
+
+    LocalDate getSessionDate();
+
+    String getStartTime();
+
+    String getEndTime();
+
+    Integer getDurationMinutes();
+
+    String getWorkoutType();
+
+    String getExercises();
+
+    Integer getCaloriesBurned();
+
+    String getNotes();
+
+    LocalDateTime getCreatedAt();
+}
@@ -6,14 +6,14 @@ import lombok.Setter;
 
 import java.time.LocalDateTime;
 
+// Partitioned by month on check_in (db/maintenance): MySQL allows no foreign keys on it
 @Entity
 @Getter
 @Setter
 @Table(name = "attendance", indexes = {
-    @Index(name = "idx_attendance_user", columnList = "user_id"),
-    @Index(name = "idx_attendance_gym", columnList = "gym_id"),
-    @Index(name = "idx_attendance_checkin", columnList = "check_in"),
-    @Index(name = "idx_attendance_checkout", columnList = "check_out")
+    @Index(name = "idx_attendance_user_checkin", columnList = "user_id, check_in, check_out"),
+    @Index(name = "idx_attendance_gym_cover", columnList = "gym_id, check_in, check_out, duration_minutes"),
+    @Index(name = "idx_attendance_checkin", columnList = "check_in")
 })
 public class Attendance {
 
@@ -22,13 +22,14 @@ public class Attendance {
     private Long id;
 
     @ManyToOne
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User user;
 
     @ManyToOne
-    @JoinColumn(name = "gym_id", nullable = false)
+    @JoinColumn(name = "gym_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Gym gym;
 
+    @Column(nullable = false)
     private LocalDateTime checkIn;
     private LocalDateTime checkOut;
 
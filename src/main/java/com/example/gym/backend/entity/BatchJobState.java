@@ -0,0 +1,55 @@
+package com.example.gym.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-job lease lock and checkpoint for scheduled batch jobs.
+ *
+ * A node owns the job while locked_until is in the future. The checkpoint
+ * (run_key + last_processed_id) is written in the same transaction as each
+ * batch, so a crashed run resumes exactly where it stopped.
+ */
+@Entity
+@Table(name = "batch_job_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJobState {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "locked_by")
+    private String lockedBy;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "run_key", length = 100)
+    private String runKey;
+
+    @Column(name = "last_processed_id")
+    private Long lastProcessedId;
+
+    @Column(name = "processed_count")
+    private Long processedCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public BatchJobState(String jobName) {
+        this.jobName = jobName;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -17,7 +17,7 @@ import java.util.List;
     @Index(name = "idx_member_email", columnList = "email"),
     @Index(name = "idx_member_phone", columnList = "phone"),
     @Index(name = "idx_member_gym", columnList = "gym_id"),
-    @Index(name = "idx_member_status", columnList = "status"),
+    @Index(name = "idx_member_status_join", columnList = "status, join_date"),
     @Index(name = "idx_member_join_date", columnList = "join_date")
 })
 @Data
@@ -13,12 +13,15 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "member_memberships", indexes = {
-    @Index(name = "idx_membership_member", columnList = "member_id"),
+    @Index(name = "idx_membership_member_status", columnList = "member_id, status, end_date"),
     @Index(name = "idx_membership_plan", columnList = "plan_id"),
-    @Index(name = "idx_membership_gym", columnList = "gym_id"),
+    @Index(name = "idx_membership_gym_end", columnList = "gym_id, end_date"),
     @Index(name = "idx_membership_start_date", columnList = "start_date"),
     @Index(name = "idx_membership_end_date", columnList = "end_date"),
-    @Index(name = "idx_membership_status", columnList = "status")
+    @Index(name = "idx_membership_status_end", columnList = "status, end_date")
+}, uniqueConstraints = {
+    // One successor per membership, which keeps the auto-renewal job idempotent
+    @UniqueConstraint(name = "uk_membership_renewed_from", columnNames = "renewed_from_id")
 })
 @Data
 @NoArgsConstructor
@@ -62,6 +65,9 @@ public class MemberMembership {
     @Column(name = "auto_renewal")
     private boolean autoRenewal = false;
 
+    @Column(name = "renewed_from_id")
+    private Long renewedFromId;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
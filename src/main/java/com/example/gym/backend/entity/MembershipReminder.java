@@ -0,0 +1,70 @@
+package com.example.gym.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Sent-state of expiry reminders: one row per membership and reminder stage
+ * (days before the end date), so a reminder is never mailed twice.
+ */
+@Entity
+@Table(name = "membership_reminders", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_reminder_membership_stage", columnNames = {"membership_id", "days_before"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MembershipReminder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "membership_id", nullable = false)
+    private Long membershipId;
+
+    @Column(name = "days_before", nullable = false)
+    private Integer daysBefore;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    private String email;
+
+    @Enumerated(EnumType.STRING)
+    private ReminderStatus status;
+
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum ReminderStatus {
+        SENT, FAILED
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.gym.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox row. Written in the same transaction as the domain change
+ * it describes and delivered to in-process listeners by the outbox relay.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_status_id", columnList = "status, id"),
+    @Index(name = "idx_outbox_aggregate", columnList = "aggregate_type, aggregate_id"),
+    @Index(name = "idx_outbox_published_at", columnList = "published_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", length = 50, nullable = false)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", length = 64, nullable = false)
+    private String aggregateId;
+
+    @Column(name = "event_type", length = 100, nullable = false)
+    private String eventType;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    public enum OutboxStatus {
+        PENDING, PUBLISHED, FAILED
+    }
+}
@@ -11,12 +11,15 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+// Partitioned by month on payment_date (db/maintenance): MySQL allows no foreign keys on it
 @Entity
 @Table(name = "payments", indexes = {
-    @Index(name = "idx_payment_user", columnList = "user_id"),
-    @Index(name = "idx_payment_gym", columnList = "gym_id"),
+    @Index(name = "idx_payment_user_status", columnList = "user_id, status"),
+    @Index(name = "idx_payment_gym_status_date", columnList = "gym_id, status, payment_date, amount"),
+    @Index(name = "idx_payment_gym_status_due", columnList = "gym_id, status, due_date"),
     @Index(name = "idx_payment_status", columnList = "status"),
-    @Index(name = "idx_payment_date", columnList = "payment_date"),
+    @Index(name = "idx_payment_status_date", columnList = "status, payment_date, amount"),
+    @Index(name = "idx_payment_status_due", columnList = "status, due_date"),
     @Index(name = "idx_payment_method", columnList = "payment_method")
 })
 @Data
@@ -30,15 +33,15 @@ public class Payment {
 
     @NotNull
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User user;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "gym_id")
+    @JoinColumn(name = "gym_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Gym gym;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "membership_plan_id")
+    @JoinColumn(name = "membership_plan_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private MembershipPlan membershipPlan;
 
     @NotNull
@@ -56,7 +59,8 @@ public class Payment {
     @Enumerated(EnumType.STRING)
     private PaymentStatus status = PaymentStatus.PENDING;
 
-    @Column(name = "payment_date")
+    // Set when the payment is recorded or billed; never null, it is the partitioning key
+    @Column(name = "payment_date", nullable = false)
     private LocalDateTime paymentDate;
 
     @Column(name = "due_date")
@@ -71,6 +75,9 @@ public class Payment {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        if (paymentDate == null) {
+            paymentDate = createdAt;
+        }
     }
 
     public enum PaymentMethod {
@@ -0,0 +1,118 @@
+package com.example.gym.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * One measured value of a progress check-in (ProgressTracking), one row per metric.
+ * The day, ISO week (Monday) and month the value falls in are stored with it, so
+ * chart series are a plain GROUP BY on the series index instead of date functions
+ * that differ per database.
+ */
+@Entity
+@Table(name = "progress_metrics", indexes = {
+    @Index(name = "idx_progress_metric_series", columnList = "member_id, metric, measured_at"),
+    @Index(name = "idx_progress_metric_entry", columnList = "progress_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgressMetric {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "member_id", nullable = false)
+    private Long memberId;
+
+    @Column(name = "progress_id", nullable = false)
+    private Long progressId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Metric metric;
+
+    @Column(name = "measured_at", nullable = false)
+    private LocalDateTime measuredAt;
+
+    @Column(name = "day_start", nullable = false)
+    private LocalDate dayStart;
+
+    @Column(name = "week_start", nullable = false)
+    private LocalDate weekStart;
+
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Column(name = "metric_value", nullable = false)
+    private Double value;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public static LocalDate weekStart(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    public static LocalDate monthStart(LocalDate day) {
+        return day.withDayOfMonth(1);
+    }
+
+    /**
+     * Chart resolution: the bucket column a series is grouped by
+     */
+    public enum Bucket {
+        DAY, WEEK, MONTH
+    }
+
+    /**
+     * Metrics a member can track, with the unit and the range a plausible value lies in
+     */
+    public enum Metric {
+        WEIGHT_KG("kg", 20, 400),
+        BODY_FAT_PERCENT("%", 1, 75),
+        MUSCLE_MASS_KG("kg", 5, 200),
+        BMI("kg/m2", 10, 80),
+        WAIST_CM("cm", 30, 250),
+        CHEST_CM("cm", 40, 250),
+        HIPS_CM("cm", 40, 250),
+        ARM_CM("cm", 10, 100),
+        THIGH_CM("cm", 20, 150),
+        RESTING_HEART_RATE_BPM("bpm", 25, 220);
+
+        private final String unit;
+        private final double min;
+        private final double max;
+
+        Metric(String unit, double min, double max) {
+            this.unit = unit;
+            this.min = min;
+            this.max = max;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+
+        public boolean accepts(double value) {
+            return value >= min && value <= max;
+        }
+
+        public String range() {
+            return "from " + (long) min + " to " + (long) max + " " + unit;
+        }
+    }
+}
@@ -28,6 +28,7 @@ public class ProgressTracking {
     @Column(name = "measurement_date")
     private LocalDateTime measurementDate;
 
+    // Not written anymore: values are stored as typed rows in progress_metrics
     @Column(columnDefinition = "JSON")
     private String measurements;
 
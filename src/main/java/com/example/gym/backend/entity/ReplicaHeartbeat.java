@@ -0,0 +1,26 @@
+package com.example.gym.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single-row heartbeat written to the primary and read back from the read replica
+ * to measure replication lag.
+ */
+@Entity
+@Table(name = "replica_heartbeat")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicaHeartbeat {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "beat_at")
+    private LocalDateTime beatAt;
+}
@@ -0,0 +1,35 @@
+package com.example.gym.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A revoked JWT, keyed by its jti. Rows are purged once the token would have
+ * expired anyway.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+    @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at"),
+    @Index(name = "idx_revoked_token_revoked_at", columnList = "revoked_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @Column(name = "jti", length = 64)
+    private String jti;
+
+    private String username;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+}
@@ -0,0 +1,27 @@
+package com.example.gym.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A normalized trainer specialization ("strength training"), see SpecializationTags.
+ * Trainers link to their tags through trainer_specialization_tags.
+ */
+@Entity
+@Table(name = "specialization_tags", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_specialization_tag_name", columnNames = "name")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpecializationTag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+}
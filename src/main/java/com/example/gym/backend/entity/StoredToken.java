@@ -0,0 +1,40 @@
+package com.example.gym.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of the JDBC token store. Keyed by "type:username" so that each user has at
+ * most one access token, one latest refresh token and one session row, plus one
+ * "REFRESH_SESSION:username:jti" row per logged-in device.
+ */
+@Entity
+@Table(name = "user_tokens", indexes = {
+    @Index(name = "idx_user_tokens_username", columnList = "username"),
+    @Index(name = "idx_user_tokens_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredToken {
+
+    @Id
+    @Column(name = "token_key", length = 191)
+    private String tokenKey;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "token_type", length = 16, nullable = false)
+    private String tokenType;
+
+    @Column(name = "token_value", columnDefinition = "TEXT", nullable = false)
+    private String tokenValue;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -10,7 +10,9 @@ import lombok.AllArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
 @Table(name = "trainers", indexes = {
@@ -55,6 +57,14 @@ public class Trainer {
 
     private String specialization;
 
+    // specialization split into normalized tags (SpecializationTags), set by TrainerService
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "trainer_specialization_tags",
+            joinColumns = @JoinColumn(name = "trainer_id"),
+            inverseJoinColumns = @JoinColumn(name = "tag_id"),
+            indexes = @Index(name = "idx_trainer_tag_tag", columnList = "tag_id, trainer_id"))
+    private Set<SpecializationTag> specializationTags = new HashSet<>();
+
     @Column(name = "experience_years")
     private Integer experienceYears;
 
@@ -72,14 +82,43 @@ public class Trainer {
 
     private String location;
 
+    // rating = rating_sum / total_ratings, maintained by TrainerReviewService in one UPDATE
+    // per review and checked by TrainerRatingReconciliationService; not updatable from the
+    // entity, so saving a trainer loaded earlier cannot undo a concurrent review
+    @Column(updatable = false)
     private BigDecimal rating = BigDecimal.ZERO;
 
-    @Column(name = "total_ratings")
+    @Column(name = "total_ratings", updatable = false)
     private Integer totalRatings = 0;
 
+    // DECIMAL like rating: hand-entered averages (see legacy_*) need not add up to whole stars
+    @Column(name = "rating_sum", nullable = false, updatable = false)
+    private BigDecimal ratingSum = BigDecimal.ZERO;
+
+    // Hand-entered ratings from before reviews existed, included in rating_sum and
+    // total_ratings; set once by V11 and added back by the reconciliation
+    @Column(name = "legacy_rating_sum", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "decimal(38,2) default 0")
+    private BigDecimal legacyRatingSum = BigDecimal.ZERO;
+
+    @Column(name = "legacy_ratings", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    private int legacyRatings;
+
     @Column(name = "is_active")
     private boolean isActive = true;
 
+    // Clients the trainer takes on at most; null = app.trainer.default-max-clients
+    @Column(name = "max_clients")
+    private Integer maxClients;
+
+    // ACTIVE assignments, maintained by TrainerAssignmentService with conditional UPDATEs.
+    // Never written from the entity, so saving a trainer loaded earlier cannot undo a
+    // concurrent assignment.
+    @Column(name = "active_assignments", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    private int activeAssignments;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
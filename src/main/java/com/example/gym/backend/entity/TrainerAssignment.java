@@ -10,7 +10,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "trainer_assignments")
+@Table(name = "trainer_assignments", indexes = {
+    @Index(name = "idx_assignment_trainer_status", columnList = "trainer_id, status"),
+    @Index(name = "idx_assignment_member_status", columnList = "member_id, status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
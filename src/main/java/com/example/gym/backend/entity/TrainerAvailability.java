@@ -0,0 +1,46 @@
+package com.example.gym.backend.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * A weekly window in which a trainer can be booked, e.g. MONDAY 06:00-12:00.
+ * Bookings must lie inside one window (TrainerBookingService).
+ */
+@Entity
+@Table(name = "trainer_availability", indexes = {
+    @Index(name = "idx_availability_trainer_day", columnList = "trainer_id, day_of_week")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainerAvailability {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "trainer_id")
+    private Trainer trainer;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week", length = 9)
+    private DayOfWeek dayOfWeek;
+
+    @NotNull
+    @Column(name = "start_time")
+    private LocalTime startTime;
+
+    @NotNull
+    @Column(name = "end_time")
+    private LocalTime endTime;
+}
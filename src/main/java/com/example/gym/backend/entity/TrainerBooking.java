@@ -0,0 +1,74 @@
+package com.example.gym.backend.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A reserved personal training session. The time it occupies is claimed in
+ * trainer_booking_slots, whose unique keys keep bookings from overlapping.
+ */
+@Entity
+@Table(name = "trainer_bookings", indexes = {
+    @Index(name = "idx_booking_trainer_date", columnList = "trainer_id, booking_date, start_time"),
+    @Index(name = "idx_booking_member_date", columnList = "member_id, booking_date, start_time")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainerBooking {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "trainer_id")
+    private Trainer trainer;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id")
+    private Member member;
+
+    @NotNull
+    @Column(name = "booking_date")
+    private LocalDate bookingDate;
+
+    @NotNull
+    @Column(name = "start_time")
+    private LocalTime startTime;
+
+    @NotNull
+    @Column(name = "end_time")
+    private LocalTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private BookingStatus status = BookingStatus.BOOKED;
+
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "cancelled_at")
+    private LocalDateTime cancelledAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public enum BookingStatus {
+        BOOKED, CANCELLED
+    }
+}
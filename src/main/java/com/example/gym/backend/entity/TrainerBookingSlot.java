@@ -0,0 +1,43 @@
+package com.example.gym.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One grid slot (app.booking.slot-minutes) taken by a booking. MySQL has no exclusion
+ * constraints, so overlap is excluded by uniqueness instead: a booking inserts a row per
+ * slot it covers, and a second booking of the same trainer or member in any of those
+ * slots fails on the unique key. Cancelling deletes the rows.
+ */
+@Entity
+@Table(name = "trainer_booking_slots", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_booking_slot_trainer", columnNames = {"trainer_id", "slot_start"}),
+    @UniqueConstraint(name = "uk_booking_slot_member", columnNames = {"member_id", "slot_start"})
+}, indexes = {
+    @Index(name = "idx_booking_slot_booking", columnList = "booking_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainerBookingSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "trainer_id", nullable = false)
+    private Long trainerId;
+
+    @Column(name = "member_id", nullable = false)
+    private Long memberId;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(name = "slot_start", nullable = false)
+    private LocalDateTime slotStart;
+}
@@ -0,0 +1,52 @@
+package com.example.gym.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A member's 1-5 rating of the trainer who ran one of their workout sessions; at most
+ * one per member and session. Trainer.rating is kept up to date incrementally, so this
+ * table is only read in full by the nightly reconciliation.
+ */
+@Entity
+@Table(name = "trainer_reviews", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_review_member_session", columnNames = {"member_id", "workout_session_id"})
+}, indexes = {
+    @Index(name = "idx_review_trainer_rating", columnList = "trainer_id, rating")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainerReview {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "trainer_id", nullable = false)
+    private Long trainerId;
+
+    @Column(name = "member_id", nullable = false)
+    private Long memberId;
+
+    @Column(name = "workout_session_id", nullable = false)
+    private Long workoutSessionId;
+
+    @Column(nullable = false)
+    private Integer rating;
+
+    @Column(length = 1000)
+    private String comment;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -20,8 +20,8 @@ import com.example.gym.backend.entity.Payment;
 @Table(name = "users", indexes = {
     @Index(name = "idx_user_email", columnList = "email"),
     @Index(name = "idx_user_username", columnList = "username"),
-    @Index(name = "idx_user_role", columnList = "role"),
-    @Index(name = "idx_user_gym", columnList = "gym_id"),
+    @Index(name = "idx_user_role_active", columnList = "role, isActive"),
+    @Index(name = "idx_user_gym_active", columnList = "gym_id, isActive, role"),
     @Index(name = "idx_user_active", columnList = "isActive")
 })
 @Data
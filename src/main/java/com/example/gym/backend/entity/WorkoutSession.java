@@ -10,7 +10,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "workout_sessions")
+@Table(name = "workout_sessions", indexes = {
+    // Session history per member and per trainer, newest first
+    @Index(name = "idx_workout_member_date", columnList = "member_id, session_date"),
+    @Index(name = "idx_workout_trainer_date", columnList = "trainer_id, session_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,19 @@
+package com.example.gym.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when request parameters are invalid
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BadRequestException extends RuntimeException {
+
+    /**
+     * Constructor with message
+     * @param message the error message
+     */
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
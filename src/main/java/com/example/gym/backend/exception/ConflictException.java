@@ -0,0 +1,20 @@
+package com.example.gym.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a request conflicts with the current state of a resource,
+ * e.g. assigning a trainer who has no free capacity
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+
+    /**
+     * Constructor with message
+     * @param message the error message
+     */
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.gym.backend.exception;
+
+/**
+ * Exception thrown when a batch job's lease has passed to another node, e.g. after a
+ * checkpoint came too late; the job must stop and leave the rest to that node
+ */
+public class LeaseLostException extends RuntimeException {
+
+    /**
+     * Constructor with message
+     * @param message the error message
+     */
+    public LeaseLostException(String message) {
+        super(message);
+    }
+}
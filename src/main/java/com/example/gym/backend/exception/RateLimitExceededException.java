@@ -0,0 +1,28 @@
+package com.example.gym.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a gym or user has used up its request budget.
+ * Mapped to 429 with a Retry-After hint.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructor with message and retry hint
+     * @param message the error message
+     * @param retryAfterSeconds seconds until the budget allows another request
+     */
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.gym.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a bounded resource is saturated and the request is shed
+ * instead of queued. Mapped to 503 with a Retry-After hint.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceBusyException extends RuntimeException {
+
+    private static final long DEFAULT_RETRY_AFTER_SECONDS = 1;
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructor with message
+     * @param message the error message
+     */
+    public ServiceBusyException(String message) {
+        this(message, DEFAULT_RETRY_AFTER_SECONDS);
+    }
+
+    /**
+     * Constructor with message and retry hint
+     * @param message the error message
+     * @param retryAfterSeconds seconds the client should wait before retrying
+     */
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -145,4 +146,16 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
             @Param("gymId") Long gymId,
             @Param("startOfDay") LocalDateTime startOfDay,
             @Param("endOfDay") LocalDateTime endOfDay);
+
+    // (user id, check-in time) of the given users' check-ins in a period, for the one-per-day rule
+    @Query("""
+        SELECT a.user.id, a.checkIn FROM Attendance a
+        WHERE a.user.id IN :userIds
+        AND a.checkIn >= :startOfDay
+        AND a.checkIn < :endOfDay
+    """)
+    List<Object[]> findCheckInTimes(
+            @Param("userIds") Collection<Long> userIds,
+            @Param("startOfDay") LocalDateTime startOfDay,
+            @Param("endOfDay") LocalDateTime endOfDay);
 }
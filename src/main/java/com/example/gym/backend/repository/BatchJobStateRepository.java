@@ -0,0 +1,43 @@
+package com.example.gym.backend.repository;
+
+import com.example.gym.backend.entity.BatchJobState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface BatchJobStateRepository extends JpaRepository<BatchJobState, String> {
+
+    // Conditional UPDATE acts as the lock: only one node can move an expired lease to itself
+    @Modifying
+    @Query("UPDATE BatchJobState j SET j.lockedBy = :owner, j.lockedUntil = :until, j.updatedAt = :now " +
+            "WHERE j.jobName = :jobName AND (j.lockedUntil IS NULL OR j.lockedUntil < :now OR j.lockedBy = :owner)")
+    int tryAcquire(@Param("jobName") String jobName,
+                   @Param("owner") String owner,
+                   @Param("until") LocalDateTime until,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE BatchJobState j SET j.lockedBy = NULL, j.lockedUntil = NULL, j.updatedAt = :now " +
+            "WHERE j.jobName = :jobName AND j.lockedBy = :owner")
+    int release(@Param("jobName") String jobName,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now);
+
+    // Checkpoint also extends the lease; 0 rows means the lock was lost to another node
+    @Modifying
+    @Query("UPDATE BatchJobState j SET j.runKey = :runKey, j.lastProcessedId = :lastProcessedId, " +
+            "j.processedCount = :processedCount, j.lockedUntil = :until, j.updatedAt = :now " +
+            "WHERE j.jobName = :jobName AND j.lockedBy = :owner")
+    int checkpoint(@Param("jobName") String jobName,
+                   @Param("owner") String owner,
+                   @Param("runKey") String runKey,
+                   @Param("lastProcessedId") Long lastProcessedId,
+                   @Param("processedCount") Long processedCount,
+                   @Param("until") LocalDateTime until,
+                   @Param("now") LocalDateTime now);
+}
@@ -1,8 +1,10 @@
 package com.example.gym.backend.repository;
 
 import com.example.gym.backend.entity.Gym;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,4 +19,8 @@ public interface GymRepository extends JpaRepository<Gym, Long> {
 
     @Query("SELECT g FROM Gym g WHERE g.isActive = true")
     List<Gym> findActiveGyms();
+
+    // Keyset page of all gyms in id order
+    @Query("SELECT g FROM Gym g WHERE g.id > :afterId ORDER BY g.id")
+    List<Gym> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
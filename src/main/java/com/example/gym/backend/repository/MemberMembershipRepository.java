@@ -1,7 +1,11 @@
 package com.example.gym.backend.repository;
 
+import com.example.gym.backend.dto.ExpiringMembershipView;
+import com.example.gym.backend.dto.MembershipView;
 import com.example.gym.backend.entity.MemberMembership;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,6 +16,11 @@ import java.util.List;
 @Repository
 public interface MemberMembershipRepository extends JpaRepository<MemberMembership, Long> {
 
+    // Row columns only: member.id, plan.id and gym.id read the foreign keys without joins
+    String MEMBERSHIP_VIEW = "SELECT m.id AS id, m.member.id AS memberId, m.plan.id AS planId, m.gym.id AS gymId, " +
+            "m.startDate AS startDate, m.endDate AS endDate, m.amountPaid AS amountPaid, m.status AS status, " +
+            "m.autoRenewal AS autoRenewal, m.createdAt AS createdAt FROM MemberMembership m ";
+
     List<MemberMembership> findByMemberId(Long memberId);
     List<MemberMembership> findByStatus(MemberMembership.MembershipStatus status);
 
@@ -33,4 +42,65 @@ public interface MemberMembershipRepository extends JpaRepository<MemberMembersh
     
     @Query("SELECT m FROM MemberMembership m WHERE m.endDate BETWEEN :startDate AND :endDate")
     List<MemberMembership> findByEndDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Keyset page of (membershipId, memberId) for ACTIVE memberships past their end date
+    @Query("SELECT m.id, m.member.id FROM MemberMembership m " +
+            "WHERE m.status = :status AND m.endDate < :today AND m.id > :afterId ORDER BY m.id")
+    List<Object[]> findExpiredBatch(@Param("status") MemberMembership.MembershipStatus status,
+                                    @Param("today") LocalDate today,
+                                    @Param("afterId") Long afterId,
+                                    Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE MemberMembership m SET m.status = :newStatus WHERE m.id IN :ids AND m.status = :currentStatus")
+    int updateStatusByIds(@Param("ids") List<Long> ids,
+                          @Param("currentStatus") MemberMembership.MembershipStatus currentStatus,
+                          @Param("newStatus") MemberMembership.MembershipStatus newStatus);
+
+    // Keyset page of reminder recipients for one end date; skips reminders already sent or out of retries
+    @Query("SELECT mm.id AS membershipId, m.id AS memberId, m.firstName AS firstName, m.lastName AS lastName, " +
+            "m.email AS email, p.id AS planId, p.name AS planName, mm.endDate AS endDate " +
+            "FROM MemberMembership mm JOIN mm.member m JOIN mm.plan p " +
+            "WHERE mm.status = 'ACTIVE' AND mm.endDate = :endDate AND mm.id > :afterId " +
+            "AND m.email IS NOT NULL AND m.email <> '' " +
+            "AND NOT EXISTS (SELECT 1 FROM MemberMembership s WHERE s.renewedFromId = mm.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM MembershipReminder r WHERE r.membershipId = mm.id " +
+            "AND r.daysBefore = :daysBefore AND (r.status = 'SENT' OR r.attempts >= :maxAttempts)) " +
+            "ORDER BY mm.id")
+    List<ExpiringMembershipView> findReminderBatch(@Param("endDate") LocalDate endDate,
+                                                   @Param("daysBefore") Integer daysBefore,
+                                                   @Param("maxAttempts") int maxAttempts,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+
+    // Keyset page of all memberships in id order
+    @Query("SELECT m FROM MemberMembership m WHERE m.id > :afterId ORDER BY m.id")
+    List<MemberMembership> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Keyset page of one gym's memberships, optionally by status and end-date window
+    @Query(MEMBERSHIP_VIEW +
+            "WHERE m.gym.id = :gymId AND (:status IS NULL OR m.status = :status) " +
+            "AND (:endFrom IS NULL OR m.endDate >= :endFrom) AND (:endTo IS NULL OR m.endDate <= :endTo) " +
+            "AND m.id > :afterId ORDER BY m.id")
+    List<MembershipView> findViewsByGym(@Param("gymId") Long gymId,
+                                        @Param("status") MemberMembership.MembershipStatus status,
+                                        @Param("endFrom") LocalDate endFrom,
+                                        @Param("endTo") LocalDate endTo,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
+
+    // ACTIVE memberships covering today, the one running longest first
+    @Query(MEMBERSHIP_VIEW +
+            "WHERE m.member.id = :memberId AND m.status = 'ACTIVE' AND m.endDate >= :today " +
+            "AND m.startDate <= :today ORDER BY m.endDate DESC, m.id DESC")
+    List<MembershipView> findCurrentActiveViews(@Param("memberId") Long memberId,
+                                                @Param("today") LocalDate today,
+                                                Pageable pageable);
+
+    // Auto-renewals of the member's plan still waiting for their payment, oldest first
+    @Query("SELECT m FROM MemberMembership m WHERE m.member.id = :memberId AND m.plan.id = :planId " +
+            "AND m.renewedFromId IS NOT NULL AND m.amountPaid = 0 ORDER BY m.startDate, m.id")
+    List<MemberMembership> findUnpaidRenewals(@Param("memberId") Long memberId,
+                                              @Param("planId") Long planId,
+                                              Pageable pageable);
 }
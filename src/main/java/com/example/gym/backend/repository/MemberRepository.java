@@ -1,15 +1,20 @@
 package com.example.gym.backend.repository;
 
 import com.example.gym.backend.entity.Member;
+import com.example.gym.backend.entity.MemberMembership.MembershipStatus;
 import com.example.gym.backend.entity.Member.MemberStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,8 +47,11 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     @Query("SELECT COUNT(m) FROM Member m WHERE m.status = :status")
     long countByStatus(@Param("status") MemberStatus status);
 
-    @Query("SELECT DISTINCT m FROM Member m JOIN FETCH m.memberships mm WHERE mm.endDate <= :expiryDate AND m.status = 'ACTIVE'")
-    List<Member> findMembersWithExpiringMemberships(@Param("expiryDate") LocalDate expiryDate);
+    // EXISTS instead of JOIN FETCH: only the members are loaded, not their whole membership history
+    @Query("SELECT m FROM Member m WHERE m.status = 'ACTIVE' AND EXISTS (SELECT 1 FROM MemberMembership mm " +
+            "WHERE mm.member = m AND mm.status = 'ACTIVE' AND mm.endDate BETWEEN :today AND :expiryDate)")
+    List<Member> findMembersWithExpiringMemberships(@Param("today") LocalDate today,
+                                                    @Param("expiryDate") LocalDate expiryDate);
 
     /**
      * Find the highest member code for a given date prefix (e.g., "M20260301")
@@ -51,4 +59,32 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
      */
     @Query("SELECT m.memberCode FROM Member m WHERE m.memberCode LIKE :prefix% ORDER BY m.memberCode DESC")
     List<String> findMemberCodesByPrefix(@Param("prefix") String prefix);
-}
\ No newline at end of file
+
+    /**
+     * Mark ACTIVE members as EXPIRED unless they still hold a current ACTIVE membership
+     * (e.g. a renewal that already started). Used by the membership expiry job.
+     */
+    @Modifying
+    @Query("UPDATE Member m SET m.status = :expired " +
+            "WHERE m.id IN :memberIds AND m.status = :active " +
+            "AND NOT EXISTS (SELECT 1 FROM MemberMembership mm " +
+            "WHERE mm.member.id = m.id AND mm.status = :activeMembership AND mm.endDate >= :today)")
+    int expireMembersWithoutCurrentMembership(@Param("memberIds") List<Long> memberIds,
+                                              @Param("today") LocalDate today,
+                                              @Param("active") MemberStatus active,
+                                              @Param("expired") MemberStatus expired,
+                                              @Param("activeMembership") MembershipStatus activeMembership);
+
+    // Keyset page of all members in id order
+    @Query("SELECT m FROM Member m WHERE m.id > :afterId ORDER BY m.id")
+    List<Member> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // (id, gym id) of each of the given members, for batch validation
+    @Query("SELECT m.id, m.gym.id FROM Member m WHERE m.id IN :ids")
+    List<Object[]> findGymIds(@Param("ids") Collection<Long> ids);
+
+    // Row lock on the member, serializing changes to their trainer assignment
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Member m WHERE m.id = :memberId")
+    Optional<Member> findByIdForUpdate(@Param("memberId") Long memberId);
+}
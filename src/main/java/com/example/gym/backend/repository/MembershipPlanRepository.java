@@ -16,10 +16,10 @@ public interface MembershipPlanRepository extends JpaRepository<MembershipPlan,
 
 //    List<MembershipPlan> findByIsActiveTrue();
 
-    @Query(value = "SELECT * FROM membership_plans WHERE is_active = 1", nativeQuery = true)
+    @Query(value = "SELECT * FROM membership_plans WHERE is_active = TRUE", nativeQuery = true)
     List<MembershipPlan> findActivePlans();
 
-    @Query(value = "SELECT * FROM membership_plans WHERE is_active = 1 AND gym_id = :gymId", nativeQuery = true)
+    @Query(value = "SELECT * FROM membership_plans WHERE is_active = TRUE AND gym_id = :gymId", nativeQuery = true)
     List<MembershipPlan> findActivePlansByGymId(@Param("gymId") Long gymId);
 
     @Query(value = "SELECT * FROM membership_plans WHERE gym_id = :gymId", nativeQuery = true)
@@ -0,0 +1,19 @@
+package com.example.gym.backend.repository;
+
+import com.example.gym.backend.entity.MembershipReminder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MembershipReminderRepository extends JpaRepository<MembershipReminder, Long> {
+
+    // Explicit query: "daysBefore" would be parsed as a "Before" keyword by a derived finder
+    @Query("SELECT r FROM MembershipReminder r WHERE r.daysBefore = :daysBefore AND r.membershipId IN :membershipIds")
+    List<MembershipReminder> findByStage(@Param("daysBefore") Integer daysBefore,
+                                         @Param("membershipIds") Collection<Long> membershipIds);
+}
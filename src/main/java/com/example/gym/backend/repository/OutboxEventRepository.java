@@ -0,0 +1,42 @@
+package com.example.gym.backend.repository;
+
+import com.example.gym.backend.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Pending events due for delivery, in id order after {@code afterId}
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = 'PENDING' AND e.id > :afterId " +
+            "AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) ORDER BY e.id")
+    List<OutboxEvent> findReady(@Param("afterId") Long afterId, @Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Aggregates (type, id) with a pending event still backing off; their later events must wait
+     */
+    @Query("SELECT DISTINCT e.aggregateType, e.aggregateId FROM OutboxEvent e " +
+            "WHERE e.status = 'PENDING' AND e.nextAttemptAt > :now")
+    List<Object[]> findBackingOffAggregates(@Param("now") LocalDateTime now);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.status = 'PENDING'")
+    LocalDateTime findOldestPendingCreatedAt();
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'PUBLISHED', e.publishedAt = :now, e.lastError = NULL " +
+            "WHERE e.id IN :ids")
+    int markPublished(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = 'PUBLISHED' AND e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -25,27 +25,34 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     @Query("SELECT p FROM Payment p WHERE p.dueDate <= :dueDate AND p.status = 'PENDING'")
     List<Payment> findOverduePayments(@Param("dueDate") LocalDate dueDate);
 
+    // Newest 10 per status read off idx_payment_status (the window used to rank the whole table)
     @Query(
             value = """
             SELECT *
             FROM (
-                SELECT 
-                    p.*, 
-                    ROW_NUMBER() OVER (PARTITION BY p.status ORDER BY p.id DESC) AS rn
-                FROM payments p
-                WHERE p.status IN ('COMPLETED', 'FAILED', 'PENDING')
+                SELECT
+                    latest.*,
+                    ROW_NUMBER() OVER (PARTITION BY latest.status ORDER BY latest.id DESC) AS rn
+                FROM (
+                    (SELECT * FROM payments WHERE status = 'COMPLETED' ORDER BY id DESC LIMIT 10)
+                    UNION ALL
+                    (SELECT * FROM payments WHERE status = 'FAILED' ORDER BY id DESC LIMIT 10)
+                    UNION ALL
+                    (SELECT * FROM payments WHERE status = 'PENDING' ORDER BY id DESC LIMIT 10)
+                ) AS latest
             ) AS ranked
-            ORDER BY 
+            ORDER BY
                 ranked.rn,
-                FIELD(ranked.status, 'COMPLETED', 'FAILED', 'PENDING')
+                CASE ranked.status WHEN 'COMPLETED' THEN 1 WHEN 'FAILED' THEN 2 ELSE 3 END
             LIMIT 10
             """,
             nativeQuery = true
     )
     List<Payment> findAllPayments();
 
-    @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.status = 'COMPLETED' AND DATE(p.paymentDate) = :date")
-    BigDecimal getTotalRevenueByDate(@Param("date") LocalDate date);
+    // Range on payment_date (not DATE(...)) so MySQL can prune to one monthly partition
+    @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.status = 'COMPLETED' AND p.paymentDate >= :startOfDay AND p.paymentDate < :endOfDay")
+    BigDecimal getTotalRevenueByDate(@Param("startOfDay") LocalDateTime startOfDay, @Param("endOfDay") LocalDateTime endOfDay);
 
     @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.status = 'PENDING'")
     BigDecimal getTotalPendingAmount();
@@ -63,8 +70,8 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     @Query("SELECT p FROM Payment p WHERE p.gym.id = :gymId AND p.dueDate <= :dueDate AND p.status = 'PENDING'")
     List<Payment> findOverduePaymentsByGymId(@Param("gymId") Long gymId, @Param("dueDate") LocalDate dueDate);
 
-    @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.gym.id = :gymId AND p.status = 'COMPLETED' AND DATE(p.paymentDate) = :date")
-    BigDecimal getTotalRevenueByDateAndGymId(@Param("gymId") Long gymId, @Param("date") LocalDate date);
+    @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.gym.id = :gymId AND p.status = 'COMPLETED' AND p.paymentDate >= :startOfDay AND p.paymentDate < :endOfDay")
+    BigDecimal getTotalRevenueByDateAndGymId(@Param("gymId") Long gymId, @Param("startOfDay") LocalDateTime startOfDay, @Param("endOfDay") LocalDateTime endOfDay);
 
     @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.gym.id = :gymId AND p.status = 'PENDING'")
     BigDecimal getTotalPendingAmountByGymId(@Param("gymId") Long gymId);
@@ -0,0 +1,45 @@
+package com.example.gym.backend.repository;
+
+import com.example.gym.backend.dto.MetricPoint;
+import com.example.gym.backend.entity.ProgressMetric;
+import com.example.gym.backend.entity.ProgressMetric.Metric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProgressMetricRepository extends JpaRepository<ProgressMetric, Long> {
+
+    // One series on the (member_id, metric, measured_at) index, in [start, end)
+    String SERIES = "FROM ProgressMetric m WHERE m.memberId = :memberId AND m.metric = :metric " +
+            "AND m.measuredAt >= :start AND m.measuredAt < :end ";
+
+    @Query("SELECT new com.example.gym.backend.dto.MetricPoint(m.dayStart, MIN(m.value), AVG(m.value), " +
+            "MAX(m.value), COUNT(m)) " + SERIES + "GROUP BY m.dayStart ORDER BY m.dayStart")
+    List<MetricPoint> findDailySeries(@Param("memberId") Long memberId,
+                                      @Param("metric") Metric metric,
+                                      @Param("start") LocalDateTime start,
+                                      @Param("end") LocalDateTime end);
+
+    @Query("SELECT new com.example.gym.backend.dto.MetricPoint(m.weekStart, MIN(m.value), AVG(m.value), " +
+            "MAX(m.value), COUNT(m)) " + SERIES + "GROUP BY m.weekStart ORDER BY m.weekStart")
+    List<MetricPoint> findWeeklySeries(@Param("memberId") Long memberId,
+                                       @Param("metric") Metric metric,
+                                       @Param("start") LocalDateTime start,
+                                       @Param("end") LocalDateTime end);
+
+    @Query("SELECT new com.example.gym.backend.dto.MetricPoint(m.monthStart, MIN(m.value), AVG(m.value), " +
+            "MAX(m.value), COUNT(m)) " + SERIES + "GROUP BY m.monthStart ORDER BY m.monthStart")
+    List<MetricPoint> findMonthlySeries(@Param("memberId") Long memberId,
+                                        @Param("metric") Metric metric,
+                                        @Param("start") LocalDateTime start,
+                                        @Param("end") LocalDateTime end);
+
+    // Metrics a member has any values for, for the chart picker
+    @Query("SELECT DISTINCT m.metric FROM ProgressMetric m WHERE m.memberId = :memberId")
+    List<Metric> findTrackedMetrics(@Param("memberId") Long memberId);
+}
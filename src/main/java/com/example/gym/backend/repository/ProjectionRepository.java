@@ -0,0 +1,92 @@
+package com.example.gym.backend.repository;
+
+import com.example.gym.backend.util.SparseFieldset;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Selects only the columns of a {@link SparseFieldset} as tuples, instead of loading
+ * whole entities and dropping fields afterwards. Rows come back as ordered maps keyed
+ * by response field name, ready to serialize.
+ */
+@Repository
+public class ProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> List<Map<String, Object>> findFields(Class<T> entityType, SparseFieldset fields,
+                                                    Specification<T> where, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entityType);
+        Map<String, From<?, ?>> joins = new HashMap<>();
+
+        List<Selection<?>> selections = new ArrayList<>();
+        fields.paths().forEach((name, path) -> selections.add(path(root, joins, path).alias(name)));
+        query.multiselect(selections);
+
+        if (where != null) {
+            Predicate predicate = where.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort != null && sort.isSorted()) {
+            query.orderBy(sort.stream()
+                    .map(order -> order.isAscending()
+                            ? cb.asc(path(root, joins, order.getProperty()))
+                            : cb.desc(path(root, joins, order.getProperty())))
+                    .toList());
+        }
+
+        List<Tuple> tuples = entityManager.createQuery(query).setMaxResults(limit).getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String name : fields.paths().keySet()) {
+                row.put(name, tuple.get(name));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * "gym.id" reads the foreign key column without a join; any other attribute of an
+     * association ("plan.name") is read through a left join, so rows without one stay.
+     */
+    private static Path<?> path(Root<?> root, Map<String, From<?, ?>> joins, String attributePath) {
+        String[] segments = attributePath.split("\\.");
+        if (segments.length == 2 && segments[1].equals("id")) {
+            return root.get(segments[0]).get("id");
+        }
+        From<?, ?> from = root;
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < segments.length - 1; i++) {
+            joined.append(segments[i]).append('.');
+            From<?, ?> parent = from;
+            String segment = segments[i];
+            from = joins.computeIfAbsent(joined.toString(), key -> parent.join(segment, JoinType.LEFT));
+        }
+        return from.get(segments[segments.length - 1]);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.gym.backend.repository;
+
+import com.example.gym.backend.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // Revocations written (by any node) since the given instant, for cross-node sync
+    @Query("SELECT r FROM RevokedToken r WHERE r.revokedAt > :since AND r.expiresAt > :now")
+    List<RevokedToken> findRevokedSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+
+    @Query("SELECT r.jti FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<String> findActiveJtis(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,14 @@
+package com.example.gym.backend.repository;
+
+import com.example.gym.backend.entity.SpecializationTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SpecializationTagRepository extends JpaRepository<SpecializationTag, Long> {
+
+    List<SpecializationTag> findByNameIn(Collection<String> names);
+}
@@ -0,0 +1,53 @@
+package com.example.gym.backend.repository;
+
+import com.example.gym.backend.dto.TrainerAssignmentView;
+import com.example.gym.backend.entity.TrainerAssignment;
+import com.example.gym.backend.entity.TrainerAssignment.AssignmentStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TrainerAssignmentRepository extends JpaRepository<TrainerAssignment, Long> {
+
+    String ASSIGNMENT_VIEW = "SELECT a.id AS id, t.id AS trainerId, t.firstName AS trainerFirstName, " +
+            "t.lastName AS trainerLastName, m.id AS memberId, m.firstName AS memberFirstName, " +
+            "m.lastName AS memberLastName, a.assignedDate AS assignedDate, a.endDate AS endDate, " +
+            "a.status AS status, a.notes AS notes, a.createdAt AS createdAt " +
+            "FROM TrainerAssignment a JOIN a.trainer t JOIN a.member m ";
+
+    @Query(ASSIGNMENT_VIEW + "WHERE a.id = :id")
+    Optional<TrainerAssignmentView> findViewById(@Param("id") Long id);
+
+    // Keyset page of a trainer's assignments in one status, in id order
+    @Query(ASSIGNMENT_VIEW + "WHERE a.trainer.id = :trainerId AND a.status = :status AND a.id > :afterId ORDER BY a.id")
+    List<TrainerAssignmentView> findByTrainer(@Param("trainerId") Long trainerId,
+                                              @Param("status") AssignmentStatus status,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    // A member's assignments in one status, newest first
+    @Query(ASSIGNMENT_VIEW + "WHERE a.member.id = :memberId AND a.status = :status ORDER BY a.id DESC")
+    List<TrainerAssignmentView> findByMember(@Param("memberId") Long memberId,
+                                             @Param("status") AssignmentStatus status,
+                                             Pageable pageable);
+
+    @Query("SELECT COUNT(a) > 0 FROM TrainerAssignment a WHERE a.member.id = :memberId AND a.status = :status")
+    boolean existsByMemberAndStatus(@Param("memberId") Long memberId, @Param("status") AssignmentStatus status);
+
+    // Ends an assignment only if it is still in currentStatus; 0 rows updated = already ended
+    @Modifying
+    @Query("UPDATE TrainerAssignment a SET a.status = :newStatus, a.endDate = :endDate " +
+            "WHERE a.id = :id AND a.status = :currentStatus")
+    int updateStatus(@Param("id") Long id,
+                     @Param("currentStatus") AssignmentStatus currentStatus,
+                     @Param("newStatus") AssignmentStatus newStatus,
+                     @Param("endDate") LocalDate endDate);
+}
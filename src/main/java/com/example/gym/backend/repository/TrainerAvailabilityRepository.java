@@ -0,0 +1,31 @@
+package com.example.gym.backend.repository;
+
+import com.example.gym.backend.entity.TrainerAvailability;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+@Repository
+public interface TrainerAvailabilityRepository extends JpaRepository<TrainerAvailability, Long> {
+
+    @Query("SELECT a FROM TrainerAvailability a WHERE a.trainer.id = :trainerId")
+    List<TrainerAvailability> findByTrainer(@Param("trainerId") Long trainerId);
+
+    // Whether one window of the weekday contains [startTime, endTime]
+    @Query("SELECT COUNT(a) > 0 FROM TrainerAvailability a WHERE a.trainer.id = :trainerId " +
+            "AND a.dayOfWeek = :dayOfWeek AND a.startTime <= :startTime AND a.endTime >= :endTime")
+    boolean coversInterval(@Param("trainerId") Long trainerId,
+                           @Param("dayOfWeek") DayOfWeek dayOfWeek,
+                           @Param("startTime") LocalTime startTime,
+                           @Param("endTime") LocalTime endTime);
+
+    @Modifying
+    @Query("DELETE FROM TrainerAvailability a WHERE a.trainer.id = :trainerId")
+    int deleteByTrainer(@Param("trainerId") Long trainerId);
+}
@@ -0,0 +1,55 @@
+package com.example.gym.backend.repository;
+
+import com.example.gym.backend.dto.TrainerBookingView;
+import com.example.gym.backend.entity.TrainerBooking;
+import com.example.gym.backend.entity.TrainerBooking.BookingStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TrainerBookingRepository extends JpaRepository<TrainerBooking, Long> {
+
+    String BOOKING_VIEW = "SELECT b.id AS id, t.id AS trainerId, t.firstName AS trainerFirstName, " +
+            "t.lastName AS trainerLastName, m.id AS memberId, m.firstName AS memberFirstName, " +
+            "m.lastName AS memberLastName, b.bookingDate AS bookingDate, b.startTime AS startTime, " +
+            "b.endTime AS endTime, b.status AS status, b.notes AS notes, b.createdAt AS createdAt " +
+            "FROM TrainerBooking b JOIN b.trainer t JOIN b.member m ";
+
+    @Query(BOOKING_VIEW + "WHERE b.id = :id")
+    Optional<TrainerBookingView> findViewById(@Param("id") Long id);
+
+    // A trainer's bookings in one status over [fromDate, toDate], in time order
+    @Query(BOOKING_VIEW + "WHERE b.trainer.id = :trainerId AND b.bookingDate BETWEEN :fromDate AND :toDate " +
+            "AND b.status = :status ORDER BY b.bookingDate, b.startTime")
+    List<TrainerBookingView> findTrainerBookings(@Param("trainerId") Long trainerId,
+                                                 @Param("status") BookingStatus status,
+                                                 @Param("fromDate") LocalDate fromDate,
+                                                 @Param("toDate") LocalDate toDate,
+                                                 Pageable pageable);
+
+    // A member's bookings in one status from fromDate on, in time order
+    @Query(BOOKING_VIEW + "WHERE b.member.id = :memberId AND b.bookingDate >= :fromDate " +
+            "AND b.status = :status ORDER BY b.bookingDate, b.startTime")
+    List<TrainerBookingView> findMemberBookings(@Param("memberId") Long memberId,
+                                                @Param("status") BookingStatus status,
+                                                @Param("fromDate") LocalDate fromDate,
+                                                Pageable pageable);
+
+    // Changes the status only if it is still currentStatus; 0 rows updated = already changed
+    @Modifying
+    @Query("UPDATE TrainerBooking b SET b.status = :newStatus, b.cancelledAt = :cancelledAt " +
+            "WHERE b.id = :id AND b.status = :currentStatus")
+    int updateStatus(@Param("id") Long id,
+                     @Param("currentStatus") BookingStatus currentStatus,
+                     @Param("newStatus") BookingStatus newStatus,
+                     @Param("cancelledAt") LocalDateTime cancelledAt);
+}
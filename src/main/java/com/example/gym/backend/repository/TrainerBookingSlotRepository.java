@@ -0,0 +1,38 @@
+package com.example.gym.backend.repository;
+
+import com.example.gym.backend.entity.TrainerBookingSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TrainerBookingSlotRepository extends JpaRepository<TrainerBookingSlot, Long> {
+
+    // Taken slots of a trainer in [start, end), a range on uk_booking_slot_trainer
+    @Query("SELECT s.slotStart FROM TrainerBookingSlot s WHERE s.trainerId = :trainerId " +
+            "AND s.slotStart >= :start AND s.slotStart < :end ORDER BY s.slotStart")
+    List<LocalDateTime> findTakenSlots(@Param("trainerId") Long trainerId,
+                                       @Param("start") LocalDateTime start,
+                                       @Param("end") LocalDateTime end);
+
+    @Query("SELECT COUNT(s) > 0 FROM TrainerBookingSlot s WHERE s.trainerId = :trainerId " +
+            "AND s.slotStart >= :start AND s.slotStart < :end")
+    boolean trainerBusy(@Param("trainerId") Long trainerId,
+                        @Param("start") LocalDateTime start,
+                        @Param("end") LocalDateTime end);
+
+    @Query("SELECT COUNT(s) > 0 FROM TrainerBookingSlot s WHERE s.memberId = :memberId " +
+            "AND s.slotStart >= :start AND s.slotStart < :end")
+    boolean memberBusy(@Param("memberId") Long memberId,
+                       @Param("start") LocalDateTime start,
+                       @Param("end") LocalDateTime end);
+
+    @Modifying
+    @Query("DELETE FROM TrainerBookingSlot s WHERE s.bookingId = :bookingId")
+    int deleteByBooking(@Param("bookingId") Long bookingId);
+}
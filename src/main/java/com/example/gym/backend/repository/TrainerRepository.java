@@ -1,12 +1,17 @@
 package com.example.gym.backend.repository;
 
+import com.example.gym.backend.dto.TrainerCapacityDto;
+import com.example.gym.backend.dto.TrainerRatingDto;
 import com.example.gym.backend.entity.Trainer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,8 +20,8 @@ public interface TrainerRepository extends JpaRepository<Trainer, Long> {
     // Find all active trainers
     List<Trainer> findByIsActiveTrue();
 
-    // Find active trainers by specialization
-    @Query("SELECT t FROM Trainer t WHERE t.isActive = true AND LOWER(t.specialization) = LOWER(:specialization)")
+    // Find active trainers with a specialization tag (normalized, see SpecializationTags)
+    @Query("SELECT t FROM Trainer t JOIN t.specializationTags s WHERE t.isActive = true AND s.name = :specialization")
     List<Trainer> findActiveTrainersBySpecialization(@Param("specialization") String specialization);
 
     // Find top rated trainers
@@ -26,7 +31,74 @@ public interface TrainerRepository extends JpaRepository<Trainer, Long> {
     // Find trainers by email (for uniqueness check)
     boolean existsByEmail(String email);
 
-    // Find trainers by specialization (case insensitive)
-    @Query("SELECT t FROM Trainer t WHERE t.isActive = true AND LOWER(t.specialization) LIKE LOWER(CONCAT('%', :specialization, '%'))")
-    List<Trainer> findBySpecializationContainingIgnoreCase(@Param("specialization") String specialization);
+    // Keyset page of all trainers in id order
+    @Query("SELECT t FROM Trainer t WHERE t.id > :afterId ORDER BY t.id")
+    List<Trainer> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Keyset page of (trainer id, gym id, tag) of active trainers with a gym, in trainer id
+    // order, to rebuild TrainerSpecializationIndex for all gyms in one pass
+    @Query("SELECT t.id, t.gym.id, s.name FROM Trainer t JOIN t.specializationTags s " +
+            "WHERE t.id > :afterId AND t.isActive = true AND t.gym IS NOT NULL ORDER BY t.id")
+    List<Object[]> findSpecializationTagsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // (trainer id, tag) of every active trainer of a gym, to build TrainerSpecializationIndex
+    @Query("SELECT t.id, s.name FROM Trainer t JOIN t.specializationTags s WHERE t.gym.id = :gymId AND t.isActive = true")
+    List<Object[]> findSpecializationTagsByGym(@Param("gymId") Long gymId);
+
+    // Keyset page of a gym's active trainers in id order
+    @Query("SELECT t FROM Trainer t WHERE t.gym.id = :gymId AND t.isActive = true AND t.id > :afterId ORDER BY t.id")
+    List<Trainer> findActiveByGymAfter(@Param("gymId") Long gymId, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Active trainers of a gym among the given ids, in id order
+    @Query("SELECT t FROM Trainer t WHERE t.id IN :ids AND t.gym.id = :gymId AND t.isActive = true ORDER BY t.id")
+    List<Trainer> findActiveByGymAndIds(@Param("gymId") Long gymId, @Param("ids") Collection<Long> ids);
+
+    // (id, gym id) of each of the given trainers, for batch validation
+    @Query("SELECT t.id, t.gym.id FROM Trainer t WHERE t.id IN :ids")
+    List<Object[]> findGymIds(@Param("ids") Collection<Long> ids);
+
+    // Takes a client slot if the trainer has one left; 0 rows updated = no capacity
+    @Modifying
+    @Query("UPDATE Trainer t SET t.activeAssignments = t.activeAssignments + 1 " +
+            "WHERE t.id = :trainerId AND t.activeAssignments < COALESCE(t.maxClients, :defaultMaxClients)")
+    int claimClientSlot(@Param("trainerId") Long trainerId, @Param("defaultMaxClients") int defaultMaxClients);
+
+    @Modifying
+    @Query("UPDATE Trainer t SET t.activeAssignments = t.activeAssignments - 1 " +
+            "WHERE t.id = :trainerId AND t.activeAssignments > 0")
+    int releaseClientSlot(@Param("trainerId") Long trainerId);
+
+    // Active trainers of a gym with a free slot, least loaded first; reads trainer rows only
+    @Query("SELECT new com.example.gym.backend.dto.TrainerCapacityDto(t.id, t.firstName, t.lastName, " +
+            "t.specialization, t.rating, t.activeAssignments, COALESCE(t.maxClients, :defaultMaxClients)) " +
+            "FROM Trainer t WHERE t.gym.id = :gymId AND t.isActive = true " +
+            "AND t.activeAssignments < COALESCE(t.maxClients, :defaultMaxClients) " +
+            "AND (:specialization IS NULL OR EXISTS (SELECT 1 FROM t.specializationTags s WHERE s.name = :specialization)) " +
+            "ORDER BY t.activeAssignments, t.id")
+    List<TrainerCapacityDto> findWithFreeCapacity(@Param("gymId") Long gymId,
+                                                  @Param("specialization") String specialization,
+                                                  @Param("defaultMaxClients") int defaultMaxClients,
+                                                  Pageable pageable);
+
+    /**
+     * Adds one rating. The average is assigned first and computed from the old sum and
+     * count: standard SQL reads old values in every assignment, MySQL reads left to right,
+     * and this order is correct under both. The row lock serializes concurrent reviews.
+     */
+    @Modifying
+    @Query("UPDATE Trainer t SET t.rating = (t.ratingSum + CAST(:rating AS Integer)) / (t.totalRatings + 1), " +
+            "t.ratingSum = t.ratingSum + CAST(:rating AS Integer), t.totalRatings = t.totalRatings + 1 " +
+            "WHERE t.id = :trainerId")
+    int applyRating(@Param("trainerId") Long trainerId, @Param("rating") int rating);
+
+    // Best rated active trainers of a gym with at least minRatings reviews, optionally of one specialization
+    @Query("SELECT new com.example.gym.backend.dto.TrainerRatingDto(t.id, t.firstName, t.lastName, " +
+            "t.specialization, t.rating, t.totalRatings) " +
+            "FROM Trainer t WHERE t.gym.id = :gymId AND t.isActive = true AND t.totalRatings >= :minRatings " +
+            "AND (:specialization IS NULL OR EXISTS (SELECT 1 FROM t.specializationTags s WHERE s.name = :specialization)) " +
+            "ORDER BY t.rating DESC, t.totalRatings DESC, t.id")
+    List<TrainerRatingDto> findLeaderboard(@Param("gymId") Long gymId,
+                                           @Param("specialization") String specialization,
+                                           @Param("minRatings") int minRatings,
+                                           Pageable pageable);
 }
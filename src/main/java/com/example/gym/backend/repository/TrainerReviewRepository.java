@@ -0,0 +1,22 @@
+package com.example.gym.backend.repository;
+
+import com.example.gym.backend.entity.TrainerReview;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TrainerReviewRepository extends JpaRepository<TrainerReview, Long> {
+
+    @Query("SELECT COUNT(r) > 0 FROM TrainerReview r WHERE r.memberId = :memberId AND r.workoutSessionId = :sessionId")
+    boolean existsByMemberAndSession(@Param("memberId") Long memberId, @Param("sessionId") Long sessionId);
+
+    // (trainer id, review count, rating sum) for trainers with reviews, read from idx_review_trainer_rating
+    @Query("SELECT r.trainerId, COUNT(r), SUM(r.rating) FROM TrainerReview r " +
+            "WHERE r.trainerId IN :trainerIds GROUP BY r.trainerId")
+    List<Object[]> aggregateByTrainer(@Param("trainerIds") Collection<Long> trainerIds);
+}
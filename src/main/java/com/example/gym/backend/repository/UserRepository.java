@@ -2,13 +2,16 @@ package com.example.gym.backend.repository;
 
 import com.example.gym.backend.entity.User;
 import com.example.gym.backend.entity.User.UserRole;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,7 +30,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Page<User> findAllActiveUsers(Pageable pageable);
 
     @Query("SELECT u FROM User u WHERE (LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND u.role = 'MEMBER'")
-    Page<User> searchUsers(@Param("searchTerm") String searchTerm, Pageable pageable);
+    List<User> searchUsers(@Param("searchTerm") String searchTerm, Pageable pageable);
+
+    // Same search over every role, for SUPER_USER
+    @Query("SELECT u FROM User u WHERE LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    List<User> searchAllUsers(@Param("searchTerm") String searchTerm, Pageable pageable);
 
     // Gym-based queries for dashboard
     @Query("SELECT u FROM User u WHERE u.gym.id = :gymId")
@@ -45,12 +52,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role AND u.isActive = true")
     long countActiveByRole(@Param("role") UserRole role);
 
-    // Get all users (for admin to select when creating member)
-    @Query("SELECT u FROM User u WHERE u.isActive = true")
-    Page<User> findAllActive(Pageable pageable);
+    // Keyset page of active users (for admin to select when creating member)
+    @Query("SELECT u FROM User u WHERE u.isActive = true AND u.id > :afterId ORDER BY u.id")
+    List<User> findAllActive(@Param("afterId") Long afterId, Pageable pageable);
 
-    // Get users by gym
-    @Query("SELECT u FROM User u WHERE u.gym.id = :gymId AND u.isActive = true")
-    Page<User> findActiveByGymId(@Param("gymId") Long gymId, Pageable pageable);
-}
+    // Keyset page of active users of one gym
+    @Query("SELECT u FROM User u WHERE u.gym.id = :gymId AND u.isActive = true AND u.id > :afterId ORDER BY u.id")
+    List<User> findActiveByGymId(@Param("gymId") Long gymId, @Param("afterId") Long afterId, Pageable pageable);
 
+    // Row lock on the user, serializing their check-ins so the one-per-day rule holds
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :userId")
+    Optional<User> findByIdForUpdate(@Param("userId") Long userId);
+
+    // Same for many users, locked in id order so concurrent batches cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id IN :userIds ORDER BY u.id")
+    List<User> findAllByIdForUpdate(@Param("userIds") Collection<Long> userIds);
+}
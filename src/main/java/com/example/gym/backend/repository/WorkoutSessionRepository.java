@@ -0,0 +1,40 @@
+package com.example.gym.backend.repository;
+
+import com.example.gym.backend.dto.WorkoutSessionView;
+import com.example.gym.backend.entity.WorkoutSession;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WorkoutSessionRepository extends JpaRepository<WorkoutSession, Long> {
+
+    // Row columns only: member.id and trainer.id read the foreign keys without joins
+    String SESSION_VIEW = "SELECT w.id AS id, w.member.id AS memberId, w.trainer.id AS trainerId, " +
+            "w.sessionDate AS sessionDate, w.startTime AS startTime, w.endTime AS endTime, " +
+            "w.durationMinutes AS durationMinutes, w.workoutType AS workoutType, w.exercises AS exercises, " +
+            "w.caloriesBurned AS caloriesBurned, w.notes AS notes, w.createdAt AS createdAt FROM WorkoutSession w ";
+
+    // Keyset page of a member's sessions, newest first, after (beforeDate, beforeId)
+    @Query(SESSION_VIEW +
+            "WHERE w.member.id = :memberId AND (w.sessionDate < :beforeDate " +
+            "OR (w.sessionDate = :beforeDate AND w.id < :beforeId)) ORDER BY w.sessionDate DESC, w.id DESC")
+    List<WorkoutSessionView> findMemberHistory(@Param("memberId") Long memberId,
+                                               @Param("beforeDate") LocalDate beforeDate,
+                                               @Param("beforeId") Long beforeId,
+                                               Pageable pageable);
+
+    // Keyset page of the sessions a trainer ran, newest first, after (beforeDate, beforeId)
+    @Query(SESSION_VIEW +
+            "WHERE w.trainer.id = :trainerId AND (w.sessionDate < :beforeDate " +
+            "OR (w.sessionDate = :beforeDate AND w.id < :beforeId)) ORDER BY w.sessionDate DESC, w.id DESC")
+    List<WorkoutSessionView> findTrainerHistory(@Param("trainerId") Long trainerId,
+                                                @Param("beforeDate") LocalDate beforeDate,
+                                                @Param("beforeId") Long beforeId,
+                                                Pageable pageable);
+}
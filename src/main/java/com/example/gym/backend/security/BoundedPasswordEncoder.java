@@ -0,0 +1,144 @@
+package com.example.gym.backend.security;
+
+import com.example.gym.backend.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder that runs key-stretching on a small, CPU-sized pool instead of
+ * on the calling Tomcat thread.
+ *
+ * The pool queue is bounded: when it is full the call fails fast with
+ * {@link ServiceBusyException} (HTTP 503) rather than letting a login storm
+ * pile up behind the CPU. Hashes produced with a different cost factor than
+ * the configured one are reported by {@link #upgradeEncoding(String)}, so the
+ * authentication provider re-hashes them transparently on the next login.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(int strength, int poolSize, int queueCapacity,
+                                  long timeoutMillis, MeterRegistry meterRegistry) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.timeoutMillis = timeoutMillis;
+
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + threadIndex.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("password.hash.duration")
+                .tag("operation", "encode")
+                .description("Time spent hashing a password with BCrypt")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash.duration")
+                .tag("operation", "matches")
+                .description("Time spent verifying a password with BCrypt")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hash.rejected")
+                .description("Hash requests rejected because the hashing pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue.depth", executor, e -> e.getQueue().size())
+                .description("Hash requests waiting for a hashing thread")
+                .register(meterRegistry);
+
+        log.info("Password hashing pool started: threads={}, queueCapacity={}, bcryptStrength={}",
+                threads, queueCapacity, strength);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Any BCrypt hash whose cost differs from the configured strength is upgraded,
+     * so lowering the cost factor takes effect as well as raising it.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        if (!matcher.find()) {
+            return false;
+        }
+        return Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Too many concurrent sign-in requests, please retry shortly");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Password hashing timed out, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.gym.backend.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * Request details plus the user and gym ids carried in the access token, so
+ * per-request code (rate limiting) does not have to look the user up again.
+ * Both ids are null for tokens issued before they were added; gymId is also
+ * null for users without a gym (super users).
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class JwtAuthenticationDetails extends WebAuthenticationDetails {
+
+    private final Long userId;
+    private final Long gymId;
+
+    public JwtAuthenticationDetails(HttpServletRequest request, Long userId, Long gymId) {
+        super(request);
+        this.userId = userId;
+        this.gymId = gymId;
+    }
+}
@@ -1,21 +1,25 @@
 package com.example.gym.backend.security;
 
-import com.example.gym.backend.service.AuthService;
+import com.example.gym.backend.exception.ServiceBusyException;
+import com.example.gym.backend.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Date;
 
 @Component
 @RequiredArgsConstructor
@@ -24,6 +28,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -39,18 +44,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String username = jwtUtil.extractUsername(jwt);
+            // Parsed once: signature, expiry, revocation and the rate limit ids all come from these
+            final Claims claims = jwtUtil.extractAllClaims(jwt);
+            final String username = claims.getSubject();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
-                if (jwtUtil.validateToken(jwt)) {
+                // Revocation check is an in-memory bloom lookup for the common case
+                if (claims.getExpiration().after(new Date()) && !tokenRevocationService.isRevoked(claims.getId())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    authToken.setDetails(new JwtAuthenticationDetails(request,
+                            claims.get(JwtUtil.USER_ID_CLAIM, Long.class),
+                            claims.get(JwtUtil.GYM_ID_CLAIM, Long.class)));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             }
+        } catch (ServiceBusyException e) {
+            // Database connections are being shed: answer 503 rather than treating the user as anonymous
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            return;
         } catch (Exception e) {
             log.error("Cannot set user authentication: {}", e.getMessage());
         }
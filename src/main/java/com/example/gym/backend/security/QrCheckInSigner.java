@@ -0,0 +1,169 @@
+package com.example.gym.backend.security;
+
+import com.example.gym.backend.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rotating QR check-in codes, {@code keyId.payload.mac}: the payload is
+ * {@code userId:gymId:window} (base64url), the window is epoch seconds divided by
+ * window-seconds, and the mac is the first 16 bytes of HMAC-SHA256 over
+ * {@code keyId.payload} with the gym's key.
+ *
+ * A gym's key is derived from the configured secret, so a kiosk only ever holds its
+ * own gym's key ({@link #kioskKeys}) and checks codes without calling the server; a
+ * leaked kiosk cannot forge codes for another gym. A code is accepted within
+ * allowed-skew-windows of its own window. To rotate, move the secret and its key id to
+ * previous-secret/previous-key-id and configure a new one: codes and kiosks using
+ * either key keep working until the previous one is removed.
+ */
+@Component
+public class QrCheckInSigner {
+
+    public record IssuedCode(String code, Instant validFrom, Instant validUntil) {
+    }
+
+    public record VerifiedCode(long userId, long gymId, Instant windowStart) {
+    }
+
+    private static final String HMAC = "HmacSHA256";
+    private static final int MAC_BYTES = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // key id -> secret, the signing one first
+    private final Map<String, byte[]> secrets = new LinkedHashMap<>();
+    private final String currentKeyId;
+    private final long windowSeconds;
+    private final int allowedSkewWindows;
+
+    public QrCheckInSigner(@Value("${app.checkin.qr.key-id:1}") String keyId,
+                           @Value("${app.checkin.qr.secret:${jwt.secret}}") String secret,
+                           @Value("${app.checkin.qr.previous-key-id:}") String previousKeyId,
+                           @Value("${app.checkin.qr.previous-secret:}") String previousSecret,
+                           @Value("${app.checkin.qr.window-seconds:30}") long windowSeconds,
+                           @Value("${app.checkin.qr.allowed-skew-windows:1}") int allowedSkewWindows) {
+        if (keyId.isBlank() || keyId.contains(".") || secret.isBlank()) {
+            throw new IllegalArgumentException("app.checkin.qr.key-id and app.checkin.qr.secret must be set, "
+                    + "and the key id cannot contain '.'");
+        }
+        this.currentKeyId = keyId;
+        this.secrets.put(keyId, secret.getBytes(StandardCharsets.UTF_8));
+        if (!previousSecret.isBlank()) {
+            if (previousKeyId.isBlank() || previousKeyId.contains(".") || previousKeyId.equals(keyId)) {
+                throw new IllegalArgumentException("app.checkin.qr.previous-key-id must be set, differ from "
+                        + "app.checkin.qr.key-id and cannot contain '.'");
+            }
+            this.secrets.put(previousKeyId, previousSecret.getBytes(StandardCharsets.UTF_8));
+        }
+        this.windowSeconds = windowSeconds;
+        this.allowedSkewWindows = allowedSkewWindows;
+    }
+
+    public long getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public int getAllowedSkewWindows() {
+        return allowedSkewWindows;
+    }
+
+    /**
+     * The code for the window containing {@code now}
+     */
+    public IssuedCode issue(long userId, long gymId, Instant now) {
+        long window = now.getEpochSecond() / windowSeconds;
+        String signed = currentKeyId + "." + ENCODER.encodeToString(
+                (userId + ":" + gymId + ":" + window).getBytes(StandardCharsets.UTF_8));
+        String code = signed + "." + ENCODER.encodeToString(mac(gymKey(secrets.get(currentKeyId), gymId), signed));
+        return new IssuedCode(code, Instant.ofEpochSecond(window * windowSeconds),
+                Instant.ofEpochSecond((window + 1 + allowedSkewWindows) * windowSeconds));
+    }
+
+    /**
+     * @param at when the code was scanned
+     * @throws BadRequestException if the code is malformed, forged, for another gym or not valid at {@code at}
+     */
+    public VerifiedCode verify(String code, long gymId, Instant at) {
+        String[] parts = code == null ? new String[0] : code.trim().split("\\.");
+        if (parts.length != 3) {
+            throw new BadRequestException("Malformed check-in code");
+        }
+        byte[] secret = secrets.get(parts[0]);
+        if (secret == null) {
+            throw new BadRequestException("Check-in code signed with an unknown key");
+        }
+
+        long userId;
+        long codeGymId;
+        long window;
+        byte[] presentedMac;
+        try {
+            String[] payload = new String(DECODER.decode(parts[1]), StandardCharsets.UTF_8).split(":");
+            if (payload.length != 3) {
+                throw new BadRequestException("Malformed check-in code");
+            }
+            userId = Long.parseLong(payload[0]);
+            codeGymId = Long.parseLong(payload[1]);
+            window = Long.parseLong(payload[2]);
+            presentedMac = DECODER.decode(parts[2]);
+        } catch (IllegalArgumentException e) {
+            // Bad base64 or number
+            throw new BadRequestException("Malformed check-in code");
+        }
+        // The mac is keyed by the gym in the payload, so a code for another gym fails here or below
+        if (!MessageDigest.isEqual(presentedMac, mac(gymKey(secret, codeGymId), parts[0] + "." + parts[1]))) {
+            throw new BadRequestException("Invalid check-in code signature");
+        }
+        if (codeGymId != gymId) {
+            throw new BadRequestException("Check-in code is for another gym");
+        }
+        long atWindow = Math.floorDiv(at.getEpochSecond(), windowSeconds);
+        if (window < atWindow - allowedSkewWindows) {
+            throw new BadRequestException("Check-in code has expired");
+        }
+        if (window > atWindow + allowedSkewWindows) {
+            throw new BadRequestException("Check-in code is not valid yet");
+        }
+        return new VerifiedCode(userId, codeGymId, Instant.ofEpochSecond(window * windowSeconds));
+    }
+
+    /**
+     * Key id -> base64 key that verifies this gym's codes, the signing key first
+     */
+    public Map<String, String> kioskKeys(long gymId) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        secrets.forEach((keyId, secret) -> keys.put(keyId, Base64.getEncoder().encodeToString(gymKey(secret, gymId))));
+        return Collections.unmodifiableMap(keys);
+    }
+
+    private static byte[] gymKey(byte[] secret, long gymId) {
+        return hmac(secret, "qr-checkin:gym:" + gymId);
+    }
+
+    private static byte[] mac(byte[] key, String data) {
+        return Arrays.copyOf(hmac(key, data), MAC_BYTES);
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(new SecretKeySpec(key, HMAC));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.gym.backend.security;
+
+import com.example.gym.backend.config.ReportingWorkload;
+import com.example.gym.backend.exception.RateLimitExceededException;
+import com.example.gym.backend.service.RateLimiter;
+import com.example.gym.backend.service.RateLimiter.Budget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admission control per user and per gym, taken from the access token
+ * ({@link JwtAuthenticationDetails}), so one misbehaving kiosk or a super user
+ * hammering a report cannot degrade other tenants.
+ *
+ * Each request class has its own budget: reports ({@link ReportingWorkload}
+ * endpoints), writes (anything but GET/HEAD/OPTIONS) and reads. A request needs a
+ * token from its user's bucket and, if the user belongs to a gym, from the gym's
+ * bucket; otherwise it is answered with 429 and a Retry-After. Anonymous requests
+ * (login, register) are not limited here.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    public enum RequestClass {
+        WRITE, READ, REPORT
+    }
+
+    private final RateLimiter rateLimiter;
+    private final boolean enabled;
+    private final Map<RequestClass, Budget> userBudgets = new EnumMap<>(RequestClass.class);
+    private final Map<RequestClass, Budget> gymBudgets = new EnumMap<>(RequestClass.class);
+    private final Map<String, Counter> counters = new HashMap<>();
+
+    public RateLimitInterceptor(RateLimiter rateLimiter,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                                @Value("${app.rate-limit.write.user-per-minute:120}") long writeUser,
+                                @Value("${app.rate-limit.write.gym-per-minute:1200}") long writeGym,
+                                @Value("${app.rate-limit.read.user-per-minute:300}") long readUser,
+                                @Value("${app.rate-limit.read.gym-per-minute:3000}") long readGym,
+                                @Value("${app.rate-limit.report.user-per-minute:20}") long reportUser,
+                                @Value("${app.rate-limit.report.gym-per-minute:100}") long reportGym) {
+        this.rateLimiter = rateLimiter;
+        this.enabled = enabled;
+        userBudgets.put(RequestClass.WRITE, Budget.perMinute(writeUser));
+        userBudgets.put(RequestClass.READ, Budget.perMinute(readUser));
+        userBudgets.put(RequestClass.REPORT, Budget.perMinute(reportUser));
+        gymBudgets.put(RequestClass.WRITE, Budget.perMinute(writeGym));
+        gymBudgets.put(RequestClass.READ, Budget.perMinute(readGym));
+        gymBudgets.put(RequestClass.REPORT, Budget.perMinute(reportGym));
+
+        for (RequestClass requestClass : RequestClass.values()) {
+            for (String scope : new String[] {"user", "gym"}) {
+                for (String outcome : new String[] {"allowed", "rejected"}) {
+                    counters.put(counterKey(requestClass, scope, outcome), Counter.builder("ratelimit.requests")
+                            .tag("class", requestClass.name().toLowerCase())
+                            .tag("scope", scope)
+                            .tag("outcome", outcome)
+                            .description("Rate limit decisions per request class and bucket scope")
+                            .register(meterRegistry));
+                }
+            }
+        }
+    }
+
+    private static String counterKey(RequestClass requestClass, String scope, String outcome) {
+        return requestClass + ":" + scope + ":" + outcome;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getDetails() instanceof JwtAuthenticationDetails details)) {
+            return true;
+        }
+
+        RequestClass requestClass = classify(request, handlerMethod);
+        String user = details.getUserId() != null ? details.getUserId().toString() : authentication.getName();
+        String userBucket = bucketKey("user:" + user, requestClass);
+        admit(requestClass, "user", userBucket, userBudgets.get(requestClass));
+        if (details.getGymId() != null) {
+            try {
+                admit(requestClass, "gym", bucketKey("gym:" + details.getGymId(), requestClass),
+                        gymBudgets.get(requestClass));
+            } catch (RateLimitExceededException e) {
+                // Rejected requests must not use up the user's budget
+                rateLimiter.refund(userBucket, userBudgets.get(requestClass));
+                throw e;
+            }
+        }
+        return true;
+    }
+
+    static RequestClass classify(HttpServletRequest request, HandlerMethod handlerMethod) {
+        if (AnnotatedElementUtils.hasAnnotation(handlerMethod.getMethod(), ReportingWorkload.class)
+                || AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), ReportingWorkload.class)) {
+            return RequestClass.REPORT;
+        }
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> RequestClass.READ;
+            default -> RequestClass.WRITE;
+        };
+    }
+
+    private static String bucketKey(String key, RequestClass requestClass) {
+        return key + ":" + requestClass.name().toLowerCase();
+    }
+
+    private void admit(RequestClass requestClass, String scope, String bucket, Budget budget) {
+        long waitMillis = rateLimiter.tryAcquire(bucket, budget);
+        if (waitMillis > 0) {
+            counters.get(counterKey(requestClass, scope, "rejected")).increment();
+            throw new RateLimitExceededException("Too many " + requestClass.name().toLowerCase()
+                    + " requests for this " + scope + ", please retry shortly", (waitMillis + 999) / 1000);
+        }
+        counters.get(counterKey(requestClass, scope, "allowed")).increment();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.dto.MemberMembershipDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Current active membership per member id, including "none". Writers that change
+ * a member's memberships invalidate the entry once they commit; the TTL bounds
+ * staleness on other nodes and across midnight, when memberships start and end
+ * without a write.
+ */
+@Component
+public class ActiveMembershipCache {
+
+    private final Cache<Long, Optional<MemberMembershipDto>> cache;
+
+    public ActiveMembershipCache(MeterRegistry meterRegistry,
+                                 @Value("${app.active-membership-cache.ttl-seconds:300}") long ttlSeconds,
+                                 @Value("${app.active-membership-cache.max-size:50000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "activeMembership");
+    }
+
+    public Optional<MemberMembershipDto> get(Long memberId, Function<Long, Optional<MemberMembershipDto>> loader) {
+        return cache.get(memberId, loader);
+    }
+
+    public void invalidateAfterCommit(Long memberId) {
+        invalidateAfterCommit(List.of(memberId));
+    }
+
+    /**
+     * Invalidating before the commit would let a concurrent read cache the old state again
+     */
+    public void invalidateAfterCommit(Collection<Long> memberIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidateAll(memberIds);
+            return;
+        }
+        List<Long> ids = List.copyOf(memberIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidateAll(ids);
+            }
+        });
+    }
+}
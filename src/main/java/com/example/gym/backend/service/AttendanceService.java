@@ -1,6 +1,9 @@
 package com.example.gym.backend.service;
 
 import com.example.gym.backend.dto.AttendanceDto;
+import com.example.gym.backend.dto.DomainEvent;
+import com.example.gym.backend.dto.OccupancyUpdateDto;
+import com.example.gym.backend.dto.OccupancyUpdateDto.Activity;
 import com.example.gym.backend.entity.Attendance;
 import com.example.gym.backend.entity.User;
 import com.example.gym.backend.exception.ResourceNotFoundException;
@@ -33,13 +36,21 @@ public class AttendanceService {
 
     private final AttendanceRepository attendanceRepository;
     private final UserRepository userRepository;
+    private final OutboxService outboxService;
+    private final OccupancyHub occupancyHub;
 
     // ================= CHECK IN =================
     @Transactional
     public AttendanceDto checkIn(Long gymId, Long userId, AttendanceDto dto) {
+        return checkIn(gymId, userId, Attendance.CheckInMethod.valueOf(dto.getMethod()));
+    }
+
+    @Transactional
+    public AttendanceDto checkIn(Long gymId, Long userId, CheckInMethod method) {
         log.info("Checking in user {} at gym {}", userId, gymId);
 
-        User user = userRepository.findById(userId)
+        // Locked, so two check-ins of the same user (kiosk and front desk, or an offline sync) cannot both pass the checks below
+        User user = userRepository.findByIdForUpdate(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         // Restriction 1: SUPER_USER cannot check in
@@ -74,11 +85,18 @@ public class AttendanceService {
         attendance.setUser(user);
         attendance.setGym(user.getGym());
         attendance.setCheckIn(LocalDateTime.now());
-        attendance.setMethod(
-                Attendance.CheckInMethod.valueOf(dto.getMethod())
-        );
-
-        return toDto(attendanceRepository.save(attendance));
+        attendance.setMethod(method);
+
+        Attendance saved = attendanceRepository.save(attendance);
+        outboxService.append(DomainEvent.USER, userId, DomainEvent.CHECKED_IN, Map.of(
+                "attendanceId", saved.getId(),
+                "userId", userId,
+                "gymId", gymId,
+                "checkIn", saved.getCheckIn(),
+                "method", saved.getMethod()));
+        occupancyHub.publishAfterCommit(gymId, new Activity(OccupancyUpdateDto.ActivityType.CHECK_IN, userId,
+                user.getFirstName() + " " + user.getLastName(), saved.getCheckIn(), false));
+        return toDto(saved);
     }
 
     // ================= CHECK OUT =================
@@ -112,7 +130,16 @@ public class AttendanceService {
                 (int) ChronoUnit.MINUTES.between(attendance.getCheckIn(), now)
         );
 
-        return toDto(attendanceRepository.save(attendance));
+        Attendance saved = attendanceRepository.save(attendance);
+        outboxService.append(DomainEvent.USER, userId, DomainEvent.CHECKED_OUT, Map.of(
+                "attendanceId", saved.getId(),
+                "userId", userId,
+                "gymId", gymId,
+                "checkOut", saved.getCheckOut(),
+                "durationMinutes", saved.getDurationMinutes()));
+        occupancyHub.publishAfterCommit(gymId, new Activity(OccupancyUpdateDto.ActivityType.CHECK_OUT, userId,
+                user.getFirstName() + " " + user.getLastName(), saved.getCheckOut(), false));
+        return toDto(saved);
     }
 
     // ================= GET CURRENT OPEN ATTENDANCE =================
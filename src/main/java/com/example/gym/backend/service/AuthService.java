@@ -26,7 +26,8 @@ public class AuthService {
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
     private final MemberService memberService;
-    // private final RedisTokenService redisTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final TokenStore tokenStore;
 
     public AuthResponseDto login(AuthRequestDto request) {
         log.info("Authenticating user: {}", request.getUsername());
@@ -45,12 +46,12 @@ public class AuthService {
 
         String roleName = user.getRole() != null ? user.getRole().name() : "MEMBER";
 
-        String accessToken = jwtUtil.generateToken(userDetails);
+        String accessToken = jwtUtil.generateToken(user);
         String refreshToken = jwtUtil.generateRefreshToken(userDetails);
 
-        // Store tokens in Redis for validation
-        // redisTokenService.storeAccessToken(userDetails.getUsername(), accessToken);
-        // redisTokenService.storeRefreshToken(userDetails.getUsername(), refreshToken);
+        // Store both tokens in one round trip; the refresh token opens a session of its own
+        tokenStore.storeTokens(userDetails.getUsername(), accessToken,
+                jwtUtil.extractTokenId(refreshToken), refreshToken);
 
 //        MemberDto member = memberService.getMemberByUserId(user.getId());
 //        Long memberId = member.getId();
@@ -61,7 +62,7 @@ public class AuthService {
         claims.put("name", fullName);
         claims.put("gymId",user.getGym() != null ? user.getGym().getId() : null);
 
-        // redisTokenService.storeUserSession(userDetails.getUsername(), claims);
+        tokenStore.storeUserSession(userDetails.getUsername(), claims);
 
 
         return AuthResponseDto.builder()
@@ -81,23 +82,33 @@ public class AuthService {
     public AuthResponseDto refreshToken(String refreshToken) {
         if (jwtUtil.validateToken(refreshToken)) {
             String username = jwtUtil.extractUsername(refreshToken);
-            
-            // Validate refresh token exists in Redis
-            // if (!redisTokenService.validateRefreshToken(username, refreshToken)) {
-            //     throw new RuntimeException("Invalid refresh token");
-            // }
-            
+            String refreshTokenId = jwtUtil.extractTokenId(refreshToken);
+
+            // A rotated (already used) refresh token must not mint new tokens. Its reuse means
+            // it may have been stolen, so every session of the user is ended.
+            if (tokenRevocationService.isRevoked(refreshTokenId)) {
+                tokenStore.deleteTokens(username);
+                throw new RuntimeException("Invalid refresh token");
+            }
+
             UserDetails userDetails = userRepository.findByUsername(username)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
             String newAccessToken = jwtUtil.generateToken(userDetails);
-            
-            // Update access token in Redis
-            // redisTokenService.storeAccessToken(username, newAccessToken);
+            String newRefreshToken = jwtUtil.generateRefreshToken(userDetails);
+
+            // Rotate: compare-and-set against this session's stored refresh token, so it is single-use
+            boolean rotated = tokenStore.rotateTokens(username, refreshTokenId, refreshToken,
+                    newAccessToken, jwtUtil.extractTokenId(newRefreshToken), newRefreshToken);
+            tokenRevocationService.revoke(refreshTokenId, username, jwtUtil.extractExpiration(refreshToken));
+            if (!rotated) {
+                // Lost a concurrent refresh of the same session, or logged out: reject this token only
+                throw new RuntimeException("Invalid refresh token");
+            }
 
             return AuthResponseDto.builder()
                     .accessToken(newAccessToken)
-                    .refreshToken(refreshToken)
+                    .refreshToken(newRefreshToken)
                     .tokenType("Bearer")
                     .expiresIn(3600L)
                     .build();
@@ -112,13 +123,14 @@ public class AuthService {
         
         if (jwtUtil.validateToken(token)) {
             String username = jwtUtil.extractUsername(token);
+
+            // Server-side logout: the access token stops working immediately
+            tokenRevocationService.revoke(jwtUtil.extractTokenId(token), username, jwtUtil.extractExpiration(token));
             
-            // Delete tokens from Redis (server-side logout)
-            // redisTokenService.deleteTokens(username);
-            // redisTokenService.deleteUserSession(username);
-            // redisTokenService.deleteUserSession(username);
+            // Delete access token, refresh token and session in one round trip
+            tokenStore.deleteTokens(username);
 
-            log.info("User logged out successfully and tokens removed from Redis: {}", username);
+            log.info("User logged out successfully and token revoked: {}", username);
         } else {
             log.info("User logged out successfully");
         }
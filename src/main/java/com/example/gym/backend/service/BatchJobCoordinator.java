@@ -0,0 +1,99 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.entity.BatchJobState;
+import com.example.gym.backend.exception.LeaseLostException;
+import com.example.gym.backend.repository.BatchJobStateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Database-backed lease lock and checkpoint store for scheduled batch jobs, so that
+ * only one node runs a given job and an interrupted run can resume.
+ */
+@Service
+@Slf4j
+public class BatchJobCoordinator {
+
+    private final BatchJobStateRepository jobStateRepository;
+    private final TransactionTemplate newTransaction;
+    private final String nodeId;
+
+    public BatchJobCoordinator(BatchJobStateRepository jobStateRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.jobStateRepository = jobStateRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = resolveHostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Try to take (or renew) the lease for a job.
+     * @return true if this node now owns the job for {@code lease}
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryLock(String jobName, Duration lease) {
+        ensureRowExists(jobName);
+        LocalDateTime now = LocalDateTime.now();
+        boolean acquired = jobStateRepository.tryAcquire(jobName, nodeId, now.plus(lease), now) == 1;
+        if (!acquired) {
+            log.debug("Job {} is running on another node, skipping", jobName);
+        }
+        return acquired;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(String jobName) {
+        jobStateRepository.release(jobName, nodeId, LocalDateTime.now());
+    }
+
+    // Not readOnly: the checkpoint must come from the primary, never from a lagging replica
+    @Transactional
+    public BatchJobState getState(String jobName) {
+        return jobStateRepository.findById(jobName).orElseGet(() -> new BatchJobState(jobName));
+    }
+
+    /**
+     * Record progress inside the caller's batch transaction and extend the lease.
+     * Throws {@link LeaseLostException} if the lease was lost, which rolls the batch back.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void checkpoint(String jobName, String runKey, long lastProcessedId, long processedCount, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = jobStateRepository.checkpoint(jobName, nodeId, runKey, lastProcessedId, processedCount,
+                now.plus(lease), now);
+        if (updated == 0) {
+            throw new LeaseLostException("Lost lock for job " + jobName);
+        }
+    }
+
+    private void ensureRowExists(String jobName) {
+        if (jobStateRepository.existsById(jobName)) {
+            return;
+        }
+        try {
+            newTransaction.executeWithoutResult(status ->
+                    jobStateRepository.saveAndFlush(new BatchJobState(jobName)));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first
+        }
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.example.gym.backend.service;
 import com.example.gym.backend.entity.User;
 import com.example.gym.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -14,7 +16,8 @@ import java.util.List;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+@Slf4j
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -38,4 +41,21 @@ public class CustomUserDetailsService implements UserDetailsService {
                 authorities
         );
     }
+
+    /**
+     * Called by the authentication provider after a successful login when the stored
+     * hash was produced with a different BCrypt cost than the one configured now.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+        user.setPasswordHash(newPassword);
+        userRepository.save(user);
+        log.info("Re-hashed password for user {} with the current BCrypt cost", user.getUsername());
+
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newPassword)
+                .build();
+    }
 }
@@ -1,9 +1,12 @@
 package com.example.gym.backend.service;
 
+import com.example.gym.backend.dto.CursorPage;
 import com.example.gym.backend.dto.GymDto;
 import com.example.gym.backend.entity.Gym;
 import com.example.gym.backend.exception.ResourceNotFoundException;
 import com.example.gym.backend.repository.GymRepository;
+import com.example.gym.backend.util.Cursor;
+import com.example.gym.backend.util.PageLimits;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -22,6 +25,7 @@ import java.util.stream.Collectors;
 public class GymService {
 
     private final GymRepository gymRepository;
+    private final PageLimits pageLimits;
 
     public GymDto createGym(GymDto gymDto) {
         log.info("Creating new gym: {}", gymDto.getName());
@@ -58,10 +62,17 @@ public class GymService {
 
     public List<GymDto> getAllGyms() {
         log.info("Fetching all gyms");
-        List<Gym> gyms = gymRepository.findAll();
+        List<Gym> gyms = pageLimits.capped(gymRepository.findPageAfter(0L, pageLimits.listCap()), "Gym list");
         return gyms.stream().map(this::convertToDto).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<GymDto> getGymsPage(String cursor, Integer size) {
+        int pageSize = pageLimits.pageSize(size);
+        List<Gym> gyms = gymRepository.findPageAfter(Cursor.decode(cursor), pageLimits.keysetPage(pageSize));
+        return CursorPage.of(gyms, pageSize, Gym::getId, this::convertToDto);
+    }
+
     @Transactional(readOnly = true)
     public Page<GymDto> getAllGymsPaginated(int page, int size) {
         log.info("Fetching gyms with pagination: page={}, size={}", page, size);
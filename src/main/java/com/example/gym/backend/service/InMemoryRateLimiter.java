@@ -0,0 +1,79 @@
+package com.example.gym.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-node token buckets. Each bucket is an immutable (tokens, timestamp) pair swapped
+ * with compare-and-set, so admission never blocks. Idle buckets are evicted; a bucket
+ * that comes back starts full, which is what it would have refilled to anyway.
+ */
+@Service
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimiter implements RateLimiter {
+
+    private record State(double tokens, long updatedMillis) {
+    }
+
+    private final Cache<String, AtomicReference<State>> buckets;
+    private final Clock clock;
+
+    @Autowired
+    public InMemoryRateLimiter(@Value("${app.rate-limit.memory.max-buckets:100000}") long maxBuckets,
+                               MeterRegistry meterRegistry) {
+        this(maxBuckets, Clock.systemUTC());
+        Gauge.builder("ratelimit.buckets", buckets, Cache::estimatedSize)
+                .description("Token buckets held in memory")
+                .register(meterRegistry);
+    }
+
+    InMemoryRateLimiter(long maxBuckets, Clock clock) {
+        this.clock = clock;
+        // A bucket left alone for an hour is full again under any budget we use
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofHours(1))
+                .maximumSize(maxBuckets)
+                .build();
+    }
+
+    @Override
+    public long tryAcquire(String key, Budget budget) {
+        AtomicReference<State> bucket = buckets.get(key,
+                k -> new AtomicReference<>(new State(budget.capacity(), clock.millis())));
+
+        while (true) {
+            State current = bucket.get();
+            long now = Math.max(clock.millis(), current.updatedMillis());
+            double tokens = Math.min(budget.capacity(),
+                    current.tokens() + (now - current.updatedMillis()) * budget.refillPerSecond() / 1000);
+
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) * 1000 / budget.refillPerSecond());
+            }
+            if (bucket.compareAndSet(current, new State(tokens - 1, now))) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public void refund(String key, Budget budget) {
+        AtomicReference<State> bucket = buckets.getIfPresent(key);
+        if (bucket == null) {
+            // Evicted meanwhile; it comes back full
+            return;
+        }
+        bucket.updateAndGet(current -> new State(Math.min(budget.capacity(), current.tokens() + 1),
+                current.updatedMillis()));
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.gym.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-node token store backed by a Caffeine cache with per-entry TTLs.
+ * Suitable for development and single-instance deployments only.
+ *
+ * Each session's refresh token is its own entry; a per-user entry lists the session
+ * ids so that logout can drop them all.
+ */
+@Service
+@ConditionalOnProperty(name = "app.token-store.type", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryTokenStore implements TokenStore {
+
+    private static final String ACCESS = "access:";
+    private static final String REFRESH = "refresh:";
+    private static final String REFRESH_SESSION = "refresh-session:";
+    private static final String REFRESH_SESSIONS = "refresh-sessions:";
+    private static final String SESSION = "session:";
+
+    private record Entry(Object value, long ttlMillis) {
+    }
+
+    private final Cache<String, Entry> cache;
+    private final long accessTtlMillis;
+    private final long refreshTtlMillis;
+
+    public InMemoryTokenStore(@Value("${jwt.expiration}") long accessTtlMillis,
+                              @Value("${jwt.refresh-expiration}") long refreshTtlMillis,
+                              @Value("${app.token-store.memory.max-entries:100000}") long maxEntries) {
+        this.accessTtlMillis = accessTtlMillis;
+        this.refreshTtlMillis = refreshTtlMillis;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(entry.ttlMillis());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return TimeUnit.MILLISECONDS.toNanos(entry.ttlMillis());
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public void storeTokens(String username, String accessToken, String refreshTokenId, String refreshToken) {
+        cache.put(ACCESS + username, new Entry(accessToken, accessTtlMillis));
+        putRefresh(username, refreshTokenId, refreshToken);
+    }
+
+    @Override
+    public void storeAccessToken(String username, String accessToken) {
+        cache.put(ACCESS + username, new Entry(accessToken, accessTtlMillis));
+    }
+
+    @Override
+    public void storeRefreshToken(String username, String refreshTokenId, String refreshToken) {
+        putRefresh(username, refreshTokenId, refreshToken);
+    }
+
+    @Override
+    public String getAccessToken(String username) {
+        return (String) value(ACCESS + username);
+    }
+
+    @Override
+    public String getRefreshToken(String username) {
+        return (String) value(REFRESH + username);
+    }
+
+    @Override
+    public String getRefreshToken(String username, String refreshTokenId) {
+        return (String) value(refreshSessionKey(username, refreshTokenId));
+    }
+
+    @Override
+    public boolean rotateTokens(String username, String expectedRefreshTokenId, String expectedRefreshToken,
+                                String newAccessToken, String newRefreshTokenId, String newRefreshToken) {
+        // Conditional remove is the compare-and-set: only one concurrent refresh of a session can win
+        if (!cache.asMap().remove(refreshSessionKey(username, expectedRefreshTokenId),
+                new Entry(expectedRefreshToken, refreshTtlMillis))) {
+            return false;
+        }
+        cache.put(ACCESS + username, new Entry(newAccessToken, accessTtlMillis));
+        putRefresh(username, newRefreshTokenId, newRefreshToken);
+        return true;
+    }
+
+    @Override
+    public void deleteTokens(String username) {
+        List<String> keys = new ArrayList<>(List.of(ACCESS + username, REFRESH + username, SESSION + username));
+        Entry sessions = cache.asMap().remove(REFRESH_SESSIONS + username);
+        if (sessions != null) {
+            for (Object refreshTokenId : (Set<?>) sessions.value()) {
+                keys.add(refreshSessionKey(username, (String) refreshTokenId));
+            }
+        }
+        cache.invalidateAll(keys);
+        log.info("Deleted all tokens for user: {}", username);
+    }
+
+    // Session entry first, so a concurrent login pruning the id list still sees it
+    private void putRefresh(String username, String refreshTokenId, String refreshToken) {
+        cache.put(refreshSessionKey(username, refreshTokenId), new Entry(refreshToken, refreshTtlMillis));
+        cache.asMap().compute(REFRESH_SESSIONS + username, (key, current) -> {
+            Set<Object> ids = new HashSet<>();
+            if (current != null) {
+                ids.addAll((Set<?>) current.value());
+            }
+            // Ids of sessions that expired on their own
+            ids.removeIf(id -> cache.getIfPresent(refreshSessionKey(username, (String) id)) == null);
+            ids.add(refreshTokenId);
+            return new Entry(Set.copyOf(ids), refreshTtlMillis);
+        });
+        cache.put(REFRESH + username, new Entry(refreshToken, refreshTtlMillis));
+    }
+
+    private static String refreshSessionKey(String username, String refreshTokenId) {
+        return REFRESH_SESSION + username + ":" + refreshTokenId;
+    }
+
+    @Override
+    public void storeUserSession(String username, Map<String, Object> sessionData) {
+        cache.put(SESSION + username, new Entry(Map.copyOf(withoutNulls(sessionData)), accessTtlMillis));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getUserSession(String username) {
+        return (Map<String, Object>) value(SESSION + username);
+    }
+
+    private Object value(String key) {
+        Entry entry = cache.getIfPresent(key);
+        return entry != null ? entry.value() : null;
+    }
+
+    private static Map<String, Object> withoutNulls(Map<String, Object> source) {
+        Map<String, Object> copy = new HashMap<>(source);
+        copy.values().removeIf(Objects::isNull);
+        return copy;
+    }
+}
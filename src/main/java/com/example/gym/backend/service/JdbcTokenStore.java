@@ -0,0 +1,193 @@
+package com.example.gym.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token store on the user_tokens table using plain JDBC so that multi-row writes
+ * go out as a single batch. Works across nodes without extra infrastructure.
+ *
+ * Each session's refresh token is its own row ("REFRESH_SESSION:username:jti"), so
+ * logout deletes them all by username and rotation touches only its own row.
+ */
+@Service
+@ConditionalOnProperty(name = "app.token-store.type", havingValue = "jdbc")
+@Slf4j
+public class JdbcTokenStore implements TokenStore {
+
+    private static final String ACCESS = "ACCESS";
+    private static final String REFRESH = "REFRESH";
+    private static final String REFRESH_SESSION = "REFRESH_SESSION";
+    private static final String SESSION = "SESSION";
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO user_tokens (token_key, username, token_type, token_value, expires_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE username = VALUES(username), token_type = VALUES(token_type),
+                token_value = VALUES(token_value), expires_at = VALUES(expires_at)
+            """;
+    private static final String SELECT_SQL =
+            "SELECT token_value FROM user_tokens WHERE token_key = ? AND expires_at > ?";
+    private static final String CLAIM_SESSION_SQL =
+            "DELETE FROM user_tokens WHERE token_key = ? AND token_value = ? AND expires_at > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final long accessTtlMillis;
+    private final long refreshTtlMillis;
+
+    public JdbcTokenStore(JdbcTemplate jdbcTemplate,
+                          ObjectMapper objectMapper,
+                          @Value("${jwt.expiration}") long accessTtlMillis,
+                          @Value("${jwt.refresh-expiration}") long refreshTtlMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.accessTtlMillis = accessTtlMillis;
+        this.refreshTtlMillis = refreshTtlMillis;
+    }
+
+    @Override
+    @Transactional
+    public void storeTokens(String username, String accessToken, String refreshTokenId, String refreshToken) {
+        upsert(username, List.of(
+                accessRow(username, accessToken),
+                new Row(key(REFRESH, username), REFRESH, refreshToken, refreshTtlMillis),
+                new Row(refreshSessionKey(username, refreshTokenId), REFRESH_SESSION, refreshToken, refreshTtlMillis)));
+    }
+
+    @Override
+    @Transactional
+    public void storeAccessToken(String username, String accessToken) {
+        upsert(username, List.of(accessRow(username, accessToken)));
+    }
+
+    @Override
+    @Transactional
+    public void storeRefreshToken(String username, String refreshTokenId, String refreshToken) {
+        upsert(username, List.of(
+                new Row(key(REFRESH, username), REFRESH, refreshToken, refreshTtlMillis),
+                new Row(refreshSessionKey(username, refreshTokenId), REFRESH_SESSION, refreshToken, refreshTtlMillis)));
+    }
+
+    @Override
+    public String getAccessToken(String username) {
+        return select(key(ACCESS, username));
+    }
+
+    @Override
+    public String getRefreshToken(String username) {
+        return select(key(REFRESH, username));
+    }
+
+    @Override
+    public String getRefreshToken(String username, String refreshTokenId) {
+        return select(refreshSessionKey(username, refreshTokenId));
+    }
+
+    @Override
+    @Transactional
+    public boolean rotateTokens(String username, String expectedRefreshTokenId, String expectedRefreshToken,
+                                String newAccessToken, String newRefreshTokenId, String newRefreshToken) {
+        // Conditional DELETE is the compare-and-set: only one concurrent refresh of a session can win
+        int claimed = jdbcTemplate.update(CLAIM_SESSION_SQL,
+                refreshSessionKey(username, expectedRefreshTokenId),
+                expectedRefreshToken,
+                Timestamp.valueOf(LocalDateTime.now()));
+        if (claimed == 0) {
+            return false;
+        }
+        storeTokens(username, newAccessToken, newRefreshTokenId, newRefreshToken);
+        return true;
+    }
+
+    @Override
+    public void deleteTokens(String username) {
+        int deleted = jdbcTemplate.update("DELETE FROM user_tokens WHERE username = ?", username);
+        log.info("Deleted {} token rows for user: {}", deleted, username);
+    }
+
+    @Override
+    @Transactional
+    public void storeUserSession(String username, Map<String, Object> sessionData) {
+        try {
+            String json = objectMapper.writeValueAsString(sessionData);
+            upsert(username, List.of(new Row(key(SESSION, username), SESSION, json, accessTtlMillis)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize session for user " + username, e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getUserSession(String username) {
+        String json = select(key(SESSION, username));
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable session for user {}: {}", username, e.getMessage());
+            return null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.token-store.jdbc.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        int deleted = jdbcTemplate.update("DELETE FROM user_tokens WHERE expires_at <= ?",
+                Timestamp.valueOf(LocalDateTime.now()));
+        if (deleted > 0) {
+            log.info("Purged {} expired token rows", deleted);
+        }
+    }
+
+    private record Row(String key, String type, String value, long ttlMillis) {
+    }
+
+    private Row accessRow(String username, String accessToken) {
+        return new Row(key(ACCESS, username), ACCESS, accessToken, accessTtlMillis);
+    }
+
+    /**
+     * Upserts all rows as one JDBC batch. Each row is a single atomic statement, so two
+     * logins of the same user at once both succeed and the last one wins.
+     */
+    private void upsert(String username, List<Row> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            batch.add(new Object[]{
+                    row.key(), username, row.type(), row.value(),
+                    Timestamp.valueOf(now.plus(row.ttlMillis(), ChronoUnit.MILLIS))});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+    }
+
+    private String select(String key) {
+        List<String> values = jdbcTemplate.queryForList(SELECT_SQL, String.class, key,
+                Timestamp.valueOf(LocalDateTime.now()));
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    private static String key(String type, String username) {
+        return type + ":" + username;
+    }
+
+    private static String refreshSessionKey(String username, String refreshTokenId) {
+        return REFRESH_SESSION + ":" + username + ":" + refreshTokenId;
+    }
+}
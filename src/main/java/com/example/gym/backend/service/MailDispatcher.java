@@ -0,0 +1,165 @@
+package com.example.gym.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends mail in batches on a small bounded worker pool, paced to a configured rate.
+ *
+ * Each batch goes out through one {@code JavaMailSender.send(...)} call, so it shares
+ * a single SMTP connection. When the pool queue is full the submitting thread sends
+ * the batch itself, which slows the producer down instead of buffering without limit.
+ */
+@Service
+@Slf4j
+public class MailDispatcher implements DisposableBean {
+
+    /**
+     * A message plus the caller's key for it (e.g. the membership id).
+     */
+    public record OutgoingMail<K>(K key, SimpleMailMessage message) {
+    }
+
+    public record DispatchResult<K>(List<K> sent, Map<K, String> failed) {
+    }
+
+    private final JavaMailSender mailSender;
+    private final ThreadPoolExecutor executor;
+    private final long nanosPerMessage;
+    private final AtomicLong nextPermitNanos = new AtomicLong(System.nanoTime());
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    public MailDispatcher(JavaMailSender mailSender,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.mail.pool-size:4}") int poolSize,
+                          @Value("${app.mail.queue-capacity:16}") int queueCapacity,
+                          @Value("${app.mail.rate-per-second:20}") double ratePerSecond) {
+        this.mailSender = mailSender;
+        this.nanosPerMessage = ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0L;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "mail-dispatch-" + threadIndex.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.sentCounter = Counter.builder("mail.dispatch.messages").tag("outcome", "sent")
+                .description("Mail messages accepted by the SMTP server").register(meterRegistry);
+        this.failedCounter = Counter.builder("mail.dispatch.messages").tag("outcome", "failed")
+                .description("Mail messages that could not be sent").register(meterRegistry);
+        this.batchTimer = Timer.builder("mail.dispatch.batch.duration")
+                .description("Time to send one batch of mail").register(meterRegistry);
+        Gauge.builder("mail.dispatch.queue.depth", executor, e -> e.getQueue().size())
+                .description("Mail batches waiting for a dispatch thread")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Send one batch asynchronously. The future never completes exceptionally:
+     * per-message failures are reported in the result.
+     */
+    public <K> CompletableFuture<DispatchResult<K>> dispatch(List<OutgoingMail<K>> batch) {
+        List<OutgoingMail<K>> copy = List.copyOf(batch);
+        return CompletableFuture.supplyAsync(() -> send(copy), executor);
+    }
+
+    private <K> DispatchResult<K> send(List<OutgoingMail<K>> batch) {
+        if (batch.isEmpty()) {
+            return new DispatchResult<>(List.of(), Map.of());
+        }
+        awaitPermits(batch.size());
+
+        SimpleMailMessage[] messages = batch.stream().map(OutgoingMail::message).toArray(SimpleMailMessage[]::new);
+        Map<SimpleMailMessage, String> errors = new IdentityHashMap<>();
+        String batchError = null;
+        long started = System.nanoTime();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((message, cause) -> {
+                if (message instanceof SimpleMailMessage simple) {
+                    errors.put(simple, cause.getMessage());
+                }
+            });
+            if (errors.isEmpty()) {
+                // Connection-level failure: nothing in the batch was sent
+                batchError = e.getMessage();
+            }
+        } catch (MailException e) {
+            batchError = e.getMessage();
+        } finally {
+            batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+
+        List<K> sent = new ArrayList<>(batch.size());
+        Map<K, String> failed = new LinkedHashMap<>();
+        for (OutgoingMail<K> mail : batch) {
+            String error = batchError != null ? batchError : errors.get(mail.message());
+            if (error == null) {
+                sent.add(mail.key());
+            } else {
+                failed.put(mail.key(), error);
+            }
+        }
+        sentCounter.increment(sent.size());
+        failedCounter.increment(failed.size());
+        if (!failed.isEmpty()) {
+            log.warn("Mail batch: {} sent, {} failed ({})", sent.size(), failed.size(),
+                    failed.values().iterator().next());
+        }
+        return new DispatchResult<>(sent, failed);
+    }
+
+    // Lock-free pacing: each batch reserves its slot on a shared timeline and sleeps until it starts
+    private void awaitPermits(int permits) {
+        if (nanosPerMessage == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long cost = permits * nanosPerMessage;
+        long start = nextPermitNanos.getAndUpdate(next -> Math.max(next, now) + cost);
+        long waitNanos = Math.max(start, now) - now;
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -1,20 +1,33 @@
 package com.example.gym.backend.service;
 
+import com.example.gym.backend.dto.CursorPage;
+import com.example.gym.backend.dto.DomainEvent;
 import com.example.gym.backend.dto.MemberMembershipDto;
+import com.example.gym.backend.dto.MembershipView;
 import com.example.gym.backend.entity.Member;
 import com.example.gym.backend.entity.MemberMembership;
 import com.example.gym.backend.entity.MembershipPlan;
+import com.example.gym.backend.entity.User;
 import com.example.gym.backend.exception.ResourceNotFoundException;
 import com.example.gym.backend.repository.MemberMembershipRepository;
 import com.example.gym.backend.repository.MemberRepository;
 import com.example.gym.backend.repository.MembershipPlanRepository;
+import com.example.gym.backend.repository.ProjectionRepository;
+import com.example.gym.backend.util.Cursor;
+import com.example.gym.backend.util.PageLimits;
+import com.example.gym.backend.util.SparseFieldset;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +39,15 @@ public class MemberMembershipService {
     private final MemberMembershipRepository membershipRepository;
     private final MemberRepository memberRepository;
     private final MembershipPlanRepository planRepository;
+    private final OutboxService outboxService;
+    private final ProjectionRepository projectionRepository;
+    private final PageLimits pageLimits;
+    private final ActiveMembershipCache activeMembershipCache;
+
+    /** Fields of MemberMembershipDto that ?fields= can select on the membership list */
+    public static final Map<String, String> MEMBERSHIP_FIELDS = SparseFieldset.available(
+            "id", "memberId=member.id", "planId=plan.id", "startDate", "endDate", "amountPaid",
+            "gymId=gym.id", "status", "autoRenewal", "createdAt");
 
     public MemberMembershipDto createMembership(MemberMembershipDto dto) {
         log.info("Creating new membership for member ID: {}", dto.getMemberId());
@@ -39,23 +61,56 @@ public class MemberMembershipService {
         MemberMembership membership = new MemberMembership();
         membership.setMember(member);
         membership.setPlan(plan);
+        // Same gym the renewal job assigns: the plan's, else the member's
+        membership.setGym(plan.getGym() != null ? plan.getGym() : member.getGym());
         membership.setStartDate(LocalDate.parse(dto.getStartDate()));
         membership.setEndDate(LocalDate.parse(dto.getEndDate()));
         membership.setAmountPaid(dto.getAmountPaid());
         membership.setAutoRenewal(dto.isAutoRenewal());
 
+        // The expiry job marks members EXPIRED; a new current membership brings them back
+        if (member.getStatus() == Member.MemberStatus.EXPIRED
+                && !membership.getEndDate().isBefore(LocalDate.now())) {
+            member.setStatus(Member.MemberStatus.ACTIVE);
+        }
+
         MemberMembership savedMembership = membershipRepository.save(membership);
         log.info("Membership created successfully with ID: {}", savedMembership.getId());
+        activeMembershipCache.invalidateAfterCommit(member.getId());
+
+        outboxService.append(DomainEvent.MEMBER, member.getId(), DomainEvent.MEMBERSHIP_CREATED, Map.of(
+                "membershipId", savedMembership.getId(),
+                "memberId", member.getId(),
+                "planId", plan.getId(),
+                "startDate", savedMembership.getStartDate(),
+                "endDate", savedMembership.getEndDate(),
+                "autoRenewal", savedMembership.isAutoRenewal()));
 
         return convertToDto(savedMembership);
     }
 
     public List<MemberMembershipDto> getAllMemberships() {
         log.info("Fetching all memberships");
-        List<MemberMembership> memberships = membershipRepository.findAll();
+        List<MemberMembership> memberships = pageLimits.capped(
+                membershipRepository.findPageAfter(0L, pageLimits.listCap()), "Membership list");
         return memberships.stream().map(this::convertToDto).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<MemberMembershipDto> getMembershipsPage(String cursor, Integer size) {
+        int pageSize = pageLimits.pageSize(size);
+        List<MemberMembership> memberships = membershipRepository.findPageAfter(
+                Cursor.decode(cursor), pageLimits.keysetPage(pageSize));
+        return CursorPage.of(memberships, pageSize, MemberMembership::getId, this::convertToDto);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllMemberships(SparseFieldset fields) {
+        log.info("Fetching all memberships with fields: {}", fields.paths().keySet());
+        return projectionRepository.findFields(MemberMembership.class, fields, null, Sort.by("id"),
+                pageLimits.maxListSize());
+    }
+
     public MemberMembershipDto getMembershipById(Long id) {
         log.info("Fetching membership with ID: {}", id);
         MemberMembership membership = membershipRepository.findById(id)
@@ -69,11 +124,65 @@ public class MemberMembershipService {
         return memberships.stream().map(this::convertToDto).collect(Collectors.toList());
     }
 
+    /**
+     * Memberships of one gym, read as row projections; staff only see their own gym
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<MemberMembershipDto> getGymMembershipsPage(User currentUser, Long gymId,
+                                                                 MemberMembership.MembershipStatus status,
+                                                                 LocalDate endFrom, LocalDate endTo,
+                                                                 String cursor, Integer size) {
+        checkGym(currentUser, gymId, "gym " + gymId);
+        int pageSize = pageLimits.pageSize(size);
+        List<MembershipView> memberships = membershipRepository.findViewsByGym(
+                gymId, status, endFrom, endTo, Cursor.decode(cursor), pageLimits.keysetPage(pageSize));
+        return CursorPage.of(memberships, pageSize, MembershipView::getId, this::convertToDto);
+    }
+
+    /**
+     * The member's ACTIVE membership covering today, empty if there is none; staff only see their own gym
+     */
+    @Transactional(readOnly = true)
+    public Optional<MemberMembershipDto> getCurrentActiveMembership(User currentUser, Long memberId) {
+        Object[] memberGym = memberRepository.findGymIds(List.of(memberId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Member not found with ID: " + memberId));
+        checkGym(currentUser, (Long) memberGym[1], "member " + memberId);
+        return activeMembershipCache.get(memberId, id -> membershipRepository
+                .findCurrentActiveViews(id, LocalDate.now(), PageRequest.of(0, 1))
+                .stream()
+                .findFirst()
+                .map(this::convertToDto));
+    }
+
+    private static void checkGym(User currentUser, Long gymId, String what) {
+        if (currentUser == null || (currentUser.getRole() != User.UserRole.SUPER_USER
+                && (currentUser.getGym() == null || !currentUser.getGym().getId().equals(gymId)))) {
+            throw new AccessDeniedException("Memberships of " + what + " are not accessible");
+        }
+    }
+
+    private MemberMembershipDto convertToDto(MembershipView membership) {
+        MemberMembershipDto dto = new MemberMembershipDto();
+        dto.setId(membership.getId());
+        dto.setMemberId(membership.getMemberId());
+        dto.setPlanId(membership.getPlanId());
+        dto.setGymId(membership.getGymId());
+        dto.setStartDate(membership.getStartDate().toString());
+        dto.setEndDate(membership.getEndDate().toString());
+        dto.setAmountPaid(membership.getAmountPaid());
+        dto.setStatus(membership.getStatus().toString());
+        dto.setAutoRenewal(membership.isAutoRenewal());
+        dto.setCreatedAt(membership.getCreatedAt());
+        return dto;
+    }
+
     private MemberMembershipDto convertToDto(MemberMembership membership) {
         MemberMembershipDto dto = new MemberMembershipDto();
         dto.setId(membership.getId());
         dto.setMemberId(membership.getMember().getId());
         dto.setPlanId(membership.getPlan().getId());
+        dto.setGymId(membership.getGym() != null ? membership.getGym().getId() : null);
         dto.setStartDate(membership.getStartDate().toString());
         dto.setEndDate(membership.getEndDate().toString());
         dto.setAmountPaid(membership.getAmountPaid());
@@ -2,6 +2,8 @@ package com.example.gym.backend.service;
 
 
 
+import com.example.gym.backend.dto.CursorPage;
+import com.example.gym.backend.dto.DomainEvent;
 import com.example.gym.backend.dto.MemberDto;
 import com.example.gym.backend.dto.MemberSearchDto;
 import com.example.gym.backend.entity.Gym;
@@ -10,17 +12,23 @@ import com.example.gym.backend.entity.User;
 import com.example.gym.backend.exception.ResourceNotFoundException;
 import com.example.gym.backend.repository.GymRepository;
 import com.example.gym.backend.repository.MemberRepository;
+import com.example.gym.backend.repository.ProjectionRepository;
 import com.example.gym.backend.repository.UserRepository;
+import com.example.gym.backend.util.Cursor;
 import com.example.gym.backend.util.MemberCodeGenerator;
+import com.example.gym.backend.util.PageLimits;
+import com.example.gym.backend.util.SparseFieldset;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -32,15 +40,38 @@ public class MemberService {
     private final MemberCodeGenerator memberCodeGenerator;
     private final UserRepository userRepository;
     private final GymRepository gymRepository;
+    private final OutboxService outboxService;
+    private final ProjectionRepository projectionRepository;
+    private final PageLimits pageLimits;
+
+    /** Fields of MemberDto that ?fields= can select on the member list */
+    public static final Map<String, String> MEMBER_FIELDS = SparseFieldset.available(
+            "id", "memberCode", "firstName", "lastName", "email", "phone", "dateOfBirth", "gender",
+            "address", "city", "state", "pincode", "emergencyContactName", "emergencyContactPhone",
+            "emergencyContactRelation", "medicalConditions", "allergies", "fitnessGoals", "profileImage",
+            "status", "joinDate", "createdAt", "updatedAt", "userId", "gymId=gym.id");
 
     @Transactional(readOnly = true)
     public List<MemberDto> getAllMembers() {
-        List<Member> members = memberRepository.findAll();
+        List<Member> members = pageLimits.capped(
+                memberRepository.findPageAfter(0L, pageLimits.listCap()), "Member list");
         return members.stream()
                 .map(this::convertToDto)
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<MemberDto> getMembersPage(String cursor, Integer size) {
+        int pageSize = pageLimits.pageSize(size);
+        List<Member> members = memberRepository.findPageAfter(Cursor.decode(cursor), pageLimits.keysetPage(pageSize));
+        return CursorPage.of(members, pageSize, Member::getId, this::convertToDto);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllMembers(SparseFieldset fields) {
+        return projectionRepository.findFields(Member.class, fields, null, Sort.by("id"), pageLimits.maxListSize());
+    }
+
     @Transactional(readOnly = true)
     public MemberDto getMemberById(Long id) {
         Member member = memberRepository.findById(id)
@@ -135,6 +166,13 @@ public class MemberService {
         Member savedMember = memberRepository.save(member);
         log.info("Member created successfully with ID: {} and code: {}", savedMember.getId(), savedMember.getMemberCode());
 
+        outboxService.append(DomainEvent.MEMBER, savedMember.getId(), DomainEvent.MEMBER_CREATED, Map.of(
+                "memberId", savedMember.getId(),
+                "memberCode", savedMember.getMemberCode(),
+                "userId", user.getId(),
+                "gymId", user.getGym().getId(),
+                "joinDate", savedMember.getJoinDate()));
+
         return convertToDto(savedMember);
     }
 
@@ -182,8 +220,9 @@ public class MemberService {
     }
 
     public List<MemberDto> getMembersWithExpiringMemberships(int daysBeforeExpiry) {
-        LocalDate expiryDate = LocalDate.now().plusDays(daysBeforeExpiry);
-        List<Member> members = memberRepository.findMembersWithExpiringMemberships(expiryDate);
+        LocalDate today = LocalDate.now();
+        List<Member> members = memberRepository.findMembersWithExpiringMemberships(
+                today, today.plusDays(daysBeforeExpiry));
         return members.stream().map(this::convertToDto).toList();
     }
 
@@ -0,0 +1,146 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.dto.DomainEvent;
+import com.example.gym.backend.entity.BatchJobState;
+import com.example.gym.backend.entity.Member;
+import com.example.gym.backend.entity.MemberMembership.MembershipStatus;
+import com.example.gym.backend.repository.MemberMembershipRepository;
+import com.example.gym.backend.repository.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Flips ACTIVE memberships whose end date has passed to EXPIRED, and their members
+ * to EXPIRED when no other current membership remains.
+ *
+ * Runs on one node at a time (database lease lock), walks the table in keyset
+ * batches, applies each batch with bulk UPDATEs in its own transaction and
+ * checkpoints the last processed id, so a crashed run resumes where it stopped.
+ */
+@Service
+@Slf4j
+public class MembershipExpiryService {
+
+    private static final String JOB_NAME = "membership-expiry";
+
+    private final MemberMembershipRepository membershipRepository;
+    private final MemberRepository memberRepository;
+    private final BatchJobCoordinator jobCoordinator;
+    private final OutboxService outboxService;
+    private final ActiveMembershipCache activeMembershipCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration lease;
+
+    private record BatchResult(long lastId, int membershipsExpired, int membersExpired) {
+    }
+
+    public MembershipExpiryService(MemberMembershipRepository membershipRepository,
+                                   MemberRepository memberRepository,
+                                   BatchJobCoordinator jobCoordinator,
+                                   OutboxService outboxService,
+                                   ActiveMembershipCache activeMembershipCache,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.membership-expiry.batch-size:500}") int batchSize,
+                                   @Value("${app.membership-expiry.lease-minutes:10}") long leaseMinutes) {
+        this.membershipRepository = membershipRepository;
+        this.memberRepository = memberRepository;
+        this.jobCoordinator = jobCoordinator;
+        this.outboxService = outboxService;
+        this.activeMembershipCache = activeMembershipCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.lease = Duration.ofMinutes(leaseMinutes);
+    }
+
+    @Scheduled(cron = "${app.membership-expiry.cron:0 5 0 * * *}")
+    public void runScheduled() {
+        expireMemberships(LocalDate.now());
+    }
+
+    /**
+     * Expire everything that ended before {@code today}.
+     * @return number of memberships flipped to EXPIRED by this call
+     */
+    public long expireMemberships(LocalDate today) {
+        if (!jobCoordinator.tryLock(JOB_NAME, lease)) {
+            return 0;
+        }
+
+        long expiredMemberships = 0;
+        long expiredMembers = 0;
+        try {
+            String runKey = today.toString();
+            BatchJobState state = jobCoordinator.getState(JOB_NAME);
+            boolean resuming = runKey.equals(state.getRunKey()) && state.getLastProcessedId() != null;
+            long afterId = resuming ? state.getLastProcessedId() : 0L;
+            long processed = resuming && state.getProcessedCount() != null ? state.getProcessedCount() : 0L;
+            if (resuming) {
+                log.info("Resuming membership expiry for {} after membership id {}", runKey, afterId);
+            }
+
+            while (true) {
+                final long cursor = afterId;
+                final long processedSoFar = processed;
+                BatchResult result = transactionTemplate.execute(status ->
+                        expireBatch(today, runKey, cursor, processedSoFar));
+                if (result == null) {
+                    break;
+                }
+                afterId = result.lastId();
+                processed += result.membershipsExpired();
+                expiredMemberships += result.membershipsExpired();
+                expiredMembers += result.membersExpired();
+            }
+
+            log.info("Membership expiry for {} done: {} memberships and {} members expired",
+                    runKey, expiredMemberships, expiredMembers);
+            return expiredMemberships;
+        } finally {
+            jobCoordinator.release(JOB_NAME);
+        }
+    }
+
+    private BatchResult expireBatch(LocalDate today, String runKey, long afterId, long processedSoFar) {
+        List<Object[]> rows = membershipRepository.findExpiredBatch(
+                MembershipStatus.ACTIVE, today, afterId, PageRequest.of(0, batchSize));
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        List<Long> membershipIds = new ArrayList<>(rows.size());
+        Set<Long> memberIds = new LinkedHashSet<>();
+        List<OutboxService.NewEvent> events = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            membershipIds.add((Long) row[0]);
+            memberIds.add((Long) row[1]);
+            events.add(new OutboxService.NewEvent(DomainEvent.MEMBER, row[1], DomainEvent.MEMBERSHIP_EXPIRED,
+                    Map.of("membershipId", row[0], "memberId", row[1], "expiredOn", today)));
+        }
+        long lastId = membershipIds.get(membershipIds.size() - 1);
+
+        int membershipsExpired = membershipRepository.updateStatusByIds(
+                membershipIds, MembershipStatus.ACTIVE, MembershipStatus.EXPIRED);
+        int membersExpired = memberRepository.expireMembersWithoutCurrentMembership(
+                new ArrayList<>(memberIds), today,
+                Member.MemberStatus.ACTIVE, Member.MemberStatus.EXPIRED, MembershipStatus.ACTIVE);
+        outboxService.appendAll(events);
+        activeMembershipCache.invalidateAfterCommit(memberIds);
+
+        jobCoordinator.checkpoint(JOB_NAME, runKey, lastId, processedSoFar + membershipsExpired, lease);
+        return new BatchResult(lastId, membershipsExpired, membersExpired);
+    }
+}
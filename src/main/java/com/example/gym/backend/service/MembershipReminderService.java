@@ -0,0 +1,235 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.dto.ExpiringMembershipView;
+import com.example.gym.backend.entity.MembershipReminder;
+import com.example.gym.backend.entity.MembershipReminder.ReminderStatus;
+import com.example.gym.backend.repository.MemberMembershipRepository;
+import com.example.gym.backend.repository.MembershipReminderRepository;
+import com.example.gym.backend.service.MailDispatcher.DispatchResult;
+import com.example.gym.backend.service.MailDispatcher.OutgoingMail;
+import com.example.gym.backend.util.MailTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Emails members whose membership ends in N days (one reminder per configured stage).
+ *
+ * Recipients are paged with a projection instead of loading members and their
+ * membership history. Templates are bound once per plan and stage, batches are
+ * handed to {@link MailDispatcher}, and the outcome of every message is stored in
+ * membership_reminders so sent reminders are skipped on later runs.
+ */
+@Service
+@Slf4j
+public class MembershipReminderService {
+
+    private static final String JOB_NAME = "membership-reminders";
+
+    private final MemberMembershipRepository membershipRepository;
+    private final MembershipReminderRepository reminderRepository;
+    private final MailDispatcher mailDispatcher;
+    private final BatchJobCoordinator jobCoordinator;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final List<Integer> reminderDays;
+    private final int pageSize;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final String from;
+    private final MailTemplate subjectTemplate;
+    private final MailTemplate bodyTemplate;
+
+    private record PlanTemplates(MailTemplate subject, MailTemplate body) {
+    }
+
+    public record ReminderReport(long sent, long failed) {
+    }
+
+    public MembershipReminderService(MemberMembershipRepository membershipRepository,
+                                     MembershipReminderRepository reminderRepository,
+                                     MailDispatcher mailDispatcher,
+                                     BatchJobCoordinator jobCoordinator,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.membership-reminder.enabled:false}") boolean enabled,
+                                     @Value("${app.membership-reminder.days-before:7,1}") List<Integer> reminderDays,
+                                     @Value("${app.membership-reminder.page-size:500}") int pageSize,
+                                     @Value("${app.membership-reminder.batch-size:50}") int batchSize,
+                                     @Value("${app.membership-reminder.max-attempts:3}") int maxAttempts,
+                                     @Value("${app.membership-reminder.lease-minutes:30}") long leaseMinutes,
+                                     @Value("${app.membership-reminder.from:no-reply@gym.local}") String from,
+                                     @Value("${app.membership-reminder.subject:Your {{planName}} membership ends on {{endDate}}}") String subject,
+                                     @Value("${app.membership-reminder.template:classpath:templates/mail/membership-expiry-reminder.txt}") Resource template) {
+        this.membershipRepository = membershipRepository;
+        this.reminderRepository = reminderRepository;
+        this.mailDispatcher = mailDispatcher;
+        this.jobCoordinator = jobCoordinator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.reminderDays = List.copyOf(reminderDays);
+        this.pageSize = pageSize;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = Duration.ofMinutes(leaseMinutes);
+        this.from = from;
+        this.subjectTemplate = MailTemplate.compile(subject);
+        try {
+            this.bodyTemplate = MailTemplate.compile(template.getContentAsString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read reminder template " + template, e);
+        }
+    }
+
+    @Scheduled(cron = "${app.membership-reminder.cron:0 0 9 * * *}")
+    public void runScheduled() {
+        if (enabled) {
+            sendReminders(LocalDate.now());
+        }
+    }
+
+    /**
+     * Send every due reminder stage for {@code today} and wait for the mail to go out.
+     * @return counts for this run, or null if another node holds the job
+     */
+    public ReminderReport sendReminders(LocalDate today) {
+        if (!jobCoordinator.tryLock(JOB_NAME, lease)) {
+            return null;
+        }
+
+        AtomicLong sent = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        try {
+            for (Integer daysBefore : reminderDays) {
+                queueStage(today, daysBefore, sent, failed, pending);
+            }
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            jobCoordinator.release(JOB_NAME);
+        }
+
+        log.info("Membership reminders for {}: {} sent, {} failed", today, sent.get(), failed.get());
+        return new ReminderReport(sent.get(), failed.get());
+    }
+
+    private void queueStage(LocalDate today, Integer daysBefore, AtomicLong sent, AtomicLong failed,
+                            List<CompletableFuture<Void>> pending) {
+        LocalDate endDate = today.plusDays(daysBefore);
+        Map<Long, PlanTemplates> templatesByPlan = new HashMap<>();
+
+        long afterId = 0L;
+        while (true) {
+            List<ExpiringMembershipView> page = membershipRepository.findReminderBatch(
+                    endDate, daysBefore, maxAttempts, afterId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                return;
+            }
+            afterId = page.get(page.size() - 1).getMembershipId();
+
+            for (int i = 0; i < page.size(); i += batchSize) {
+                List<ExpiringMembershipView> chunk = page.subList(i, Math.min(i + batchSize, page.size()));
+                List<OutgoingMail<Long>> batch = new ArrayList<>(chunk.size());
+                for (ExpiringMembershipView view : chunk) {
+                    PlanTemplates templates = templatesByPlan.computeIfAbsent(view.getPlanId(),
+                            planId -> bindPlan(view, daysBefore));
+                    batch.add(new OutgoingMail<>(view.getMembershipId(), toMessage(view, templates)));
+                }
+                Map<Long, ExpiringMembershipView> byId = chunk.stream()
+                        .collect(Collectors.toMap(ExpiringMembershipView::getMembershipId, Function.identity()));
+                pending.add(mailDispatcher.dispatch(batch).thenAccept(result -> {
+                    sent.addAndGet(result.sent().size());
+                    failed.addAndGet(result.failed().size());
+                    recordOutcome(daysBefore, byId, result);
+                }));
+            }
+        }
+    }
+
+    private PlanTemplates bindPlan(ExpiringMembershipView view, Integer daysBefore) {
+        Map<String, Object> planValues = Map.of(
+                "planName", view.getPlanName(),
+                "endDate", view.getEndDate(),
+                "daysLeft", daysBefore);
+        return new PlanTemplates(subjectTemplate.bind(planValues), bodyTemplate.bind(planValues));
+    }
+
+    private SimpleMailMessage toMessage(ExpiringMembershipView view, PlanTemplates templates) {
+        Map<String, Object> memberValues = new HashMap<>();
+        memberValues.put("firstName", view.getFirstName());
+        memberValues.put("lastName", view.getLastName());
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(view.getEmail());
+        message.setSubject(templates.subject().render(memberValues));
+        message.setText(templates.body().render(memberValues));
+        return message;
+    }
+
+    private void recordOutcome(Integer daysBefore, Map<Long, ExpiringMembershipView> byId,
+                               DispatchResult<Long> result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, MembershipReminder> existing = reminderRepository
+                        .findByStage(daysBefore, byId.keySet()).stream()
+                        .collect(Collectors.toMap(MembershipReminder::getMembershipId, Function.identity()));
+                LocalDateTime now = LocalDateTime.now();
+
+                List<MembershipReminder> rows = new ArrayList<>(byId.size());
+                for (Long membershipId : result.sent()) {
+                    MembershipReminder row = reminderRow(existing, membershipId, daysBefore, byId.get(membershipId));
+                    row.setStatus(ReminderStatus.SENT);
+                    row.setSentAt(now);
+                    row.setLastError(null);
+                    rows.add(row);
+                }
+                result.failed().forEach((membershipId, error) -> {
+                    MembershipReminder row = reminderRow(existing, membershipId, daysBefore, byId.get(membershipId));
+                    row.setStatus(ReminderStatus.FAILED);
+                    row.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+                    rows.add(row);
+                });
+                reminderRepository.saveAll(rows);
+            });
+        } catch (RuntimeException e) {
+            // The mail is already out; worst case these members get the reminder again next run
+            log.error("Could not record reminder outcome for memberships {}: {}", byId.keySet(), e.getMessage());
+        }
+    }
+
+    private MembershipReminder reminderRow(Map<Long, MembershipReminder> existing, Long membershipId,
+                                           Integer daysBefore, ExpiringMembershipView view) {
+        MembershipReminder row = existing.get(membershipId);
+        if (row == null) {
+            row = new MembershipReminder();
+            row.setMembershipId(membershipId);
+            row.setDaysBefore(daysBefore);
+        }
+        row.setEndDate(view.getEndDate());
+        row.setEmail(view.getEmail());
+        row.setAttempts(row.getAttempts() + 1);
+        return row;
+    }
+}
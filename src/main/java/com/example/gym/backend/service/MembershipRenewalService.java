@@ -0,0 +1,288 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.dto.DomainEvent;
+import com.example.gym.backend.entity.BatchJobState;
+import com.example.gym.backend.entity.Payment;
+import com.example.gym.backend.exception.LeaseLostException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nightly auto-renewal of memberships that end tomorrow.
+ *
+ * For every auto-renewing membership without a successor, a new membership for the
+ * next plan period and a PENDING payment for the plan price are written with JDBC
+ * batch inserts, one transaction per chunk. The successor carries renewed_from_id
+ * (unique), so a rerun, a second node or an overlapping catch-up window can never
+ * renew the same membership period twice. Its amount_paid stays 0 until
+ * PaymentService records the payment for its plan.
+ */
+@Service
+@Slf4j
+public class MembershipRenewalService {
+
+    private static final String JOB_NAME = "membership-renewal";
+
+    // Only memberships that have not been renewed yet; the keyset cursor skips rows that failed earlier in the run
+    private static final String SELECT_CANDIDATES_SQL =
+            "SELECT mm.id, mm.member_id, mm.plan_id, COALESCE(mm.gym_id, p.gym_id, mb.gym_id) AS gym_id, "
+                    + "mm.end_date, p.duration_months, p.price, p.is_active, mb.user_id "
+                    + "FROM member_memberships mm "
+                    + "JOIN membership_plans p ON p.id = mm.plan_id "
+                    + "JOIN members mb ON mb.id = mm.member_id "
+                    + "WHERE mm.auto_renewal = TRUE AND mm.status IN ('ACTIVE', 'EXPIRED') "
+                    + "AND mm.end_date BETWEEN ? AND ? AND mm.id > ? "
+                    + "AND NOT EXISTS (SELECT 1 FROM member_memberships s WHERE s.renewed_from_id = mm.id) "
+                    + "ORDER BY mm.id LIMIT ?";
+    private static final String INSERT_MEMBERSHIP_SQL =
+            "INSERT INTO member_memberships (member_id, plan_id, gym_id, start_date, end_date, amount_paid, "
+                    + "status, auto_renewal, renewed_from_id, created_at) VALUES (?, ?, ?, ?, ?, 0, 'ACTIVE', TRUE, ?, ?)";
+    private static final String INSERT_PAYMENT_SQL =
+            "INSERT INTO payments (user_id, gym_id, membership_plan_id, amount, payment_method, status, "
+                    + "due_date, notes, payment_date, created_at) VALUES (?, ?, ?, ?, ?, 'PENDING', ?, ?, ?, ?)";
+    // Catch-up renewals can follow the expiry job, which may already have expired the member
+    private static final String REACTIVATE_MEMBER_SQL =
+            "UPDATE members SET status = 'ACTIVE', updated_at = ? WHERE id = ? AND status = 'EXPIRED'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BatchJobCoordinator jobCoordinator;
+    private final OutboxService outboxService;
+    private final ActiveMembershipCache activeMembershipCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int catchUpDays;
+    private final Duration lease;
+    private final Payment.PaymentMethod paymentMethod;
+
+    private final Counter renewedCounter;
+    private final Counter skippedCounter;
+    private final Counter failedCounter;
+    private final Timer runTimer;
+
+    private record Candidate(long membershipId, long memberId, long planId, Long gymId, LocalDate endDate,
+                             Integer durationMonths, BigDecimal price, boolean planActive, Long userId) {
+    }
+
+    public record RenewalReport(long renewed, long skipped, long failed, long elapsedMillis) {
+
+        public double perSecond() {
+            return elapsedMillis == 0 ? renewed : renewed * 1000.0 / elapsedMillis;
+        }
+    }
+
+    public MembershipRenewalService(JdbcTemplate jdbcTemplate,
+                                    BatchJobCoordinator jobCoordinator,
+                                    OutboxService outboxService,
+                                    ActiveMembershipCache activeMembershipCache,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.membership-renewal.batch-size:500}") int batchSize,
+                                    @Value("${app.membership-renewal.catch-up-days:3}") int catchUpDays,
+                                    @Value("${app.membership-renewal.lease-minutes:10}") long leaseMinutes,
+                                    @Value("${app.membership-renewal.payment-method:ONLINE}") Payment.PaymentMethod paymentMethod) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobCoordinator = jobCoordinator;
+        this.outboxService = outboxService;
+        this.activeMembershipCache = activeMembershipCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.catchUpDays = catchUpDays;
+        this.lease = Duration.ofMinutes(leaseMinutes);
+        this.paymentMethod = paymentMethod;
+
+        this.renewedCounter = Counter.builder("membership.renewal.processed").tag("outcome", "renewed")
+                .description("Memberships renewed by the auto-renewal job").register(meterRegistry);
+        this.skippedCounter = Counter.builder("membership.renewal.processed").tag("outcome", "skipped")
+                .description("Auto-renewals skipped (inactive plan, no user account, already renewed)")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("membership.renewal.processed").tag("outcome", "failed")
+                .description("Auto-renewals that failed with an error").register(meterRegistry);
+        this.runTimer = Timer.builder("membership.renewal.run.duration")
+                .description("Duration of a full auto-renewal run").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.membership-renewal.cron:0 30 0 * * *}")
+    public void runScheduled() {
+        renewMemberships(LocalDate.now());
+    }
+
+    /**
+     * Renew auto-renewing memberships ending tomorrow (and, to recover from missed
+     * nights, those that ended in the last {@code catch-up-days} days).
+     * @return counts for this run, or null if another node holds the job
+     */
+    public RenewalReport renewMemberships(LocalDate today) {
+        if (!jobCoordinator.tryLock(JOB_NAME, lease)) {
+            return null;
+        }
+
+        LocalDate to = today.plusDays(1);
+        LocalDate from = to.minusDays(catchUpDays);
+        String runKey = to.toString();
+        long started = System.nanoTime();
+        long renewed = 0;
+        long skipped = 0;
+        long failed = 0;
+        try {
+            // Same night after a crash or a lost lease: continue after the last committed chunk
+            BatchJobState state = jobCoordinator.getState(JOB_NAME);
+            boolean resuming = runKey.equals(state.getRunKey()) && state.getLastProcessedId() != null;
+            long afterId = resuming ? state.getLastProcessedId() : 0L;
+            long processed = resuming && state.getProcessedCount() != null ? state.getProcessedCount() : 0L;
+            if (resuming) {
+                log.info("Resuming membership renewal for {} after membership id {}", runKey, afterId);
+            }
+            while (true) {
+                List<Candidate> candidates = jdbcTemplate.query(SELECT_CANDIDATES_SQL, (rs, rowNum) -> new Candidate(
+                        rs.getLong("id"),
+                        rs.getLong("member_id"),
+                        rs.getLong("plan_id"),
+                        rs.getObject("gym_id", Long.class),
+                        rs.getDate("end_date").toLocalDate(),
+                        rs.getObject("duration_months", Integer.class),
+                        rs.getBigDecimal("price"),
+                        rs.getBoolean("is_active"),
+                        rs.getObject("user_id", Long.class)),
+                        Date.valueOf(from), Date.valueOf(to), afterId, batchSize);
+                if (candidates.isEmpty()) {
+                    break;
+                }
+                afterId = candidates.get(candidates.size() - 1).membershipId();
+
+                List<Candidate> renewable = new ArrayList<>(candidates.size());
+                for (Candidate candidate : candidates) {
+                    if (isRenewable(candidate)) {
+                        renewable.add(candidate);
+                    } else {
+                        skipped++;
+                    }
+                }
+
+                final long cursor = afterId;
+                final long processedSoFar = processed + renewable.size();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        writeRenewals(renewable);
+                        jobCoordinator.checkpoint(JOB_NAME, runKey, cursor, processedSoFar, lease);
+                    });
+                    renewed += renewable.size();
+                    processed = processedSoFar;
+                } catch (LeaseLostException e) {
+                    // Lease lost to another node; it will pick up whatever is left
+                    throw e;
+                } catch (RuntimeException e) {
+                    log.warn("Renewal batch ending at membership {} failed, retrying rows one by one: {}",
+                            cursor, e.getMessage());
+                    long[] outcome = renewIndividually(renewable);
+                    renewed += outcome[0];
+                    skipped += outcome[1];
+                    failed += outcome[2];
+                }
+            }
+        } finally {
+            jobCoordinator.release(JOB_NAME);
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        runTimer.record(Duration.ofNanos(elapsedNanos));
+        renewedCounter.increment(renewed);
+        skippedCounter.increment(skipped);
+        failedCounter.increment(failed);
+
+        RenewalReport report = new RenewalReport(renewed, skipped, failed, elapsedNanos / 1_000_000);
+        log.info("Membership renewal for {}: renewed={}, skipped={}, failed={} in {} ms ({} renewals/s)",
+                runKey, report.renewed(), report.skipped(), report.failed(), report.elapsedMillis(),
+                String.format("%.1f", report.perSecond()));
+        return report;
+    }
+
+    private boolean isRenewable(Candidate candidate) {
+        if (!candidate.planActive() || candidate.durationMonths() == null || candidate.price() == null) {
+            log.info("Not renewing membership {}: plan {} is inactive or incomplete",
+                    candidate.membershipId(), candidate.planId());
+            return false;
+        }
+        if (candidate.userId() == null) {
+            // Payments are billed to a user account
+            log.info("Not renewing membership {}: member {} has no user account",
+                    candidate.membershipId(), candidate.memberId());
+            return false;
+        }
+        return true;
+    }
+
+    private void writeRenewals(List<Candidate> renewals) {
+        if (renewals.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> memberships = new ArrayList<>(renewals.size());
+        List<Object[]> payments = new ArrayList<>(renewals.size());
+        List<Object[]> reactivations = new ArrayList<>();
+        List<OutboxService.NewEvent> events = new ArrayList<>(renewals.size());
+        List<Long> memberIds = new ArrayList<>(renewals.size());
+        for (Candidate c : renewals) {
+            memberIds.add(c.memberId());
+            LocalDate start = c.endDate().plusDays(1);
+            LocalDate end = start.plusMonths(c.durationMonths()).minusDays(1);
+            memberships.add(new Object[]{
+                    c.memberId(), c.planId(), c.gymId(), Date.valueOf(start), Date.valueOf(end),
+                    c.membershipId(), now});
+            payments.add(new Object[]{
+                    c.userId(), c.gymId(), c.planId(), c.price(), paymentMethod.name(), Date.valueOf(start),
+                    "Auto-renewal of membership #" + c.membershipId() + " for " + start + " to " + end, now, now});
+            events.add(new OutboxService.NewEvent(DomainEvent.MEMBER, c.memberId(), DomainEvent.MEMBERSHIP_RENEWED,
+                    Map.of("renewedFromId", c.membershipId(), "memberId", c.memberId(), "planId", c.planId(),
+                            "startDate", start, "endDate", end, "amount", c.price())));
+            if (c.endDate().isBefore(LocalDate.now())) {
+                reactivations.add(new Object[]{now, c.memberId()});
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_MEMBERSHIP_SQL, memberships);
+        jdbcTemplate.batchUpdate(INSERT_PAYMENT_SQL, payments);
+        if (!reactivations.isEmpty()) {
+            jdbcTemplate.batchUpdate(REACTIVATE_MEMBER_SQL, reactivations);
+        }
+        outboxService.appendAll(events);
+        activeMembershipCache.invalidateAfterCommit(memberIds);
+    }
+
+    // Isolates the bad rows of a failed batch; returns {renewed, skipped, failed}
+    private long[] renewIndividually(List<Candidate> renewals) {
+        long[] outcome = new long[3];
+        for (Candidate candidate : renewals) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeRenewals(List.of(candidate)));
+                outcome[0]++;
+            } catch (DuplicateKeyException e) {
+                // Renewed concurrently, e.g. by a run that overlapped an expired lease
+                outcome[1]++;
+            } catch (RuntimeException e) {
+                log.error("Failed to renew membership {}: {}", candidate.membershipId(), e.getMessage());
+                outcome[2]++;
+            }
+        }
+        return outcome;
+    }
+}
@@ -0,0 +1,440 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.dto.OccupancyUpdateDto;
+import com.example.gym.backend.dto.OccupancyUpdateDto.Activity;
+import com.example.gym.backend.entity.User;
+import com.example.gym.backend.exception.ServiceBusyException;
+import com.example.gym.backend.repository.AttendanceRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes a gym's occupancy to wall displays and dashboards over Server-Sent Events,
+ * so screens stop polling /currently-present and /statistics.
+ *
+ * Check-ins and check-outs are published here after their transaction commits. A
+ * single flush thread coalesces them per gym: at most max-updates-per-second times a
+ * second it reads the two counts once and sends one update to every screen of that
+ * gym, so database reads follow the event rate rather than the number of screens.
+ *
+ * Every screen has a bounded queue drained by the sender pool. A screen whose queue
+ * overflows is disconnected instead of buffered for; its EventSource reconnects and
+ * starts again from a fresh snapshot. Heartbeats keep idle connections open through
+ * proxies and re-read the counts, which picks up check-ins handled by other nodes.
+ */
+@Component
+@Slf4j
+public class OccupancyHub implements DisposableBean {
+
+    private static final String EVENT_NAME = "occupancy";
+
+    private static final Set<User.UserRole> VIEWER_ROLES =
+            EnumSet.of(User.UserRole.SUPER_USER, User.UserRole.ADMIN, User.UserRole.MANAGER, User.UserRole.RECEPTIONIST);
+
+    private final AttendanceRepository attendanceRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate primaryRead;
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor sender;
+    private final Map<Long, GymChannel> channels = new ConcurrentHashMap<>();
+
+    private final int bufferSize;
+    private final int maxSubscribersPerGym;
+    private final int maxActivityPerUpdate;
+    private final long heartbeatSeconds;
+    private final long emitterTimeoutMillis;
+
+    private final Counter updateCounter;
+    private final Counter slowConsumerCounter;
+
+    public OccupancyHub(AttendanceRepository attendanceRepository,
+                        ObjectMapper objectMapper,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.occupancy.max-updates-per-second:2}") int maxUpdatesPerSecond,
+                        @Value("${app.occupancy.max-activity-per-update:50}") int maxActivityPerUpdate,
+                        @Value("${app.occupancy.buffer-size:32}") int bufferSize,
+                        @Value("${app.occupancy.max-subscribers-per-gym:50}") int maxSubscribersPerGym,
+                        @Value("${app.occupancy.heartbeat-seconds:15}") long heartbeatSeconds,
+                        @Value("${app.occupancy.emitter-timeout-minutes:30}") long emitterTimeoutMinutes,
+                        @Value("${app.occupancy.sender-threads:4}") int senderThreads) {
+        this.attendanceRepository = attendanceRepository;
+        this.objectMapper = objectMapper;
+        // Not read-only on purpose: read-only transactions go to the replica, which may not
+        // have the check-in yet and would push a count that goes backwards
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.bufferSize = bufferSize;
+        this.maxSubscribersPerGym = maxSubscribersPerGym;
+        this.maxActivityPerUpdate = maxActivityPerUpdate;
+        this.heartbeatSeconds = heartbeatSeconds;
+        this.emitterTimeoutMillis = TimeUnit.MINUTES.toMillis(emitterTimeoutMinutes);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "occupancy-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        // One task per screen at most (see Subscriber.scheduleDrain), so the queue is bounded by the subscriber caps
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(
+                senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "occupancy-send-" + threadIndex.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+
+        this.updateCounter = Counter.builder("occupancy.stream.updates")
+                .description("Coalesced occupancy updates broadcast to a gym's screens").register(meterRegistry);
+        this.slowConsumerCounter = Counter.builder("occupancy.stream.disconnects").tag("reason", "slow")
+                .description("Screens disconnected because their buffer overflowed").register(meterRegistry);
+        Gauge.builder("occupancy.stream.subscribers", channels,
+                        c -> c.values().stream().mapToInt(channel -> channel.subscribers.size()).sum())
+                .description("Open occupancy streams")
+                .register(meterRegistry);
+
+        long flushMillis = Math.max(1L, 1000L / Math.max(1, maxUpdatesPerSecond));
+        scheduler.scheduleAtFixedRate(this::flushSafely, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(this::heartbeatSafely, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Opens a stream of the gym's occupancy for a front desk or manager screen, starting
+     * with a snapshot of the current counts
+     */
+    public SseEmitter subscribe(User currentUser, Long gymId) {
+        checkViewer(currentUser, gymId);
+        // Read before taking a slot, so a failed read leaves nothing behind
+        OccupancyUpdateDto snapshot = readCounts(gymId);
+        snapshot.setActivity(List.of());
+
+        GymChannel channel = channels.computeIfAbsent(gymId, GymChannel::new);
+        if (!channel.reserveSlot(maxSubscribersPerGym)) {
+            throw new ServiceBusyException("Too many occupancy streams open for gym " + gymId, heartbeatSeconds);
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(channel, emitter);
+        emitter.onCompletion(subscriber::detach);
+        emitter.onError(e -> subscriber.detach());
+        emitter.onTimeout(emitter::complete);
+        channel.subscribers.add(subscriber);
+
+        if (channel.lastPresent < 0) {
+            channel.lastPresent = snapshot.getCurrentlyPresent();
+            channel.lastTodayCheckIns = snapshot.getTodayCheckIns();
+        }
+        subscriber.offer(toEvent(snapshot));
+        log.info("Occupancy stream opened for gym {} by user: {}", gymId, currentUser.getUsername());
+        return emitter;
+    }
+
+    public void publishAfterCommit(Long gymId, Activity activity) {
+        publishAfterCommit(gymId, List.of(activity));
+    }
+
+    /**
+     * Queues check-ins/outs for the next update of the gym's screens once the current
+     * transaction commits; dropped right away if nobody is watching the gym
+     */
+    public void publishAfterCommit(Long gymId, List<Activity> activity) {
+        if (gymId == null || activity.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            GymChannel channel = channels.get(gymId);
+            if (channel != null && !channel.subscribers.isEmpty()) {
+                channel.add(activity, maxActivityPerUpdate);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Occupancy flush failed: {}", e.getMessage());
+        }
+    }
+
+    private void flush() {
+        for (GymChannel channel : channels.values()) {
+            Pending pending = channel.take();
+            if (pending == null || channel.subscribers.isEmpty()) {
+                continue;
+            }
+            OccupancyUpdateDto update = readCounts(channel.gymId);
+            boolean countsChanged = update.getCurrentlyPresent() != channel.lastPresent
+                    || update.getTodayCheckIns() != channel.lastTodayCheckIns;
+            if (!countsChanged && pending.activity().isEmpty() && pending.dropped() == 0) {
+                continue;
+            }
+            update.setPresentChange(channel.lastPresent < 0 ? 0 : update.getCurrentlyPresent() - channel.lastPresent);
+            update.setActivity(pending.activity());
+            update.setActivityDropped(pending.dropped());
+            channel.lastPresent = update.getCurrentlyPresent();
+            channel.lastTodayCheckIns = update.getTodayCheckIns();
+
+            Set<DataWithMediaType> event = toEvent(update);
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.offer(event);
+            }
+            updateCounter.increment();
+        }
+    }
+
+    private void heartbeatSafely() {
+        try {
+            Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+            for (GymChannel channel : channels.values()) {
+                if (channel.subscribers.isEmpty()) {
+                    continue;
+                }
+                channel.markStale();
+                for (Subscriber subscriber : channel.subscribers) {
+                    subscriber.offer(heartbeat);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Occupancy heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private OccupancyUpdateDto readCounts(Long gymId) {
+        LocalDate today = LocalDate.now();
+        LocalDateTime startOfDay = today.atStartOfDay();
+        LocalDateTime endOfDay = today.plusDays(1).atStartOfDay();
+        return primaryRead.execute(status -> {
+            OccupancyUpdateDto update = new OccupancyUpdateDto();
+            update.setGymId(gymId);
+            update.setCurrentlyPresent(attendanceRepository.countCurrentlyPresent(gymId, startOfDay, endOfDay));
+            update.setTodayCheckIns(attendanceRepository.countTodayAttendance(gymId, startOfDay, endOfDay));
+            update.setAt(LocalDateTime.now());
+            return update;
+        });
+    }
+
+    // Serialized once per update, however many screens receive it
+    private Set<DataWithMediaType> toEvent(OccupancyUpdateDto update) {
+        try {
+            return SseEmitter.event().name(EVENT_NAME).data(objectMapper.writeValueAsString(update)).build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize occupancy update", e);
+        }
+    }
+
+    private static void checkViewer(User currentUser, Long gymId) {
+        if (currentUser == null || !VIEWER_ROLES.contains(currentUser.getRole())
+                || (currentUser.getRole() != User.UserRole.SUPER_USER
+                && (currentUser.getGym() == null || !currentUser.getGym().getId().equals(gymId)))) {
+            throw new AccessDeniedException("Occupancy of gym " + gymId + " is not accessible");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        for (GymChannel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.close();
+            }
+        }
+        sender.shutdown();
+    }
+
+    private record Pending(List<Activity> activity, int dropped) {
+    }
+
+    private static final class GymChannel {
+
+        private final Long gymId;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        // Streams open or being opened; checked and taken in one step, unlike subscribers.size()
+        private final AtomicInteger slots = new AtomicInteger();
+        private final ArrayDeque<Activity> pending = new ArrayDeque<>();
+        private int dropped;
+        private boolean dirty;
+
+        // Counts of the previous push, written by the flush thread (seeded by the first subscriber)
+        private volatile long lastPresent = -1;
+        private volatile long lastTodayCheckIns = -1;
+
+        private GymChannel(Long gymId) {
+            this.gymId = gymId;
+        }
+
+        boolean reserveSlot(int max) {
+            while (true) {
+                int taken = slots.get();
+                if (taken >= max) {
+                    return false;
+                }
+                if (slots.compareAndSet(taken, taken + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        synchronized void add(List<Activity> activity, int limit) {
+            for (Activity item : activity) {
+                if (pending.size() < limit) {
+                    pending.add(item);
+                } else {
+                    dropped++;
+                }
+            }
+            dirty = true;
+        }
+
+        synchronized void markStale() {
+            dirty = true;
+        }
+
+        synchronized Pending take() {
+            if (!dirty) {
+                return null;
+            }
+            Pending taken = new Pending(new ArrayList<>(pending), dropped);
+            pending.clear();
+            dropped = 0;
+            dirty = false;
+            return taken;
+        }
+    }
+
+    /**
+     * One screen. Only the thread that wins {@code draining} touches the emitter, since
+     * its send and complete are synchronized and a send to a stalled client blocks.
+     */
+    private final class Subscriber {
+
+        private final GymChannel channel;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean holdsSlot = new AtomicBoolean(true);
+
+        private Subscriber(GymChannel channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                slowConsumerCounter.increment();
+                log.info("Disconnecting slow occupancy stream of gym {}", channel.gymId);
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        // Completion is left to the drain, which may be blocked in a send right now
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                channel.subscribers.remove(this);
+                releaseSlot();
+                queue.clear();
+                scheduleDrain();
+            }
+        }
+
+        void detach() {
+            closed.set(true);
+            channel.subscribers.remove(this);
+            releaseSlot();
+            queue.clear();
+        }
+
+        // close and detach both run for most streams; the slot is given back once
+        private void releaseSlot() {
+            if (holdsSlot.compareAndSet(true, false)) {
+                channel.slots.decrementAndGet();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+                if (closed.get()) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the container completes the emitter with the error
+                detach();
+            } finally {
+                draining.set(false);
+            }
+            if (!closed.get() && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
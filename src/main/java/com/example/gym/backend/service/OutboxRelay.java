@@ -0,0 +1,205 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.dto.DomainEvent;
+import com.example.gym.backend.entity.OutboxEvent;
+import com.example.gym.backend.entity.OutboxEvent.OutboxStatus;
+import com.example.gym.backend.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox table to in-process {@code @EventListener}s for {@link DomainEvent}.
+ *
+ * One node relays at a time (batch_job_state lease, renewed on every poll). Events
+ * are handed out in id order; when delivery of an event fails, later events of the
+ * same aggregate wait until it succeeds, which keeps per-aggregate ordering. Events
+ * still backing off are not read at all, so they cannot hold up other aggregates. An event
+ * is only marked published after its listeners returned, so delivery is at-least-once.
+ * Listeners run synchronously on the relay thread and should stay short.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private static final String JOB_NAME = "outbox-relay";
+
+    private final OutboxEventRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BatchJobCoordinator jobCoordinator;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final int retentionDays;
+
+    private final AtomicLong oldestPendingAgeMillis = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter retryCounter;
+    private final Counter deadCounter;
+    private final Timer deliveryLagTimer;
+
+    public OutboxRelay(OutboxEventRepository outboxRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       BatchJobCoordinator jobCoordinator,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.batch-size:200}") int batchSize,
+                       @Value("${app.outbox.max-batches-per-poll:10}") int maxBatchesPerPoll,
+                       @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${app.outbox.lease-seconds:30}") long leaseSeconds,
+                       @Value("${app.outbox.retention-days:7}") int retentionDays) {
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.jobCoordinator = jobCoordinator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.maxAttempts = maxAttempts;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retentionDays = retentionDays;
+
+        this.publishedCounter = Counter.builder("outbox.events").tag("outcome", "published")
+                .description("Outbox events delivered to listeners").register(meterRegistry);
+        this.retryCounter = Counter.builder("outbox.events").tag("outcome", "retry")
+                .description("Outbox deliveries that failed and will be retried").register(meterRegistry);
+        this.deadCounter = Counter.builder("outbox.events").tag("outcome", "dead")
+                .description("Outbox events given up after max attempts").register(meterRegistry);
+        this.deliveryLagTimer = Timer.builder("outbox.delivery.lag")
+                .description("Time from outbox append to successful delivery").register(meterRegistry);
+        Gauge.builder("outbox.lag.seconds", oldestPendingAgeMillis, age -> age.get() / 1000.0)
+                .description("Age of the oldest undelivered outbox event, as of the last poll")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void poll() {
+        if (!jobCoordinator.tryLock(JOB_NAME, lease)) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> blockedAggregates = new HashSet<>();
+        for (Object[] aggregate : outboxRepository.findBackingOffAggregates(now)) {
+            blockedAggregates.add(aggregateKey((String) aggregate[0], (String) aggregate[1]));
+        }
+        long afterId = 0;
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            List<OutboxEvent> events = outboxRepository.findReady(afterId, now, PageRequest.of(0, batchSize));
+            relay(events, blockedAggregates);
+            if (events.size() < batchSize) {
+                break;
+            }
+            afterId = events.get(events.size() - 1).getId();
+        }
+        LocalDateTime oldest = outboxRepository.findOldestPendingCreatedAt();
+        oldestPendingAgeMillis.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+    }
+
+    /**
+     * Deliver one batch of due events, skipping aggregates blocked earlier in this poll;
+     * aggregates whose delivery fails are added to {@code blockedAggregates}
+     */
+    private void relay(List<OutboxEvent> events, Set<String> blockedAggregates) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> published = new ArrayList<>();
+        List<OutboxEvent> failed = new ArrayList<>();
+
+        for (OutboxEvent event : events) {
+            String aggregateKey = aggregateKey(event.getAggregateType(), event.getAggregateId());
+            if (blockedAggregates.contains(aggregateKey)) {
+                continue;
+            }
+            try {
+                eventPublisher.publishEvent(toDomainEvent(event));
+                published.add(event.getId());
+                deliveryLagTimer.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                recordFailure(event, e, now);
+                failed.add(event);
+                if (event.getStatus() == OutboxStatus.PENDING) {
+                    blockedAggregates.add(aggregateKey);
+                }
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!published.isEmpty()) {
+                outboxRepository.markPublished(published, LocalDateTime.now());
+            }
+            if (!failed.isEmpty()) {
+                outboxRepository.saveAll(failed);
+            }
+        });
+        publishedCounter.increment(published.size());
+    }
+
+    private static String aggregateKey(String aggregateType, String aggregateId) {
+        return aggregateType + ":" + aggregateId;
+    }
+
+    private void recordFailure(OutboxEvent event, RuntimeException e, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        event.setAttempts(attempts);
+        event.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+        if (attempts >= maxAttempts) {
+            // Parked for manual replay (set status back to PENDING); unblocks the aggregate
+            event.setStatus(OutboxStatus.FAILED);
+            deadCounter.increment();
+            log.error("Outbox event {} ({} {}:{}) failed {} times, giving up: {}", event.getId(),
+                    event.getEventType(), event.getAggregateType(), event.getAggregateId(), attempts, error);
+        } else {
+            long backoffSeconds = Math.min(300, 1L << Math.min(attempts, 8));
+            event.setNextAttemptAt(now.plusSeconds(backoffSeconds));
+            retryCounter.increment();
+            log.warn("Outbox event {} ({}) failed, retrying in {}s: {}", event.getId(),
+                    event.getEventType(), backoffSeconds, error);
+        }
+    }
+
+    private DomainEvent toDomainEvent(OutboxEvent event) {
+        return new DomainEvent(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getEventType(), event.getPayload(), event.getCreatedAt());
+    }
+
+    @Scheduled(cron = "${app.outbox.purge-cron:0 15 3 * * *}")
+    public void purgePublished() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxRepository.deletePublishedBefore(LocalDateTime.now().minusDays(retentionDays)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} published outbox events", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        try {
+            jobCoordinator.release(JOB_NAME);
+        } catch (RuntimeException e) {
+            // Lease simply expires
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.gym.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends domain events to the outbox table inside the caller's transaction, so an
+ * event exists if and only if the change it describes was committed.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, status, attempts, created_at) "
+                    + "VALUES (?, ?, ?, ?, 'PENDING', 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * An event waiting to be appended
+     */
+    public record NewEvent(String aggregateType, Object aggregateId, String eventType, Object payload) {
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String aggregateType, Object aggregateId, String eventType, Object payload) {
+        appendAll(List.of(new NewEvent(aggregateType, aggregateId, eventType, payload)));
+    }
+
+    /**
+     * Append several events with one JDBC batch (used by the bulk jobs)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<NewEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (NewEvent event : events) {
+            rows.add(new Object[]{event.aggregateType(), String.valueOf(event.aggregateId()), event.eventType(),
+                    toJson(event.payload()), now});
+        }
+        if (rows.size() == 1) {
+            jdbcTemplate.update(INSERT_SQL, rows.get(0));
+        } else {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload", e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.gym.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly RANGE partitions of attendance and payments rolling. The partitions
+ * are created once by hand with db/maintenance/partition_attendance_and_payments.sql.
+ *
+ * Months are split off the pmax catch-all ahead of time, while pmax is still empty
+ * and the split is cheap. Partitions older than the retention period are swapped into
+ * an archive table of their own ({@code attendance_archive_p202401}, ...) with
+ * EXCHANGE PARTITION, which only moves metadata, and then dropped. MySQL only;
+ * tables that are not partitioned are skipped.
+ */
+@Service
+@Slf4j
+public class PartitionMaintenanceService {
+
+    private static final String JOB_NAME = "partition-maintenance";
+    private static final String CATCH_ALL = "pmax";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final Pattern SAFE_NAME = Pattern.compile("\\w+");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BatchJobCoordinator jobCoordinator;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final Duration lease;
+    private final List<PartitionedTable> tables;
+
+    private record PartitionedTable(String name, int retentionMonths) {
+    }
+
+    /**
+     * @param upperBound exclusive upper bound, null for the MAXVALUE partition
+     */
+    record Partition(String name, LocalDate upperBound) {
+    }
+
+    public record MaintenanceReport(int created, int archived) {
+    }
+
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                       BatchJobCoordinator jobCoordinator,
+                                       @Value("${app.partitioning.enabled:false}") boolean enabled,
+                                       @Value("${app.partitioning.months-ahead:3}") int monthsAhead,
+                                       @Value("${app.partitioning.lease-minutes:30}") long leaseMinutes,
+                                       @Value("${app.partitioning.attendance-retention-months:24}") int attendanceRetention,
+                                       @Value("${app.partitioning.payments-retention-months:84}") int paymentsRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobCoordinator = jobCoordinator;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.lease = Duration.ofMinutes(leaseMinutes);
+        this.tables = List.of(
+                new PartitionedTable("attendance", attendanceRetention),
+                new PartitionedTable("payments", paymentsRetention));
+    }
+
+    // Also on startup, so a node that was down over a month boundary catches up right away
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        runScheduled();
+    }
+
+    @Scheduled(cron = "${app.partitioning.cron:0 0 2 * * *}")
+    public void runScheduled() {
+        if (enabled) {
+            maintain(LocalDate.now());
+        }
+    }
+
+    /**
+     * Create partitions up to {@code monthsAhead} months after {@code today} and archive
+     * partitions that ended before the retention cutoff.
+     * @return counts for this run, or null if another node holds the job
+     */
+    public MaintenanceReport maintain(LocalDate today) {
+        if (!jobCoordinator.tryLock(JOB_NAME, lease)) {
+            return null;
+        }
+
+        int created = 0;
+        int archived = 0;
+        try {
+            for (PartitionedTable table : tables) {
+                try {
+                    List<Partition> partitions = loadPartitions(table.name());
+                    if (partitions.isEmpty()) {
+                        log.warn("Table {} is not partitioned (db/maintenance partitioning not run yet), skipping", table.name());
+                        continue;
+                    }
+                    created += createFuturePartitions(table.name(), partitions, today);
+                    archived += archiveOldPartitions(table, partitions, today);
+                } catch (DataAccessException e) {
+                    log.error("Partition maintenance of {} failed: {}", table.name(), e.getMessage());
+                }
+            }
+        } finally {
+            jobCoordinator.release(JOB_NAME);
+        }
+
+        log.info("Partition maintenance: {} partitions created, {} archived", created, archived);
+        return new MaintenanceReport(created, archived);
+    }
+
+    private List<Partition> loadPartitions(String table) {
+        return jdbcTemplate.query("""
+                SELECT PARTITION_NAME, PARTITION_DESCRIPTION
+                FROM information_schema.PARTITIONS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL
+                ORDER BY PARTITION_ORDINAL_POSITION
+                """, (rs, rowNum) -> new Partition(rs.getString(1), parseBound(rs.getString(2))), table);
+    }
+
+    // RANGE COLUMNS bounds read like '2026-02-01 00:00:00'
+    static LocalDate parseBound(String description) {
+        if (description == null || description.equalsIgnoreCase("MAXVALUE")) {
+            return null;
+        }
+        return LocalDate.parse(description.replace("'", "").trim().substring(0, 10));
+    }
+
+    private int createFuturePartitions(String table, List<Partition> partitions, LocalDate today) {
+        Partition last = partitions.get(partitions.size() - 1);
+        if (!CATCH_ALL.equals(last.name()) || last.upperBound() != null) {
+            log.warn("Table {} has no {} partition, cannot add months", table, CATCH_ALL);
+            return 0;
+        }
+
+        LocalDate currentMonth = today.withDayOfMonth(1);
+        LocalDate from = partitions.size() > 1 ? partitions.get(partitions.size() - 2).upperBound() : currentMonth;
+        LocalDate until = currentMonth.plusMonths(monthsAhead + 1L);
+
+        StringJoiner definitions = new StringJoiner(", ");
+        int count = 0;
+        for (LocalDate month = from; month.isBefore(until); month = month.plusMonths(1)) {
+            definitions.add("PARTITION " + month.format(PARTITION_NAME)
+                    + " VALUES LESS THAN ('" + month.plusMonths(1) + "')");
+            count++;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        definitions.add("PARTITION " + CATCH_ALL + " VALUES LESS THAN (MAXVALUE)");
+
+        jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + CATCH_ALL
+                + " INTO (" + definitions + ")");
+        log.info("Added {} monthly partitions to {} (up to {})", count, table, until);
+        return count;
+    }
+
+    private int archiveOldPartitions(PartitionedTable table, List<Partition> partitions, LocalDate today) {
+        if (table.retentionMonths() <= 0) {
+            return 0;
+        }
+        LocalDate cutoff = today.withDayOfMonth(1).minusMonths(table.retentionMonths());
+
+        int archived = 0;
+        for (Partition partition : partitions) {
+            // Partitions are in bound order, so the first one still in retention ends the scan
+            if (partition.upperBound() == null || partition.upperBound().isAfter(cutoff)) {
+                break;
+            }
+            if (archivePartition(table.name(), partition.name())) {
+                archived++;
+            }
+        }
+        return archived;
+    }
+
+    private boolean archivePartition(String table, String partition) {
+        if (!SAFE_NAME.matcher(partition).matches()) {
+            log.warn("Not archiving partition {} of {}: unexpected name", partition, table);
+            return false;
+        }
+        String archive = table + "_archive_" + partition;
+
+        if (hasRows("SELECT 1 FROM " + table + " PARTITION (" + partition + ") LIMIT 1")) {
+            if (!tableExists(archive)) {
+                jdbcTemplate.execute("CREATE TABLE " + archive + " LIKE " + table);
+                jdbcTemplate.execute("ALTER TABLE " + archive + " REMOVE PARTITIONING");
+            } else if (hasRows("SELECT 1 FROM " + archive + " LIMIT 1")) {
+                log.error("Not archiving partition {} of {}: {} already holds rows", partition, table, archive);
+                return false;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + table + " EXCHANGE PARTITION " + partition
+                    + " WITH TABLE " + archive);
+        }
+        // Empty by now, either exchanged above or by an earlier run that stopped before the drop
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + partition);
+        log.info("Archived partition {} of {} to {}", partition, table, archive);
+        return true;
+    }
+
+    private boolean hasRows(String sql) {
+        return !jdbcTemplate.queryForList(sql, Integer.class).isEmpty();
+    }
+
+    private boolean tableExists(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+                Integer.class, table);
+        return count != null && count > 0;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.gym.backend.service;
 
+import com.example.gym.backend.dto.DomainEvent;
 import com.example.gym.backend.dto.PaymentDto;
 import com.example.gym.backend.entity.Member;
 import com.example.gym.backend.entity.MemberMembership;
@@ -16,6 +17,7 @@ import com.example.gym.backend.repository.PaymentRepository;
 import com.example.gym.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -39,6 +41,8 @@ public class PaymentService {
     private final MembershipPlanRepository membershipPlanRepository;
     private final UserRepository userRepository;
     private final GymRepository gymRepository;
+    private final OutboxService outboxService;
+    private final ActiveMembershipCache activeMembershipCache;
 
     public PaymentDto recordPayment(PaymentDto paymentDto) {
         log.info("Recording payment for User ID: {}", paymentDto.getUserId());
@@ -77,9 +81,41 @@ public class PaymentService {
         Payment savedPayment = paymentRepository.save(payment);
         log.info("Payment recorded successfully with ID: {}", savedPayment.getId());
 
+        if (payment.getMembershipPlan() != null) {
+            creditUnpaidRenewal(user, payment.getMembershipPlan(), savedPayment.getAmount());
+        }
+
+        Map<String, Object> event = new HashMap<>();
+        event.put("paymentId", savedPayment.getId());
+        event.put("userId", user.getId());
+        event.put("gymId", savedPayment.getGym() != null ? savedPayment.getGym().getId() : null);
+        event.put("membershipPlanId", paymentDto.getMembershipPlanId());
+        event.put("amount", savedPayment.getAmount());
+        event.put("paymentMethod", savedPayment.getPaymentMethod());
+        event.put("status", savedPayment.getStatus());
+        event.put("paymentDate", savedPayment.getPaymentDate());
+        outboxService.append(DomainEvent.USER, user.getId(), DomainEvent.PAYMENT_RECORDED, event);
+
         return convertToDto(savedPayment);
     }
 
+    /**
+     * The renewal job writes successor memberships with amount_paid 0; the first payment
+     * for their plan settles the oldest of them
+     */
+    private void creditUnpaidRenewal(User user, MembershipPlan plan, BigDecimal amount) {
+        memberRepository.findByUserId(user.getId())
+                .flatMap(member -> membershipRepository
+                        .findUnpaidRenewals(member.getId(), plan.getId(), PageRequest.of(0, 1))
+                        .stream()
+                        .findFirst())
+                .ifPresent(renewal -> {
+                    renewal.setAmountPaid(amount);
+                    activeMembershipCache.invalidateAfterCommit(renewal.getMember().getId());
+                    log.info("Payment credited to auto-renewed membership {}", renewal.getId());
+                });
+    }
+
     public Double getCurrentMonthTotalAmount() {
         LocalDateTime startDate = LocalDate.now().withDayOfMonth(1).atStartOfDay();
         LocalDateTime endDate = LocalDateTime.now();
@@ -104,7 +140,7 @@ public class PaymentService {
     }
 
     public BigDecimal getTotalRevenueByDate(LocalDate date) {
-        return paymentRepository.getTotalRevenueByDate(date);
+        return paymentRepository.getTotalRevenueByDate(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
     }
 
     public BigDecimal getTotalPendingAmount() {
@@ -125,7 +161,7 @@ public class PaymentService {
     }
 
     public BigDecimal getTotalRevenueByDateAndGymId(Long gymId, LocalDate date) {
-        return paymentRepository.getTotalRevenueByDateAndGymId(gymId, date);
+        return paymentRepository.getTotalRevenueByDateAndGymId(gymId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
     }
 
     public BigDecimal getTotalPendingAmountByGymId(Long gymId) {
@@ -0,0 +1,241 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.dto.MetricPoint;
+import com.example.gym.backend.dto.MetricSeriesDto;
+import com.example.gym.backend.dto.ProgressEntryDto;
+import com.example.gym.backend.entity.Member;
+import com.example.gym.backend.entity.ProgressMetric;
+import com.example.gym.backend.entity.ProgressMetric.Bucket;
+import com.example.gym.backend.entity.ProgressMetric.Metric;
+import com.example.gym.backend.entity.User;
+import com.example.gym.backend.exception.BadRequestException;
+import com.example.gym.backend.exception.ResourceNotFoundException;
+import com.example.gym.backend.repository.MemberRepository;
+import com.example.gym.backend.repository.ProgressMetricRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Progress tracking. A check-in (progress_tracking row) keeps the time and notes; each
+ * measured value becomes a typed progress_metrics row with its day, week and month
+ * bucket precomputed. Charts are aggregated by the database (min/avg/max per bucket),
+ * so a member's years of history never leave it as raw rows or JSON.
+ *
+ * Imports are all-or-nothing: a client that fixes one entry and retries must not
+ * store the others twice.
+ */
+@Service
+@Slf4j
+@Transactional
+public class ProgressService {
+
+    private static final String INSERT_ENTRY_SQL =
+            "INSERT INTO progress_tracking (member_id, measurement_date, notes, created_at) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_METRIC_SQL =
+            "INSERT INTO progress_metrics (member_id, progress_id, metric, measured_at, day_start, week_start, "
+                    + "month_start, metric_value, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final ProgressMetricRepository progressMetricRepository;
+    private final MemberRepository memberRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxBatchSize;
+    private final int maxPoints;
+
+    private final Counter entriesCounter;
+    private final Counter valuesCounter;
+
+    public ProgressService(ProgressMetricRepository progressMetricRepository,
+                           MemberRepository memberRepository,
+                           JdbcTemplate jdbcTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.progress.max-batch-size:500}") int maxBatchSize,
+                           @Value("${app.progress.max-points:400}") int maxPoints) {
+        this.progressMetricRepository = progressMetricRepository;
+        this.memberRepository = memberRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxPoints = maxPoints;
+
+        this.entriesCounter = Counter.builder("progress.ingested").tag("kind", "entry")
+                .description("Progress check-ins stored").register(meterRegistry);
+        this.valuesCounter = Counter.builder("progress.ingested").tag("kind", "value")
+                .description("Progress metric values stored").register(meterRegistry);
+    }
+
+    /**
+     * Stores one check-in of a member; measuredAt defaults to now
+     */
+    public ProgressEntryDto record(User currentUser, Long memberId, ProgressEntryDto entry) {
+        if (entry != null && entry.getMeasuredAt() == null) {
+            entry.setMeasuredAt(LocalDateTime.now());
+        }
+        return importEntries(currentUser, memberId, List.of(entry == null ? new ProgressEntryDto() : entry)).get(0);
+    }
+
+    /**
+     * Stores a member's check-ins, e.g. the history of a smart scale, in two JDBC batch
+     * inserts; nothing is stored if any entry is invalid
+     */
+    public List<ProgressEntryDto> importEntries(User currentUser, Long memberId, List<ProgressEntryDto> entries) {
+        if (entries == null || entries.isEmpty()) {
+            throw new BadRequestException("No progress entries to store");
+        }
+        if (entries.size() > maxBatchSize) {
+            throw new BadRequestException("At most " + maxBatchSize + " progress entries per upload, got " + entries.size());
+        }
+        checkAccess(currentUser, memberId);
+
+        LocalDateTime latest = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < entries.size(); i++) {
+            String violation = validate(entries.get(i), latest);
+            if (violation != null) {
+                throw new BadRequestException(entries.size() == 1 ? violation : "entries[" + i + "]: " + violation);
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_ENTRY_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ProgressEntryDto entry = entries.get(i);
+                        ps.setLong(1, memberId);
+                        ps.setTimestamp(2, Timestamp.valueOf(entry.getMeasuredAt()));
+                        if (entry.getNotes() == null) {
+                            ps.setNull(3, Types.VARCHAR);
+                        } else {
+                            ps.setString(3, entry.getNotes());
+                        }
+                        ps.setTimestamp(4, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return entries.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+
+        List<Object[]> rows = new ArrayList<>();
+        List<ProgressEntryDto> stored = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            ProgressEntryDto entry = entries.get(i);
+            Long progressId = ((Number) generated.get(i).values().iterator().next()).longValue();
+            LocalDate day = entry.getMeasuredAt().toLocalDate();
+            entry.getMeasurements().forEach((metric, value) -> rows.add(new Object[]{
+                    memberId, progressId, metric.name(), Timestamp.valueOf(entry.getMeasuredAt()), Date.valueOf(day),
+                    Date.valueOf(ProgressMetric.weekStart(day)), Date.valueOf(ProgressMetric.monthStart(day)),
+                    value, now}));
+
+            ProgressEntryDto dto = new ProgressEntryDto();
+            dto.setId(progressId);
+            dto.setMemberId(memberId);
+            dto.setMeasuredAt(entry.getMeasuredAt());
+            dto.setMeasurements(entry.getMeasurements());
+            dto.setNotes(entry.getNotes());
+            dto.setCreatedAt(now.toLocalDateTime());
+            stored.add(dto);
+        }
+        jdbcTemplate.batchUpdate(INSERT_METRIC_SQL, rows);
+
+        entriesCounter.increment(entries.size());
+        valuesCounter.increment(rows.size());
+        log.info("Stored {} progress entries ({} values) of member {}", entries.size(), rows.size(), memberId);
+        return stored;
+    }
+
+    private static String validate(ProgressEntryDto entry, LocalDateTime latest) {
+        if (entry == null) {
+            return "entry is empty";
+        }
+        if (entry.getMeasuredAt() == null) {
+            return "measuredAt is required";
+        }
+        if (entry.getMeasuredAt().isAfter(latest)) {
+            return "measuredAt is in the future";
+        }
+        if (entry.getMeasurements() == null || entry.getMeasurements().isEmpty()) {
+            return "at least one measurement is required";
+        }
+        for (Map.Entry<Metric, Double> measurement : entry.getMeasurements().entrySet()) {
+            Metric metric = measurement.getKey();
+            Double value = measurement.getValue();
+            if (metric == null) {
+                return "unknown metric";
+            }
+            if (value == null || !metric.accepts(value)) {
+                return metric + " must be " + metric.range();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A member's metric between two days (inclusive), one min/avg/max point per bucket.
+     * Without a bucket, the finest one that stays within max-points is used.
+     */
+    @Transactional(readOnly = true)
+    public MetricSeriesDto getSeries(User currentUser, Long memberId, Metric metric,
+                                     LocalDate from, LocalDate to, Bucket bucket) {
+        checkAccess(currentUser, memberId);
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1);
+        if (start.isAfter(end)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        long days = ChronoUnit.DAYS.between(start, end) + 1;
+        if (bucket == null) {
+            bucket = days <= maxPoints ? Bucket.DAY : days <= maxPoints * 7L ? Bucket.WEEK : Bucket.MONTH;
+        } else if ((bucket == Bucket.DAY && days > maxPoints) || (bucket == Bucket.WEEK && days > maxPoints * 7L)) {
+            throw new BadRequestException("More than " + maxPoints + " " + bucket.name().toLowerCase()
+                    + " points requested, use a coarser bucket or a shorter range");
+        }
+
+        LocalDateTime startTime = start.atStartOfDay();
+        LocalDateTime endTime = end.plusDays(1).atStartOfDay();
+        List<MetricPoint> points = switch (bucket) {
+            case DAY -> progressMetricRepository.findDailySeries(memberId, metric, startTime, endTime);
+            case WEEK -> progressMetricRepository.findWeeklySeries(memberId, metric, startTime, endTime);
+            case MONTH -> progressMetricRepository.findMonthlySeries(memberId, metric, startTime, endTime);
+        };
+        return new MetricSeriesDto(memberId, metric, metric.getUnit(), bucket, start, end, points);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Metric> getTrackedMetrics(User currentUser, Long memberId) {
+        checkAccess(currentUser, memberId);
+        return progressMetricRepository.findTrackedMetrics(memberId);
+    }
+
+    private void checkAccess(User currentUser, Long memberId) {
+        Member member = memberRepository.findById(memberId)
+                .orElseThrow(() -> new ResourceNotFoundException("Member not found with ID: " + memberId));
+        Long gymId = member.getGym() != null ? member.getGym().getId() : null;
+        if (currentUser == null || (currentUser.getRole() != User.UserRole.SUPER_USER
+                && (currentUser.getGym() == null || !currentUser.getGym().getId().equals(gymId)))) {
+            throw new AccessDeniedException("Progress of member " + memberId + " is not accessible");
+        }
+    }
+}
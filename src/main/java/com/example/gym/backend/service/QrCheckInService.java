@@ -0,0 +1,310 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.dto.AttendanceDto;
+import com.example.gym.backend.dto.CheckInSyncResult;
+import com.example.gym.backend.dto.CheckInSyncResult.Rejected;
+import com.example.gym.backend.dto.DomainEvent;
+import com.example.gym.backend.dto.OccupancyUpdateDto;
+import com.example.gym.backend.dto.OccupancyUpdateDto.Activity;
+import com.example.gym.backend.dto.QrCheckInDto;
+import com.example.gym.backend.dto.QrCodeDto;
+import com.example.gym.backend.dto.QrKioskKeysDto;
+import com.example.gym.backend.entity.Attendance.CheckInMethod;
+import com.example.gym.backend.entity.User;
+import com.example.gym.backend.exception.BadRequestException;
+import com.example.gym.backend.exception.ResourceNotFoundException;
+import com.example.gym.backend.repository.AttendanceRepository;
+import com.example.gym.backend.repository.UserRepository;
+import com.example.gym.backend.security.QrCheckInSigner;
+import com.example.gym.backend.security.QrCheckInSigner.IssuedCode;
+import com.example.gym.backend.security.QrCheckInSigner.VerifiedCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * QR check-in. Members show a short-lived code signed for their gym (QrCheckInSigner);
+ * a kiosk verifies it with the gym's key and checks the member in online, or queues
+ * the scan while offline and syncs the queue later.
+ *
+ * A sync is validated as a whole: every code against its scan time, one check-in per
+ * member and day within the batch, then one locked read of the members and one read of
+ * their check-ins on those days; the survivors are written with a single JDBC batch
+ * insert. Rejected scans are reported by index instead of failing the sync.
+ */
+@Service
+@Slf4j
+@Transactional
+public class QrCheckInService {
+
+    private static final String INSERT_ATTENDANCE_SQL =
+            "INSERT INTO attendance (user_id, gym_id, check_in, method, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final Set<User.UserRole> KIOSK_ROLES =
+            EnumSet.of(User.UserRole.SUPER_USER, User.UserRole.ADMIN, User.UserRole.MANAGER, User.UserRole.RECEPTIONIST);
+
+    // userName is filled in once the member is loaded
+    private record Scan(int index, long userId, LocalDateTime scannedAt, String userName) {
+    }
+
+    private final QrCheckInSigner signer;
+    private final AttendanceService attendanceService;
+    private final AttendanceRepository attendanceRepository;
+    private final UserRepository userRepository;
+    private final OutboxService outboxService;
+    private final OccupancyHub occupancyHub;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxBatchSize;
+    private final long maxOfflineHours;
+
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+
+    public QrCheckInService(QrCheckInSigner signer,
+                            AttendanceService attendanceService,
+                            AttendanceRepository attendanceRepository,
+                            UserRepository userRepository,
+                            OutboxService outboxService,
+                            OccupancyHub occupancyHub,
+                            JdbcTemplate jdbcTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.checkin.sync.max-batch-size:500}") int maxBatchSize,
+                            @Value("${app.checkin.sync.max-offline-hours:72}") long maxOfflineHours) {
+        this.signer = signer;
+        this.attendanceService = attendanceService;
+        this.attendanceRepository = attendanceRepository;
+        this.userRepository = userRepository;
+        this.outboxService = outboxService;
+        this.occupancyHub = occupancyHub;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxOfflineHours = maxOfflineHours;
+
+        this.acceptedCounter = Counter.builder("attendance.offline.checkins").tag("outcome", "accepted")
+                .description("Offline QR check-ins stored by kiosk syncs").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("attendance.offline.checkins").tag("outcome", "rejected")
+                .description("Offline QR check-ins rejected by kiosk syncs").register(meterRegistry);
+    }
+
+    /**
+     * The member's code for the current window; members get their own, staff any member's of their gym
+     */
+    @Transactional(readOnly = true)
+    public QrCodeDto issueCode(User currentUser, Long gymId, Long userId) {
+        boolean self = currentUser != null && userId.equals(currentUser.getId());
+        if (!self) {
+            checkKiosk(currentUser, gymId);
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (user.getRole() == User.UserRole.SUPER_USER || user.getGym() == null || !user.getGym().getId().equals(gymId)) {
+            throw new BadRequestException("User " + userId + " cannot check in at gym " + gymId);
+        }
+        IssuedCode issued = signer.issue(userId, gymId, Instant.now());
+        ZoneId zone = ZoneId.systemDefault();
+        // Next window starts at validFrom + windowSeconds; the code stays valid for the skew after it
+        LocalDateTime refreshAt = LocalDateTime.ofInstant(issued.validFrom().plusSeconds(signer.getWindowSeconds()), zone);
+        return new QrCodeDto(issued.code(), refreshAt, LocalDateTime.ofInstant(issued.validUntil(), zone));
+    }
+
+    @Transactional(readOnly = true)
+    public QrKioskKeysDto getKioskKeys(User currentUser, Long gymId) {
+        checkKiosk(currentUser, gymId);
+        return new QrKioskKeysDto(gymId, signer.getWindowSeconds(), signer.getAllowedSkewWindows(),
+                signer.kioskKeys(gymId));
+    }
+
+    /**
+     * Online check-in with a scanned code, under the same rules as a front desk check-in
+     */
+    public AttendanceDto checkIn(User currentUser, Long gymId, QrCheckInDto request) {
+        checkKiosk(currentUser, gymId);
+        if (request == null || request.getCode() == null) {
+            throw new BadRequestException("code is required");
+        }
+        VerifiedCode verified = signer.verify(request.getCode(), gymId, Instant.now());
+        return attendanceService.checkIn(gymId, verified.userId(), CheckInMethod.QR);
+    }
+
+    /**
+     * Stores the check-ins a kiosk queued while offline, at their scan times
+     */
+    public CheckInSyncResult syncOfflineCheckIns(User currentUser, Long gymId, List<QrCheckInDto> checkIns) {
+        checkKiosk(currentUser, gymId);
+        if (checkIns == null || checkIns.isEmpty()) {
+            throw new BadRequestException("No check-ins to sync");
+        }
+        if (checkIns.size() > maxBatchSize) {
+            throw new BadRequestException("At most " + maxBatchSize + " check-ins per sync, got " + checkIns.size());
+        }
+
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDateTime oldest = LocalDateTime.now().minusHours(maxOfflineHours);
+        List<Rejected> rejected = new ArrayList<>();
+        // First scan of each member and day; later ones in the same batch are duplicates
+        Map<String, Scan> firstScans = new HashMap<>();
+        for (int i = 0; i < checkIns.size(); i++) {
+            QrCheckInDto checkIn = checkIns.get(i);
+            if (checkIn == null || checkIn.getCode() == null || checkIn.getScannedAt() == null) {
+                rejected.add(new Rejected(i, "code and scannedAt are required"));
+                continue;
+            }
+            if (checkIn.getScannedAt().isBefore(oldest)) {
+                rejected.add(new Rejected(i, "scanned more than " + maxOfflineHours + " hours ago"));
+                continue;
+            }
+            VerifiedCode verified;
+            try {
+                verified = signer.verify(checkIn.getCode(), gymId, checkIn.getScannedAt().atZone(zone).toInstant());
+            } catch (BadRequestException e) {
+                rejected.add(new Rejected(i, e.getMessage()));
+                continue;
+            }
+            Scan scan = new Scan(i, verified.userId(), checkIn.getScannedAt(), null);
+            String key = dayKey(scan.userId(), scan.scannedAt().toLocalDate());
+            Scan earlier = firstScans.putIfAbsent(key, scan);
+            if (earlier != null) {
+                Scan later = earlier.scannedAt().isAfter(scan.scannedAt()) ? earlier : scan;
+                firstScans.put(key, later == earlier ? scan : earlier);
+                rejected.add(new Rejected(later.index(), "already checked in on " + later.scannedAt().toLocalDate()));
+            }
+        }
+
+        List<Scan> scans = new ArrayList<>(firstScans.values());
+        if (!scans.isEmpty()) {
+            scans = checkAgainstStored(gymId, scans, rejected);
+        }
+        if (!scans.isEmpty()) {
+            insert(gymId, scans);
+        }
+
+        rejected.sort((a, b) -> Integer.compare(a.index(), b.index()));
+        acceptedCounter.increment(scans.size());
+        rejectedCounter.increment(rejected.size());
+        log.info("Synced {} offline check-ins at gym {}, rejected {}, for user: {}", scans.size(), gymId,
+                rejected.size(), currentUser.getUsername());
+        return new CheckInSyncResult(scans.size(), rejected);
+    }
+
+    /**
+     * Locks the members (as AttendanceService.checkIn does), then drops scans of members
+     * who cannot check in here or already did on that day
+     */
+    private List<Scan> checkAgainstStored(Long gymId, List<Scan> scans, List<Rejected> rejected) {
+        Set<Long> userIds = new HashSet<>();
+        LocalDate firstDay = null;
+        LocalDate lastDay = null;
+        for (Scan scan : scans) {
+            userIds.add(scan.userId());
+            LocalDate day = scan.scannedAt().toLocalDate();
+            firstDay = firstDay == null || day.isBefore(firstDay) ? day : firstDay;
+            lastDay = lastDay == null || day.isAfter(lastDay) ? day : lastDay;
+        }
+
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findAllByIdForUpdate(userIds).forEach(user -> users.put(user.getId(), user));
+        Set<String> checkedIn = new HashSet<>();
+        for (Object[] row : attendanceRepository.findCheckInTimes(userIds, firstDay.atStartOfDay(),
+                lastDay.plusDays(1).atStartOfDay())) {
+            checkedIn.add(dayKey((Long) row[0], ((LocalDateTime) row[1]).toLocalDate()));
+        }
+
+        List<Scan> accepted = new ArrayList<>(scans.size());
+        for (Scan scan : scans) {
+            User user = users.get(scan.userId());
+            LocalDate day = scan.scannedAt().toLocalDate();
+            if (user == null) {
+                rejected.add(new Rejected(scan.index(), "user " + scan.userId() + " not found"));
+            } else if (user.getRole() == User.UserRole.SUPER_USER || user.getGym() == null
+                    || !user.getGym().getId().equals(gymId)) {
+                rejected.add(new Rejected(scan.index(), "user " + scan.userId() + " cannot check in at this gym"));
+            } else if (checkedIn.contains(dayKey(scan.userId(), day))) {
+                rejected.add(new Rejected(scan.index(), "already checked in on " + day));
+            } else {
+                accepted.add(new Scan(scan.index(), scan.userId(), scan.scannedAt(),
+                        user.getFirstName() + " " + user.getLastName()));
+            }
+        }
+        return accepted;
+    }
+
+    private void insert(Long gymId, List<Scan> scans) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_ATTENDANCE_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Scan scan = scans.get(i);
+                        ps.setLong(1, scan.userId());
+                        ps.setLong(2, gymId);
+                        ps.setTimestamp(3, Timestamp.valueOf(scan.scannedAt()));
+                        ps.setString(4, CheckInMethod.QR.name());
+                        ps.setTimestamp(5, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return scans.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+
+        List<OutboxService.NewEvent> events = new ArrayList<>(scans.size());
+        for (int i = 0; i < scans.size(); i++) {
+            Scan scan = scans.get(i);
+            Long attendanceId = ((Number) generated.get(i).values().iterator().next()).longValue();
+            events.add(new OutboxService.NewEvent(DomainEvent.USER, scan.userId(), DomainEvent.CHECKED_IN, Map.of(
+                    "attendanceId", attendanceId,
+                    "userId", scan.userId(),
+                    "gymId", gymId,
+                    "checkIn", scan.scannedAt(),
+                    "method", CheckInMethod.QR,
+                    "offline", true)));
+        }
+        outboxService.appendAll(events);
+
+        // Scans from earlier days do not change today's occupancy
+        LocalDate today = LocalDate.now();
+        occupancyHub.publishAfterCommit(gymId, scans.stream()
+                .filter(scan -> scan.scannedAt().toLocalDate().equals(today))
+                .map(scan -> new Activity(OccupancyUpdateDto.ActivityType.CHECK_IN, scan.userId(), scan.userName(),
+                        scan.scannedAt(), true))
+                .toList());
+    }
+
+    private static String dayKey(long userId, LocalDate day) {
+        return userId + ":" + day;
+    }
+
+    // Kiosks run under a staff account of their gym
+    private static void checkKiosk(User currentUser, Long gymId) {
+        if (currentUser == null || !KIOSK_ROLES.contains(currentUser.getRole())
+                || (currentUser.getRole() != User.UserRole.SUPER_USER
+                && (currentUser.getGym() == null || !currentUser.getGym().getId().equals(gymId)))) {
+            throw new AccessDeniedException("QR check-in at gym " + gymId + " is not accessible");
+        }
+    }
+}
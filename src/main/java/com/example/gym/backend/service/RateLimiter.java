@@ -0,0 +1,33 @@
+package com.example.gym.backend.service;
+
+/**
+ * Token buckets for request admission, one per key (gym or user and request class).
+ *
+ * The implementation is chosen with {@code app.rate-limit.store}: {@code memory} keeps
+ * the buckets per node, {@code redis} shares them between nodes.
+ */
+public interface RateLimiter {
+
+    /**
+     * Bucket size and refill rate. A full bucket allows a burst of {@code capacity}
+     * requests; after that {@code refillPerSecond} requests per second.
+     */
+    record Budget(long capacity, double refillPerSecond) {
+
+        public static Budget perMinute(long requests) {
+            return new Budget(requests, requests / 60.0);
+        }
+    }
+
+    /**
+     * Take one token from the bucket of {@code key}, which starts full.
+     * @return 0 if the request is admitted, otherwise the milliseconds until a token is available
+     */
+    long tryAcquire(String key, Budget budget);
+
+    /**
+     * Give back a token taken by {@link #tryAcquire} for a request that was rejected by
+     * another bucket after all; never fills the bucket beyond capacity.
+     */
+    void refund(String key, Budget budget);
+}
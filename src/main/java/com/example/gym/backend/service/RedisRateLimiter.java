@@ -0,0 +1,104 @@
+package com.example.gym.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.List;
+
+/**
+ * Token buckets shared by all nodes. Refill and take run as one Lua script, so a
+ * bucket is updated atomically in a single round trip; keys expire once the bucket
+ * would be full again. If Redis is unavailable requests are admitted: rate limiting
+ * must not take the API down with it.
+ */
+@Service
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "redis")
+@Slf4j
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    /**
+     * KEYS[1] = bucket key
+     * ARGV[1] = capacity, ARGV[2] = refill per millisecond, ARGV[3] = now in milliseconds
+     * Returns 0 if a token was taken, otherwise the milliseconds until one is available.
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local rate = tonumber(ARGV[2])
+            local now = tonumber(ARGV[3])
+            local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(bucket[1]) or capacity
+            local ts = tonumber(bucket[2]) or now
+            if now > ts then
+                tokens = math.min(capacity, tokens + (now - ts) * rate)
+            else
+                now = ts
+            end
+            local wait = 0
+            if tokens >= 1 then
+                tokens = tokens - 1
+            else
+                wait = math.ceil((1 - tokens) / rate)
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate))
+            return wait
+            """, Long.class);
+
+    /**
+     * KEYS[1] = bucket key, ARGV[1] = capacity
+     * Adds one token back to an existing bucket, at most up to capacity.
+     */
+    private static final RedisScript<Long> REFUND_SCRIPT = new DefaultRedisScript<>("""
+            local tokens = tonumber(redis.call('HGET', KEYS[1], 'tokens'))
+            if tokens == nil then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(math.min(tonumber(ARGV[1]), tokens + 1)))
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Clock clock;
+
+    @Autowired
+    public RedisRateLimiter(StringRedisTemplate redisTemplate) {
+        this(redisTemplate, Clock.systemUTC());
+    }
+
+    RedisRateLimiter(StringRedisTemplate redisTemplate, Clock clock) {
+        this.redisTemplate = redisTemplate;
+        this.clock = clock;
+    }
+
+    @Override
+    public long tryAcquire(String key, Budget budget) {
+        try {
+            Long wait = redisTemplate.execute(ACQUIRE_SCRIPT, List.of(KEY_PREFIX + key),
+                    String.valueOf(budget.capacity()),
+                    String.valueOf(budget.refillPerSecond() / 1000),
+                    String.valueOf(clock.millis()));
+            return wait != null ? wait : 0;
+        } catch (DataAccessException e) {
+            log.warn("Rate limit check for {} failed, admitting request: {}", key, e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public void refund(String key, Budget budget) {
+        try {
+            redisTemplate.execute(REFUND_SCRIPT, List.of(KEY_PREFIX + key), String.valueOf(budget.capacity()));
+        } catch (DataAccessException e) {
+            log.warn("Rate limit refund for {} failed: {}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.gym.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis-backed token store. Multi-key writes are pipelined, logout deletes every
+ * key of the user in one script, and rotation is an atomic Lua compare-and-set.
+ *
+ * Each session's refresh token is its own key with its own TTL; a per-user set
+ * lists the session ids so that logout can drop them all.
+ */
+@Service
+@ConditionalOnProperty(name = "app.token-store.type", havingValue = "redis")
+@Slf4j
+public class RedisTokenStore implements TokenStore {
+
+    private static final String TOKEN_PREFIX = "token:";
+
+    /**
+     * KEYS[1] = expected session key, KEYS[2] = new session key, KEYS[3] = latest refresh key,
+     * KEYS[4] = access key, KEYS[5] = session id set
+     * ARGV[1] = expected refresh, ARGV[2] = new refresh, ARGV[3] = new access,
+     * ARGV[4] = refresh ttl ms, ARGV[5] = access ttl ms, ARGV[6] = expected jti, ARGV[7] = new jti
+     */
+    private static final RedisScript<Long> ROTATE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                redis.call('DEL', KEYS[1])
+                redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[4])
+                redis.call('SET', KEYS[3], ARGV[2], 'PX', ARGV[4])
+                redis.call('SET', KEYS[4], ARGV[3], 'PX', ARGV[5])
+                redis.call('SREM', KEYS[5], ARGV[6])
+                redis.call('SADD', KEYS[5], ARGV[7])
+                redis.call('PEXPIRE', KEYS[5], ARGV[4])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * KEYS[1] = session id set, KEYS[2..] = the user's fixed keys
+     * ARGV[1] = session key prefix
+     */
+    private static final RedisScript<Long> DELETE_SCRIPT = new DefaultRedisScript<>("""
+            for _, id in ipairs(redis.call('SMEMBERS', KEYS[1])) do
+                redis.call('DEL', ARGV[1] .. id)
+            end
+            return redis.call('DEL', unpack(KEYS))
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+
+    public RedisTokenStore(StringRedisTemplate redisTemplate,
+                           ObjectMapper objectMapper,
+                           @Value("${jwt.expiration}") long accessTtlMillis,
+                           @Value("${jwt.refresh-expiration}") long refreshTtlMillis) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.accessTtl = Duration.ofMillis(accessTtlMillis);
+        this.refreshTtl = Duration.ofMillis(refreshTtlMillis);
+    }
+
+    @Override
+    public void storeTokens(String username, String accessToken, String refreshTokenId, String refreshToken) {
+        byte[] accessKey = bytes(accessKey(username));
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.stringCommands().pSetEx(accessKey, accessTtl.toMillis(), bytes(accessToken));
+            putRefresh(connection, username, refreshTokenId, refreshToken);
+            return null;
+        });
+        log.info("Stored access and refresh tokens for user: {}", username);
+    }
+
+    @Override
+    public void storeAccessToken(String username, String accessToken) {
+        redisTemplate.opsForValue().set(accessKey(username), accessToken, accessTtl);
+    }
+
+    @Override
+    public void storeRefreshToken(String username, String refreshTokenId, String refreshToken) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            putRefresh(connection, username, refreshTokenId, refreshToken);
+            return null;
+        });
+    }
+
+    @Override
+    public String getAccessToken(String username) {
+        return redisTemplate.opsForValue().get(accessKey(username));
+    }
+
+    @Override
+    public String getRefreshToken(String username) {
+        return redisTemplate.opsForValue().get(refreshKey(username));
+    }
+
+    @Override
+    public String getRefreshToken(String username, String refreshTokenId) {
+        return redisTemplate.opsForValue().get(refreshSessionKey(username, refreshTokenId));
+    }
+
+    @Override
+    public boolean rotateTokens(String username, String expectedRefreshTokenId, String expectedRefreshToken,
+                                String newAccessToken, String newRefreshTokenId, String newRefreshToken) {
+        Long result = redisTemplate.execute(ROTATE_SCRIPT,
+                List.of(refreshSessionKey(username, expectedRefreshTokenId),
+                        refreshSessionKey(username, newRefreshTokenId),
+                        refreshKey(username), accessKey(username), refreshSessionsKey(username)),
+                expectedRefreshToken, newRefreshToken, newAccessToken,
+                String.valueOf(refreshTtl.toMillis()), String.valueOf(accessTtl.toMillis()),
+                expectedRefreshTokenId, newRefreshTokenId);
+        return result != null && result == 1L;
+    }
+
+    @Override
+    public void deleteTokens(String username) {
+        redisTemplate.execute(DELETE_SCRIPT,
+                List.of(refreshSessionsKey(username), accessKey(username), refreshKey(username), sessionKey(username)),
+                refreshSessionKey(username, ""));
+        log.info("Deleted all tokens for user: {}", username);
+    }
+
+    private void putRefresh(RedisConnection connection, String username, String refreshTokenId, String refreshToken) {
+        byte[] idsKey = bytes(refreshSessionsKey(username));
+        connection.stringCommands().pSetEx(bytes(refreshSessionKey(username, refreshTokenId)), refreshTtl.toMillis(),
+                bytes(refreshToken));
+        connection.stringCommands().pSetEx(bytes(refreshKey(username)), refreshTtl.toMillis(), bytes(refreshToken));
+        connection.setCommands().sAdd(idsKey, bytes(refreshTokenId));
+        connection.keyCommands().pExpire(idsKey, refreshTtl.toMillis());
+    }
+
+    @Override
+    public void storeUserSession(String username, Map<String, Object> sessionData) {
+        try {
+            redisTemplate.opsForValue().set(sessionKey(username),
+                    objectMapper.writeValueAsString(sessionData), accessTtl);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize session for user " + username, e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getUserSession(String username) {
+        String json = redisTemplate.opsForValue().get(sessionKey(username));
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable session for user {}: {}", username, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String accessKey(String username) {
+        return TOKEN_PREFIX + "access:" + username;
+    }
+
+    private static String refreshKey(String username) {
+        return TOKEN_PREFIX + "refresh:" + username;
+    }
+
+    private static String sessionKey(String username) {
+        return TOKEN_PREFIX + "session:" + username;
+    }
+
+    private static String refreshSessionKey(String username, String refreshTokenId) {
+        return TOKEN_PREFIX + "refresh-session:" + username + ":" + refreshTokenId;
+    }
+
+    private static String refreshSessionsKey(String username) {
+        return TOKEN_PREFIX + "refresh-sessions:" + username;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.entity.RevokedToken;
+import com.example.gym.backend.repository.RevokedTokenRepository;
+import com.example.gym.backend.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks revoked JWTs (by jti) for logout and refresh-token rotation.
+ *
+ * Revocations are persisted in the revoked_tokens table. Each node keeps a bloom
+ * filter of every unexpired revoked jti plus an exact map of recent revocations,
+ * so the common "not revoked" answer in the JWT filter needs no database call.
+ * Only a bloom hit that is not in the recent map falls through to the database.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final long recentWindowMinutes;
+
+    private volatile BloomFilter bloomFilter;
+    private final Map<String, RevokedToken> recentRevocations = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastSync = LocalDateTime.now();
+
+    public TokenRevocationService(
+            RevokedTokenRepository revokedTokenRepository,
+            @Value("${app.token-revocation.bloom-expected-insertions:100000}") long expectedInsertions,
+            @Value("${app.token-revocation.bloom-false-positive-rate:0.001}") double falsePositiveRate,
+            @Value("${app.token-revocation.recent-window-minutes:60}") long recentWindowMinutes) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.recentWindowMinutes = recentWindowMinutes;
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        try {
+            rebuildFilter();
+        } catch (Exception e) {
+            // Start with an empty filter; the next sync/purge cycle will fill it in
+            log.warn("Could not load revoked tokens on startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Revoke a token until its natural expiry.
+     */
+    @Transactional
+    public void revoke(String jti, String username, Date expiresAt) {
+        if (jti == null || expiresAt == null) {
+            return;
+        }
+        LocalDateTime expiry = LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault());
+        if (!expiry.isAfter(LocalDateTime.now())) {
+            return;
+        }
+
+        RevokedToken revoked = revokedTokenRepository.save(
+                new RevokedToken(jti, username, expiry, LocalDateTime.now()));
+        bloomFilter.put(jti);
+        recentRevocations.put(jti, revoked);
+        log.info("Revoked token {} for user {}", jti, username);
+    }
+
+    /**
+     * Hot-path check used on every authenticated request.
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        if (!bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        RevokedToken recent = recentRevocations.get(jti);
+        if (recent != null) {
+            return recent.getExpiresAt().isAfter(LocalDateTime.now());
+        }
+        // Bloom hit for an older revocation or a false positive
+        return revokedTokenRepository.existsById(jti);
+    }
+
+    // ================= CROSS-NODE SYNC =================
+    @Scheduled(fixedDelayString = "${app.token-revocation.sync-interval-ms:5000}")
+    public void syncFromStore() {
+        LocalDateTime now = LocalDateTime.now();
+        // Overlap the window slightly to tolerate clock skew between nodes
+        LocalDateTime since = lastSync.minusSeconds(5);
+        List<RevokedToken> revoked = revokedTokenRepository.findRevokedSince(since, now);
+        for (RevokedToken token : revoked) {
+            bloomFilter.put(token.getJti());
+            recentRevocations.put(token.getJti(), token);
+        }
+        lastSync = now;
+    }
+
+    // ================= EXPIRY EVICTION =================
+    @Scheduled(fixedDelayString = "${app.token-revocation.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = revokedTokenRepository.deleteExpired(now);
+
+        // The exact map only holds recent revocations; older ones are covered by bloom + DB
+        LocalDateTime recentCutoff = now.minusMinutes(recentWindowMinutes);
+        recentRevocations.values().removeIf(r ->
+                !r.getExpiresAt().isAfter(now) || r.getRevokedAt().isBefore(recentCutoff));
+
+        // Bloom filters cannot delete, so swap in a freshly built one
+        rebuildFilter();
+        if (deleted > 0) {
+            log.info("Purged {} expired revoked tokens", deleted);
+        }
+    }
+
+    private void rebuildFilter() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> active = revokedTokenRepository.findActiveJtis(now);
+        BloomFilter fresh = new BloomFilter(Math.max(expectedInsertions, active.size() * 2L), falsePositiveRate);
+        active.forEach(fresh::put);
+        // Revocations that land during the rebuild are in the recent map
+        recentRevocations.keySet().forEach(fresh::put);
+        bloomFilter = fresh;
+        lastSync = now;
+    }
+}
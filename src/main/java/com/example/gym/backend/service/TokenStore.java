@@ -0,0 +1,65 @@
+package com.example.gym.backend.service;
+
+import java.util.Map;
+
+/**
+ * Server-side store for issued access/refresh tokens and per-user session data.
+ *
+ * The implementation is chosen with {@code app.token-store.type}
+ * ({@code memory}, {@code jdbc} or {@code redis}). Stores are only touched on
+ * login, refresh and logout; request authentication stays on the JWT itself.
+ *
+ * Refresh tokens are kept per session, keyed by their token id (jti), so every
+ * device a user logs in on rotates its own refresh token independently.
+ */
+public interface TokenStore {
+
+    /**
+     * Store access token and a new session's refresh token together in a single round trip.
+     */
+    void storeTokens(String username, String accessToken, String refreshTokenId, String refreshToken);
+
+    void storeAccessToken(String username, String accessToken);
+
+    void storeRefreshToken(String username, String refreshTokenId, String refreshToken);
+
+    String getAccessToken(String username);
+
+    /**
+     * The refresh token stored most recently for the user, on any device
+     */
+    String getRefreshToken(String username);
+
+    /**
+     * The refresh token of one session, or null if it was rotated, revoked or never stored
+     */
+    String getRefreshToken(String username, String refreshTokenId);
+
+    default boolean validateAccessToken(String username, String accessToken) {
+        return accessToken != null && accessToken.equals(getAccessToken(username));
+    }
+
+    default boolean validateRefreshToken(String username, String refreshTokenId, String refreshToken) {
+        return refreshToken != null && refreshTokenId != null
+                && refreshToken.equals(getRefreshToken(username, refreshTokenId));
+    }
+
+    /**
+     * Atomically replace one session's refresh token (and the access token) only if
+     * that session currently holds {@code expectedRefreshToken}. Other sessions of
+     * the user are untouched.
+     *
+     * @return false if the presented refresh token was already rotated or removed
+     */
+    boolean rotateTokens(String username, String expectedRefreshTokenId, String expectedRefreshToken,
+                         String newAccessToken, String newRefreshTokenId, String newRefreshToken);
+
+    /**
+     * Delete access token, every session's refresh token and the user session in one round trip.
+     */
+    void deleteTokens(String username);
+
+    void storeUserSession(String username, Map<String, Object> sessionData);
+
+    Map<String, Object> getUserSession(String username);
+}
@@ -0,0 +1,190 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.dto.CursorPage;
+import com.example.gym.backend.dto.TrainerAssignmentDto;
+import com.example.gym.backend.dto.TrainerAssignmentView;
+import com.example.gym.backend.dto.TrainerCapacityDto;
+import com.example.gym.backend.entity.Member;
+import com.example.gym.backend.entity.Trainer;
+import com.example.gym.backend.entity.TrainerAssignment;
+import com.example.gym.backend.entity.TrainerAssignment.AssignmentStatus;
+import com.example.gym.backend.entity.User;
+import com.example.gym.backend.exception.BadRequestException;
+import com.example.gym.backend.exception.ConflictException;
+import com.example.gym.backend.exception.ResourceNotFoundException;
+import com.example.gym.backend.repository.MemberRepository;
+import com.example.gym.backend.repository.TrainerAssignmentRepository;
+import com.example.gym.backend.repository.TrainerRepository;
+import com.example.gym.backend.util.Cursor;
+import com.example.gym.backend.util.PageLimits;
+import com.example.gym.backend.util.SpecializationTags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Personal trainer assignments. A member has at most one ACTIVE trainer; each trainer
+ * keeps a count of their ACTIVE assignments (trainers.active_assignments) that is only
+ * changed by conditional UPDATEs:
+ * - assigning takes a slot only while the count is below the trainer's max clients, so
+ *   two concurrent assignments cannot both take the last slot;
+ * - completing or cancelling moves the assignment out of ACTIVE first and frees the
+ *   slot only if that succeeded, so ending an assignment twice frees one slot.
+ * The matching screen reads trainer rows only, never assignments.
+ */
+@Service
+@Slf4j
+@Transactional
+public class TrainerAssignmentService {
+
+    private final TrainerAssignmentRepository trainerAssignmentRepository;
+    private final TrainerRepository trainerRepository;
+    private final MemberRepository memberRepository;
+    private final PageLimits pageLimits;
+    private final int defaultMaxClients;
+
+    public TrainerAssignmentService(TrainerAssignmentRepository trainerAssignmentRepository,
+                                    TrainerRepository trainerRepository,
+                                    MemberRepository memberRepository,
+                                    PageLimits pageLimits,
+                                    @Value("${app.trainer.default-max-clients:20}") int defaultMaxClients) {
+        this.trainerAssignmentRepository = trainerAssignmentRepository;
+        this.trainerRepository = trainerRepository;
+        this.memberRepository = memberRepository;
+        this.pageLimits = pageLimits;
+        this.defaultMaxClients = defaultMaxClients;
+    }
+
+    public TrainerAssignmentDto assign(User currentUser, TrainerAssignmentDto request) {
+        if (request.getTrainerId() == null || request.getMemberId() == null) {
+            throw new BadRequestException("trainerId and memberId are required");
+        }
+        // Locked until commit: concurrent assignments of the same member run one after the other
+        Member member = memberRepository.findByIdForUpdate(request.getMemberId())
+                .orElseThrow(() -> new ResourceNotFoundException("Member not found with ID: " + request.getMemberId()));
+        Long gymId = member.getGym() != null ? member.getGym().getId() : null;
+        checkGym(currentUser, gymId, "member " + member.getId());
+
+        Trainer trainer = trainerRepository.findById(request.getTrainerId())
+                .orElseThrow(() -> new ResourceNotFoundException("Trainer not found with ID: " + request.getTrainerId()));
+        if (!trainer.isActive()) {
+            throw new BadRequestException("Trainer " + trainer.getId() + " is not active");
+        }
+        if (!Objects.equals(trainer.getGym() != null ? trainer.getGym().getId() : null, gymId)) {
+            throw new BadRequestException("Trainer " + trainer.getId() + " does not work at the member's gym");
+        }
+        if (trainerAssignmentRepository.existsByMemberAndStatus(member.getId(), AssignmentStatus.ACTIVE)) {
+            throw new ConflictException("Member " + member.getId()
+                    + " already has an active trainer; complete or cancel that assignment first");
+        }
+        if (trainerRepository.claimClientSlot(trainer.getId(), defaultMaxClients) == 0) {
+            throw new ConflictException("Trainer " + trainer.getId() + " has no free capacity");
+        }
+
+        TrainerAssignment assignment = new TrainerAssignment();
+        assignment.setTrainer(trainer);
+        assignment.setMember(member);
+        assignment.setAssignedDate(request.getAssignedDate() != null ? request.getAssignedDate() : LocalDate.now());
+        assignment.setStatus(AssignmentStatus.ACTIVE);
+        assignment.setNotes(request.getNotes());
+        TrainerAssignment saved = trainerAssignmentRepository.save(assignment);
+        log.info("Assigned trainer {} to member {} (assignment {})", trainer.getId(), member.getId(), saved.getId());
+        return convertToDto(trainerAssignmentRepository.findViewById(saved.getId()).orElseThrow());
+    }
+
+    public TrainerAssignmentDto complete(User currentUser, Long assignmentId) {
+        return end(currentUser, assignmentId, AssignmentStatus.COMPLETED);
+    }
+
+    public TrainerAssignmentDto cancel(User currentUser, Long assignmentId) {
+        return end(currentUser, assignmentId, AssignmentStatus.CANCELLED);
+    }
+
+    private TrainerAssignmentDto end(User currentUser, Long assignmentId, AssignmentStatus newStatus) {
+        TrainerAssignment assignment = trainerAssignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trainer assignment not found with ID: " + assignmentId));
+        Member member = assignment.getMember();
+        checkGym(currentUser, member.getGym() != null ? member.getGym().getId() : null, "member " + member.getId());
+
+        if (trainerAssignmentRepository.updateStatus(assignmentId, AssignmentStatus.ACTIVE, newStatus, LocalDate.now()) == 0) {
+            throw new ConflictException("Trainer assignment " + assignmentId + " is not active");
+        }
+        trainerRepository.releaseClientSlot(assignment.getTrainer().getId());
+        log.info("Trainer assignment {} {}", assignmentId, newStatus.name().toLowerCase());
+        return convertToDto(trainerAssignmentRepository.findViewById(assignmentId).orElseThrow());
+    }
+
+    /**
+     * Members of a trainer, ACTIVE assignments unless another status is asked for
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TrainerAssignmentDto> getTrainerAssignments(User currentUser, Long trainerId,
+                                                                  AssignmentStatus status, String cursor, Integer size) {
+        Trainer trainer = trainerRepository.findById(trainerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trainer not found with ID: " + trainerId));
+        checkGym(currentUser, trainer.getGym() != null ? trainer.getGym().getId() : null, "trainer " + trainerId);
+
+        int pageSize = pageLimits.pageSize(size);
+        List<TrainerAssignmentView> assignments = trainerAssignmentRepository.findByTrainer(trainerId,
+                status != null ? status : AssignmentStatus.ACTIVE, Cursor.decode(cursor), pageLimits.keysetPage(pageSize));
+        return CursorPage.of(assignments, pageSize, TrainerAssignmentView::getId, this::convertToDto);
+    }
+
+    /**
+     * The member's current trainer, if they have one
+     */
+    @Transactional(readOnly = true)
+    public Optional<TrainerAssignmentDto> getCurrentAssignment(User currentUser, Long memberId) {
+        Member member = memberRepository.findById(memberId)
+                .orElseThrow(() -> new ResourceNotFoundException("Member not found with ID: " + memberId));
+        checkGym(currentUser, member.getGym() != null ? member.getGym().getId() : null, "member " + memberId);
+        return trainerAssignmentRepository.findByMember(memberId, AssignmentStatus.ACTIVE, PageRequest.of(0, 1))
+                .stream().findFirst().map(this::convertToDto);
+    }
+
+    /**
+     * Trainers of a gym who can take on another client, least loaded first
+     */
+    @Transactional(readOnly = true)
+    public List<TrainerCapacityDto> getTrainersWithCapacity(User currentUser, Long gymId, String specialization) {
+        if (gymId == null) {
+            if (currentUser == null || currentUser.getGym() == null) {
+                throw new BadRequestException("gymId is required");
+            }
+            gymId = currentUser.getGym().getId();
+        }
+        checkGym(currentUser, gymId, "gym " + gymId);
+        String filter = SpecializationTags.normalize(specialization);
+        return trainerRepository.findWithFreeCapacity(gymId, filter, defaultMaxClients, pageLimits.listCap());
+    }
+
+    private static void checkGym(User currentUser, Long gymId, String what) {
+        if (currentUser == null || (currentUser.getRole() != User.UserRole.SUPER_USER
+                && (currentUser.getGym() == null || !currentUser.getGym().getId().equals(gymId)))) {
+            throw new AccessDeniedException("Trainer assignments of " + what + " are not accessible");
+        }
+    }
+
+    private TrainerAssignmentDto convertToDto(TrainerAssignmentView assignment) {
+        TrainerAssignmentDto dto = new TrainerAssignmentDto();
+        dto.setId(assignment.getId());
+        dto.setTrainerId(assignment.getTrainerId());
+        dto.setTrainerName(assignment.getTrainerFirstName() + " " + assignment.getTrainerLastName());
+        dto.setMemberId(assignment.getMemberId());
+        dto.setMemberName(assignment.getMemberFirstName() + " " + assignment.getMemberLastName());
+        dto.setAssignedDate(assignment.getAssignedDate());
+        dto.setEndDate(assignment.getEndDate());
+        dto.setStatus(assignment.getStatus());
+        dto.setNotes(assignment.getNotes());
+        dto.setCreatedAt(assignment.getCreatedAt());
+        return dto;
+    }
+}
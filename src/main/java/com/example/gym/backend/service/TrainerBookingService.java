@@ -0,0 +1,368 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.dto.AvailabilityWindowDto;
+import com.example.gym.backend.dto.FreeSlotDto;
+import com.example.gym.backend.dto.TrainerBookingDto;
+import com.example.gym.backend.dto.TrainerBookingView;
+import com.example.gym.backend.entity.Member;
+import com.example.gym.backend.entity.Trainer;
+import com.example.gym.backend.entity.TrainerAvailability;
+import com.example.gym.backend.entity.TrainerBooking;
+import com.example.gym.backend.entity.TrainerBooking.BookingStatus;
+import com.example.gym.backend.entity.User;
+import com.example.gym.backend.exception.BadRequestException;
+import com.example.gym.backend.exception.ConflictException;
+import com.example.gym.backend.exception.ResourceNotFoundException;
+import com.example.gym.backend.repository.MemberRepository;
+import com.example.gym.backend.repository.TrainerAvailabilityRepository;
+import com.example.gym.backend.repository.TrainerBookingRepository;
+import com.example.gym.backend.repository.TrainerBookingSlotRepository;
+import com.example.gym.backend.repository.TrainerRepository;
+import com.example.gym.backend.util.PageLimits;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Personal training bookings on a fixed time grid (app.booking.slot-minutes).
+ *
+ * Trainers publish weekly availability windows; a booking must fit in one. The grid
+ * slots a booking covers are inserted into trainer_booking_slots, unique per trainer and
+ * per member, so of two overlapping bookings racing for the same time exactly one
+ * commits and the other gets 409. Nothing is locked beyond the slot rows themselves, so
+ * bookings of different times, even with the same trainer, do not wait for each other.
+ * Free slots are the availability windows minus one range read of taken slots.
+ */
+@Service
+@Slf4j
+@Transactional
+public class TrainerBookingService {
+
+    private static final String INSERT_SLOT_SQL =
+            "INSERT INTO trainer_booking_slots (trainer_id, member_id, booking_id, slot_start) VALUES (?, ?, ?, ?)";
+    private static final int MAX_WINDOWS = 50;
+    private static final Comparator<TrainerAvailability> WINDOW_ORDER =
+            Comparator.comparing(TrainerAvailability::getDayOfWeek).thenComparing(TrainerAvailability::getStartTime);
+
+    private final TrainerBookingRepository trainerBookingRepository;
+    private final TrainerBookingSlotRepository trainerBookingSlotRepository;
+    private final TrainerAvailabilityRepository trainerAvailabilityRepository;
+    private final TrainerRepository trainerRepository;
+    private final MemberRepository memberRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PageLimits pageLimits;
+    private final int slotMinutes;
+    private final int maxDurationMinutes;
+    private final int horizonDays;
+    private final int maxRangeDays;
+
+    public TrainerBookingService(TrainerBookingRepository trainerBookingRepository,
+                                 TrainerBookingSlotRepository trainerBookingSlotRepository,
+                                 TrainerAvailabilityRepository trainerAvailabilityRepository,
+                                 TrainerRepository trainerRepository,
+                                 MemberRepository memberRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PageLimits pageLimits,
+                                 @Value("${app.booking.slot-minutes:30}") int slotMinutes,
+                                 @Value("${app.booking.max-duration-minutes:180}") int maxDurationMinutes,
+                                 @Value("${app.booking.horizon-days:60}") int horizonDays,
+                                 @Value("${app.booking.max-range-days:31}") int maxRangeDays) {
+        this.trainerBookingRepository = trainerBookingRepository;
+        this.trainerBookingSlotRepository = trainerBookingSlotRepository;
+        this.trainerAvailabilityRepository = trainerAvailabilityRepository;
+        this.trainerRepository = trainerRepository;
+        this.memberRepository = memberRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.pageLimits = pageLimits;
+        this.slotMinutes = slotMinutes;
+        this.maxDurationMinutes = maxDurationMinutes;
+        this.horizonDays = horizonDays;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    // ===== Availability =====
+
+    @Transactional(readOnly = true)
+    public List<AvailabilityWindowDto> getAvailability(User currentUser, Long trainerId) {
+        checkGym(currentUser, findTrainer(trainerId), "trainer " + trainerId);
+        return trainerAvailabilityRepository.findByTrainer(trainerId).stream()
+                .sorted(WINDOW_ORDER)
+                .map(window -> new AvailabilityWindowDto(window.getDayOfWeek(), window.getStartTime(), window.getEndTime()))
+                .toList();
+    }
+
+    /**
+     * Replaces the trainer's weekly windows; existing bookings are kept
+     */
+    public List<AvailabilityWindowDto> setAvailability(User currentUser, Long trainerId, List<AvailabilityWindowDto> windows) {
+        Trainer trainer = findTrainer(trainerId);
+        checkGym(currentUser, trainer, "trainer " + trainerId);
+        if (windows == null) {
+            throw new BadRequestException("Availability windows are required");
+        }
+        if (windows.size() > MAX_WINDOWS) {
+            throw new BadRequestException("At most " + MAX_WINDOWS + " availability windows per trainer");
+        }
+        Map<DayOfWeek, List<AvailabilityWindowDto>> byDay = new EnumMap<>(DayOfWeek.class);
+        for (AvailabilityWindowDto window : windows) {
+            if (window == null || window.getDayOfWeek() == null || window.getStartTime() == null || window.getEndTime() == null) {
+                throw new BadRequestException("dayOfWeek, startTime and endTime are required for each window");
+            }
+            checkInterval(window.getStartTime(), window.getEndTime());
+            byDay.computeIfAbsent(window.getDayOfWeek(), day -> new ArrayList<>()).add(window);
+        }
+        byDay.forEach((day, dayWindows) -> {
+            dayWindows.sort(Comparator.comparing(AvailabilityWindowDto::getStartTime));
+            for (int i = 1; i < dayWindows.size(); i++) {
+                if (dayWindows.get(i).getStartTime().isBefore(dayWindows.get(i - 1).getEndTime())) {
+                    throw new BadRequestException("Availability windows overlap on " + day);
+                }
+            }
+        });
+
+        trainerAvailabilityRepository.deleteByTrainer(trainerId);
+        List<TrainerAvailability> saved = trainerAvailabilityRepository.saveAll(windows.stream()
+                .map(window -> new TrainerAvailability(null, trainer, window.getDayOfWeek(),
+                        window.getStartTime(), window.getEndTime()))
+                .toList());
+        log.info("Set {} availability windows of trainer {}", saved.size(), trainerId);
+        return saved.stream()
+                .sorted(WINDOW_ORDER)
+                .map(window -> new AvailabilityWindowDto(window.getDayOfWeek(), window.getStartTime(), window.getEndTime()))
+                .toList();
+    }
+
+    /**
+     * Free intervals of a trainer per day over [from, to], from now on
+     */
+    @Transactional(readOnly = true)
+    public List<FreeSlotDto> getFreeSlots(User currentUser, Long trainerId, LocalDate from, LocalDate to) {
+        checkGym(currentUser, findTrainer(trainerId), "trainer " + trainerId);
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(6);
+        checkRange(start, end);
+
+        Map<DayOfWeek, List<TrainerAvailability>> windows = new EnumMap<>(DayOfWeek.class);
+        for (TrainerAvailability window : trainerAvailabilityRepository.findByTrainer(trainerId)) {
+            windows.computeIfAbsent(window.getDayOfWeek(), day -> new ArrayList<>()).add(window);
+        }
+        windows.values().forEach(dayWindows -> dayWindows.sort(WINDOW_ORDER));
+        Set<LocalDateTime> taken = new HashSet<>(trainerBookingSlotRepository.findTakenSlots(trainerId,
+                start.atStartOfDay(), end.plusDays(1).atStartOfDay()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<FreeSlotDto> free = new ArrayList<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            for (TrainerAvailability window : windows.getOrDefault(day.getDayOfWeek(), List.of())) {
+                FreeSlotDto open = null;
+                for (LocalTime slot = window.getStartTime(); slotFits(slot, window.getEndTime()); slot = slot.plusMinutes(slotMinutes)) {
+                    LocalDateTime slotStart = day.atTime(slot);
+                    if (taken.contains(slotStart) || !slotStart.isAfter(now)) {
+                        open = null;
+                    } else if (open != null) {
+                        open.setEndTime(slot.plusMinutes(slotMinutes));
+                    } else {
+                        open = new FreeSlotDto(day, slot, slot.plusMinutes(slotMinutes));
+                        free.add(open);
+                    }
+                }
+            }
+        }
+        return free;
+    }
+
+    // The slot starting at slot ends by windowEnd (and not past midnight)
+    private boolean slotFits(LocalTime slot, LocalTime windowEnd) {
+        int slotEnd = slot.toSecondOfDay() / 60 + slotMinutes;
+        return slotEnd <= windowEnd.toSecondOfDay() / 60;
+    }
+
+    // ===== Bookings =====
+
+    /**
+     * 409 if the trainer or the member already has a booking overlapping the interval
+     */
+    public TrainerBookingDto book(User currentUser, TrainerBookingDto request) {
+        if (request.getTrainerId() == null || request.getMemberId() == null || request.getBookingDate() == null
+                || request.getStartTime() == null || request.getEndTime() == null) {
+            throw new BadRequestException("trainerId, memberId, bookingDate, startTime and endTime are required");
+        }
+        checkInterval(request.getStartTime(), request.getEndTime());
+        long minutes = ChronoUnit.MINUTES.between(request.getStartTime(), request.getEndTime());
+        if (minutes > maxDurationMinutes) {
+            throw new BadRequestException("A booking lasts at most " + maxDurationMinutes + " minutes");
+        }
+        LocalDateTime start = request.getBookingDate().atTime(request.getStartTime());
+        LocalDateTime end = request.getBookingDate().atTime(request.getEndTime());
+        if (!start.isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("Bookings must start in the future");
+        }
+        if (request.getBookingDate().isAfter(LocalDate.now().plusDays(horizonDays))) {
+            throw new BadRequestException("Bookings can be made at most " + horizonDays + " days ahead");
+        }
+
+        Trainer trainer = findTrainer(request.getTrainerId());
+        Member member = memberRepository.findById(request.getMemberId())
+                .orElseThrow(() -> new ResourceNotFoundException("Member not found with ID: " + request.getMemberId()));
+        checkGym(currentUser, member.getGym() != null ? member.getGym().getId() : null, "member " + member.getId());
+        if (!trainer.isActive()) {
+            throw new BadRequestException("Trainer " + trainer.getId() + " is not active");
+        }
+        if (!Objects.equals(gymId(trainer), member.getGym() != null ? member.getGym().getId() : null)) {
+            throw new BadRequestException("Trainer " + trainer.getId() + " does not work at the member's gym");
+        }
+        if (!trainerAvailabilityRepository.coversInterval(trainer.getId(), request.getBookingDate().getDayOfWeek(),
+                request.getStartTime(), request.getEndTime())) {
+            throw new BadRequestException("Trainer " + trainer.getId() + " is not available at that time");
+        }
+        // Friendly messages for the common case; the unique keys below decide races
+        if (trainerBookingSlotRepository.trainerBusy(trainer.getId(), start, end)) {
+            throw new ConflictException("Trainer " + trainer.getId() + " is already booked at that time");
+        }
+        if (trainerBookingSlotRepository.memberBusy(member.getId(), start, end)) {
+            throw new ConflictException("Member " + member.getId() + " already has a booking at that time");
+        }
+
+        TrainerBooking booking = new TrainerBooking();
+        booking.setTrainer(trainer);
+        booking.setMember(member);
+        booking.setBookingDate(request.getBookingDate());
+        booking.setStartTime(request.getStartTime());
+        booking.setEndTime(request.getEndTime());
+        booking.setStatus(BookingStatus.BOOKED);
+        booking.setNotes(request.getNotes());
+        TrainerBooking saved = trainerBookingRepository.save(booking);
+
+        List<Object[]> slots = new ArrayList<>();
+        for (LocalDateTime slot = start; slot.isBefore(end); slot = slot.plusMinutes(slotMinutes)) {
+            slots.add(new Object[]{trainer.getId(), member.getId(), saved.getId(), Timestamp.valueOf(slot)});
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SLOT_SQL, slots);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent booking took one of the slots first; this transaction rolls back
+            throw new ConflictException("The time was just booked for trainer " + trainer.getId()
+                    + " or member " + member.getId() + ", please pick another slot");
+        }
+        log.info("Booked trainer {} for member {} on {} {}-{} (booking {})", trainer.getId(), member.getId(),
+                request.getBookingDate(), request.getStartTime(), request.getEndTime(), saved.getId());
+        return convertToDto(trainerBookingRepository.findViewById(saved.getId()).orElseThrow());
+    }
+
+    /**
+     * Cancels a booking and frees its slots at once
+     */
+    public TrainerBookingDto cancel(User currentUser, Long bookingId) {
+        TrainerBooking booking = trainerBookingRepository.findById(bookingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trainer booking not found with ID: " + bookingId));
+        checkGym(currentUser, booking.getTrainer(), "trainer " + booking.getTrainer().getId());
+        if (trainerBookingRepository.updateStatus(bookingId, BookingStatus.BOOKED, BookingStatus.CANCELLED,
+                LocalDateTime.now()) == 0) {
+            throw new ConflictException("Trainer booking " + bookingId + " is already cancelled");
+        }
+        trainerBookingSlotRepository.deleteByBooking(bookingId);
+        log.info("Cancelled trainer booking {}", bookingId);
+        return convertToDto(trainerBookingRepository.findViewById(bookingId).orElseThrow());
+    }
+
+    @Transactional(readOnly = true)
+    public List<TrainerBookingDto> getTrainerBookings(User currentUser, Long trainerId, LocalDate from, LocalDate to) {
+        checkGym(currentUser, findTrainer(trainerId), "trainer " + trainerId);
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start;
+        checkRange(start, end);
+        return trainerBookingRepository.findTrainerBookings(trainerId, BookingStatus.BOOKED, start, end,
+                pageLimits.listCap()).stream().map(this::convertToDto).toList();
+    }
+
+    /**
+     * A member's upcoming bookings
+     */
+    @Transactional(readOnly = true)
+    public List<TrainerBookingDto> getMemberBookings(User currentUser, Long memberId) {
+        Member member = memberRepository.findById(memberId)
+                .orElseThrow(() -> new ResourceNotFoundException("Member not found with ID: " + memberId));
+        checkGym(currentUser, member.getGym() != null ? member.getGym().getId() : null, "member " + memberId);
+        return trainerBookingRepository.findMemberBookings(memberId, BookingStatus.BOOKED, LocalDate.now(),
+                pageLimits.listCap()).stream().map(this::convertToDto).toList();
+    }
+
+    // ===== Helpers =====
+
+    private Trainer findTrainer(Long trainerId) {
+        return trainerRepository.findById(trainerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trainer not found with ID: " + trainerId));
+    }
+
+    private void checkInterval(LocalTime start, LocalTime end) {
+        if (!start.isBefore(end)) {
+            throw new BadRequestException("startTime must be before endTime");
+        }
+        if (!onGrid(start) || !onGrid(end)) {
+            throw new BadRequestException("Times must be on the " + slotMinutes + "-minute grid");
+        }
+    }
+
+    private boolean onGrid(LocalTime time) {
+        return time.getSecond() == 0 && time.getNano() == 0 && (time.getHour() * 60 + time.getMinute()) % slotMinutes == 0;
+    }
+
+    private void checkRange(LocalDate start, LocalDate end) {
+        if (start.isAfter(end)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= maxRangeDays) {
+            throw new BadRequestException("At most " + maxRangeDays + " days per request");
+        }
+    }
+
+    private static Long gymId(Trainer trainer) {
+        return trainer.getGym() != null ? trainer.getGym().getId() : null;
+    }
+
+    private static void checkGym(User currentUser, Trainer trainer, String what) {
+        checkGym(currentUser, gymId(trainer), what);
+    }
+
+    private static void checkGym(User currentUser, Long gymId, String what) {
+        if (currentUser == null || (currentUser.getRole() != User.UserRole.SUPER_USER
+                && (currentUser.getGym() == null || !currentUser.getGym().getId().equals(gymId)))) {
+            throw new AccessDeniedException("Trainer bookings of " + what + " are not accessible");
+        }
+    }
+
+    private TrainerBookingDto convertToDto(TrainerBookingView booking) {
+        TrainerBookingDto dto = new TrainerBookingDto();
+        dto.setId(booking.getId());
+        dto.setTrainerId(booking.getTrainerId());
+        dto.setTrainerName(booking.getTrainerFirstName() + " " + booking.getTrainerLastName());
+        dto.setMemberId(booking.getMemberId());
+        dto.setMemberName(booking.getMemberFirstName() + " " + booking.getMemberLastName());
+        dto.setBookingDate(booking.getBookingDate());
+        dto.setStartTime(booking.getStartTime());
+        dto.setEndTime(booking.getEndTime());
+        dto.setStatus(booking.getStatus());
+        dto.setNotes(booking.getNotes());
+        dto.setCreatedAt(booking.getCreatedAt());
+        return dto;
+    }
+}
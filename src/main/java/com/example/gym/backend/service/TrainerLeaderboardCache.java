@@ -0,0 +1,65 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.dto.TrainerRatingDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Top rated trainers per gym and specialization ("" = all). A review drops its gym's
+ * entries once it commits; the TTL bounds staleness on other nodes.
+ */
+@Component
+public class TrainerLeaderboardCache {
+
+    public record Key(Long gymId, String specialization) {
+    }
+
+    private final Cache<Key, List<TrainerRatingDto>> cache;
+
+    public TrainerLeaderboardCache(MeterRegistry meterRegistry,
+                                   @Value("${app.trainer-rating.leaderboard-ttl-seconds:300}") long ttlSeconds,
+                                   @Value("${app.trainer-rating.leaderboard-max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "trainerLeaderboard");
+    }
+
+    public List<TrainerRatingDto> get(Key key, Function<Key, List<TrainerRatingDto>> loader) {
+        return cache.get(key, loader);
+    }
+
+    public void invalidateGymAfterCommit(Long gymId) {
+        afterCommit(() -> cache.asMap().keySet().removeIf(key -> Objects.equals(key.gymId(), gymId)));
+    }
+
+    public void invalidateAllAfterCommit() {
+        afterCommit(cache::invalidateAll);
+    }
+
+    private static void afterCommit(Runnable invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidation.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidation.run();
+            }
+        });
+    }
+}
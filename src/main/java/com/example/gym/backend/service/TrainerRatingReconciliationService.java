@@ -0,0 +1,161 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.repository.TrainerReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recomputes every trainer's rating sum, count and average from trainer_reviews plus
+ * the hand-entered ratings kept from before reviews (legacy_rating_sum, legacy_ratings),
+ * and fixes the trainers whose maintained values drifted (manual edits, restored backups).
+ *
+ * Same shape as MembershipExpiryService: lease lock, keyset batches, one transaction
+ * and checkpoint per batch. A batch locks its trainer rows before counting reviews, so
+ * a review committing meanwhile is either counted or waits and is added on top.
+ */
+@Service
+@Slf4j
+public class TrainerRatingReconciliationService {
+
+    private static final String JOB_NAME = "trainer-rating-reconcile";
+
+    private static final String LOCK_BATCH_SQL = "SELECT id, rating_sum, total_ratings, rating, "
+            + "legacy_rating_sum, legacy_ratings FROM trainers "
+            + "WHERE id > ? ORDER BY id LIMIT ? FOR UPDATE";
+    private static final String FIX_SQL = "UPDATE trainers SET rating_sum = ?, total_ratings = ?, rating = ? WHERE id = ?";
+
+    private final TrainerReviewRepository trainerReviewRepository;
+    private final BatchJobCoordinator jobCoordinator;
+    private final TrainerLeaderboardCache leaderboardCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration lease;
+
+    private record TrainerRating(long id, BigDecimal sum, int count, BigDecimal rating,
+                                 BigDecimal legacySum, int legacyCount) {
+    }
+
+    private record BatchResult(long lastId, int checked, int fixed) {
+    }
+
+    public TrainerRatingReconciliationService(TrainerReviewRepository trainerReviewRepository,
+                                              BatchJobCoordinator jobCoordinator,
+                                              TrainerLeaderboardCache leaderboardCache,
+                                              JdbcTemplate jdbcTemplate,
+                                              PlatformTransactionManager transactionManager,
+                                              @Value("${app.trainer-rating.reconcile-batch-size:500}") int batchSize,
+                                              @Value("${app.trainer-rating.reconcile-lease-minutes:10}") long leaseMinutes) {
+        this.trainerReviewRepository = trainerReviewRepository;
+        this.jobCoordinator = jobCoordinator;
+        this.leaderboardCache = leaderboardCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.lease = Duration.ofMinutes(leaseMinutes);
+    }
+
+    @Scheduled(cron = "${app.trainer-rating.reconcile-cron:0 45 3 * * *}")
+    public void runScheduled() {
+        reconcile(LocalDate.now());
+    }
+
+    /**
+     * @return number of trainers whose rating had drifted and was corrected
+     */
+    public long reconcile(LocalDate runDate) {
+        if (!jobCoordinator.tryLock(JOB_NAME, lease)) {
+            return 0;
+        }
+
+        long checked = 0;
+        long fixed = 0;
+        try {
+            String runKey = runDate.toString();
+            var state = jobCoordinator.getState(JOB_NAME);
+            boolean resuming = runKey.equals(state.getRunKey()) && state.getLastProcessedId() != null;
+            long afterId = resuming ? state.getLastProcessedId() : 0L;
+            long processed = resuming && state.getProcessedCount() != null ? state.getProcessedCount() : 0L;
+            if (resuming) {
+                log.info("Resuming trainer rating reconciliation for {} after trainer id {}", runKey, afterId);
+            }
+
+            while (true) {
+                final long cursor = afterId;
+                final long processedSoFar = processed;
+                BatchResult result = transactionTemplate.execute(status ->
+                        reconcileBatch(runKey, cursor, processedSoFar));
+                if (result == null) {
+                    break;
+                }
+                afterId = result.lastId();
+                processed += result.checked();
+                checked += result.checked();
+                fixed += result.fixed();
+            }
+
+            if (fixed > 0) {
+                leaderboardCache.invalidateAllAfterCommit();
+                log.warn("Trainer rating reconciliation for {}: {} of {} trainers had drifted and were fixed",
+                        runKey, fixed, checked);
+            } else {
+                log.info("Trainer rating reconciliation for {} done: {} trainers checked, no drift", runKey, checked);
+            }
+            return fixed;
+        } finally {
+            jobCoordinator.release(JOB_NAME);
+        }
+    }
+
+    private BatchResult reconcileBatch(String runKey, long afterId, long processedSoFar) {
+        List<TrainerRating> trainers = jdbcTemplate.query(LOCK_BATCH_SQL, (rs, rowNum) -> new TrainerRating(
+                rs.getLong("id"), rs.getBigDecimal("rating_sum"), rs.getInt("total_ratings"), rs.getBigDecimal("rating"),
+                rs.getBigDecimal("legacy_rating_sum"), rs.getInt("legacy_ratings")),
+                afterId, batchSize);
+        if (trainers.isEmpty()) {
+            return null;
+        }
+
+        List<Long> ids = trainers.stream().map(TrainerRating::id).toList();
+        Map<Long, long[]> actual = new HashMap<>();
+        for (Object[] row : trainerReviewRepository.aggregateByTrainer(ids)) {
+            actual.put((Long) row[0], new long[] {((Number) row[1]).longValue(), ((Number) row[2]).longValue()});
+        }
+
+        List<Object[]> fixes = new ArrayList<>();
+        for (TrainerRating trainer : trainers) {
+            long[] countAndSum = actual.getOrDefault(trainer.id(), new long[] {0, 0});
+            int count = trainer.legacyCount() + (int) countAndSum[0];
+            BigDecimal sum = trainer.legacySum().add(BigDecimal.valueOf(countAndSum[1]));
+            BigDecimal rating = count == 0 ? BigDecimal.ZERO.setScale(2)
+                    : sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+            if (trainer.sum().compareTo(sum) != 0 || trainer.count() != count
+                    || trainer.rating() == null || trainer.rating().compareTo(rating) != 0) {
+                log.debug("Trainer {} rating drifted: {}/{} = {} recorded, {}/{} = {} from reviews", trainer.id(),
+                        trainer.sum(), trainer.count(), trainer.rating(), sum, count, rating);
+                fixes.add(new Object[] {sum, count, rating, trainer.id()});
+            }
+        }
+        if (!fixes.isEmpty()) {
+            jdbcTemplate.batchUpdate(FIX_SQL, fixes);
+        }
+
+        long lastId = ids.get(ids.size() - 1);
+        jobCoordinator.checkpoint(JOB_NAME, runKey, lastId, processedSoFar + trainers.size(), lease);
+        return new BatchResult(lastId, trainers.size(), fixes.size());
+    }
+}
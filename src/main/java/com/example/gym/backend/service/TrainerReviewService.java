@@ -0,0 +1,145 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.dto.TrainerRatingDto;
+import com.example.gym.backend.dto.TrainerReviewDto;
+import com.example.gym.backend.entity.TrainerReview;
+import com.example.gym.backend.entity.User;
+import com.example.gym.backend.entity.WorkoutSession;
+import com.example.gym.backend.exception.BadRequestException;
+import com.example.gym.backend.exception.ConflictException;
+import com.example.gym.backend.exception.ResourceNotFoundException;
+import com.example.gym.backend.repository.TrainerRepository;
+import com.example.gym.backend.repository.TrainerReviewRepository;
+import com.example.gym.backend.repository.WorkoutSessionRepository;
+import com.example.gym.backend.util.SpecializationTags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Trainer reviews. Storing a review and adding it to the trainer's rating happen in
+ * one transaction; the rating is updated with a single UPDATE of sum, count and
+ * average (TrainerRepository.applyRating), never recomputed from the reviews.
+ */
+@Service
+@Slf4j
+@Transactional
+public class TrainerReviewService {
+
+    private static final int MAX_COMMENT_LENGTH = 1000;
+
+    private final TrainerReviewRepository trainerReviewRepository;
+    private final TrainerRepository trainerRepository;
+    private final WorkoutSessionRepository workoutSessionRepository;
+    private final TrainerLeaderboardCache leaderboardCache;
+    private final int leaderboardSize;
+    private final int leaderboardMinRatings;
+
+    public TrainerReviewService(TrainerReviewRepository trainerReviewRepository,
+                                TrainerRepository trainerRepository,
+                                WorkoutSessionRepository workoutSessionRepository,
+                                TrainerLeaderboardCache leaderboardCache,
+                                @Value("${app.trainer-rating.leaderboard-size:10}") int leaderboardSize,
+                                @Value("${app.trainer-rating.leaderboard-min-ratings:3}") int leaderboardMinRatings) {
+        this.trainerReviewRepository = trainerReviewRepository;
+        this.trainerRepository = trainerRepository;
+        this.workoutSessionRepository = workoutSessionRepository;
+        this.leaderboardCache = leaderboardCache;
+        this.leaderboardSize = leaderboardSize;
+        this.leaderboardMinRatings = leaderboardMinRatings;
+    }
+
+    /**
+     * Review of the trainer who ran a workout session, by the member who attended it;
+     * 409 if the member already reviewed it
+     */
+    public TrainerReviewDto submitReview(User currentUser, TrainerReviewDto request) {
+        if (request.getWorkoutSessionId() == null || request.getRating() == null) {
+            throw new BadRequestException("workoutSessionId and rating are required");
+        }
+        if (request.getRating() < 1 || request.getRating() > 5) {
+            throw new BadRequestException("rating must be from 1 to 5");
+        }
+        if (request.getComment() != null && request.getComment().length() > MAX_COMMENT_LENGTH) {
+            throw new BadRequestException("comment is limited to " + MAX_COMMENT_LENGTH + " characters");
+        }
+        WorkoutSession session = workoutSessionRepository.findById(request.getWorkoutSessionId())
+                .orElseThrow(() -> new ResourceNotFoundException("Workout session not found with ID: "
+                        + request.getWorkoutSessionId()));
+        if (session.getTrainer() == null) {
+            throw new BadRequestException("Workout session " + session.getId() + " had no trainer");
+        }
+        Long memberId = session.getMember().getId();
+        Long trainerId = session.getTrainer().getId();
+        Long gymId = session.getMember().getGym() != null ? session.getMember().getGym().getId() : null;
+        if (currentUser == null || !currentUser.getId().equals(session.getMember().getUserId())) {
+            // Staff could otherwise rate trainers in any member's name
+            throw new AccessDeniedException("Only member " + memberId + " can review workout session "
+                    + session.getId());
+        }
+        if (trainerReviewRepository.existsByMemberAndSession(memberId, session.getId())) {
+            throw new ConflictException("Workout session " + session.getId() + " is already reviewed");
+        }
+
+        TrainerReview review = new TrainerReview();
+        review.setTrainerId(trainerId);
+        review.setMemberId(memberId);
+        review.setWorkoutSessionId(session.getId());
+        review.setRating(request.getRating());
+        review.setComment(request.getComment());
+        try {
+            review = trainerReviewRepository.saveAndFlush(review);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request stored the review first
+            throw new ConflictException("Workout session " + session.getId() + " is already reviewed");
+        }
+        trainerRepository.applyRating(trainerId, request.getRating());
+        leaderboardCache.invalidateGymAfterCommit(gymId);
+        log.info("Member {} rated trainer {} with {} for session {}", memberId, trainerId, request.getRating(),
+                session.getId());
+        return convertToDto(review);
+    }
+
+    /**
+     * Best rated trainers of a gym, optionally of one specialization; gymId defaults to the caller's gym
+     */
+    @Transactional(readOnly = true)
+    public List<TrainerRatingDto> getLeaderboard(User currentUser, Long gymId, String specialization) {
+        if (gymId == null) {
+            if (currentUser == null || currentUser.getGym() == null) {
+                throw new BadRequestException("gymId is required");
+            }
+            gymId = currentUser.getGym().getId();
+        }
+        checkGym(currentUser, gymId, "gym " + gymId);
+        String tag = SpecializationTags.normalize(specialization);
+        return leaderboardCache.get(new TrainerLeaderboardCache.Key(gymId, tag != null ? tag : ""), key ->
+                trainerRepository.findLeaderboard(key.gymId(), key.specialization().isEmpty() ? null : key.specialization(),
+                        leaderboardMinRatings, PageRequest.of(0, leaderboardSize)));
+    }
+
+    private static void checkGym(User currentUser, Long gymId, String what) {
+        if (currentUser == null || (currentUser.getRole() != User.UserRole.SUPER_USER
+                && (currentUser.getGym() == null || !currentUser.getGym().getId().equals(gymId)))) {
+            throw new AccessDeniedException("Trainer reviews of " + what + " are not accessible");
+        }
+    }
+
+    private TrainerReviewDto convertToDto(TrainerReview review) {
+        TrainerReviewDto dto = new TrainerReviewDto();
+        dto.setId(review.getId());
+        dto.setWorkoutSessionId(review.getWorkoutSessionId());
+        dto.setTrainerId(review.getTrainerId());
+        dto.setMemberId(review.getMemberId());
+        dto.setRating(review.getRating());
+        dto.setComment(review.getComment());
+        dto.setCreatedAt(review.getCreatedAt());
+        return dto;
+    }
+}
@@ -1,19 +1,37 @@
 package com.example.gym.backend.service;
 
+import com.example.gym.backend.dto.CursorPage;
+import com.example.gym.backend.dto.SpecializationTagDto;
 import com.example.gym.backend.dto.TrainerDto;
+import com.example.gym.backend.entity.Gym;
+import com.example.gym.backend.entity.SpecializationTag;
 import com.example.gym.backend.entity.Trainer;
+import com.example.gym.backend.entity.User;
+import com.example.gym.backend.exception.BadRequestException;
+import com.example.gym.backend.exception.ConflictException;
 import com.example.gym.backend.exception.ResourceNotFoundException;
+import com.example.gym.backend.repository.GymRepository;
+import com.example.gym.backend.repository.SpecializationTagRepository;
 import com.example.gym.backend.repository.TrainerRepository;
+import com.example.gym.backend.util.Cursor;
+import com.example.gym.backend.util.PageLimits;
+import com.example.gym.backend.util.SpecializationTags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,8 +41,16 @@ import java.util.stream.Collectors;
 public class TrainerService {
 
     private final TrainerRepository trainerRepository;
+    private final GymRepository gymRepository;
+    private final SpecializationTagRepository specializationTagRepository;
+    private final TrainerSpecializationIndex specializationIndex;
+    private final PageLimits pageLimits;
 
-    public TrainerDto createTrainer(TrainerDto trainerDto) {
+    /**
+     * Create a trainer in the given gym, or in the caller's gym when gymId is omitted.
+     * Sessions, bookings, assignments and discovery only see trainers with a gym.
+     */
+    public TrainerDto createTrainer(User currentUser, TrainerDto trainerDto) {
         log.info("Creating new trainer: {} {}", trainerDto.getFirstName(), trainerDto.getLastName());
 
         Trainer trainer = new Trainer();
@@ -39,9 +65,19 @@ public class TrainerService {
         trainer.setBio(trainerDto.getBio());
         trainer.setSchedule(trainerDto.getSchedule());
         trainer.setLocation(trainerDto.getLocation());
+        trainer.setMaxClients(trainerDto.getMaxClients());
         trainer.setActive(true);
+        if (trainerDto.getGymId() != null) {
+            trainer.setGym(findGym(trainerDto.getGymId()));
+        } else if (currentUser != null && currentUser.getGym() != null) {
+            trainer.setGym(currentUser.getGym());
+        } else {
+            throw new BadRequestException("gymId is required");
+        }
+        trainer.setSpecializationTags(resolveTags(trainerDto.getSpecialization()));
 
         Trainer savedTrainer = trainerRepository.save(trainer);
+        specializationIndex.refreshGymAfterCommit(gymId(savedTrainer));
         log.info("Trainer created successfully with ID: {}", savedTrainer.getId());
 
         return convertToDto(savedTrainer);
@@ -62,10 +98,17 @@ public class TrainerService {
 
     public List<TrainerDto> getAllTrainers() {
         log.info("Fetching all trainers");
-        List<Trainer> trainers = trainerRepository.findAll();
+        List<Trainer> trainers = pageLimits.capped(trainerRepository.findPageAfter(0L, pageLimits.listCap()), "Trainer list");
         return trainers.stream().map(this::convertToDto).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<TrainerDto> getTrainersPage(String cursor, Integer size) {
+        int pageSize = pageLimits.pageSize(size);
+        List<Trainer> trainers = trainerRepository.findPageAfter(Cursor.decode(cursor), pageLimits.keysetPage(pageSize));
+        return CursorPage.of(trainers, pageSize, Trainer::getId, this::convertToDto);
+    }
+
     @Transactional(readOnly = true)
     public Page<TrainerDto> getAllTrainersPaginated(int page, int size) {
         log.info("Fetching trainers with pagination: page={}, size={}", page, size);
@@ -75,10 +118,44 @@ public class TrainerService {
 
     public List<TrainerDto> getTrainersBySpecialization(String specialization) {
         log.info("Fetching trainers by specialization: {}", specialization);
-        List<Trainer> trainers = trainerRepository.findActiveTrainersBySpecialization(specialization);
+        String tag = SpecializationTags.normalize(specialization);
+        if (tag == null) {
+            return List.of();
+        }
+        List<Trainer> trainers = trainerRepository.findActiveTrainersBySpecialization(tag);
         return trainers.stream().map(this::convertToDto).collect(Collectors.toList());
     }
 
+    /**
+     * Active trainers of a gym, optionally those with a specialization containing the
+     * given term, in id order. gymId defaults to the caller's gym.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TrainerDto> discoverTrainers(User currentUser, Long gymId, String specialization,
+                                                   String cursor, Integer size) {
+        gymId = resolveGym(currentUser, gymId);
+        int pageSize = pageLimits.pageSize(size);
+        long afterId = Cursor.decode(cursor);
+        String tag = SpecializationTags.normalize(specialization);
+        if (tag == null) {
+            List<Trainer> trainers = trainerRepository.findActiveByGymAfter(gymId, afterId, pageLimits.keysetPage(pageSize));
+            return CursorPage.of(trainers, pageSize, Trainer::getId, this::convertToDto);
+        }
+
+        List<Long> ids = specializationIndex.findTrainerIds(gymId, tag, afterId, pageSize + 1);
+        boolean more = ids.size() > pageSize;
+        List<Long> pageIds = more ? ids.subList(0, pageSize) : ids;
+        // A trainer changed on another node since the last rebuild drops out here; the page is just shorter
+        List<Trainer> trainers = pageIds.isEmpty() ? List.of() : trainerRepository.findActiveByGymAndIds(gymId, pageIds);
+        return new CursorPage<>(trainers.stream().map(this::convertToDto).toList(),
+                more ? Cursor.encode(pageIds.get(pageIds.size() - 1)) : null);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SpecializationTagDto> getSpecializations(User currentUser, Long gymId) {
+        return specializationIndex.getTags(resolveGym(currentUser, gymId));
+    }
+
     public List<TrainerDto> getTopRatedTrainers(BigDecimal minRating) {
         log.info("Fetching top rated trainers with minimum rating: {}", minRating);
         List<Trainer> trainers = trainerRepository.findTopRatedTrainers(minRating);
@@ -89,6 +166,7 @@ public class TrainerService {
         log.info("Updating trainer with ID: {}", id);
         Trainer trainer = trainerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Trainer not found with ID: " + id));
+        Long previousGymId = gymId(trainer);
 
         trainer.setFirstName(trainerDto.getFirstName());
         trainer.setLastName(trainerDto.getLastName());
@@ -101,9 +179,15 @@ public class TrainerService {
         trainer.setBio(trainerDto.getBio());
         trainer.setSchedule(trainerDto.getSchedule());
         trainer.setLocation(trainerDto.getLocation());
+        trainer.setMaxClients(trainerDto.getMaxClients());
         trainer.setActive(trainerDto.isActive());
+        if (trainerDto.getGymId() != null) {
+            trainer.setGym(findGym(trainerDto.getGymId()));
+        }
+        trainer.setSpecializationTags(resolveTags(trainerDto.getSpecialization()));
 
         Trainer updatedTrainer = trainerRepository.save(trainer);
+        specializationIndex.refreshGymsAfterCommit(Arrays.asList(previousGymId, gymId(updatedTrainer)));
         log.info("Trainer updated successfully with ID: {}", updatedTrainer.getId());
 
         return convertToDto(updatedTrainer);
@@ -111,16 +195,65 @@ public class TrainerService {
 
     public void deleteTrainer(Long id) {
         log.info("Deleting trainer with ID: {}", id);
-        if (!trainerRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Trainer not found with ID: " + id);
-        }
-        trainerRepository.deleteById(id);
+        Trainer trainer = trainerRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Trainer not found with ID: " + id));
+        trainerRepository.delete(trainer);
+        specializationIndex.refreshGymAfterCommit(gymId(trainer));
         log.info("Trainer deleted successfully with ID: {}", id);
     }
 
+    /**
+     * Tags of a specialization text, creating the ones no trainer had before
+     */
+    private Set<SpecializationTag> resolveTags(String specialization) {
+        Set<String> names = SpecializationTags.parse(specialization);
+        if (names.isEmpty()) {
+            return new HashSet<>();
+        }
+        Set<SpecializationTag> tags = new HashSet<>(specializationTagRepository.findByNameIn(names));
+        Set<String> missing = new HashSet<>(names);
+        tags.forEach(tag -> missing.remove(tag.getName()));
+        List<SpecializationTag> created = new ArrayList<>(missing.size());
+        for (String name : missing) {
+            created.add(new SpecializationTag(null, name));
+        }
+        if (!created.isEmpty()) {
+            try {
+                tags.addAll(specializationTagRepository.saveAllAndFlush(created));
+            } catch (DataIntegrityViolationException e) {
+                throw new ConflictException("Specialization " + missing + " was added concurrently, please retry");
+            }
+        }
+        return tags;
+    }
+
+    private Gym findGym(Long gymId) {
+        return gymRepository.findById(gymId)
+                .orElseThrow(() -> new ResourceNotFoundException("Gym not found with ID: " + gymId));
+    }
+
+    private static Long gymId(Trainer trainer) {
+        return trainer.getGym() != null ? trainer.getGym().getId() : null;
+    }
+
+    private static Long resolveGym(User currentUser, Long gymId) {
+        if (gymId == null) {
+            if (currentUser == null || currentUser.getGym() == null) {
+                throw new BadRequestException("gymId is required");
+            }
+            gymId = currentUser.getGym().getId();
+        }
+        if (currentUser == null || (currentUser.getRole() != User.UserRole.SUPER_USER
+                && (currentUser.getGym() == null || !currentUser.getGym().getId().equals(gymId)))) {
+            throw new AccessDeniedException("Trainers of gym " + gymId + " are not accessible");
+        }
+        return gymId;
+    }
+
     private TrainerDto convertToDto(Trainer trainer) {
         TrainerDto dto = new TrainerDto();
         dto.setId(trainer.getId());
+        dto.setGymId(gymId(trainer));
         dto.setFirstName(trainer.getFirstName());
         dto.setLastName(trainer.getLastName());
         dto.setEmail(trainer.getEmail());
@@ -135,6 +268,8 @@ public class TrainerService {
         dto.setRating(trainer.getRating());
         dto.setTotalRatings(trainer.getTotalRatings());
         dto.setActive(trainer.isActive());
+        dto.setMaxClients(trainer.getMaxClients());
+        dto.setActiveAssignments(trainer.getActiveAssignments());
         dto.setCreatedAt(trainer.getCreatedAt());
         dto.setUpdatedAt(trainer.getUpdatedAt());
         return dto;
@@ -0,0 +1,228 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.dto.SpecializationTagDto;
+import com.example.gym.backend.repository.TrainerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.LongStream;
+
+/**
+ * Specialization tag to active trainer ids, per gym, so "find a trainer" searches
+ * never touch the database until the page of trainers is loaded by id.
+ *
+ * TrainerService reloads a gym's entry once a trainer write commits; a periodic full
+ * rebuild, one keyset scan of all trainer tags, picks up writes made on other nodes.
+ * Readers see an immutable snapshot that is swapped whole. Until the first rebuild
+ * succeeds, lookups read the gym's tags from the database instead of building on the
+ * request path.
+ */
+@Component
+@Slf4j
+public class TrainerSpecializationIndex {
+
+    private static final int TAG_PAGE_SIZE = 1000;
+
+    // tag -> ascending ids of the gym's active trainers with that tag
+    private record GymIndex(NavigableMap<String, long[]> trainersByTag) {
+    }
+
+    private final TrainerRepository trainerRepository;
+    private final TransactionTemplate readTransaction;
+
+    private volatile Map<Long, GymIndex> gyms = Map.of();
+    private volatile boolean loaded;
+
+    public TrainerSpecializationIndex(TrainerRepository trainerRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.trainerRepository = trainerRepository;
+        // Reloads run after the writer's commit, so they need a transaction of their own
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Searches read the database until the next refresh cycle loads it
+            log.warn("Could not build trainer specialization index on startup: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.trainer-index.refresh-interval-ms:60000}",
+            initialDelayString = "${app.trainer-index.refresh-interval-ms:60000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    /**
+     * @param tag normalized search term; matches every tag containing it
+     * @return up to limit trainer ids above afterId, ascending
+     */
+    public List<Long> findTrainerIds(Long gymId, String tag, long afterId, int limit) {
+        GymIndex index = gymIndex(gymId);
+        if (index == null) {
+            return List.of();
+        }
+        long[] exact = index.trainersByTag().get(tag);
+        List<long[]> matches = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : index.trainersByTag().entrySet()) {
+            if (entry.getValue() != exact && entry.getKey().contains(tag)) {
+                matches.add(entry.getValue());
+            }
+        }
+        long[] ids;
+        if (matches.isEmpty()) {
+            ids = exact != null ? exact : new long[0];
+        } else {
+            if (exact != null) {
+                matches.add(exact);
+            }
+            ids = matches.stream().flatMapToLong(LongStream::of).sorted().distinct().toArray();
+        }
+
+        int from = Arrays.binarySearch(ids, afterId);
+        from = from >= 0 ? from + 1 : -from - 1;
+        List<Long> page = new ArrayList<>(Math.min(limit, ids.length - from));
+        for (int i = from; i < ids.length && page.size() < limit; i++) {
+            page.add(ids[i]);
+        }
+        return page;
+    }
+
+    /**
+     * Specializations of a gym's active trainers, alphabetical
+     */
+    public List<SpecializationTagDto> getTags(Long gymId) {
+        GymIndex index = gymIndex(gymId);
+        if (index == null) {
+            return List.of();
+        }
+        List<SpecializationTagDto> tags = new ArrayList<>(index.trainersByTag().size());
+        index.trainersByTag().forEach((tag, ids) -> tags.add(new SpecializationTagDto(tag, ids.length)));
+        return tags;
+    }
+
+    public void refreshGymAfterCommit(Long gymId) {
+        refreshGymsAfterCommit(Collections.singletonList(gymId));
+    }
+
+    /**
+     * Reload these gyms once the current transaction commits (at once without one)
+     */
+    public void refreshGymsAfterCommit(Collection<Long> gymIds) {
+        Set<Long> ids = new LinkedHashSet<>(gymIds);
+        ids.removeIf(Objects::isNull);
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshGyms(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    refreshGyms(ids);
+                } catch (Exception e) {
+                    // The write is committed; the next full rebuild catches up
+                    log.warn("Could not refresh trainer specialization index for gyms {}: {}", ids, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private GymIndex gymIndex(Long gymId) {
+        if (!loaded) {
+            return load(gymId);
+        }
+        return gyms.get(gymId);
+    }
+
+    // Synchronized with rebuild, so a rebuild that read a gym before a write cannot overwrite its reload
+    private synchronized void refreshGyms(Set<Long> gymIds) {
+        if (!loaded) {
+            return;
+        }
+        Map<Long, GymIndex> next = new HashMap<>(gyms);
+        readTransaction.executeWithoutResult(status -> gymIds.forEach(gymId -> next.put(gymId, load(gymId))));
+        gyms = Map.copyOf(next);
+    }
+
+    private synchronized void rebuild() {
+        long started = System.nanoTime();
+        Map<Long, Map<String, List<Long>>> tagsByGym = new HashMap<>();
+        readTransaction.executeWithoutResult(status -> {
+            long afterId = 0L;
+            while (true) {
+                List<Object[]> page = trainerRepository.findSpecializationTagsAfter(afterId,
+                        PageRequest.of(0, TAG_PAGE_SIZE));
+                int end = page.size();
+                if (page.size() == TAG_PAGE_SIZE) {
+                    // The last trainer's tags may continue on the next page; read them again there
+                    Long lastTrainer = (Long) page.get(end - 1)[0];
+                    while (end > 0 && lastTrainer.equals(page.get(end - 1)[0])) {
+                        end--;
+                    }
+                    if (end == 0) {
+                        throw new IllegalStateException("Trainer " + lastTrainer + " has more than "
+                                + TAG_PAGE_SIZE + " specialization tags");
+                    }
+                }
+                for (Object[] row : page.subList(0, end)) {
+                    tagsByGym.computeIfAbsent((Long) row[1], gymId -> new HashMap<>())
+                            .computeIfAbsent((String) row[2], tag -> new ArrayList<>()).add((Long) row[0]);
+                }
+                if (page.size() < TAG_PAGE_SIZE) {
+                    break;
+                }
+                afterId = (Long) page.get(end - 1)[0];
+            }
+        });
+        Map<Long, GymIndex> fresh = new HashMap<>();
+        tagsByGym.forEach((gymId, trainersByTag) -> fresh.put(gymId, toIndex(trainersByTag)));
+        gyms = Map.copyOf(fresh);
+        loaded = true;
+        log.debug("Trainer specialization index rebuilt for {} gyms in {} ms", fresh.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private GymIndex load(Long gymId) {
+        Map<String, List<Long>> trainersByTag = new HashMap<>();
+        for (Object[] row : trainerRepository.findSpecializationTagsByGym(gymId)) {
+            trainersByTag.computeIfAbsent((String) row[1], tag -> new ArrayList<>()).add((Long) row[0]);
+        }
+        return toIndex(trainersByTag);
+    }
+
+    private static GymIndex toIndex(Map<String, List<Long>> trainersByTag) {
+        NavigableMap<String, long[]> index = new TreeMap<>();
+        trainersByTag.forEach((tag, ids) -> index.put(tag, ids.stream().mapToLong(Long::longValue).sorted().toArray()));
+        return new GymIndex(Collections.unmodifiableNavigableMap(index));
+    }
+}
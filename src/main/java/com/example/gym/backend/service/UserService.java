@@ -1,11 +1,16 @@
 package com.example.gym.backend.service;
 
+import com.example.gym.backend.dto.CursorPage;
 import com.example.gym.backend.dto.RegisterUserDto;
 import com.example.gym.backend.dto.UserSearchDto;
 import com.example.gym.backend.entity.Gym;
 import com.example.gym.backend.entity.User;
 import com.example.gym.backend.repository.GymRepository;
+import com.example.gym.backend.repository.ProjectionRepository;
 import com.example.gym.backend.repository.UserRepository;
+import com.example.gym.backend.util.Cursor;
+import com.example.gym.backend.util.PageLimits;
+import com.example.gym.backend.util.SparseFieldset;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
@@ -15,9 +20,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 @Service
 @RequiredArgsConstructor
@@ -28,6 +35,12 @@ public class UserService {
     private final UserRepository userRepository;
     private final GymRepository gymRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ProjectionRepository projectionRepository;
+    private final PageLimits pageLimits;
+
+    /** Fields of UserSearchDto that ?fields= can select on the user list */
+    public static final Map<String, String> USER_FIELDS = SparseFieldset.available(
+            "id", "username", "firstName", "lastName", "email", "phone", "role", "gymId=gym.id");
 
     public User createUser(RegisterUserDto dto) {
         log.info("Creating user: {}", dto.getUsername());
@@ -79,17 +92,18 @@ public class UserService {
         if (auth != null && auth.getPrincipal() instanceof User) {
             User currentUser = (User) auth.getPrincipal();
             
-            // SUPER_USER sees ALL users from ALL gyms
+            // SUPER_USER searches users of every role in ALL gyms
             if (currentUser.getRole() == User.UserRole.SUPER_USER) {
-                Page<User> users = userRepository.findAll(Pageable.unpaged());
+                List<User> users = pageLimits.capped(
+                        userRepository.searchAllUsers(searchTerm, pageLimits.listCap()), "User search");
                 return users.stream()
                     .map(this::convertToSearchDto)
                     .collect(Collectors.toList());
             }
         }
         
-        // For others, search with pagination
-        Page<User> users = userRepository.searchUsers(searchTerm, Pageable.unpaged());
+        // For others, search members only
+        List<User> users = pageLimits.capped(userRepository.searchUsers(searchTerm, pageLimits.listCap()), "User search");
         return users.stream()
                 .map(this::convertToSearchDto)
                 .collect(Collectors.toList());
@@ -104,21 +118,50 @@ public class UserService {
     public List<UserSearchDto> getAllUsers(User currentUser) {
         log.info("Getting all users for user: {}", currentUser.getUsername());
 
-        List<User> users;
+        List<User> users = pageLimits.capped(activeUsersAfter(currentUser, 0L, pageLimits.listCap()), "User list");
+        return users.stream()
+                .map(this::convertToSearchDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Same visibility as {@link #getAllUsers(User)}, one keyset page at a time
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserSearchDto> getUsersPage(User currentUser, String cursor, Integer size) {
+        int pageSize = pageLimits.pageSize(size);
+        List<User> users = activeUsersAfter(currentUser, Cursor.decode(cursor), pageLimits.keysetPage(pageSize));
+        return CursorPage.of(users, pageSize, User::getId, this::convertToSearchDto);
+    }
 
+    private List<User> activeUsersAfter(User currentUser, long afterId, Pageable pageable) {
         // If SUPER_USER, get all users
         if (currentUser.getRole() == User.UserRole.SUPER_USER) {
-            users = userRepository.findAllActive(Pageable.unpaged()).getContent();
+            return userRepository.findAllActive(afterId, pageable);
         } else if (currentUser.getGym() != null) {
             // Get users for the specific gym
-            users = userRepository.findActiveByGymId(currentUser.getGym().getId(), Pageable.unpaged()).getContent();
-        } else {
-            users = List.of();
+            return userRepository.findActiveByGymId(currentUser.getGym().getId(), afterId, pageable);
         }
-        
-        return users.stream()
-                .map(this::convertToSearchDto)
-                .collect(Collectors.toList());
+        return List.of();
+    }
+
+    /**
+     * Same visibility as {@link #getAllUsers(User)}, selecting only the requested fields
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllUsers(User currentUser, SparseFieldset fields) {
+        log.info("Getting all users with fields {} for user: {}", fields.paths().keySet(), currentUser.getUsername());
+
+        Specification<User> active = (root, query, cb) -> cb.isTrue(root.get("isActive"));
+        if (currentUser.getRole() == User.UserRole.SUPER_USER) {
+            return projectionRepository.findFields(User.class, fields, active, Sort.by("id"), pageLimits.maxListSize());
+        } else if (currentUser.getGym() != null) {
+            Long gymId = currentUser.getGym().getId();
+            return projectionRepository.findFields(User.class, fields,
+                    active.and((root, query, cb) -> cb.equal(root.get("gym").get("id"), gymId)),
+                    Sort.by("id"), pageLimits.maxListSize());
+        }
+        return List.of();
     }
 
     private UserSearchDto convertToSearchDto(User user) {
@@ -0,0 +1,282 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.dto.CursorPage;
+import com.example.gym.backend.dto.WorkoutBatchResult;
+import com.example.gym.backend.dto.WorkoutBatchResult.Rejected;
+import com.example.gym.backend.dto.WorkoutSessionDto;
+import com.example.gym.backend.dto.WorkoutSessionView;
+import com.example.gym.backend.entity.Member;
+import com.example.gym.backend.entity.Trainer;
+import com.example.gym.backend.entity.User;
+import com.example.gym.backend.exception.BadRequestException;
+import com.example.gym.backend.exception.ResourceNotFoundException;
+import com.example.gym.backend.repository.MemberRepository;
+import com.example.gym.backend.repository.TrainerRepository;
+import com.example.gym.backend.repository.WorkoutSessionRepository;
+import com.example.gym.backend.util.Cursor;
+import com.example.gym.backend.util.ExerciseLogSchema;
+import com.example.gym.backend.util.PageLimits;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Workout logging. Tablets that were offline upload many sessions at once: the batch
+ * is validated as a whole (one lookup for all members, one for all trainers, the
+ * exercise log of each session against ExerciseLogSchema), then the valid sessions
+ * are written with a single JDBC batch insert. Invalid sessions are reported back by
+ * index instead of failing the upload.
+ */
+@Service
+@Slf4j
+@Transactional
+public class WorkoutSessionService {
+
+    private static final String INSERT_SESSION_SQL =
+            "INSERT INTO workout_sessions (member_id, trainer_id, session_date, start_time, end_time, "
+                    + "duration_minutes, workout_type, exercises, calories_burned, notes, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int MAX_TEXT_LENGTH = 255;
+    // Keyset start for newest-first history: before any real session
+    private static final LocalDate HISTORY_START = LocalDate.of(9999, 12, 31);
+
+    private final WorkoutSessionRepository workoutSessionRepository;
+    private final MemberRepository memberRepository;
+    private final TrainerRepository trainerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final PageLimits pageLimits;
+    private final int maxBatchSize;
+
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+
+    public WorkoutSessionService(WorkoutSessionRepository workoutSessionRepository,
+                                 MemberRepository memberRepository,
+                                 TrainerRepository trainerRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 ObjectMapper objectMapper,
+                                 PageLimits pageLimits,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.workout.max-batch-size:500}") int maxBatchSize) {
+        this.workoutSessionRepository = workoutSessionRepository;
+        this.memberRepository = memberRepository;
+        this.trainerRepository = trainerRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.pageLimits = pageLimits;
+        this.maxBatchSize = maxBatchSize;
+
+        this.acceptedCounter = Counter.builder("workout.sessions.ingested").tag("outcome", "accepted")
+                .description("Workout sessions stored by batch uploads").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("workout.sessions.ingested").tag("outcome", "rejected")
+                .description("Workout sessions rejected by validation").register(meterRegistry);
+    }
+
+    /**
+     * Stores every valid session of the batch; staff can only log sessions of members of their gym
+     */
+    public WorkoutBatchResult ingest(User currentUser, List<WorkoutSessionDto> sessions) {
+        if (sessions == null || sessions.isEmpty()) {
+            throw new BadRequestException("No workout sessions to store");
+        }
+        if (sessions.size() > maxBatchSize) {
+            throw new BadRequestException("At most " + maxBatchSize + " workout sessions per upload, got " + sessions.size());
+        }
+
+        Set<Long> memberIds = new HashSet<>();
+        Set<Long> trainerIds = new HashSet<>();
+        for (WorkoutSessionDto session : sessions) {
+            if (session == null) {
+                continue;
+            }
+            if (session.getMemberId() != null) {
+                memberIds.add(session.getMemberId());
+            }
+            if (session.getTrainerId() != null) {
+                trainerIds.add(session.getTrainerId());
+            }
+        }
+        Map<Long, Long> memberGyms = gymIds(memberIds.isEmpty() ? List.of() : memberRepository.findGymIds(memberIds));
+        Map<Long, Long> trainerGyms = gymIds(trainerIds.isEmpty() ? List.of() : trainerRepository.findGymIds(trainerIds));
+        boolean superUser = currentUser.getRole() == User.UserRole.SUPER_USER;
+        Long callerGymId = currentUser.getGym() != null ? currentUser.getGym().getId() : null;
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        LocalDate latestSessionDate = LocalDate.now().plusDays(1);
+        List<Object[]> rows = new ArrayList<>(sessions.size());
+        List<Rejected> rejected = new ArrayList<>();
+        for (int i = 0; i < sessions.size(); i++) {
+            WorkoutSessionDto session = sessions.get(i);
+            String violation = validate(session, memberGyms, trainerGyms, superUser, callerGymId, latestSessionDate);
+            if (violation != null) {
+                rejected.add(new Rejected(i, violation));
+                continue;
+            }
+            String exercises = session.getExercises() == null || session.getExercises().isNull()
+                    ? null : toJson(session.getExercises());
+            rows.add(new Object[]{
+                    session.getMemberId(), session.getTrainerId(), Date.valueOf(session.getSessionDate()),
+                    session.getStartTime(), session.getEndTime(), session.getDurationMinutes(),
+                    session.getWorkoutType(), exercises, session.getCaloriesBurned(), session.getNotes(), now});
+        }
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SESSION_SQL, rows);
+        }
+        acceptedCounter.increment(rows.size());
+        rejectedCounter.increment(rejected.size());
+        log.info("Stored {} workout sessions, rejected {} for user: {}", rows.size(), rejected.size(),
+                currentUser.getUsername());
+        return new WorkoutBatchResult(rows.size(), rejected);
+    }
+
+    private String validate(WorkoutSessionDto session, Map<Long, Long> memberGyms, Map<Long, Long> trainerGyms,
+                            boolean superUser, Long callerGymId, LocalDate latestSessionDate) {
+        if (session == null) {
+            return "session is empty";
+        }
+        if (session.getMemberId() == null) {
+            return "memberId is required";
+        }
+        if (!memberGyms.containsKey(session.getMemberId())) {
+            return "member " + session.getMemberId() + " not found";
+        }
+        Long memberGymId = memberGyms.get(session.getMemberId());
+        if (!superUser && (callerGymId == null || !callerGymId.equals(memberGymId))) {
+            return "member " + session.getMemberId() + " is not a member of your gym";
+        }
+        if (session.getTrainerId() != null) {
+            if (!trainerGyms.containsKey(session.getTrainerId())) {
+                return "trainer " + session.getTrainerId() + " not found";
+            }
+            if (!Objects.equals(trainerGyms.get(session.getTrainerId()), memberGymId)) {
+                return "trainer " + session.getTrainerId() + " does not work at the member's gym";
+            }
+        }
+        if (session.getSessionDate() == null) {
+            return "sessionDate is required";
+        }
+        if (session.getSessionDate().isAfter(latestSessionDate)) {
+            return "sessionDate is in the future";
+        }
+        if (session.getDurationMinutes() != null
+                && (session.getDurationMinutes() < 0 || session.getDurationMinutes() > 24 * 60)) {
+            return "durationMinutes must be from 0 to 1440";
+        }
+        if (session.getCaloriesBurned() != null && session.getCaloriesBurned() < 0) {
+            return "caloriesBurned must not be negative";
+        }
+        if (tooLong(session.getStartTime()) || tooLong(session.getEndTime()) || tooLong(session.getWorkoutType())) {
+            return "startTime, endTime and workoutType are limited to " + MAX_TEXT_LENGTH + " characters";
+        }
+        return ExerciseLogSchema.validate(session.getExercises());
+    }
+
+    private static boolean tooLong(String value) {
+        return value != null && value.length() > MAX_TEXT_LENGTH;
+    }
+
+    private static Map<Long, Long> gymIds(List<Object[]> rows) {
+        Map<Long, Long> gymIds = new HashMap<>();
+        for (Object[] row : rows) {
+            gymIds.put((Long) row[0], (Long) row[1]);
+        }
+        return gymIds;
+    }
+
+    private String toJson(JsonNode exercises) {
+        try {
+            return objectMapper.writeValueAsString(exercises);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize exercise log", e);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<WorkoutSessionDto> getMemberHistory(User currentUser, Long memberId, String cursor, Integer size) {
+        Member member = memberRepository.findById(memberId)
+                .orElseThrow(() -> new ResourceNotFoundException("Member not found with ID: " + memberId));
+        checkGym(currentUser, member.getGym() != null ? member.getGym().getId() : null, "member " + memberId);
+
+        int pageSize = pageLimits.pageSize(size);
+        Cursor.Position after = Cursor.decodePosition(cursor);
+        List<WorkoutSessionView> sessions = workoutSessionRepository.findMemberHistory(memberId,
+                after == null ? HISTORY_START : after.date(), after == null ? Long.MAX_VALUE : after.id(),
+                pageLimits.keysetPage(pageSize));
+        return CursorPage.of(sessions, pageSize, WorkoutSessionView::getSessionDate, WorkoutSessionView::getId,
+                this::convertToDto);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<WorkoutSessionDto> getTrainerHistory(User currentUser, Long trainerId, String cursor, Integer size) {
+        Trainer trainer = trainerRepository.findById(trainerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Trainer not found with ID: " + trainerId));
+        checkGym(currentUser, trainer.getGym() != null ? trainer.getGym().getId() : null, "trainer " + trainerId);
+
+        int pageSize = pageLimits.pageSize(size);
+        Cursor.Position after = Cursor.decodePosition(cursor);
+        List<WorkoutSessionView> sessions = workoutSessionRepository.findTrainerHistory(trainerId,
+                after == null ? HISTORY_START : after.date(), after == null ? Long.MAX_VALUE : after.id(),
+                pageLimits.keysetPage(pageSize));
+        return CursorPage.of(sessions, pageSize, WorkoutSessionView::getSessionDate, WorkoutSessionView::getId,
+                this::convertToDto);
+    }
+
+    private static void checkGym(User currentUser, Long gymId, String what) {
+        if (currentUser == null || (currentUser.getRole() != User.UserRole.SUPER_USER
+                && (currentUser.getGym() == null || !currentUser.getGym().getId().equals(gymId)))) {
+            throw new AccessDeniedException("Workout sessions of " + what + " are not accessible");
+        }
+    }
+
+    private WorkoutSessionDto convertToDto(WorkoutSessionView session) {
+        WorkoutSessionDto dto = new WorkoutSessionDto();
+        dto.setId(session.getId());
+        dto.setMemberId(session.getMemberId());
+        dto.setTrainerId(session.getTrainerId());
+        dto.setSessionDate(session.getSessionDate());
+        dto.setStartTime(session.getStartTime());
+        dto.setEndTime(session.getEndTime());
+        dto.setDurationMinutes(session.getDurationMinutes());
+        dto.setWorkoutType(session.getWorkoutType());
+        dto.setExercises(readJson(session.getExercises()));
+        dto.setCaloriesBurned(session.getCaloriesBurned());
+        dto.setNotes(session.getNotes());
+        dto.setCreatedAt(session.getCreatedAt());
+        return dto;
+    }
+
+    private JsonNode readJson(String exercises) {
+        if (exercises == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(exercises);
+        } catch (JsonProcessingException e) {
+            // Rows written before validation existed; hand back the raw text
+            log.warn("Unreadable exercise log: {}", e.getMessage());
+            return objectMapper.getNodeFactory().textNode(exercises);
+        }
+    }
+}
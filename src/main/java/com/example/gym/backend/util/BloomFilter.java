@@ -0,0 +1,73 @@
+package com.example.gym.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Minimal thread-safe bloom filter for string keys.
+ *
+ * Lookups never allocate beyond the key bytes and never block, which makes it
+ * suitable as an in-process front for hot-path membership checks. Entries cannot
+ * be removed; callers rebuild a fresh filter when the underlying set shrinks.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        double p = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (m + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void put(String key) {
+        long hash1 = hash(key, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(key, 0xC2B2AE3D27D4EB4FL);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << (bit & 63);
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash1 = hash(key, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(key, 0xC2B2AE3D27D4EB4FL);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String key, long seed) {
+        // FNV-1a over the UTF-8 bytes followed by a 64-bit finalizer mix
+        long h = 0xCBF29CE484222325L ^ seed;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001B3L;
+        }
+        h ^= (h >>> 33);
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= (h >>> 33);
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= (h >>> 33);
+        return h;
+    }
+}
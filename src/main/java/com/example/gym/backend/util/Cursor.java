@@ -0,0 +1,81 @@
+package com.example.gym.backend.util;
+
+import com.example.gym.backend.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the last id of the previous page, or its date and id for
+ * lists ordered by date, base64url-encoded so clients treat it as a token rather
+ * than building their own.
+ */
+public final class Cursor {
+
+    private static final String PREFIX = "id:";
+    private static final String DATE_PREFIX = "at:";
+
+    /**
+     * Last row of a page ordered by (date, id)
+     */
+    public record Position(LocalDate date, long id) {
+    }
+
+    private Cursor() {
+    }
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static String encode(LocalDate date, long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((DATE_PREFIX + date + "/" + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return the position to continue after, null for the first page (no cursor)
+     * @throws BadRequestException for a cursor this class did not produce
+     */
+    public static Position decodePosition(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int separator = value.indexOf('/');
+            if (value.startsWith(DATE_PREFIX) && separator > 0) {
+                return new Position(LocalDate.parse(value.substring(DATE_PREFIX.length(), separator)),
+                        Long.parseLong(value.substring(separator + 1)));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // not base64, not a date or not a number, rejected below
+        }
+        throw new BadRequestException("Invalid cursor");
+    }
+
+    /**
+     * @return the id to continue after, 0 for the first page (no cursor)
+     * @throws BadRequestException for a cursor this class did not produce
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (value.startsWith(PREFIX)) {
+                long lastId = Long.parseLong(value.substring(PREFIX.length()));
+                if (lastId >= 0) {
+                    return lastId;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // not base64 or not a number, rejected below
+        }
+        throw new BadRequestException("Invalid cursor");
+    }
+}
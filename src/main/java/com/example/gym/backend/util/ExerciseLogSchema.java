@@ -0,0 +1,88 @@
+package com.example.gym.backend.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Shape of the exercises column of a workout session:
+ * <pre>
+ * [{"name": "Squat", "sets": 3, "reps": 10, "weightKg": 60.0, "durationSeconds": 0, "distanceMeters": 0, "notes": "..."}]
+ * </pre>
+ * name is required, the rest is optional; other properties are kept as-is, so newer
+ * tablet apps can send more than this version knows about.
+ */
+public final class ExerciseLogSchema {
+
+    public static final int MAX_EXERCISES = 100;
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final int MAX_NOTES_LENGTH = 1000;
+
+    // Numeric properties and their inclusive upper bound; all must be >= 0
+    private static final Map<String, Double> NUMBERS = Map.of(
+            "sets", 100.0,
+            "reps", 1000.0,
+            "weightKg", 1000.0,
+            "durationSeconds", 86400.0,
+            "distanceMeters", 1_000_000.0);
+
+    private ExerciseLogSchema() {
+    }
+
+    /**
+     * @return null if the log is valid (or absent), otherwise the first violation
+     */
+    public static String validate(JsonNode exercises) {
+        if (exercises == null || exercises.isNull()) {
+            return null;
+        }
+        if (!exercises.isArray()) {
+            return "exercises must be an array";
+        }
+        if (exercises.size() > MAX_EXERCISES) {
+            return "at most " + MAX_EXERCISES + " exercises per session";
+        }
+        for (int i = 0; i < exercises.size(); i++) {
+            String violation = validateExercise(exercises.get(i));
+            if (violation != null) {
+                return "exercises[" + i + "]: " + violation;
+            }
+        }
+        return null;
+    }
+
+    private static String validateExercise(JsonNode exercise) {
+        if (!exercise.isObject()) {
+            return "must be an object";
+        }
+        JsonNode name = exercise.get("name");
+        if (name == null || !name.isTextual() || name.asText().isBlank()) {
+            return "name is required";
+        }
+        if (name.asText().length() > MAX_NAME_LENGTH) {
+            return "name is longer than " + MAX_NAME_LENGTH + " characters";
+        }
+        JsonNode notes = exercise.get("notes");
+        if (notes != null && !notes.isNull()
+                && (!notes.isTextual() || notes.asText().length() > MAX_NOTES_LENGTH)) {
+            return "notes must be text of at most " + MAX_NOTES_LENGTH + " characters";
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> fields = exercise.fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            Double max = NUMBERS.get(field.getKey());
+            if (max == null || field.getValue().isNull()) {
+                continue;
+            }
+            JsonNode value = field.getValue();
+            if (!value.isNumber() || value.asDouble() < 0 || value.asDouble() > max) {
+                return field.getKey() + " must be a number from 0 to " + max.longValue();
+            }
+            if (!field.getKey().equals("weightKg") && !field.getKey().equals("distanceMeters")
+                    && !value.canConvertToExactIntegral()) {
+                return field.getKey() + " must be a whole number";
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.gym.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal {{placeholder}} template, parsed once into literal and variable segments.
+ *
+ * {@link #bind(Map)} fills in the values that are known up front (e.g. plan name and
+ * end date) and returns a smaller template, so per-recipient rendering only has to
+ * substitute the remaining per-member fields.
+ */
+public final class MailTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{\\s*(\\w+)\\s*}}");
+
+    private record Segment(boolean variable, String text) {
+    }
+
+    private final List<Segment> segments;
+
+    private MailTemplate(List<Segment> segments) {
+        this.segments = segments;
+    }
+
+    public static MailTemplate compile(String source) {
+        List<Segment> segments = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(source);
+        int last = 0;
+        while (matcher.find()) {
+            if (matcher.start() > last) {
+                segments.add(new Segment(false, source.substring(last, matcher.start())));
+            }
+            segments.add(new Segment(true, matcher.group(1)));
+            last = matcher.end();
+        }
+        if (last < source.length()) {
+            segments.add(new Segment(false, source.substring(last)));
+        }
+        return new MailTemplate(List.copyOf(segments));
+    }
+
+    /**
+     * Substitute the given values and keep every other placeholder for later.
+     */
+    public MailTemplate bind(Map<String, ?> values) {
+        List<Segment> bound = new ArrayList<>(segments.size());
+        StringBuilder literal = new StringBuilder();
+        for (Segment segment : segments) {
+            if (segment.variable() && !values.containsKey(segment.text())) {
+                if (!literal.isEmpty()) {
+                    bound.add(new Segment(false, literal.toString()));
+                    literal.setLength(0);
+                }
+                bound.add(segment);
+            } else {
+                Object value = segment.variable() ? values.get(segment.text()) : segment.text();
+                if (value != null) {
+                    literal.append(value);
+                }
+            }
+        }
+        if (!literal.isEmpty()) {
+            bound.add(new Segment(false, literal.toString()));
+        }
+        return new MailTemplate(List.copyOf(bound));
+    }
+
+    /**
+     * Render to text; placeholders without a value render as empty.
+     */
+    public String render(Map<String, ?> values) {
+        StringBuilder out = new StringBuilder();
+        for (Segment segment : segments) {
+            if (segment.variable()) {
+                Object value = values.get(segment.text());
+                if (value != null) {
+                    out.append(value);
+                }
+            } else {
+                out.append(segment.text());
+            }
+        }
+        return out.toString();
+    }
+}
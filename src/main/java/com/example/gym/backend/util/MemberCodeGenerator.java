@@ -4,7 +4,6 @@ import com.example.gym.backend.repository.MemberRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import jakarta.annotation.PostConstruct;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -17,14 +16,10 @@ public class MemberCodeGenerator {
 
     private static AtomicInteger counter = new AtomicInteger(1);
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd");
+    // Empty until the first code is generated, which loads the counter from the database;
+    // keeps the query out of startup
     private static String lastDate = "";
 
-    @PostConstruct
-    public void init() {
-        // Initialize counter from database on startup
-        initializeCounter();
-    }
-
     private void initializeCounter() {
         String today = LocalDateTime.now().format(formatter);
         String prefix = "M" + today;
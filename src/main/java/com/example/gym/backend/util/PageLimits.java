@@ -0,0 +1,65 @@
+package com.example.gym.backend.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Page sizes for cursor-paginated lists and the hard cap on the older list
+ * endpoints that return everything in one response.
+ */
+@Slf4j
+@Component
+public class PageLimits {
+
+    @Value("${app.pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${app.pagination.max-list-size:1000}")
+    private int maxListSize;
+
+    /**
+     * Requested page size clamped to 1..max-page-size, default-page-size if absent
+     */
+    public int pageSize(Integer requested) {
+        if (requested == null) {
+            return defaultPageSize;
+        }
+        return Math.max(1, Math.min(requested, maxPageSize));
+    }
+
+    /**
+     * First rows after a cursor, one more than the page so CursorPage can tell if there is a next page
+     */
+    public Pageable keysetPage(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    /**
+     * Bound for list endpoints without pagination
+     */
+    public Pageable listCap() {
+        return PageRequest.of(0, maxListSize);
+    }
+
+    public int maxListSize() {
+        return maxListSize;
+    }
+
+    /**
+     * Logs when a capped list was cut off, so callers still on it can be found and moved to the cursor endpoint
+     */
+    public <T> List<T> capped(List<T> rows, String list) {
+        if (rows.size() >= maxListSize) {
+            log.warn("{} truncated at {} rows; use the cursor-paginated endpoint", list, maxListSize);
+        }
+        return rows;
+    }
+}
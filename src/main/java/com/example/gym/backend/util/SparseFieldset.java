@@ -0,0 +1,71 @@
+package com.example.gym.backend.util;
+
+import com.example.gym.backend.exception.BadRequestException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The fields a list endpoint was asked for with {@code ?fields=id,firstName,phone},
+ * each mapped to the entity attribute path it is read from. Only these columns are
+ * selected (ProjectionRepository), so unrequested fields are never loaded.
+ */
+public final class SparseFieldset {
+
+    private final Map<String, String> paths;
+
+    private SparseFieldset(Map<String, String> paths) {
+        this.paths = Collections.unmodifiableMap(paths);
+    }
+
+    /**
+     * Fields an endpoint offers, each either an entity attribute of the same name or
+     * {@code "name=attribute.path"}
+     */
+    public static Map<String, String> available(String... fields) {
+        Map<String, String> available = new LinkedHashMap<>();
+        for (String field : fields) {
+            int separator = field.indexOf('=');
+            if (separator < 0) {
+                available.put(field, field);
+            } else {
+                available.put(field.substring(0, separator), field.substring(separator + 1));
+            }
+        }
+        return Collections.unmodifiableMap(available);
+    }
+
+    /**
+     * @param fields    comma-separated field names from the request, may be blank
+     * @param available response field name to entity attribute path ("gymId" -> "gym.id")
+     * @return the requested fields in request order, or null if none were requested
+     * @throws BadRequestException for a field the endpoint does not offer
+     */
+    public static SparseFieldset parse(String fields, Map<String, String> available) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Map<String, String> paths = new LinkedHashMap<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            String path = available.get(name);
+            if (path == null) {
+                throw new BadRequestException("Unknown field '" + name + "', available: "
+                        + String.join(",", available.keySet()));
+            }
+            paths.put(name, path);
+        }
+        return paths.isEmpty() ? null : new SparseFieldset(paths);
+    }
+
+    /**
+     * Response field name to entity attribute path, in request order
+     */
+    public Map<String, String> paths() {
+        return paths;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.gym.backend.util;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns a trainer's free-text specialization ("Yoga, Strength  Training / HIIT") into
+ * the tags it is indexed under ("yoga", "strength training", "hiit"). V12 applies the
+ * same rules when it backfills specialization_tags.
+ */
+public final class SpecializationTags {
+
+    public static final int MAX_LENGTH = 100;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[,;/|]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SpecializationTags() {
+    }
+
+    /**
+     * @return distinct tags in the order written, empty for a blank specialization
+     */
+    public static Set<String> parse(String specialization) {
+        if (specialization == null || specialization.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<String> tags = new LinkedHashSet<>();
+        for (String part : SEPARATORS.split(specialization)) {
+            String tag = normalize(part);
+            if (tag != null) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * One tag or search term: trimmed, lower case, inner whitespace collapsed, at most
+     * MAX_LENGTH characters; null if nothing is left
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String tag = WHITESPACE.matcher(value.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        if (tag.isEmpty()) {
+            return null;
+        }
+        return tag.length() > MAX_LENGTH ? tag.substring(0, MAX_LENGTH).trim() : tag;
+    }
+}
@@ -0,0 +1,101 @@
+-- Monthly RANGE partitions for attendance (check_in) and payments (payment_date)
+--
+-- MySQL requires the partitioning column in every unique key, so the primary keys
+-- become (id, check_in) and (id, payment_date); id stays AUTO_INCREMENT and unique.
+-- Partitioned InnoDB tables cannot have foreign keys, so those are dropped (the
+-- entities map the joins with ConstraintMode.NO_CONSTRAINT).
+-- PartitionMaintenanceService splits future months off pmax and archives old months.
+--
+-- Not a Flyway migration, so it never runs at startup: partitioning copies both tables,
+-- which MySQL cannot do online, and the copy blocks writes for as long as it takes.
+-- Run it by hand, once, on a schema that Flyway has brought up to date:
+--   * in a maintenance window: mysql gym_crm < partition_attendance_and_payments.sql
+--   * or online: run everything but the two partitioning ALTERs with mysql (dropping
+--     foreign keys only touches metadata), then give each of those ALTERs' body to
+--     pt-online-schema-change, which copies in chunks while writes continue:
+--       pt-online-schema-change --alter "MODIFY check_in ... (MAXVALUE))" \
+--           --no-check-alter --execute D=gym_crm,t=attendance
+--     (--no-check-alter because the primary key changes)
+-- Until then PartitionMaintenanceService finds the tables unpartitioned and skips them.
+-- The monthly bounds end at 2027-01; when running later, add months up to the current one.
+
+-- Foreign key names were generated by Hibernate, so look them up
+DROP PROCEDURE IF EXISTS drop_foreign_keys;
+
+DELIMITER //
+CREATE PROCEDURE drop_foreign_keys(IN tbl VARCHAR(64))
+BEGIN
+    DECLARE done INT DEFAULT 0;
+    DECLARE fk VARCHAR(64);
+    DECLARE cur CURSOR FOR
+        SELECT CONSTRAINT_NAME FROM information_schema.TABLE_CONSTRAINTS
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = tbl AND CONSTRAINT_TYPE = 'FOREIGN KEY';
+    DECLARE CONTINUE HANDLER FOR NOT FOUND SET done = 1;
+
+    OPEN cur;
+    drop_loop: LOOP
+        FETCH cur INTO fk;
+        IF done THEN
+            LEAVE drop_loop;
+        END IF;
+        SET @drop_fk = CONCAT('ALTER TABLE `', tbl, '` DROP FOREIGN KEY `', fk, '`');
+        PREPARE stmt FROM @drop_fk;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END LOOP;
+    CLOSE cur;
+END //
+DELIMITER ;
+
+CALL drop_foreign_keys('attendance');
+CALL drop_foreign_keys('payments');
+DROP PROCEDURE drop_foreign_keys;
+
+-- ===== attendance =====
+UPDATE attendance SET check_in = COALESCE(created_at, NOW()) WHERE check_in IS NULL;
+
+ALTER TABLE attendance
+    MODIFY check_in DATETIME(6) NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, check_in)
+    PARTITION BY RANGE COLUMNS (check_in) (
+        PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+        PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+        PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+        PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+        PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+        PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+        PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+        PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+        PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+        PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+        PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+        PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+        PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    );
+
+-- ===== payments =====
+-- payment_date is the partitioning key: pending payments are dated when they are billed
+UPDATE payments SET payment_date = COALESCE(created_at, NOW()) WHERE payment_date IS NULL;
+
+ALTER TABLE payments
+    MODIFY payment_date DATETIME(6) NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, payment_date)
+    PARTITION BY RANGE COLUMNS (payment_date) (
+        PARTITION p_history VALUES LESS THAN ('2026-01-01'),
+        PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+        PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+        PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+        PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+        PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+        PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+        PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+        PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+        PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+        PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+        PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+        PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    );
@@ -0,0 +1,46 @@
+-- Typed trainer availability and bookings. Trainer.schedule stays as free text for
+-- display; it is not parsed into windows.
+create table trainer_availability (
+    id bigint not null auto_increment,
+    trainer_id bigint not null,
+    day_of_week varchar(9) not null,
+    start_time time not null,
+    end_time time not null,
+    primary key (id),
+    index idx_availability_trainer_day (trainer_id, day_of_week),
+    constraint fk_availability_trainer foreign key (trainer_id) references trainers (id) on delete cascade
+) engine=InnoDB;
+
+create table trainer_bookings (
+    id bigint not null auto_increment,
+    trainer_id bigint not null,
+    member_id bigint not null,
+    booking_date date not null,
+    start_time time not null,
+    end_time time not null,
+    status varchar(16),
+    notes TEXT,
+    created_at datetime(6),
+    cancelled_at datetime(6),
+    primary key (id),
+    index idx_booking_trainer_date (trainer_id, booking_date, start_time),
+    index idx_booking_member_date (member_id, booking_date, start_time),
+    constraint fk_booking_trainer foreign key (trainer_id) references trainers (id),
+    constraint fk_booking_member foreign key (member_id) references members (id)
+) engine=InnoDB;
+
+-- One row per grid slot a live booking covers. The unique keys act as the exclusion
+-- constraint MySQL lacks: overlapping bookings of a trainer (or of a member) collide on
+-- a slot, so only one of two concurrent reservations can commit.
+create table trainer_booking_slots (
+    id bigint not null auto_increment,
+    trainer_id bigint not null,
+    member_id bigint not null,
+    booking_id bigint not null,
+    slot_start datetime(6) not null,
+    primary key (id),
+    unique key uk_booking_slot_trainer (trainer_id, slot_start),
+    unique key uk_booking_slot_member (member_id, slot_start),
+    index idx_booking_slot_booking (booking_id),
+    constraint fk_booking_slot_booking foreign key (booking_id) references trainer_bookings (id) on delete cascade
+) engine=InnoDB;
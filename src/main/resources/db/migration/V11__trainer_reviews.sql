@@ -0,0 +1,35 @@
+-- One review per member and workout session. Trainer ratings become sum / count, kept
+-- by a single UPDATE per review (TrainerRepository.applyRating) instead of being
+-- recomputed, and checked against this table by the nightly reconciliation.
+create table trainer_reviews (
+    id bigint not null auto_increment,
+    trainer_id bigint not null,
+    member_id bigint not null,
+    workout_session_id bigint not null,
+    rating integer not null,
+    comment varchar(1000),
+    created_at datetime(6),
+    primary key (id),
+    constraint uk_review_member_session unique (member_id, workout_session_id),
+    index idx_review_trainer_rating (trainer_id, rating),
+    constraint fk_review_trainer foreign key (trainer_id) references trainers (id),
+    constraint fk_review_member foreign key (member_id) references members (id),
+    constraint fk_review_session foreign key (workout_session_id) references workout_sessions (id)
+) engine=InnoDB;
+
+ALTER TABLE trainers
+    ADD COLUMN rating_sum decimal(38,2) not null default 0,
+    ADD COLUMN legacy_rating_sum decimal(38,2) not null default 0,
+    ADD COLUMN legacy_ratings integer not null default 0,
+    ALGORITHM=INSTANT;
+
+-- Ratings entered by hand so far have no reviews behind them. They are kept as a fixed
+-- offset (legacy_*) that the reconciliation adds to the reviews, so averages neither
+-- jump now nor get reset to 0 by the first nightly run. The sums are DECIMAL like
+-- rating, so rating * total_ratings is exact and 4.37 over 3 ratings stays 4.37.
+UPDATE trainers
+SET legacy_ratings = COALESCE(total_ratings, 0),
+    legacy_rating_sum = COALESCE(rating, 0) * COALESCE(total_ratings, 0),
+    total_ratings = COALESCE(total_ratings, 0),
+    rating = COALESCE(rating, 0),
+    rating_sum = COALESCE(rating, 0) * COALESCE(total_ratings, 0);
@@ -0,0 +1,50 @@
+-- Normalized trainer specializations. Trainer.specialization stays as entered for
+-- display; discovery reads the tags (see SpecializationTags and TrainerSpecializationIndex).
+-- Tag names compare byte for byte: TrainerService matches the names it finds back in
+-- Java, so "pilátes" must not find "pilates" through the accent-insensitive default.
+create table specialization_tags (
+    id bigint not null auto_increment,
+    name varchar(100) character set utf8mb4 collate utf8mb4_bin not null,
+    primary key (id),
+    constraint uk_specialization_tag_name unique (name)
+) engine=InnoDB;
+
+create table trainer_specialization_tags (
+    trainer_id bigint not null,
+    tag_id bigint not null,
+    primary key (trainer_id, tag_id),
+    index idx_trainer_tag_tag (tag_id, trainer_id),
+    constraint fk_trainer_tag_trainer foreign key (trainer_id) references trainers (id) on delete cascade,
+    constraint fk_trainer_tag_tag foreign key (tag_id) references specialization_tags (id)
+) engine=InnoDB;
+
+-- Backfill: split each specialization on , ; / | and normalize each part the way
+-- SpecializationTags.normalize does (trim, collapse whitespace, lower case, 100 chars)
+create temporary table trainer_tag_backfill as
+with recursive parts (trainer_id, part, rest) as (
+    select id,
+           substring_index(spec, ',', 1),
+           if(locate(',', spec) > 0, substring(spec, locate(',', spec) + 1), null)
+    from (select id, regexp_replace(specialization, '[;/|]', ',') as spec
+          from trainers where specialization is not null) s
+    union all
+    select trainer_id,
+           substring_index(rest, ',', 1),
+           if(locate(',', rest) > 0, substring(rest, locate(',', rest) + 1), null)
+    from parts where rest is not null
+)
+select distinct trainer_id,
+       trim(left(lower(trim(regexp_replace(part, '[[:space:]]+', ' '))), 100)) collate utf8mb4_bin as name
+from parts;
+
+delete from trainer_tag_backfill where name = '';
+
+insert into specialization_tags (name)
+select distinct name from trainer_tag_backfill;
+
+insert into trainer_specialization_tags (trainer_id, tag_id)
+select distinct b.trainer_id, t.id
+from trainer_tag_backfill b
+join specialization_tags t on t.name = b.name;
+
+drop temporary table trainer_tag_backfill;
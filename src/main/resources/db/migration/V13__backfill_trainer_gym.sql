@@ -0,0 +1,22 @@
+-- Backfill trainers.gym_id, left NULL by trainers created through the API
+--
+-- Workout sessions, trainer bookings, assignments, the leaderboard and trainer
+-- discovery all match trainers.gym_id against the member's gym, so a trainer
+-- without one could not be used anywhere. The gym of the trainer's user account
+-- comes first; otherwise the gym of the members they were assigned to, when
+-- all of those members belong to the same gym.
+UPDATE trainers t
+    JOIN users u ON u.id = t.user_id
+SET t.gym_id = u.gym_id
+WHERE t.gym_id IS NULL
+  AND u.gym_id IS NOT NULL;
+
+UPDATE trainers t
+    JOIN (SELECT a.trainer_id, MIN(m.gym_id) AS gym_id
+          FROM trainer_assignments a
+              JOIN members m ON m.id = a.member_id
+          WHERE m.gym_id IS NOT NULL
+          GROUP BY a.trainer_id
+          HAVING COUNT(DISTINCT m.gym_id) = 1) g ON g.trainer_id = t.id
+SET t.gym_id = g.gym_id
+WHERE t.gym_id IS NULL;
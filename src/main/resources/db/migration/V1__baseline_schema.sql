@@ -0,0 +1,399 @@
+-- Baseline schema, generated from the JPA entities of the baseline release, before
+-- versioned migrations (Hibernate schema export, MySQL dialect)
+--
+-- V3 and later migrations evolve it; tables added since the baseline start in V3_1.
+-- Databases created earlier by ddl-auto=update are already at V3; Flyway baselines
+-- them there (spring.flyway.baseline-version) and only runs the later migrations.
+
+create table attendance (
+    duration_minutes integer,
+    check_in datetime(6),
+    check_out datetime(6),
+    created_at datetime(6),
+    gym_id bigint not null,
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    method enum ('MANUAL','QR'),
+    primary key (id)
+) engine=InnoDB;
+
+create table gyms (
+    is_active bit,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    address TEXT,
+    city varchar(255),
+    email varchar(255),
+    gym_code varchar(255) not null,
+    name varchar(255) not null,
+    phone varchar(255),
+    pincode varchar(255),
+    state varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table member_memberships (
+    amount_paid decimal(38,2) not null,
+    auto_renewal bit,
+    end_date date not null,
+    start_date date not null,
+    created_at datetime(6),
+    gym_id bigint,
+    id bigint not null auto_increment,
+    member_id bigint not null,
+    plan_id bigint not null,
+    status enum ('ACTIVE','CANCELLED','EXPIRED','SUSPENDED'),
+    primary key (id)
+) engine=InnoDB;
+
+create table members (
+    date_of_birth date,
+    join_date date,
+    created_at datetime(6),
+    gym_id bigint,
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    user_id bigint,
+    address TEXT,
+    allergies TEXT,
+    city varchar(255),
+    email varchar(255),
+    emergency_contact_name varchar(255),
+    emergency_contact_phone varchar(255),
+    emergency_contact_relation varchar(255),
+    first_name varchar(255) not null,
+    fitness_goals TEXT,
+    last_name varchar(255) not null,
+    medical_conditions TEXT,
+    member_code varchar(255) not null,
+    phone varchar(255) not null,
+    pincode varchar(255),
+    profile_image varchar(255),
+    state varchar(255),
+    gender enum ('FEMALE','MALE','OTHER'),
+    status enum ('ACTIVE','EXPIRED','INACTIVE','SUSPENDED'),
+    primary key (id)
+) engine=InnoDB;
+
+create table membership_plans (
+    duration_months integer not null,
+    is_active bit,
+    price decimal(38,2) not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    description TEXT,
+    features TEXT,
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table payments (
+    amount decimal(38,2) not null,
+    due_date date,
+    created_at datetime(6),
+    gym_id bigint,
+    id bigint not null auto_increment,
+    membership_plan_id bigint,
+    payment_date datetime(6),
+    user_id bigint not null,
+    notes TEXT,
+    transaction_id varchar(255),
+    payment_method enum ('BANK_TRANSFER','CARD','CASH','ONLINE','UPI') not null,
+    status enum ('COMPLETED','FAILED','PENDING','REFUNDED'),
+    primary key (id)
+) engine=InnoDB;
+
+create table progress_tracking (
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    measurement_date datetime(6) not null,
+    member_id bigint not null,
+    measurements JSON,
+    notes TEXT,
+    primary key (id)
+) engine=InnoDB;
+
+create table trainer_assignments (
+    assigned_date date not null,
+    end_date date,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    member_id bigint not null,
+    trainer_id bigint not null,
+    notes TEXT,
+    status enum ('ACTIVE','CANCELLED','COMPLETED'),
+    primary key (id)
+) engine=InnoDB;
+
+create table trainers (
+    experience_years integer,
+    hourly_rate decimal(38,2),
+    is_active bit,
+    rating decimal(38,2),
+    total_ratings integer,
+    created_at datetime(6),
+    gym_id bigint,
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    user_id bigint,
+    bio TEXT,
+    certifications JSON,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    location varchar(255),
+    phone varchar(255) not null,
+    schedule JSON,
+    specialization varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    is_active bit not null,
+    created_at datetime(6),
+    gym_id bigint,
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    password_hash varchar(255) not null,
+    phone varchar(255),
+    username varchar(255) not null,
+    role enum ('ADMIN','GUEST','MANAGER','MEMBER','RECEPTIONIST','SUPER_USER','TRAINER'),
+    primary key (id)
+) engine=InnoDB;
+
+create table workout_sessions (
+    calories_burned integer,
+    duration_minutes integer,
+    session_date date not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    member_id bigint not null,
+    trainer_id bigint,
+    end_time varchar(255),
+    exercises JSON,
+    notes TEXT,
+    start_time varchar(255),
+    workout_type varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_attendance_user
+   on attendance (user_id);
+
+create index idx_attendance_gym
+   on attendance (gym_id);
+
+create index idx_attendance_checkin
+   on attendance (check_in);
+
+create index idx_attendance_checkout
+   on attendance (check_out);
+
+create index idx_gym_code
+   on gyms (gym_code);
+
+create index idx_gym_name
+   on gyms (name);
+
+create index idx_gym_active
+   on gyms (is_active);
+
+create index idx_gym_city
+   on gyms (city);
+
+create index idx_gym_state
+   on gyms (state);
+
+alter table gyms
+   add constraint UKtr5grryry2pkbkttnptt6a7wx unique (gym_code);
+
+create index idx_membership_member
+   on member_memberships (member_id);
+
+create index idx_membership_plan
+   on member_memberships (plan_id);
+
+create index idx_membership_gym
+   on member_memberships (gym_id);
+
+create index idx_membership_start_date
+   on member_memberships (start_date);
+
+create index idx_membership_end_date
+   on member_memberships (end_date);
+
+create index idx_membership_status
+   on member_memberships (status);
+
+create index idx_member_code
+   on members (member_code);
+
+create index idx_member_email
+   on members (email);
+
+create index idx_member_phone
+   on members (phone);
+
+create index idx_member_gym
+   on members (gym_id);
+
+create index idx_member_status
+   on members (status);
+
+create index idx_member_join_date
+   on members (join_date);
+
+alter table members
+   add constraint UK734tug3lu0guo65v9nvbtqvtu unique (member_code);
+
+create index idx_plan_active
+   on membership_plans (is_active);
+
+create index idx_plan_price
+   on membership_plans (price);
+
+create index idx_payment_user
+   on payments (user_id);
+
+create index idx_payment_gym
+   on payments (gym_id);
+
+create index idx_payment_status
+   on payments (status);
+
+create index idx_payment_date
+   on payments (payment_date);
+
+create index idx_payment_method
+   on payments (payment_method);
+
+create index idx_trainer_user
+   on trainers (user_id);
+
+create index idx_trainer_gym
+   on trainers (gym_id);
+
+create index idx_trainer_email
+   on trainers (email);
+
+create index idx_trainer_specialization
+   on trainers (specialization);
+
+create index idx_trainer_active
+   on trainers (is_active);
+
+alter table trainers
+   add constraint UKse8qmhomor3guutjui5wfmrk3 unique (user_id);
+
+alter table trainers
+   add constraint UKp760ma5h90yjnu0s0c94jawyb unique (email);
+
+create index idx_user_email
+   on users (email);
+
+create index idx_user_username
+   on users (username);
+
+create index idx_user_role
+   on users (role);
+
+create index idx_user_gym
+   on users (gym_id);
+
+create index idx_user_active
+   on users (is_active);
+
+alter table users
+   add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table users
+   add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table attendance
+   add constraint FKphqugammfe559lyc5gsgu3j2j
+   foreign key (gym_id)
+   references gyms (id);
+
+alter table attendance
+   add constraint FKjcaqd29v2qy723owsdah2t8vx
+   foreign key (user_id)
+   references users (id);
+
+alter table member_memberships
+   add constraint FK8sgamk4xdnc283l7j9pqm6u7s
+   foreign key (gym_id)
+   references gyms (id);
+
+alter table member_memberships
+   add constraint FK2y5eflnf9q5fwgf95gpvjl6pv
+   foreign key (member_id)
+   references members (id);
+
+alter table member_memberships
+   add constraint FK3qcw2831qfxig7mjsi7jt3ois
+   foreign key (plan_id)
+   references membership_plans (id);
+
+alter table members
+   add constraint FKq6ilkrakw75dgu4bfknklqdor
+   foreign key (gym_id)
+   references gyms (id);
+
+alter table payments
+   add constraint FKs5h2o9wbsjtyqvebmsuxfq4y
+   foreign key (gym_id)
+   references gyms (id);
+
+alter table payments
+   add constraint FKmojwo0x3qjklaev1m57dxx9j1
+   foreign key (membership_plan_id)
+   references membership_plans (id);
+
+alter table payments
+   add constraint FKj94hgy9v5fw1munb90tar2eje
+   foreign key (user_id)
+   references users (id);
+
+alter table progress_tracking
+   add constraint FKjq79vv9vofuagyh38o88ghjwu
+   foreign key (member_id)
+   references members (id);
+
+alter table trainer_assignments
+   add constraint FKld6xseemukguxn2hu5ow8kh60
+   foreign key (member_id)
+   references members (id);
+
+alter table trainer_assignments
+   add constraint FK8gele7rtnan2v125je3e2gevr
+   foreign key (trainer_id)
+   references trainers (id);
+
+alter table trainers
+   add constraint FK6pwv3qlr87h0459qkgav62vm6
+   foreign key (gym_id)
+   references gyms (id);
+
+alter table trainers
+   add constraint FKmkxcvfr0uu3pwv772aurye5w7
+   foreign key (user_id)
+   references users (id);
+
+alter table users
+   add constraint FK61re4b3t50tt71ru6l5mld7c2
+   foreign key (gym_id)
+   references gyms (id);
+
+alter table workout_sessions
+   add constraint FKasu5jdyqfotuoqsbl826q1d3h
+   foreign key (member_id)
+   references members (id);
+
+alter table workout_sessions
+   add constraint FKlo3q6qw2jarnnian01066lsq
+   foreign key (trainer_id)
+   references trainers (id);
@@ -0,0 +1,100 @@
+-- Tables and columns added on top of the V3 schema before migrations were versioned:
+-- token revocation and storage, batch job leases, expiry reminders, the outbox, the
+-- replica heartbeat, and the renewal link between memberships.
+--
+-- Version 3.1 sorts right after V3, so it also runs on databases that Flyway
+-- baselines at V3 (spring.flyway.baseline-version), which have none of these.
+
+create table revoked_tokens (
+    expires_at datetime(6) not null,
+    revoked_at datetime(6) not null,
+    jti varchar(64) not null,
+    username varchar(255),
+    primary key (jti)
+) engine=InnoDB;
+
+create index idx_revoked_token_expires_at
+   on revoked_tokens (expires_at);
+
+create index idx_revoked_token_revoked_at
+   on revoked_tokens (revoked_at);
+
+create table user_tokens (
+    expires_at datetime(6) not null,
+    token_type varchar(16) not null,
+    token_key varchar(191) not null,
+    token_value TEXT not null,
+    username varchar(255) not null,
+    primary key (token_key)
+) engine=InnoDB;
+
+create index idx_user_tokens_username
+   on user_tokens (username);
+
+create index idx_user_tokens_expires_at
+   on user_tokens (expires_at);
+
+create table batch_job_state (
+    last_processed_id bigint,
+    locked_until datetime(6),
+    processed_count bigint,
+    updated_at datetime(6),
+    job_name varchar(100) not null,
+    run_key varchar(100),
+    locked_by varchar(255),
+    primary key (job_name)
+) engine=InnoDB;
+
+-- One successor per membership, which keeps the auto-renewal job idempotent
+ALTER TABLE member_memberships
+    ADD COLUMN renewed_from_id bigint,
+    ADD CONSTRAINT uk_membership_renewed_from UNIQUE (renewed_from_id),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+create table membership_reminders (
+    attempts integer not null,
+    days_before integer not null,
+    end_date date,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    membership_id bigint not null,
+    sent_at datetime(6),
+    updated_at datetime(6),
+    last_error varchar(500),
+    email varchar(255),
+    status enum ('FAILED','SENT'),
+    primary key (id)
+) engine=InnoDB;
+
+alter table membership_reminders
+   add constraint uk_reminder_membership_stage unique (membership_id, days_before);
+
+create table outbox_events (
+    attempts integer not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    next_attempt_at datetime(6),
+    published_at datetime(6),
+    aggregate_type varchar(50) not null,
+    aggregate_id varchar(64) not null,
+    event_type varchar(100) not null,
+    last_error varchar(500),
+    payload TEXT,
+    status enum ('FAILED','PENDING','PUBLISHED'),
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_outbox_status_id
+   on outbox_events (status, id);
+
+create index idx_outbox_aggregate
+   on outbox_events (aggregate_type, aggregate_id);
+
+create index idx_outbox_published_at
+   on outbox_events (published_at);
+
+create table replica_heartbeat (
+    id integer not null,
+    beat_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
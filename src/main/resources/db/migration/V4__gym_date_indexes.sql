@@ -0,0 +1,17 @@
+-- (gym_id, date) indexes for attendance and payments
+--
+-- They supersede the single-column gym indexes, dropped in the same statement (the
+-- gym_id foreign keys move over to the new index); V5 widens both into covering indexes.
+-- ALGORITHM=INPLACE, LOCK=NONE builds them online: reads and writes continue.
+-- Monthly partitioning of these tables copies them and blocks writes, so it is not a
+-- Flyway migration: see db/maintenance/partition_attendance_and_payments.sql.
+
+ALTER TABLE attendance
+    DROP INDEX idx_attendance_gym,
+    ADD INDEX idx_attendance_gym_checkin (gym_id, check_in),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE payments
+    DROP INDEX idx_payment_gym,
+    ADD INDEX idx_payment_gym_date (gym_id, payment_date),
+    ALGORITHM=INPLACE, LOCK=NONE;
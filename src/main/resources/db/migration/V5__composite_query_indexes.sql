@@ -0,0 +1,56 @@
+-- Composite indexes matching the repository query shapes
+--
+-- Each index leads with the equality columns of a query (gym_id, user_id, status, ...),
+-- then its range column; trailing columns make the counts and sums index-only.
+-- Single-column indexes they supersede are dropped in the same statement.
+-- ALGORITHM=INPLACE, LOCK=NONE builds them online: reads and writes continue.
+-- QueryPlanTest EXPLAINs every repository @Query against these indexes.
+
+-- ===== attendance =====
+-- (gym_id, check_in range, check_out IS NULL) for the dashboard counts; duration_minutes for AVG
+-- (user_id, check_in range, check_out) for the open / completed visit lookups
+ALTER TABLE attendance
+    DROP INDEX idx_attendance_gym_checkin,
+    DROP INDEX idx_attendance_user,
+    DROP INDEX idx_attendance_checkout,
+    ADD INDEX idx_attendance_gym_cover (gym_id, check_in, check_out, duration_minutes),
+    ADD INDEX idx_attendance_user_checkin (user_id, check_in, check_out),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- ===== payments =====
+-- (gym_id | -, status, payment_date range) + amount for the revenue and pending sums
+-- (gym_id | -, status, due_date range) for overdue payments
+ALTER TABLE payments
+    DROP INDEX idx_payment_gym_date,
+    DROP INDEX idx_payment_user,
+    DROP INDEX idx_payment_date,
+    ADD INDEX idx_payment_gym_status_date (gym_id, status, payment_date, amount),
+    ADD INDEX idx_payment_gym_status_due (gym_id, status, due_date),
+    ADD INDEX idx_payment_status_date (status, payment_date, amount),
+    ADD INDEX idx_payment_status_due (status, due_date),
+    ADD INDEX idx_payment_user_status (user_id, status),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- ===== member_memberships =====
+ALTER TABLE member_memberships
+    DROP INDEX idx_membership_member,
+    DROP INDEX idx_membership_gym,
+    DROP INDEX idx_membership_status,
+    ADD INDEX idx_membership_member_status (member_id, status, end_date),
+    ADD INDEX idx_membership_gym_end (gym_id, end_date),
+    ADD INDEX idx_membership_status_end (status, end_date),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- ===== members =====
+ALTER TABLE members
+    DROP INDEX idx_member_status,
+    ADD INDEX idx_member_status_join (status, join_date),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- ===== users =====
+ALTER TABLE users
+    DROP INDEX idx_user_gym,
+    DROP INDEX idx_user_role,
+    ADD INDEX idx_user_gym_active (gym_id, is_active, role),
+    ADD INDEX idx_user_role_active (role, is_active),
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,9 @@
+-- Backfill member_memberships.gym_id, left NULL by memberships created through the API
+--
+-- The gym-scoped membership listing filters on gym_id. Same precedence as the
+-- auto-renewal job and MemberMembershipService: the plan's gym, else the member's.
+UPDATE member_memberships mm
+    JOIN membership_plans p ON p.id = mm.plan_id
+    JOIN members mb ON mb.id = mm.member_id
+SET mm.gym_id = COALESCE(p.gym_id, mb.gym_id)
+WHERE mm.gym_id IS NULL;
@@ -0,0 +1,7 @@
+-- Session history per member and per trainer: equality on the owner, then session_date
+-- for the newest-first keyset pages (InnoDB appends id to every secondary index).
+-- The foreign keys can use these as well. ALGORITHM=INPLACE, LOCK=NONE builds them online.
+ALTER TABLE workout_sessions
+    ADD INDEX idx_workout_member_date (member_id, session_date),
+    ADD INDEX idx_workout_trainer_date (trainer_id, session_date),
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,23 @@
+-- Typed progress values, one row per metric of a check-in (progress_tracking). The day,
+-- ISO week (Monday) and month of each value are stored with it, so chart series are a
+-- GROUP BY on the (member_id, metric, measured_at) range instead of per-row date functions.
+-- progress_tracking.measurements is no longer written; no API stored it before, so
+-- there is nothing to backfill.
+create table progress_metrics (
+    id bigint not null auto_increment,
+    member_id bigint not null,
+    progress_id bigint not null,
+    metric varchar(32) not null,
+    measured_at datetime(6) not null,
+    day_start date not null,
+    week_start date not null,
+    month_start date not null,
+    metric_value double precision not null,
+    created_at datetime(6),
+    primary key (id),
+    index idx_progress_metric_series (member_id, metric, measured_at),
+    index idx_progress_metric_entry (progress_id),
+    constraint fk_progress_metric_member foreign key (member_id) references members (id),
+    constraint fk_progress_metric_entry foreign key (progress_id) references progress_tracking (id)
+        on delete cascade
+) engine=InnoDB;
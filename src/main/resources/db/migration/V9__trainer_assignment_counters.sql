@@ -0,0 +1,19 @@
+-- Per-trainer capacity and a maintained count of ACTIVE assignments, so the trainer
+-- matching screen reads trainer rows only. The count is changed by conditional UPDATEs
+-- (TrainerAssignmentService); this seeds it from the assignments already recorded.
+ALTER TABLE trainers
+    ADD COLUMN max_clients integer,
+    ADD COLUMN active_assignments integer not null default 0,
+    ALGORITHM=INSTANT;
+
+UPDATE trainers t
+SET t.active_assignments = (
+    SELECT COUNT(*) FROM trainer_assignments a
+    WHERE a.trainer_id = t.id AND a.status = 'ACTIVE'
+);
+
+-- Members of a trainer and trainer of a member, by status; these also serve the foreign keys
+ALTER TABLE trainer_assignments
+    ADD INDEX idx_assignment_trainer_status (trainer_id, status),
+    ADD INDEX idx_assignment_member_status (member_id, status),
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,221 @@
+package com.example.gym.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routes against two embedded H2 databases standing in for primary and replica.
+ * Each holds a marker row naming itself, so a query shows which one served it.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaLagMonitor lagMonitor;
+    private LazyConnectionDataSourceProxy dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        meterRegistry = new SimpleMeterRegistry();
+        lagMonitor = new ReplicaLagMonitor(primary, replica, Duration.ofSeconds(5));
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica,
+                new ReadYourWritesTracker(Duration.ofMillis(300), 1000), lagMonitor, meterRegistry);
+        routing.afterPropertiesSet();
+        dataSource = new LazyConnectionDataSourceProxy(routing);
+        // Known defaults, so the proxy does not probe a connection and skew the route counters
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name + "-" + UUID.randomUUID())
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE marker (name VARCHAR(20))");
+        jdbc.update("INSERT INTO marker (name) VALUES (?)", name);
+        jdbc.execute("CREATE TABLE replica_heartbeat (id INT PRIMARY KEY, beat_at TIMESTAMP)");
+        return database;
+    }
+
+    /**
+     * Stands in for replication: copy the primary's heartbeat to the replica, optionally aged by {@code lag}.
+     */
+    private void replicateHeartbeat(Duration lag) {
+        lagMonitor.heartbeat();
+        Timestamp beat = new JdbcTemplate(primary).queryForObject(
+                "SELECT beat_at FROM replica_heartbeat WHERE id = 1", Timestamp.class);
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.update("DELETE FROM replica_heartbeat");
+        replicaJdbc.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)",
+                Timestamp.valueOf(beat.toLocalDateTime().minus(lag)));
+        lagMonitor.measure(LocalDateTime.now());
+    }
+
+    private String servedBy(TransactionTemplate template) {
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT MIN(name) FROM marker", String.class));
+    }
+
+    private double routeCount(String route, String reason) {
+        return meterRegistry.get("datasource.route").tag("route", route).tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaAndWritesUsePrimary() {
+        replicateHeartbeat(Duration.ZERO);
+
+        assertEquals("replica", servedBy(readOnly));
+        assertEquals("primary", servedBy(readWrite));
+        assertEquals(1.0, routeCount("replica", "read"));
+        assertEquals(1.0, routeCount("primary", "write"));
+    }
+
+    @Test
+    void fallsBackToPrimaryUntilLagIsKnownAndWhileReplicaLags() {
+        assertEquals("primary", servedBy(readOnly));
+
+        replicateHeartbeat(Duration.ofSeconds(30));
+        assertEquals("primary", servedBy(readOnly));
+        assertEquals(2.0, routeCount("primary", "lag"));
+
+        replicateHeartbeat(Duration.ZERO);
+        assertEquals("replica", servedBy(readOnly));
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsDown() {
+        replicateHeartbeat(Duration.ZERO);
+        new JdbcTemplate(replica).execute("DROP TABLE replica_heartbeat");
+        lagMonitor.measure(LocalDateTime.now());
+
+        assertEquals("primary", servedBy(readOnly));
+    }
+
+    @Test
+    void readsStickToPrimaryAfterSameUsersWrite() throws InterruptedException {
+        replicateHeartbeat(Duration.ZERO);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", "n/a", List.of()));
+
+        readWrite.executeWithoutResult(status ->
+                jdbcTemplate.update("INSERT INTO marker (name) VALUES ('written')"));
+        assertEquals("primary", servedBy(readOnly));
+        assertEquals(1.0, routeCount("primary", "sticky"));
+
+        // Another user is not affected by alice's write
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("bob", "n/a", List.of()));
+        assertEquals("replica", servedBy(readOnly));
+
+        // Once the window has passed alice reads from the replica again
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", "n/a", List.of()));
+        Thread.sleep(400);
+        assertEquals("replica", servedBy(readOnly));
+    }
+
+    @Test
+    void rolledBackWriteDoesNotMakeReadsSticky() {
+        replicateHeartbeat(Duration.ZERO);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("carol", "n/a", List.of()));
+
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO marker (name) VALUES ('discarded')");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", servedBy(readOnly));
+    }
+
+    @Test
+    void jpaTransactionsInOneOpenSessionRouteEachOnTheirOwn() {
+        replicateHeartbeat(Duration.ZERO);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("hibernate.boot.allow_jdbc_metadata_access", false);
+        new ReplicaDataSourceConfig().releaseConnectionAfterTransaction().customize(properties);
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(getClass().getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(properties);
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        TransactionTemplate jpaReadOnly = new TransactionTemplate(transactionManager);
+        jpaReadOnly.setReadOnly(true);
+        TransactionTemplate jpaReadWrite = new TransactionTemplate(transactionManager);
+
+        // What open-in-view does: one EntityManager bound for the whole request
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            // getCurrentUser()'s lookup, then the request's write, then a read again
+            assertEquals("replica", servedBy(jpaReadOnly, entityManager));
+            assertEquals("primary", servedBy(jpaReadWrite, entityManager));
+            assertEquals("replica", servedBy(jpaReadOnly, entityManager));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+            factoryBean.destroy();
+        }
+    }
+
+    private static String servedBy(TransactionTemplate template, EntityManager entityManager) {
+        return template.execute(status ->
+                (String) entityManager.createNativeQuery("SELECT MIN(name) FROM marker").getSingleResult());
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.gym.backend.config;
+
+import com.example.gym.backend.config.WorkloadRoutingDataSource.Workload;
+import com.example.gym.backend.exception.ServiceBusyException;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Connection;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Routes against two H2 pools standing in for the OLTP and reporting pools.
+ * Each database holds a marker row naming itself, so a query shows which one served it.
+ */
+class WorkloadRoutingDataSourceTest {
+
+    private HikariDataSource oltpPool;
+    private HikariDataSource reportingPool;
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        oltpPool = pool("oltp", 1);
+        reportingPool = pool("reporting", 2);
+        meterRegistry = new SimpleMeterRegistry();
+
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(
+                oltpPool, oltpPool, reportingPool, 0, meterRegistry);
+        routing.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        oltpPool.close();
+        reportingPool.close();
+    }
+
+    private static HikariDataSource pool(String name, int size) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(size);
+        pool.setMinimumIdle(size);
+        pool.setConnectionTimeout(250);
+        JdbcTemplate jdbc = new JdbcTemplate(pool);
+        jdbc.execute("CREATE TABLE marker (name VARCHAR(20))");
+        jdbc.update("INSERT INTO marker (name) VALUES (?)", name);
+        return pool;
+    }
+
+    private String servedBy() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private void inWebRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    private double shed(String reason) {
+        return meterRegistry.counter("datasource.pool.shed", "pool", "oltp", "reason", reason).count();
+    }
+
+    @Test
+    void routesToOltpUnlessMarkedAsReporting() {
+        assertEquals("oltp", servedBy());
+
+        Workload previous = WorkloadRoutingDataSource.enter(Workload.REPORTING);
+        try {
+            assertEquals("reporting", servedBy());
+        } finally {
+            WorkloadRoutingDataSource.restore(previous);
+        }
+
+        assertEquals("oltp", servedBy());
+    }
+
+    @Test
+    void annotatedMethodsRunOnTheReportingPool() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Reports(this));
+        factory.addAspect(new WorkloadRoutingAspect());
+        Reports reports = factory.getProxy();
+
+        assertEquals("reporting", reports.dashboard());
+        assertEquals("oltp", servedBy());
+    }
+
+    @Test
+    void shedsWebRequestsWhenTheOltpPoolIsSaturated() throws Exception {
+        inWebRequest();
+        try (Connection held = oltpPool.getConnection()) {
+            assertThrows(ServiceBusyException.class, this::servedBy);
+            assertEquals(1, shed("saturated"));
+
+            // Reports have a pool of their own
+            Workload previous = WorkloadRoutingDataSource.enter(Workload.REPORTING);
+            try {
+                assertEquals("reporting", servedBy());
+            } finally {
+                WorkloadRoutingDataSource.restore(previous);
+            }
+        }
+        assertEquals("oltp", servedBy());
+    }
+
+    @Test
+    void shedsWebRequestsWhenTheConnectionTimeoutRunsOut() throws Exception {
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(
+                oltpPool, oltpPool, reportingPool, Integer.MAX_VALUE, meterRegistry);
+        routing.afterPropertiesSet();
+
+        inWebRequest();
+        try (Connection held = oltpPool.getConnection()) {
+            assertThrows(ServiceBusyException.class, routing::getConnection);
+            assertEquals(1, shed("timeout"));
+        }
+    }
+
+    @Test
+    void backgroundWorkWaitsInsteadOfBeingShed() throws Exception {
+        Connection held = oltpPool.getConnection();
+        Thread release = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+                held.close();
+            } catch (Exception ignored) {
+            }
+        });
+        release.start();
+
+        assertEquals("oltp", servedBy());
+        release.join();
+        assertEquals(0, shed("saturated") + shed("timeout"));
+    }
+
+    static class Reports {
+
+        private final WorkloadRoutingDataSourceTest test;
+
+        Reports(WorkloadRoutingDataSourceTest test) {
+            this.test = test;
+        }
+
+        @ReportingWorkload
+        public String dashboard() {
+            return test.servedBy();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.gym.backend.repository;
+
+import com.example.gym.backend.entity.Gym;
+import com.example.gym.backend.entity.Member;
+import com.example.gym.backend.util.SparseFieldset;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs sparse fieldset projections on H2 against members with and without a gym.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ProjectionRepository.class)
+class ProjectionRepositoryTest {
+
+    private static final Map<String, String> AVAILABLE =
+            SparseFieldset.available("id", "firstName", "gymId=gym.id", "gymName=gym.name");
+
+    @DynamicPropertySource
+    static void dataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:projections;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.flyway.enabled", () -> "false");
+    }
+
+    @Autowired
+    private ProjectionRepository projectionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Gym gym;
+    private Member ann;
+    private Member bob;
+    private Member cid;
+
+    @BeforeEach
+    void seed() {
+        gym = new Gym();
+        gym.setGymCode("PR1");
+        gym.setName("Projection Gym");
+        entityManager.persist(gym);
+
+        ann = member("Ann", gym);
+        bob = member("Bob", null);
+        cid = member("Cid", gym);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void selectsOnlyRequestedFieldsInRequestOrder() {
+        SparseFieldset fields = SparseFieldset.parse("firstName,gymId,id", AVAILABLE);
+
+        List<Map<String, Object>> rows = projectionRepository.findFields(Member.class, fields, null,
+                Sort.by("id"), 10);
+
+        assertEquals(List.of(
+                row("firstName", "Ann", "gymId", gym.getId(), "id", ann.getId()),
+                row("firstName", "Bob", "gymId", null, "id", bob.getId()),
+                row("firstName", "Cid", "gymId", gym.getId(), "id", cid.getId())), rows);
+        assertEquals(List.of("firstName", "gymId", "id"), List.copyOf(rows.get(0).keySet()));
+    }
+
+    @Test
+    void keepsRowsWithoutTheJoinedAssociation() {
+        SparseFieldset fields = SparseFieldset.parse("id,gymName", AVAILABLE);
+
+        List<Map<String, Object>> rows = projectionRepository.findFields(Member.class, fields, null,
+                Sort.by(Sort.Direction.DESC, "id"), 10);
+
+        assertEquals(List.of(
+                row("id", cid.getId(), "gymName", "Projection Gym"),
+                row("id", bob.getId(), "gymName", null),
+                row("id", ann.getId(), "gymName", "Projection Gym")), rows);
+    }
+
+    @Test
+    void appliesFilterAndLimit() {
+        SparseFieldset fields = SparseFieldset.parse("firstName", AVAILABLE);
+        Specification<Member> inGym = (root, query, cb) -> cb.equal(root.get("gym").get("id"), gym.getId());
+
+        List<Map<String, Object>> rows = projectionRepository.findFields(Member.class, fields, inGym,
+                Sort.by("id"), 1);
+
+        assertEquals(List.of(row("firstName", "Ann")), rows);
+    }
+
+    private Member member(String firstName, Gym memberGym) {
+        Member member = new Member();
+        member.setMemberCode("PR-" + firstName);
+        member.setFirstName(firstName);
+        member.setLastName("Projection");
+        member.setEmail(firstName.toLowerCase() + "@example.com");
+        member.setPhone("900000" + firstName.length() + firstName.charAt(0));
+        member.setGym(memberGym);
+        member.setJoinDate(LocalDate.now());
+        entityManager.persist(member);
+        return member;
+    }
+
+    private static Map<String, Object> row(Object... keysAndValues) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            row.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return row;
+    }
+}
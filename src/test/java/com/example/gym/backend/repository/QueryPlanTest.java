@@ -0,0 +1,504 @@
+package com.example.gym.backend.repository;
+
+import com.example.gym.backend.entity.Attendance;
+import com.example.gym.backend.entity.Gym;
+import com.example.gym.backend.entity.Member;
+import com.example.gym.backend.entity.MemberMembership;
+import com.example.gym.backend.entity.MembershipPlan;
+import com.example.gym.backend.entity.Payment;
+import com.example.gym.backend.entity.Trainer;
+import com.example.gym.backend.entity.User;
+import jakarta.persistence.EntityManager;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * EXPLAINs the SQL behind every repository {@code @Query} against a seeded database
+ * and fails on full scans.
+ *
+ * Each query method is called with sample arguments while a datasource-proxy listener
+ * records the statements it sends; those are then explained with the same parameters.
+ * Runs on H2 in MySQL mode, with the schema generated from the entities. To ask MySQL's
+ * own optimizer, point it at a MySQL schema; Flyway brings it up to date with db/migration
+ * and Hibernate validates the entities against it (the seed rows are rolled back):
+ * {@code mvn test -Dtest=QueryPlanTest -Dquery-plan.url=jdbc:mysql://... -Dquery-plan.username=... -Dquery-plan.password=...}
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanTest.RecordingDataSourceConfig.class)
+class QueryPlanTest {
+
+    private static final String MYSQL_URL = System.getProperty("query-plan.url");
+    private static final StatementRecorder RECORDER = new StatementRecorder();
+    private static final LocalDate TODAY = LocalDate.now();
+
+    // Scans accepted on purpose; anything else needs an index
+    private static final Map<String, String> ALLOWED_SCANS = Map.of(
+            "MemberRepository.searchMembers", "substring search, a leading wildcard cannot use an index",
+            "UserRepository.searchUsers", "substring search, a leading wildcard cannot use an index",
+            "UserRepository.searchAllUsers", "substring search, a leading wildcard cannot use an index");
+
+    // H2 plans annotate each table access: /* PUBLIC.INDEX_NAME: conditions */ or /* PUBLIC.TABLE.tableScan */
+    private static final Pattern H2_ACCESS = Pattern.compile(
+            "/\\*\\s*PUBLIC\\.(\\w+)(\\.tableScan)?(?::(.*?))?\\s*\\*/", Pattern.DOTALL | Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void dataSource(DynamicPropertyRegistry registry) {
+        if (MYSQL_URL != null) {
+            registry.add("spring.datasource.url", () -> MYSQL_URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("query-plan.username", "root"));
+            registry.add("spring.datasource.password", () -> System.getProperty("query-plan.password", ""));
+            registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        } else {
+            registry.add("spring.datasource.url", () -> "jdbc:h2:mem:query-plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+            registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+            registry.add("spring.datasource.username", () -> "sa");
+            registry.add("spring.datasource.password", () -> "");
+            registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+            registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+            registry.add("spring.flyway.enabled", () -> "false");
+        }
+    }
+
+    @TestConfiguration
+    static class RecordingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create(dataSource).listener(RECORDER).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    record RecordedStatement(String sql, List<Object> parameters) {
+    }
+
+    static class StatementRecorder implements QueryExecutionListener {
+
+        private final List<RecordedStatement> statements = new ArrayList<>();
+        private boolean recording;
+
+        synchronized List<RecordedStatement> record(Runnable action) {
+            statements.clear();
+            recording = true;
+            try {
+                action.run();
+            } finally {
+                recording = false;
+            }
+            return List.copyOf(statements);
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (!recording) {
+                return;
+            }
+            for (QueryInfo query : queryInfoList) {
+                List<List<ParameterSetOperation>> parameters = query.getParametersList();
+                statements.add(new RecordedStatement(query.getQuery(),
+                        parameters.isEmpty() ? List.of() : values(parameters.get(0))));
+            }
+        }
+
+        private static List<Object> values(List<ParameterSetOperation> operations) {
+            List<ParameterSetOperation> ordered = new ArrayList<>(operations);
+            ordered.sort(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]));
+            List<Object> values = new ArrayList<>(ordered.size());
+            for (ParameterSetOperation operation : ordered) {
+                values.add(ParameterSetOperation.isSetNullParameterOperation(operation) ? null : operation.getArgs()[1]);
+            }
+            return values;
+        }
+    }
+
+    private record Seed(Long gymId, Long userId, Long memberId) {
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        Seed seed = seed();
+        boolean mysql = MYSQL_URL != null;
+        Map<String, String> leadingColumns = mysql ? Map.of() : h2LeadingIndexColumns();
+
+        List<String> violations = new ArrayList<>();
+        int explained = 0;
+        for (Class<?> repository : repositoryInterfaces()) {
+            Object bean = context.getBean(repository);
+            for (Method method : repository.getDeclaredMethods()) {
+                if (!method.isAnnotationPresent(Query.class)) {
+                    continue;
+                }
+                String name = repository.getSimpleName() + "." + method.getName();
+                List<RecordedStatement> statements = RECORDER.record(() -> invoke(bean, method, seed));
+                assertTrue(!statements.isEmpty(), name + " sent no SQL");
+
+                for (RecordedStatement statement : statements) {
+                    if (statement.sql().trim().toLowerCase(Locale.ROOT).startsWith("insert")) {
+                        continue;
+                    }
+                    explained++;
+                    List<String> scans = mysql ? mysqlScans(statement) : h2Scans(statement, leadingColumns);
+                    if (!scans.isEmpty() && !ALLOWED_SCANS.containsKey(name)) {
+                        violations.add(name + " scans " + scans + "\n    " + statement.sql());
+                    }
+                }
+            }
+        }
+
+        assertTrue(explained > 50, "Only " + explained + " statements explained");
+        assertTrue(violations.isEmpty(), "Full scans:\n" + String.join("\n", violations));
+    }
+
+    // ===== Plans =====
+
+    private String explain(RecordedStatement statement) {
+        PreparedStatementSetter parameters = ps -> {
+            for (int i = 0; i < statement.parameters().size(); i++) {
+                ps.setObject(i + 1, statement.parameters().get(i));
+            }
+        };
+        return jdbcTemplate.query("EXPLAIN " + statement.sql(), parameters, rs -> {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+            return plan.toString();
+        });
+    }
+
+    /**
+     * An H2 table access is a full scan when it says tableScan, or when it walks an index
+     * without a condition on the index's first column.
+     */
+    private List<String> h2Scans(RecordedStatement statement, Map<String, String> leadingColumns) {
+        List<String> scans = new ArrayList<>();
+        Matcher access = H2_ACCESS.matcher(explain(statement));
+        while (access.find()) {
+            String target = access.group(1);
+            if (access.group(2) != null) {
+                scans.add(target);
+                continue;
+            }
+            String leading = leadingColumns.get(target.toLowerCase(Locale.ROOT));
+            String condition = access.group(3);
+            if (leading != null && (condition == null || !constrains(condition, leading))) {
+                scans.add(target + " (whole index)");
+            }
+        }
+        return scans;
+    }
+
+    private static boolean constrains(String condition, String column) {
+        return Pattern.compile("(^|\\W)\"?" + Pattern.quote(column) + "\"?\\s*(=|<|>|IN\\s*\\(|IS NULL|BETWEEN)",
+                Pattern.CASE_INSENSITIVE).matcher(condition).find();
+    }
+
+    private Map<String, String> h2LeadingIndexColumns() {
+        Map<String, String> columns = new HashMap<>();
+        jdbcTemplate.query("SELECT INDEX_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS "
+                        + "WHERE ORDINAL_POSITION = 1 AND TABLE_SCHEMA = 'public'",
+                rs -> {
+                    columns.put(rs.getString(1).toLowerCase(Locale.ROOT), rs.getString(2));
+                });
+        return columns;
+    }
+
+    // MySQL: access type ALL is a table scan, index a full index scan; derived tables are skipped
+    private List<String> mysqlScans(RecordedStatement statement) {
+        List<String> scans = new ArrayList<>();
+        PreparedStatementSetter parameters = ps -> {
+            for (int i = 0; i < statement.parameters().size(); i++) {
+                ps.setObject(i + 1, statement.parameters().get(i));
+            }
+        };
+        jdbcTemplate.query("EXPLAIN " + statement.sql(), parameters, rs -> {
+            String table = rs.getString("table");
+            String type = rs.getString("type");
+            if (table != null && !table.startsWith("<") && ("ALL".equals(type) || "index".equals(type))) {
+                scans.add(table + " (" + type + ")");
+            }
+        });
+        return scans;
+    }
+
+    // ===== Invocation =====
+
+    private List<Class<?>> repositoryInterfaces() {
+        Map<String, Class<?>> repositories = new TreeMap<>();
+        for (Object bean : context.getBeansOfType(Repository.class).values()) {
+            for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(bean)) {
+                if (type.getPackageName().equals(getClass().getPackageName())) {
+                    repositories.put(type.getSimpleName(), type);
+                }
+            }
+        }
+        return List.copyOf(repositories.values());
+    }
+
+    private void invoke(Object repository, Method method, Seed seed) {
+        Parameter[] parameters = method.getParameters();
+        Object[] arguments = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            arguments[i] = sampleArgument(parameters[i], seed);
+        }
+        try {
+            method.invoke(repository, arguments);
+        } catch (InvocationTargetException e) {
+            // Only the SQL matters here, e.g. a single-result query may find several rows
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Object sampleArgument(Parameter parameter, Seed seed) {
+        Class<?> type = parameter.getType();
+        Param param = parameter.getAnnotation(Param.class);
+        String name = param == null ? "" : param.value().toLowerCase(Locale.ROOT);
+
+        if (Pageable.class.isAssignableFrom(type)) {
+            return PageRequest.of(0, 5);
+        }
+        if (type == Long.class || type == long.class) {
+            return switch (name) {
+                case "gymid" -> seed.gymId();
+                case "userid" -> seed.userId();
+                case "memberid" -> seed.memberId();
+                case "afterid" -> 0L;
+                default -> 1L;
+            };
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return List.of(seed.memberId(), seed.memberId() + 1, seed.memberId() + 2);
+        }
+        if (type == Integer.class || type == int.class) {
+            return name.equals("daysbefore") ? 7 : name.equals("maxattempts") ? 3 : 1;
+        }
+        if (type == Double.class) {
+            return name.startsWith("max") ? 1500.0 : 1000.0;
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal("4.5");
+        }
+        if (type == String.class) {
+            return switch (name) {
+                case "prefix" -> "M" + TODAY.getYear();
+                case "searchterm" -> "ali";
+                case "specialization" -> "yoga";
+                default -> "query-plan";
+            };
+        }
+        if (type == LocalDate.class) {
+            return name.contains("end") || name.contains("expiry") ? TODAY.plusDays(7) : TODAY;
+        }
+        if (type == LocalDateTime.class) {
+            if (name.contains("end")) {
+                return TODAY.plusDays(1).atStartOfDay();
+            }
+            return name.contains("start") ? TODAY.atStartOfDay() : LocalDateTime.now();
+        }
+        if (type == LocalTime.class) {
+            return name.contains("end") ? LocalTime.of(10, 0) : LocalTime.of(9, 0);
+        }
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return true;
+        }
+        throw new IllegalArgumentException("No sample value for " + parameter);
+    }
+
+    // ===== Seed data =====
+
+    /**
+     * Enough rows spread over gyms, users and days that an index on the filtered
+     * columns is clearly cheaper than a scan.
+     */
+    private Seed seed() {
+        List<Gym> gyms = new ArrayList<>();
+        for (int g = 0; g < 10; g++) {
+            Gym gym = new Gym();
+            gym.setGymCode("QP" + g);
+            gym.setName("Query Plan Gym " + g);
+            gym.setCity("City " + g);
+            entityManager.persist(gym);
+            gyms.add(gym);
+        }
+
+        List<MembershipPlan> plans = new ArrayList<>();
+        for (int p = 0; p < 20; p++) {
+            MembershipPlan plan = new MembershipPlan();
+            plan.setGym(gyms.get(p % gyms.size()));
+            plan.setName("Plan " + p);
+            plan.setDurationMonths(1 + p % 12);
+            plan.setPrice(BigDecimal.valueOf(500 + 100L * p));
+            entityManager.persist(plan);
+            plans.add(plan);
+        }
+
+        List<User> users = new ArrayList<>();
+        List<Member> members = new ArrayList<>();
+        for (int u = 0; u < 200; u++) {
+            Gym gym = gyms.get(u % gyms.size());
+            User user = new User();
+            user.setUsername("qp-user-" + u);
+            user.setEmail("qp-user-" + u + "@example.com");
+            user.setPasswordHash("n/a");
+            user.setFirstName("First" + u);
+            user.setLastName("Last" + u);
+            user.setRole(User.UserRole.values()[u % User.UserRole.values().length]);
+            user.setGym(gym);
+            entityManager.persist(user);
+            users.add(user);
+
+            Member member = new Member();
+            member.setMemberCode("M" + TODAY.getYear() + String.format("%05d", u));
+            member.setFirstName("First" + u);
+            member.setLastName("Last" + u);
+            member.setEmail("qp-member-" + u + "@example.com");
+            member.setPhone(String.format("90000%05d", u));
+            member.setGym(gym);
+            member.setUserId(user.getId());
+            member.setJoinDate(TODAY.minusDays(u));
+            entityManager.persist(member);
+            members.add(member);
+        }
+
+        for (int m = 0; m < 400; m++) {
+            Member member = members.get(m % members.size());
+            MembershipPlan plan = plans.get(m % plans.size());
+            MemberMembership membership = new MemberMembership();
+            membership.setMember(member);
+            membership.setPlan(plan);
+            membership.setGym(member.getGym());
+            membership.setStartDate(TODAY.minusDays(60 - m % 90));
+            membership.setEndDate(TODAY.minusDays(30 - m % 90));
+            membership.setAmountPaid(plan.getPrice());
+            entityManager.persist(membership);
+        }
+
+        for (int t = 0; t < 30; t++) {
+            Trainer trainer = new Trainer();
+            trainer.setGym(gyms.get(t % gyms.size()));
+            trainer.setFirstName("Trainer" + t);
+            trainer.setLastName("Last" + t);
+            trainer.setEmail("qp-trainer-" + t + "@example.com");
+            trainer.setPhone(String.format("80000%05d", t));
+            trainer.setSpecialization(t % 2 == 0 ? "yoga" : "strength");
+            trainer.setRating(BigDecimal.valueOf(t % 5));
+            entityManager.persist(trainer);
+        }
+        entityManager.flush();
+
+        LocalDateTime start = TODAY.minusDays(60).atTime(6, 0);
+        for (int a = 0; a < 3000; a++) {
+            User user = users.get(a % users.size());
+            Attendance attendance = new Attendance();
+            attendance.setUser(user);
+            attendance.setGym(user.getGym());
+            attendance.setCheckIn(start.plusMinutes(29L * a));
+            if (a % 10 != 0) {
+                attendance.setCheckOut(attendance.getCheckIn().plusMinutes(75));
+                attendance.setDurationMinutes(75);
+            }
+            attendance.setMethod(Attendance.CheckInMethod.MANUAL);
+            entityManager.persist(attendance);
+            flushEvery(a);
+        }
+
+        Payment.PaymentStatus[] statuses = Payment.PaymentStatus.values();
+        for (int p = 0; p < 1500; p++) {
+            User user = users.get(p % users.size());
+            Payment payment = new Payment();
+            payment.setUser(user);
+            payment.setGym(user.getGym());
+            payment.setMembershipPlan(plans.get(p % plans.size()));
+            payment.setAmount(BigDecimal.valueOf(500 + p % 700));
+            payment.setPaymentMethod(Payment.PaymentMethod.CASH);
+            payment.setStatus(statuses[p % statuses.length]);
+            payment.setPaymentDate(start.plusMinutes(57L * p));
+            payment.setDueDate(TODAY.minusDays(60 - p % 90));
+            entityManager.persist(payment);
+            flushEvery(p);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        if (MYSQL_URL == null) {
+            jdbcTemplate.execute("ANALYZE");
+        }
+        return new Seed(gyms.get(0).getId(), users.get(0).getId(), members.get(0).getId());
+    }
+
+    private void flushEvery(int row) {
+        if (row % 500 == 499) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+}
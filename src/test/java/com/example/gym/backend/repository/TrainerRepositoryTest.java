@@ -0,0 +1,145 @@
+package com.example.gym.backend.repository;
+
+import com.example.gym.backend.entity.Member;
+import com.example.gym.backend.entity.Trainer;
+import com.example.gym.backend.entity.TrainerAssignment;
+import com.example.gym.backend.entity.TrainerAssignment.AssignmentStatus;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the conditional UPDATEs that maintain trainer counters and ratings on H2.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TrainerRepositoryTest {
+
+    private static final int DEFAULT_MAX_CLIENTS = 1;
+
+    @DynamicPropertySource
+    static void dataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:trainer-counters;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.flyway.enabled", () -> "false");
+    }
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private TrainerAssignmentRepository trainerAssignmentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void claimTakesSlotsOnlyUpToMaxClients() {
+        Long trainerId = trainer("claim", 2).getId();
+
+        assertEquals(1, trainerRepository.claimClientSlot(trainerId, DEFAULT_MAX_CLIENTS));
+        assertEquals(1, trainerRepository.claimClientSlot(trainerId, DEFAULT_MAX_CLIENTS));
+        assertEquals(0, trainerRepository.claimClientSlot(trainerId, DEFAULT_MAX_CLIENTS));
+
+        assertEquals(2, reload(trainerId).getActiveAssignments());
+    }
+
+    @Test
+    void claimFallsBackToTheDefaultCapacity() {
+        Long trainerId = trainer("default", null).getId();
+
+        assertEquals(1, trainerRepository.claimClientSlot(trainerId, DEFAULT_MAX_CLIENTS));
+        assertEquals(0, trainerRepository.claimClientSlot(trainerId, DEFAULT_MAX_CLIENTS));
+    }
+
+    @Test
+    void releaseNeverGoesBelowZero() {
+        Long trainerId = trainer("release", 2).getId();
+        trainerRepository.claimClientSlot(trainerId, DEFAULT_MAX_CLIENTS);
+
+        assertEquals(1, trainerRepository.releaseClientSlot(trainerId));
+        assertEquals(0, trainerRepository.releaseClientSlot(trainerId));
+
+        assertEquals(0, reload(trainerId).getActiveAssignments());
+    }
+
+    @Test
+    void anAssignmentLeavesActiveOnlyOnce() {
+        Trainer trainer = trainer("status", 2);
+        TrainerAssignment assignment = new TrainerAssignment();
+        assignment.setTrainer(trainer);
+        assignment.setMember(member());
+        assignment.setAssignedDate(LocalDate.now());
+        entityManager.persist(assignment);
+
+        // The service frees a slot only when this returns 1, so ending twice frees one slot
+        assertEquals(1, trainerAssignmentRepository.updateStatus(assignment.getId(), AssignmentStatus.ACTIVE,
+                AssignmentStatus.COMPLETED, LocalDate.now()));
+        assertEquals(0, trainerAssignmentRepository.updateStatus(assignment.getId(), AssignmentStatus.ACTIVE,
+                AssignmentStatus.CANCELLED, LocalDate.now()));
+    }
+
+    @Test
+    void applyRatingKeepsSumCountAndAverageTogether() {
+        Long trainerId = trainer("rating", null).getId();
+
+        trainerRepository.applyRating(trainerId, 5);
+        assertRating(trainerId, "5", 1, "5.00");
+
+        trainerRepository.applyRating(trainerId, 4);
+        assertRating(trainerId, "9", 2, "4.50");
+
+        // 13 / 3, rounded to the column's two decimals
+        trainerRepository.applyRating(trainerId, 4);
+        assertRating(trainerId, "13", 3, "4.33");
+    }
+
+    private void assertRating(Long trainerId, String sum, int count, String rating) {
+        Trainer trainer = reload(trainerId);
+        assertEquals(0, new BigDecimal(sum).compareTo(trainer.getRatingSum()), "sum " + trainer.getRatingSum());
+        assertEquals(count, trainer.getTotalRatings());
+        assertEquals(0, new BigDecimal(rating).compareTo(trainer.getRating()), "rating " + trainer.getRating());
+    }
+
+    private Trainer trainer(String name, Integer maxClients) {
+        Trainer trainer = new Trainer();
+        trainer.setFirstName("Trainer");
+        trainer.setLastName(name);
+        trainer.setEmail(name + "@trainers.example.com");
+        trainer.setPhone("9100000000");
+        trainer.setMaxClients(maxClients);
+        entityManager.persist(trainer);
+        entityManager.flush();
+        return trainer;
+    }
+
+    private Member member() {
+        Member member = new Member();
+        member.setMemberCode("TR-M1");
+        member.setFirstName("Member");
+        member.setLastName("One");
+        member.setEmail("member@example.com");
+        member.setPhone("9200000000");
+        member.setJoinDate(LocalDate.now());
+        entityManager.persist(member);
+        return member;
+    }
+
+    private Trainer reload(Long trainerId) {
+        entityManager.clear();
+        return trainerRepository.findById(trainerId).orElseThrow();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.gym.backend.security;
+
+import com.example.gym.backend.exception.BadRequestException;
+import com.example.gym.backend.security.QrCheckInSigner.VerifiedCode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QrCheckInSignerTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-02T08:00:10Z");
+
+    private final QrCheckInSigner signer = new QrCheckInSigner("k2", "current-secret", "", "", 30, 1);
+
+    private static String verifyError(QrCheckInSigner signer, String code, long gymId, Instant at) {
+        return assertThrows(BadRequestException.class, () -> signer.verify(code, gymId, at)).getMessage();
+    }
+
+    @Test
+    void verifiesItsOwnCodesWithinTheSkew() {
+        String code = signer.issue(42, 7, NOW).code();
+        VerifiedCode verified = signer.verify(code, 7, NOW);
+        assertEquals(42, verified.userId());
+        assertEquals(7, verified.gymId());
+        assertEquals(Instant.parse("2026-03-02T08:00:00Z"), verified.windowStart());
+
+        signer.verify(code, 7, NOW.plusSeconds(45));
+        signer.verify(code, 7, NOW.minusSeconds(30));
+        assertEquals("Check-in code has expired", verifyError(signer, code, 7, NOW.plusSeconds(60)));
+        assertEquals("Check-in code is not valid yet", verifyError(signer, code, 7, NOW.minusSeconds(45)));
+        assertNotEquals(code, signer.issue(42, 7, NOW.plusSeconds(30)).code());
+    }
+
+    @Test
+    void rejectsTamperedForeignAndMalformedCodes() {
+        String code = signer.issue(42, 7, NOW).code();
+        String[] parts = code.split("\\.");
+        String otherUser = signer.issue(43, 7, NOW).code().split("\\.")[1];
+
+        assertEquals("Invalid check-in code signature",
+                verifyError(signer, parts[0] + "." + otherUser + "." + parts[2], 7, NOW));
+        assertEquals("Check-in code is for another gym", verifyError(signer, code, 8, NOW));
+        assertEquals("Check-in code signed with an unknown key",
+                verifyError(signer, "k1." + parts[1] + "." + parts[2], 7, NOW));
+        assertEquals("Malformed check-in code", verifyError(signer, "not-a-code", 7, NOW));
+        assertEquals("Malformed check-in code", verifyError(signer, "k2.!!!." + parts[2], 7, NOW));
+
+        QrCheckInSigner otherSecret = new QrCheckInSigner("k2", "another-secret", "", "", 30, 1);
+        assertEquals("Invalid check-in code signature", verifyError(otherSecret, code, 7, NOW));
+    }
+
+    @Test
+    void acceptsCodesOfThePreviousKeyDuringRotation() {
+        QrCheckInSigner old = new QrCheckInSigner("k1", "old-secret", "", "", 30, 1);
+        QrCheckInSigner rotated = new QrCheckInSigner("k2", "current-secret", "k1", "old-secret", 30, 1);
+
+        assertEquals(42, rotated.verify(old.issue(42, 7, NOW).code(), 7, NOW).userId());
+        assertEquals(42, signer.verify(rotated.issue(42, 7, NOW).code(), 7, NOW).userId());
+        assertEquals(old.kioskKeys(7).get("k1"), rotated.kioskKeys(7).get("k1"));
+        assertNotEquals(rotated.kioskKeys(7).get("k2"), rotated.kioskKeys(8).get("k2"));
+    }
+}
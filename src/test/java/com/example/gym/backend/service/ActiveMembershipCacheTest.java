@@ -0,0 +1,91 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.dto.MemberMembershipDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Invalidation is deferred to the commit of the writer's transaction, driven here
+ * through TransactionSynchronizationManager the way a transaction manager would.
+ */
+class ActiveMembershipCacheTest {
+
+    private final ActiveMembershipCache cache = new ActiveMembershipCache(new SimpleMeterRegistry(), 300, 100);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void cachesLoadedValuesIncludingNone() {
+        load(1L);
+        load(1L);
+        assertEquals(1, loads.get());
+
+        assertEquals(Optional.empty(), cache.get(2L, id -> Optional.empty()));
+        assertEquals(Optional.empty(), cache.get(2L, id -> Optional.of(new MemberMembershipDto())));
+    }
+
+    @Test
+    void invalidatesAtOnceWithoutATransaction() {
+        load(1L);
+
+        cache.invalidateAfterCommit(1L);
+        load(1L);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidatesOnlyOnceTheTransactionCommits() {
+        load(1L);
+        load(2L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidateAfterCommit(List.of(1L, 2L));
+        // A read before the commit still sees the cached entry
+        load(1L);
+        assertEquals(2, loads.get());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        load(1L);
+        load(2L);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void keepsEntriesWhenTheTransactionRollsBack() {
+        load(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidateAfterCommit(1L);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+        load(1L);
+
+        assertEquals(1, loads.get());
+    }
+
+    private void load(Long memberId) {
+        cache.get(memberId, id -> {
+            loads.incrementAndGet();
+            MemberMembershipDto dto = new MemberMembershipDto();
+            dto.setMemberId(id);
+            return Optional.of(dto);
+        });
+    }
+}
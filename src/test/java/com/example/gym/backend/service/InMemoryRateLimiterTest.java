@@ -0,0 +1,45 @@
+package com.example.gym.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimiterTest extends RateLimiterContractTest {
+
+    private InMemoryRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new InMemoryRateLimiter(1_000, clock);
+    }
+
+    @Override
+    protected RateLimiter rateLimiter() {
+        return rateLimiter;
+    }
+
+    @Test
+    void concurrentCallersNeverOverdrawTheBucket() throws InterruptedException {
+        RateLimiter.Budget hundred = new RateLimiter.Budget(100, 1);
+        AtomicInteger admitted = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1_000; i++) {
+            pool.execute(() -> {
+                if (rateLimiter.tryAcquire("gym:1:write", hundred) == 0) {
+                    admitted.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(admitted).hasValue(100);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.gym.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+
+class InMemoryTokenStoreTest extends TokenStoreContractTest {
+
+    private InMemoryTokenStore tokenStore;
+
+    @BeforeEach
+    void setUp() {
+        tokenStore = new InMemoryTokenStore(ACCESS_TTL_MS, REFRESH_TTL_MS, 1_000);
+    }
+
+    @Override
+    protected TokenStore tokenStore() {
+        return tokenStore;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.gym.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the token store contract against the user_tokens table on H2 in MySQL mode.
+ */
+class JdbcTokenStoreTest extends TokenStoreContractTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTokenStore tokenStore;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                // The name lands in the JDBC URL, so the mode can ride along
+                .setName("tokens-" + UUID.randomUUID() + ";MODE=MySQL")
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("""
+                CREATE TABLE user_tokens (
+                    token_key VARCHAR(191) PRIMARY KEY,
+                    username VARCHAR(255) NOT NULL,
+                    token_type VARCHAR(16) NOT NULL,
+                    token_value TEXT NOT NULL,
+                    expires_at TIMESTAMP NOT NULL)
+                """);
+        tokenStore = new JdbcTokenStore(jdbc, new ObjectMapper(), ACCESS_TTL_MS, REFRESH_TTL_MS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Override
+    protected TokenStore tokenStore() {
+        return tokenStore;
+    }
+
+    @Test
+    void concurrentLoginsOfOneUserAllSucceed() throws InterruptedException {
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        Queue<String> accessTokens = new ConcurrentLinkedQueue<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 400; i++) {
+            String accessToken = "access-" + i;
+            pool.execute(() -> {
+                try {
+                    tokenStore.storeTokens("alice", accessToken, UUID.randomUUID().toString(), "refresh");
+                    accessTokens.add(accessToken);
+                } catch (RuntimeException e) {
+                    failures.add(e);
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(failures).isEmpty();
+        assertThat(List.copyOf(accessTokens)).contains(tokenStore.getAccessToken("alice"));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.service.MailDispatcher.DispatchResult;
+import com.example.gym.backend.service.MailDispatcher.OutgoingMail;
+import com.example.gym.backend.util.MailTemplate;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends through {@link MailDispatcher} to a GreenMail SMTP server on a local port.
+ */
+class MailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private MailDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.destroy();
+        }
+    }
+
+    private MailDispatcher dispatcher(int port, double ratePerSecond) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(port);
+        dispatcher = new MailDispatcher(sender, new SimpleMeterRegistry(), 2, 2, ratePerSecond);
+        return dispatcher;
+    }
+
+    private static SimpleMailMessage message(String to, String subject, String text) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("no-reply@gym.local");
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setText(text);
+        return message;
+    }
+
+    @Test
+    void sendsEveryBatchAndReportsKeys() {
+        MailDispatcher dispatcher = dispatcher(ServerSetupTest.SMTP.getPort(), 0);
+
+        List<CompletableFuture<DispatchResult<Long>>> futures = new ArrayList<>();
+        for (long batch = 0; batch < 5; batch++) {
+            List<OutgoingMail<Long>> mails = new ArrayList<>();
+            for (long i = 0; i < 4; i++) {
+                long key = batch * 4 + i;
+                mails.add(new OutgoingMail<>(key, message("member" + key + "@example.com", "Hello", "Body " + key)));
+            }
+            futures.add(dispatcher.dispatch(mails));
+        }
+
+        long sent = futures.stream().map(CompletableFuture::join).mapToLong(r -> r.sent().size()).sum();
+        assertEquals(20, sent);
+        assertTrue(greenMail.waitForIncomingEmail(5000, 20));
+        assertEquals(20, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void rendersPlanBoundTemplatePerRecipient() throws Exception {
+        MailDispatcher dispatcher = dispatcher(ServerSetupTest.SMTP.getPort(), 0);
+        MailTemplate body = MailTemplate.compile("Hi {{firstName}}, your {{planName}} plan ends on {{endDate}}.")
+                .bind(Map.of("planName", "Gold", "endDate", LocalDate.of(2026, 3, 1)));
+
+        dispatcher.dispatch(List.of(
+                new OutgoingMail<>(1L, message("asha@example.com", "Reminder", body.render(Map.of("firstName", "Asha")))),
+                new OutgoingMail<>(2L, message("ravi@example.com", "Reminder", body.render(Map.of("firstName", "Ravi"))))))
+                .join();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length);
+        List<String> bodies = List.of(GreenMailUtil.getBody(received[0]).trim(), GreenMailUtil.getBody(received[1]).trim());
+        assertTrue(bodies.contains("Hi Asha, your Gold plan ends on 2026-03-01."));
+        assertTrue(bodies.contains("Hi Ravi, your Gold plan ends on 2026-03-01."));
+    }
+
+    @Test
+    void pacesBatchesToConfiguredRate() {
+        MailDispatcher dispatcher = dispatcher(ServerSetupTest.SMTP.getPort(), 20);
+
+        long started = System.nanoTime();
+        List<CompletableFuture<DispatchResult<Integer>>> futures = new ArrayList<>();
+        for (int batch = 0; batch < 3; batch++) {
+            List<OutgoingMail<Integer>> mails = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                mails.add(new OutgoingMail<>(batch * 5 + i, message("m" + batch + i + "@example.com", "s", "b")));
+            }
+            futures.add(dispatcher.dispatch(mails));
+        }
+        futures.forEach(CompletableFuture::join);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        // 15 messages at 20/s: the third batch may not start before 10 messages' worth of time (500 ms)
+        assertTrue(elapsedMillis >= 450, "elapsed " + elapsedMillis + " ms");
+        assertEquals(15, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void reportsWholeBatchAsFailedWhenServerIsUnreachable() {
+        MailDispatcher dispatcher = dispatcher(ServerSetupTest.SMTP.getPort() + 1000, 0);
+
+        DispatchResult<Long> result = dispatcher.dispatch(List.of(
+                new OutgoingMail<>(1L, message("a@example.com", "s", "b")),
+                new OutgoingMail<>(2L, message("b@example.com", "s", "b")))).join();
+
+        assertTrue(result.sent().isEmpty());
+        assertEquals(2, result.failed().size());
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.GymBackendApplication;
+import com.example.gym.backend.dto.DomainEvent;
+import com.example.gym.backend.entity.OutboxEvent;
+import com.example.gym.backend.entity.OutboxEvent.OutboxStatus;
+import com.example.gym.backend.repository.BatchJobStateRepository;
+import com.example.gym.backend.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Relays outbox rows on H2 and checks that events backing off neither block other
+ * aggregates nor let later events of their own aggregate overtake them.
+ */
+@DataJpaTest(properties = {"app.outbox.batch-size=2", "app.outbox.max-batches-per-poll=5"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+
+    @DynamicPropertySource
+    static void dataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:outbox-relay;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.flyway.enabled", () -> "false");
+    }
+
+    /**
+     * Stands in for the application class so scheduling stays off and only the tests poll
+     */
+    @Configuration
+    @AutoConfigurationPackage(basePackageClasses = GymBackendApplication.class)
+    @Import({OutboxRelay.class, BatchJobCoordinator.class})
+    static class Config {
+
+        final List<DomainEvent> delivered = new CopyOnWriteArrayList<>();
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @EventListener
+        void onDomainEvent(DomainEvent event) {
+            delivered.add(event);
+        }
+    }
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private BatchJobStateRepository jobStateRepository;
+
+    @Autowired
+    private Config config;
+
+    @AfterEach
+    void cleanUp() {
+        outboxRepository.deleteAll();
+        jobStateRepository.deleteAll();
+        config.delivered.clear();
+    }
+
+    @Test
+    void eventsBehindBackedOffRowsAreStillDelivered() {
+        LocalDateTime later = LocalDateTime.now().plusMinutes(5);
+        // A full batch worth of rows in backoff at the head of the table
+        event("User", "1", later);
+        event("User", "2", later);
+        OutboxEvent heldBack = event("User", "1", null);
+        OutboxEvent other = event("Member", "7", null);
+
+        relay.poll();
+
+        assertThat(config.delivered).extracting(DomainEvent::getEventId).containsExactly(other.getId());
+        assertThat(outboxRepository.findById(heldBack.getId()).orElseThrow().getStatus())
+                .isEqualTo(OutboxStatus.PENDING);
+    }
+
+    @Test
+    void pollWalksPastFullBatches() {
+        for (int i = 0; i < 5; i++) {
+            event("Member", String.valueOf(i), null);
+        }
+
+        relay.poll();
+
+        assertThat(config.delivered).hasSize(5);
+        assertThat(outboxRepository.findAll()).allMatch(e -> e.getStatus() == OutboxStatus.PUBLISHED);
+    }
+
+    private OutboxEvent event(String aggregateType, String aggregateId, LocalDateTime nextAttemptAt) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(DomainEvent.MEMBER_CREATED);
+        event.setPayload("{}");
+        event.setNextAttemptAt(nextAttemptAt);
+        if (nextAttemptAt != null) {
+            event.setAttempts(1);
+        }
+        return outboxRepository.save(event);
+    }
+}
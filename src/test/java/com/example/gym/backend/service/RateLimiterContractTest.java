@@ -0,0 +1,116 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.service.RateLimiter.Budget;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Behaviour every {@link RateLimiter} implementation must share, on a clock the
+ * tests move by hand.
+ */
+abstract class RateLimiterContractTest {
+
+    protected static final Budget FIVE_PER_SECOND = new Budget(5, 5);
+
+    protected final ManualClock clock = new ManualClock();
+
+    protected abstract RateLimiter rateLimiter();
+
+    @Test
+    void admitsABurstUpToCapacity() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter().tryAcquire("gym:1:write", FIVE_PER_SECOND)).isZero();
+        }
+        // Empty: the next token is 200ms away
+        assertThat(rateLimiter().tryAcquire("gym:1:write", FIVE_PER_SECOND)).isEqualTo(200);
+    }
+
+    @Test
+    void refillsOverTime() {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter().tryAcquire("user:7:read", FIVE_PER_SECOND);
+        }
+
+        clock.advance(100);
+        assertThat(rateLimiter().tryAcquire("user:7:read", FIVE_PER_SECOND)).isEqualTo(100);
+
+        clock.advance(100);
+        assertThat(rateLimiter().tryAcquire("user:7:read", FIVE_PER_SECOND)).isZero();
+        assertThat(rateLimiter().tryAcquire("user:7:read", FIVE_PER_SECOND)).isPositive();
+    }
+
+    @Test
+    void neverRefillsBeyondCapacity() {
+        clock.advance(60_000);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter().tryAcquire("gym:2:report", FIVE_PER_SECOND)).isZero();
+        }
+        assertThat(rateLimiter().tryAcquire("gym:2:report", FIVE_PER_SECOND)).isPositive();
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter().tryAcquire("gym:3:write", FIVE_PER_SECOND);
+        }
+
+        assertThat(rateLimiter().tryAcquire("gym:3:write", FIVE_PER_SECOND)).isPositive();
+        assertThat(rateLimiter().tryAcquire("gym:3:read", FIVE_PER_SECOND)).isZero();
+        assertThat(rateLimiter().tryAcquire("gym:4:write", FIVE_PER_SECOND)).isZero();
+    }
+
+    @Test
+    void refundGivesBackOneTokenUpToCapacity() {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter().tryAcquire("user:8:write", FIVE_PER_SECOND);
+        }
+
+        rateLimiter().refund("user:8:write", FIVE_PER_SECOND);
+        assertThat(rateLimiter().tryAcquire("user:8:write", FIVE_PER_SECOND)).isZero();
+        assertThat(rateLimiter().tryAcquire("user:8:write", FIVE_PER_SECOND)).isPositive();
+
+        clock.advance(60_000);
+        rateLimiter().refund("user:8:write", FIVE_PER_SECOND);
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter().tryAcquire("user:8:write", FIVE_PER_SECOND)).isZero();
+        }
+        assertThat(rateLimiter().tryAcquire("user:8:write", FIVE_PER_SECOND)).isPositive();
+    }
+
+    protected static class ManualClock extends Clock {
+
+        private final AtomicLong millis = new AtomicLong(Instant.parse("2026-01-05T06:00:00Z").toEpochMilli());
+
+        void advance(long deltaMillis) {
+            millis.addAndGet(deltaMillis);
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
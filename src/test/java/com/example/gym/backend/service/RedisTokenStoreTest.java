@@ -0,0 +1,51 @@
+package com.example.gym.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fppt.jedismock.RedisServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+
+/**
+ * Runs the token store contract against an in-process Redis stand-in (jedis-mock)
+ * over a real Lettuce connection, so pipelining and the Lua rotation script are exercised.
+ */
+class RedisTokenStoreTest extends TokenStoreContractTest {
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private RedisTokenStore tokenStore;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = RedisServer.newRedisServer().start();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        tokenStore = new RedisTokenStore(redisTemplate, new ObjectMapper(), ACCESS_TTL_MS, REFRESH_TTL_MS);
+    }
+
+    @Override
+    protected TokenStore tokenStore() {
+        return tokenStore;
+    }
+}
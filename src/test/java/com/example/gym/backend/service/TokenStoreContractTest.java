@@ -0,0 +1,99 @@
+package com.example.gym.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Behaviour every {@link TokenStore} implementation must share.
+ */
+abstract class TokenStoreContractTest {
+
+    protected static final long ACCESS_TTL_MS = 60_000;
+    protected static final long REFRESH_TTL_MS = 600_000;
+
+    protected abstract TokenStore tokenStore();
+
+    @Test
+    void storesAccessAndRefreshTogether() {
+        tokenStore().storeTokens("alice", "access-1", "jti-1", "refresh-1");
+
+        assertThat(tokenStore().getAccessToken("alice")).isEqualTo("access-1");
+        assertThat(tokenStore().getRefreshToken("alice")).isEqualTo("refresh-1");
+        assertThat(tokenStore().getRefreshToken("alice", "jti-1")).isEqualTo("refresh-1");
+        assertThat(tokenStore().validateAccessToken("alice", "access-1")).isTrue();
+        assertThat(tokenStore().validateRefreshToken("alice", "jti-1", "refresh-1")).isTrue();
+        assertThat(tokenStore().validateRefreshToken("alice", "jti-1", "other")).isFalse();
+    }
+
+    @Test
+    void rotationIsSingleUse() {
+        tokenStore().storeTokens("bob", "access-1", "jti-1", "refresh-1");
+
+        assertThat(tokenStore().rotateTokens("bob", "jti-1", "refresh-1", "access-2", "jti-2", "refresh-2")).isTrue();
+        assertThat(tokenStore().getAccessToken("bob")).isEqualTo("access-2");
+        assertThat(tokenStore().getRefreshToken("bob")).isEqualTo("refresh-2");
+        assertThat(tokenStore().getRefreshToken("bob", "jti-1")).isNull();
+
+        // Replaying the old refresh token must fail and leave the new pair untouched
+        assertThat(tokenStore().rotateTokens("bob", "jti-1", "refresh-1", "access-3", "jti-3", "refresh-3")).isFalse();
+        assertThat(tokenStore().getRefreshToken("bob", "jti-2")).isEqualTo("refresh-2");
+        assertThat(tokenStore().getRefreshToken("bob", "jti-3")).isNull();
+    }
+
+    @Test
+    void rotationFailsWhenNothingStored() {
+        assertThat(tokenStore().rotateTokens("nobody", "jti-1", "refresh-1", "access-2", "jti-2", "refresh-2"))
+                .isFalse();
+        assertThat(tokenStore().getAccessToken("nobody")).isNull();
+    }
+
+    @Test
+    void sessionsOnSeveralDevicesRotateIndependently() {
+        tokenStore().storeTokens("fay", "access-phone", "jti-phone", "refresh-phone");
+        tokenStore().storeTokens("fay", "access-web", "jti-web", "refresh-web");
+
+        // Logging in on the web did not take the phone's refresh token away
+        assertThat(tokenStore().rotateTokens("fay", "jti-phone", "refresh-phone",
+                "access-phone-2", "jti-phone-2", "refresh-phone-2")).isTrue();
+        assertThat(tokenStore().rotateTokens("fay", "jti-web", "refresh-web",
+                "access-web-2", "jti-web-2", "refresh-web-2")).isTrue();
+
+        assertThat(tokenStore().getRefreshToken("fay", "jti-phone-2")).isEqualTo("refresh-phone-2");
+        assertThat(tokenStore().getRefreshToken("fay", "jti-web-2")).isEqualTo("refresh-web-2");
+    }
+
+    @Test
+    void deleteTokensRemovesEverythingForUser() {
+        tokenStore().storeTokens("carol", "access-1", "jti-1", "refresh-1");
+        tokenStore().storeTokens("carol", "access-2", "jti-2", "refresh-2");
+        tokenStore().storeUserSession("carol", Map.of("role", "ADMIN"));
+        tokenStore().storeTokens("dave", "access-d", "jti-d", "refresh-d");
+
+        tokenStore().deleteTokens("carol");
+
+        assertThat(tokenStore().getAccessToken("carol")).isNull();
+        assertThat(tokenStore().getRefreshToken("carol")).isNull();
+        assertThat(tokenStore().getRefreshToken("carol", "jti-1")).isNull();
+        assertThat(tokenStore().getRefreshToken("carol", "jti-2")).isNull();
+        assertThat(tokenStore().getUserSession("carol")).isNull();
+        assertThat(tokenStore().getAccessToken("dave")).isEqualTo("access-d");
+        assertThat(tokenStore().getRefreshToken("dave", "jti-d")).isEqualTo("refresh-d");
+    }
+
+    @Test
+    void sessionRoundTrips() {
+        Map<String, Object> session = new HashMap<>();
+        session.put("role", "RECEPTIONIST");
+        session.put("name", "Erin Smith");
+        session.put("gymId", null);
+
+        tokenStore().storeUserSession("erin", session);
+
+        Map<String, Object> stored = tokenStore().getUserSession("erin");
+        assertThat(stored).containsEntry("role", "RECEPTIONIST").containsEntry("name", "Erin Smith");
+    }
+}
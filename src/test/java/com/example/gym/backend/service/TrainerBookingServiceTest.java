@@ -0,0 +1,186 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.dto.AvailabilityWindowDto;
+import com.example.gym.backend.dto.FreeSlotDto;
+import com.example.gym.backend.dto.TrainerBookingDto;
+import com.example.gym.backend.entity.Gym;
+import com.example.gym.backend.entity.Member;
+import com.example.gym.backend.entity.Trainer;
+import com.example.gym.backend.entity.User;
+import com.example.gym.backend.exception.ConflictException;
+import com.example.gym.backend.util.PageLimits;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Books trainers on H2 with the default 30-minute grid.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TrainerBookingService.class, PageLimits.class})
+class TrainerBookingServiceTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(7);
+
+    @DynamicPropertySource
+    static void dataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:trainer-bookings;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.flyway.enabled", () -> "false");
+    }
+
+    @Autowired
+    private TrainerBookingService bookingService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final User admin = new User();
+    private Trainer trainer;
+    private Trainer otherTrainer;
+    private Member member;
+    private Member otherMember;
+
+    @BeforeEach
+    void seed() {
+        admin.setRole(User.UserRole.SUPER_USER);
+        Gym gym = new Gym();
+        gym.setGymCode("TB1");
+        gym.setName("Booking Gym");
+        entityManager.persist(gym);
+
+        trainer = trainer("one", gym);
+        otherTrainer = trainer("two", gym);
+        member = member("A", gym);
+        otherMember = member("B", gym);
+        entityManager.flush();
+
+        List<AvailabilityWindowDto> morning =
+                List.of(new AvailabilityWindowDto(DAY.getDayOfWeek(), LocalTime.of(9, 0), LocalTime.of(12, 0)));
+        bookingService.setAvailability(admin, trainer.getId(), morning);
+        bookingService.setAvailability(admin, otherTrainer.getId(), morning);
+    }
+
+    @Test
+    void bookedTimeIsSubtractedFromFreeSlots() {
+        bookingService.book(admin, request(trainer, member, 10, 0, 11, 0));
+
+        assertEquals(List.of(
+                new FreeSlotDto(DAY, LocalTime.of(9, 0), LocalTime.of(10, 0)),
+                new FreeSlotDto(DAY, LocalTime.of(11, 0), LocalTime.of(12, 0))),
+                bookingService.getFreeSlots(admin, trainer.getId(), DAY, DAY));
+        assertEquals(List.of(new FreeSlotDto(DAY, LocalTime.of(9, 0), LocalTime.of(12, 0))),
+                bookingService.getFreeSlots(admin, otherTrainer.getId(), DAY, DAY));
+    }
+
+    @Test
+    void overlappingBookingOfTheTrainerConflicts() {
+        bookingService.book(admin, request(trainer, member, 10, 0, 11, 0));
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.book(admin, request(trainer, otherMember, 10, 30, 11, 30)));
+    }
+
+    @Test
+    void overlappingBookingOfTheMemberConflicts() {
+        bookingService.book(admin, request(trainer, member, 10, 0, 11, 0));
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.book(admin, request(otherTrainer, member, 9, 30, 10, 30)));
+    }
+
+    @Test
+    void adjacentBookingsDoNotConflict() {
+        bookingService.book(admin, request(trainer, member, 10, 0, 11, 0));
+        bookingService.book(admin, request(trainer, otherMember, 11, 0, 11, 30));
+        bookingService.book(admin, request(otherTrainer, member, 9, 0, 10, 0));
+
+        assertEquals(List.of(
+                new FreeSlotDto(DAY, LocalTime.of(9, 0), LocalTime.of(10, 0)),
+                new FreeSlotDto(DAY, LocalTime.of(11, 30), LocalTime.of(12, 0))),
+                bookingService.getFreeSlots(admin, trainer.getId(), DAY, DAY));
+    }
+
+    @Test
+    void slotRowsAreUniquePerTrainerAndPerMember() {
+        TrainerBookingDto booking = bookingService.book(admin, request(trainer, member, 10, 0, 10, 30));
+        String insert = "INSERT INTO trainer_booking_slots (trainer_id, member_id, booking_id, slot_start) VALUES (?, ?, ?, ?)";
+        Timestamp slot = Timestamp.valueOf(DAY.atTime(10, 0));
+
+        // What decides two bookings racing past the friendly checks
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(insert,
+                trainer.getId(), otherMember.getId(), booking.getId(), slot));
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(insert,
+                otherTrainer.getId(), member.getId(), booking.getId(), slot));
+    }
+
+    @Test
+    void cancellingFreesTheSlots() {
+        TrainerBookingDto booking = bookingService.book(admin, request(trainer, member, 10, 0, 11, 0));
+
+        bookingService.cancel(admin, booking.getId());
+
+        assertEquals(List.of(new FreeSlotDto(DAY, LocalTime.of(9, 0), LocalTime.of(12, 0))),
+                bookingService.getFreeSlots(admin, trainer.getId(), DAY, DAY));
+        assertThrows(ConflictException.class, () -> bookingService.cancel(admin, booking.getId()));
+    }
+
+    private static TrainerBookingDto request(Trainer trainer, Member member, int startHour, int startMinute,
+                                             int endHour, int endMinute) {
+        TrainerBookingDto request = new TrainerBookingDto();
+        request.setTrainerId(trainer.getId());
+        request.setMemberId(member.getId());
+        request.setBookingDate(DAY);
+        request.setStartTime(LocalTime.of(startHour, startMinute));
+        request.setEndTime(LocalTime.of(endHour, endMinute));
+        return request;
+    }
+
+    private Trainer trainer(String name, Gym gym) {
+        Trainer trainer = new Trainer();
+        trainer.setFirstName("Trainer");
+        trainer.setLastName(name);
+        trainer.setEmail(name + "@trainers.example.com");
+        trainer.setPhone("9100000000");
+        trainer.setGym(gym);
+        entityManager.persist(trainer);
+        return trainer;
+    }
+
+    private Member member(String code, Gym gym) {
+        Member member = new Member();
+        member.setMemberCode("TB-" + code);
+        member.setFirstName("Member");
+        member.setLastName(code);
+        member.setEmail("member-" + code + "@example.com");
+        member.setPhone("920000000" + code.length());
+        member.setGym(gym);
+        member.setJoinDate(LocalDate.now());
+        entityManager.persist(member);
+        return member;
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.gym.backend.service;
+
+import com.example.gym.backend.entity.Trainer;
+import com.example.gym.backend.entity.TrainerReview;
+import com.example.gym.backend.repository.BatchJobStateRepository;
+import com.example.gym.backend.repository.TrainerRepository;
+import com.example.gym.backend.repository.TrainerReviewRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the nightly rating reconciliation on H2 over trainers whose maintained ratings
+ * do and do not match their reviews and hand-entered ratings. Batches of two, so the
+ * keyset walk crosses batches.
+ */
+@DataJpaTest(properties = "app.trainer-rating.reconcile-batch-size=2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TrainerRatingReconciliationService.class, BatchJobCoordinator.class, TrainerLeaderboardCache.class,
+        TrainerRatingReconciliationServiceTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TrainerRatingReconciliationServiceTest {
+
+    @DynamicPropertySource
+    static void dataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:rating-reconcile;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.flyway.enabled", () -> "false");
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    private final AtomicLong sessionIds = new AtomicLong();
+
+    @Autowired
+    private TrainerRatingReconciliationService reconciliationService;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private TrainerReviewRepository trainerReviewRepository;
+
+    @Autowired
+    private BatchJobStateRepository jobStateRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        trainerReviewRepository.deleteAll();
+        trainerRepository.deleteAll();
+        jobStateRepository.deleteAll();
+    }
+
+    @Test
+    void fixesOnlyTrainersThatDrifted() {
+        Long consistent = trainer("consistent");
+        review(consistent, 5);
+        review(consistent, 4);
+        Long drifted = trainer("drifted");
+        review(drifted, 3);
+        jdbcTemplate.update("UPDATE trainers SET rating_sum = 10, total_ratings = 2, rating = 5.00 WHERE id = ?", drifted);
+        Long unreviewed = trainer("unreviewed");
+
+        assertEquals(1, reconciliationService.reconcile(LocalDate.now()));
+
+        assertRating(consistent, "9", 2, "4.50");
+        assertRating(drifted, "3", 1, "3.00");
+        assertRating(unreviewed, "0", 0, "0.00");
+    }
+
+    @Test
+    void keepsHandEnteredRatings() {
+        Long legacyOnly = trainer("legacy-only");
+        legacy(legacyOnly, "4.00", 5);
+        Long legacyAndReviews = trainer("legacy-and-reviews");
+        legacy(legacyAndReviews, "4.00", 2);
+        review(legacyAndReviews, 5);
+
+        assertEquals(0, reconciliationService.reconcile(LocalDate.now()));
+
+        assertRating(legacyOnly, "20", 5, "4.00");
+        assertRating(legacyAndReviews, "13", 3, "4.33");
+    }
+
+    @Test
+    void keepsFractionalHandEnteredAverages() {
+        Long trainer = trainer("legacy-fractional");
+        legacy(trainer, "4.37", 3);
+
+        assertEquals(0, reconciliationService.reconcile(LocalDate.now()));
+        assertRating(trainer, "13.11", 3, "4.37");
+
+        // 18.11 / 4 = 4.5275, rounded to the column's two decimals
+        review(trainer, 5);
+        assertRating(trainer, "18.11", 4, "4.53");
+        assertEquals(0, reconciliationService.reconcile(LocalDate.now().plusDays(1)));
+    }
+
+    @Test
+    void addsHandEnteredRatingsBackWhenFixingDrift() {
+        Long trainer = trainer("legacy-drifted");
+        legacy(trainer, "4.00", 2);
+        review(trainer, 5);
+        jdbcTemplate.update("UPDATE trainers SET rating_sum = 5, total_ratings = 1, rating = 5.00 WHERE id = ?", trainer);
+
+        assertEquals(1, reconciliationService.reconcile(LocalDate.now()));
+
+        assertRating(trainer, "13", 3, "4.33");
+    }
+
+    private Long trainer(String name) {
+        Trainer trainer = new Trainer();
+        trainer.setFirstName("Trainer");
+        trainer.setLastName(name);
+        trainer.setEmail(name + "@trainers.example.com");
+        trainer.setPhone("9100000000");
+        return trainerRepository.save(trainer).getId();
+    }
+
+    // Like V11: hand-entered ratings become the legacy offset and the starting totals
+    private void legacy(Long trainerId, String rating, int count) {
+        jdbcTemplate.update("UPDATE trainers SET rating = ?, total_ratings = ? WHERE id = ?",
+                new BigDecimal(rating), count, trainerId);
+        jdbcTemplate.update("UPDATE trainers SET legacy_ratings = total_ratings, legacy_rating_sum = rating * total_ratings, "
+                + "rating_sum = rating * total_ratings WHERE id = ?", trainerId);
+    }
+
+    // Stores a review and applies it the way TrainerReviewService does
+    private void review(Long trainerId, int rating) {
+        TrainerReview review = new TrainerReview();
+        review.setTrainerId(trainerId);
+        review.setMemberId(1L);
+        review.setWorkoutSessionId(sessionIds.incrementAndGet());
+        review.setRating(rating);
+        trainerReviewRepository.save(review);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                trainerRepository.applyRating(trainerId, rating));
+    }
+
+    private void assertRating(Long trainerId, String sum, int count, String rating) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT rating_sum, total_ratings, rating FROM trainers WHERE id = ?", trainerId);
+        assertEquals(0, new BigDecimal(sum).compareTo((BigDecimal) row.get("rating_sum")),
+                "rating_sum " + row.get("rating_sum"));
+        assertEquals(count, ((Number) row.get("total_ratings")).intValue());
+        assertEquals(0, new BigDecimal(rating).compareTo((BigDecimal) row.get("rating")),
+                "rating " + row.get("rating"));
+    }
+}
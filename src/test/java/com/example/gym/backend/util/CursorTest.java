@@ -0,0 +1,79 @@
+package com.example.gym.backend.util;
+
+import com.example.gym.backend.dto.CursorPage;
+import com.example.gym.backend.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorTest {
+
+    @Test
+    void idCursorRoundTrips() {
+        assertEquals(42L, Cursor.decode(Cursor.encode(42L)));
+        assertEquals(Long.MAX_VALUE, Cursor.decode(Cursor.encode(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void dateCursorRoundTrips() {
+        LocalDate date = LocalDate.of(2026, 3, 1);
+
+        assertEquals(new Cursor.Position(date, 7L), Cursor.decodePosition(Cursor.encode(date, 7L)));
+    }
+
+    @Test
+    void missingCursorStartsAtTheFirstPage() {
+        assertEquals(0L, Cursor.decode(null));
+        assertEquals(0L, Cursor.decode(" "));
+        assertNull(Cursor.decodePosition(null));
+        assertNull(Cursor.decodePosition(""));
+    }
+
+    @Test
+    void rejectsCursorsItDidNotProduce() {
+        assertThrows(BadRequestException.class, () -> Cursor.decode("not base64!"));
+        assertThrows(BadRequestException.class, () -> Cursor.decode(encoded("42")));
+        assertThrows(BadRequestException.class, () -> Cursor.decode(encoded("id:-1")));
+        assertThrows(BadRequestException.class, () -> Cursor.decode(encoded("id:abc")));
+        // A date cursor is not an id cursor and the other way round
+        assertThrows(BadRequestException.class, () -> Cursor.decode(Cursor.encode(LocalDate.now(), 1L)));
+        assertThrows(BadRequestException.class, () -> Cursor.decodePosition(Cursor.encode(1L)));
+        assertThrows(BadRequestException.class, () -> Cursor.decodePosition(encoded("at:2026-13-01/1")));
+    }
+
+    @Test
+    void pageHasANextCursorOnlyWhenMoreRowsWereFetched() {
+        // Fetched with size + 1 rows: the extra row only signals another page
+        CursorPage<Long> first = CursorPage.of(List.of(1L, 2L, 3L), 2, Function.identity(), Function.identity());
+        assertEquals(List.of(1L, 2L), first.getContent());
+        assertEquals(2L, Cursor.decode(first.getNextCursor()));
+
+        CursorPage<Long> last = CursorPage.of(List.of(3L), 2, Function.identity(), Function.identity());
+        assertEquals(List.of(3L), last.getContent());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void datePageContinuesAfterItsLastRow() {
+        LocalDate today = LocalDate.of(2026, 3, 1);
+        List<Long> rows = List.of(9L, 8L, 7L);
+
+        CursorPage<Long> page = CursorPage.of(rows, 2, id -> today.minusDays(10 - id), Function.identity(),
+                Function.identity());
+
+        assertEquals(List.of(9L, 8L), page.getContent());
+        assertEquals(new Cursor.Position(today.minusDays(2), 8L), Cursor.decodePosition(page.getNextCursor()));
+    }
+
+    private static String encoded(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.gym.backend.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExerciseLogSchemaTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String validate(String json) throws Exception {
+        JsonNode exercises = json == null ? null : objectMapper.readTree(json);
+        return ExerciseLogSchema.validate(exercises);
+    }
+
+    @Test
+    void acceptsMissingEmptyAndWellFormedLogs() throws Exception {
+        assertNull(validate(null));
+        assertNull(validate("null"));
+        assertNull(validate("[]"));
+        assertNull(validate("[{\"name\": \"Squat\", \"sets\": 3, \"reps\": 10, \"weightKg\": 62.5},"
+                + " {\"name\": \"Row\", \"distanceMeters\": 2000.5, \"durationSeconds\": 480, \"notes\": \"easy\"},"
+                + " {\"name\": \"Plank\", \"tempo\": \"slow\"}]"));
+    }
+
+    @Test
+    void rejectsAnythingButAnArrayOfNamedExercises() throws Exception {
+        assertEquals("exercises must be an array", validate("{\"name\": \"Squat\"}"));
+        assertEquals("exercises[0]: must be an object", validate("[\"Squat\"]"));
+        assertEquals("exercises[1]: name is required", validate("[{\"name\": \"Squat\"}, {\"sets\": 3}]"));
+        assertEquals("exercises[0]: name is required", validate("[{\"name\": \"  \"}]"));
+    }
+
+    @Test
+    void rejectsOutOfRangeAndFractionalCounts() throws Exception {
+        assertEquals("exercises[0]: reps must be a number from 0 to 1000",
+                validate("[{\"name\": \"Squat\", \"reps\": -1}]"));
+        assertEquals("exercises[0]: sets must be a number from 0 to 100",
+                validate("[{\"name\": \"Squat\", \"sets\": \"3\"}]"));
+        assertEquals("exercises[0]: sets must be a whole number",
+                validate("[{\"name\": \"Squat\", \"sets\": 2.5}]"));
+    }
+
+    @Test
+    void limitsTheNumberOfExercises() throws Exception {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i <= ExerciseLogSchema.MAX_EXERCISES; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"name\": \"Lap\"}");
+        }
+        assertEquals("at most 100 exercises per session", validate(json.append("]").toString()));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.gym.backend.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PageLimitsTest {
+
+    private final PageLimits pageLimits = new PageLimits();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(pageLimits, "defaultPageSize", 50);
+        ReflectionTestUtils.setField(pageLimits, "maxPageSize", 200);
+        ReflectionTestUtils.setField(pageLimits, "maxListSize", 3);
+    }
+
+    @Test
+    void clampsRequestedPageSize() {
+        assertEquals(50, pageLimits.pageSize(null));
+        assertEquals(20, pageLimits.pageSize(20));
+        assertEquals(200, pageLimits.pageSize(10_000));
+        assertEquals(1, pageLimits.pageSize(0));
+        assertEquals(1, pageLimits.pageSize(-5));
+    }
+
+    @Test
+    void keysetPageFetchesOneExtraRow() {
+        assertEquals(0, pageLimits.keysetPage(20).getPageNumber());
+        assertEquals(21, pageLimits.keysetPage(20).getPageSize());
+    }
+
+    @Test
+    void listCapStopsAtMaxListSize() {
+        assertEquals(3, pageLimits.listCap().getPageSize());
+        assertEquals(3, pageLimits.maxListSize());
+
+        // Returned as is, whether cut off or not; truncation is only logged
+        List<Integer> full = List.of(1, 2, 3);
+        List<Integer> partial = List.of(1, 2);
+        assertSame(full, pageLimits.capped(full, "Test list"));
+        assertSame(partial, pageLimits.capped(partial, "Test list"));
+    }
+}
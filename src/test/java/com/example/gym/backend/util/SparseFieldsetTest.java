@@ -0,0 +1,46 @@
+package com.example.gym.backend.util;
+
+import com.example.gym.backend.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SparseFieldsetTest {
+
+    private static final Map<String, String> AVAILABLE = SparseFieldset.available("id", "firstName", "gymId=gym.id");
+
+    @Test
+    void mapsFieldsToAttributePaths() {
+        assertEquals(Map.of("id", "id", "firstName", "firstName", "gymId", "gym.id"), AVAILABLE);
+    }
+
+    @Test
+    void keepsRequestOrderAndSkipsBlankEntries() {
+        SparseFieldset fields = SparseFieldset.parse(" gymId, ,id,,firstName ", AVAILABLE);
+
+        assertEquals(List.of("gymId", "id", "firstName"), List.copyOf(fields.paths().keySet()));
+        assertEquals("gym.id", fields.paths().get("gymId"));
+    }
+
+    @Test
+    void returnsNullWhenNothingIsRequested() {
+        assertNull(SparseFieldset.parse(null, AVAILABLE));
+        assertNull(SparseFieldset.parse("  ", AVAILABLE));
+        assertNull(SparseFieldset.parse(", ,", AVAILABLE));
+    }
+
+    @Test
+    void rejectsFieldsTheEndpointDoesNotOffer() {
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> SparseFieldset.parse("id,passwordHash", AVAILABLE));
+
+        assertTrue(e.getMessage().contains("passwordHash"));
+        assertTrue(e.getMessage().contains("id,firstName,gymId"));
+    }
+}
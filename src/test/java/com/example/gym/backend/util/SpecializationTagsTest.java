@@ -0,0 +1,32 @@
+package com.example.gym.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpecializationTagsTest {
+
+    @Test
+    void splitsOnSeparatorsAndNormalizesEachPart() {
+        assertEquals(List.of("yoga", "strength training", "hiit", "pilates"),
+                List.copyOf(SpecializationTags.parse(" Yoga, Strength   Training / HIIT;pilates |")));
+    }
+
+    @Test
+    void dropsBlankAndDuplicateParts() {
+        assertEquals(List.of("yoga"), List.copyOf(SpecializationTags.parse("yoga,, YOGA ,  ")));
+        assertTrue(SpecializationTags.parse("  ").isEmpty());
+        assertTrue(SpecializationTags.parse(null).isEmpty());
+    }
+
+    @Test
+    void normalizesSearchTermsLikeTags() {
+        assertEquals("strength training", SpecializationTags.normalize("  Strength\tTraining "));
+        assertNull(SpecializationTags.normalize("   "));
+        assertEquals(SpecializationTags.MAX_LENGTH, SpecializationTags.normalize("x".repeat(150)).length());
+    }
+}